@@ -0,0 +1,219 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.axis2.databinding.utils;
+
+import java.beans.IntrospectionException;
+import java.beans.PropertyDescriptor;
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.apache.axis2.classloader.BeanInfoCache;
+
+/**
+ * Precomputed view of the properties of a bean class, as used by {@link BeanUtil} to serialize
+ * and deserialize POJOs. Building the plan (introspection, accessor lookup,
+ * {@link Method#setAccessible(boolean)} and the name indexes) is done once per class instead of
+ * once per bean.
+ * <p>
+ * Plans are stored with {@link ClassValue}, i.e. they are attached to the bean class itself and
+ * are unloaded together with the class loader of a redeployed service.
+ */
+final class BeanPropertyPlan {
+    /**
+     * A single property of the bean.
+     */
+    static final class Property {
+        private final PropertyDescriptor descriptor;
+        private final Method readMethod;
+        private final Method writeMethod;
+
+        Property(PropertyDescriptor descriptor, Method readMethod, Method writeMethod) {
+            this.descriptor = descriptor;
+            this.readMethod = readMethod;
+            this.writeMethod = writeMethod;
+        }
+
+        PropertyDescriptor getDescriptor() {
+            return descriptor;
+        }
+
+        /**
+         * @return the (accessible) getter of the property, or <code>null</code> if there is none
+         */
+        Method getReadMethod() {
+            return readMethod;
+        }
+
+        /**
+         * @return the (accessible) setter of the property, or <code>null</code> if there is none
+         */
+        Method getWriteMethod() {
+            return writeMethod;
+        }
+    }
+
+    /**
+     * Plans covering all properties of a class, including inherited ones.
+     */
+    private static final ClassValue<BeanPropertyPlan> plans = new ClassValue<BeanPropertyPlan>() {
+        @Override
+        protected BeanPropertyPlan computeValue(Class<?> beanClass) {
+            return new BeanPropertyPlan(beanClass, null);
+        }
+    };
+
+    /**
+     * Plans covering only the properties declared by the class itself (i.e. with the superclass
+     * as stop class).
+     */
+    private static final ClassValue<BeanPropertyPlan> declaredPlans = new ClassValue<BeanPropertyPlan>() {
+        @Override
+        protected BeanPropertyPlan computeValue(Class<?> beanClass) {
+            return new BeanPropertyPlan(beanClass, beanClass.getSuperclass());
+        }
+    };
+
+    private final Property[] properties;
+    private final IntrospectionException failure;
+
+    /**
+     * Property indexes by name, ignoring case; if two properties only differ in case, the last
+     * one wins (which is what deserialization has always done).
+     */
+    private final Map<String,Integer> indexesIgnoreCase =
+            new TreeMap<String,Integer>(String.CASE_INSENSITIVE_ORDER);
+    private final Map<String,Integer> indexes = new HashMap<String,Integer>();
+
+    private BeanPropertyPlan(Class<?> beanClass, Class<?> stopClass) {
+        PropertyDescriptor[] descriptors;
+        IntrospectionException failure = null;
+        try {
+            descriptors = BeanInfoCache.getCachedBeanInfo(beanClass, stopClass)
+                    .getPropertyDescriptors();
+        } catch (IntrospectionException ex) {
+            descriptors = new PropertyDescriptor[0];
+            failure = ex;
+        }
+        this.failure = failure;
+        properties = new Property[descriptors.length];
+        for (int i = 0; i < descriptors.length; i++) {
+            PropertyDescriptor descriptor = descriptors[i];
+            properties[i] = new Property(descriptor,
+                    makeAccessible(getReadMethod(beanClass, descriptor)),
+                    makeAccessible(descriptor.getWriteMethod()));
+            indexesIgnoreCase.put(descriptor.getName(), i);
+            indexes.put(descriptor.getName(), i);
+        }
+    }
+
+    /**
+     * Get the plan for all properties of the given class.
+     *
+     * @param beanClass the bean class
+     * @return the plan
+     * @throws IntrospectionException if the class could not be introspected
+     */
+    static BeanPropertyPlan getPlan(Class<?> beanClass) throws IntrospectionException {
+        return plans.get(beanClass).check();
+    }
+
+    /**
+     * Get the plan for the properties declared by the given class, excluding those inherited from
+     * its superclass.
+     *
+     * @param beanClass the bean class
+     * @return the plan
+     * @throws IntrospectionException if the class could not be introspected
+     */
+    static BeanPropertyPlan getDeclaredPlan(Class<?> beanClass) throws IntrospectionException {
+        return declaredPlans.get(beanClass).check();
+    }
+
+    private BeanPropertyPlan check() throws IntrospectionException {
+        if (failure != null) {
+            throw failure;
+        }
+        return this;
+    }
+
+    /**
+     * Get the getter for a property. For <code>java.lang.Boolean</code> properties, JavaBeans
+     * only recognizes <code>getXxx</code>, so also look for <code>isXxx</code>.
+     */
+    private static Method getReadMethod(Class<?> beanClass, PropertyDescriptor descriptor) {
+        Method readMethod = descriptor.getReadMethod();
+        if (readMethod == null && descriptor.getPropertyType() == Boolean.class) {
+            Method writeMethod = descriptor.getWriteMethod();
+            if (writeMethod != null) {
+                String writeMethodName = writeMethod.getName();
+                try {
+                    readMethod = new PropertyDescriptor(descriptor.getName(), beanClass,
+                            "is" + writeMethodName.substring(3), writeMethodName).getReadMethod();
+                } catch (IntrospectionException ex) {
+                    // There is no isXxx method
+                }
+            }
+        }
+        return readMethod;
+    }
+
+    private static Method makeAccessible(Method method) {
+        if (method != null) {
+            try {
+                method.setAccessible(true);
+            } catch (RuntimeException ex) {
+                // Not allowed; public methods can still be invoked
+            }
+        }
+        return method;
+    }
+
+    int size() {
+        return properties.length;
+    }
+
+    Property getProperty(int index) {
+        return properties[index];
+    }
+
+    /**
+     * Look up a property by name.
+     *
+     * @param name the property name
+     * @return the index of the property, or -1 if there is no such property
+     */
+    int indexOf(String name) {
+        Integer index = indexes.get(name);
+        return index == null ? -1 : index;
+    }
+
+    /**
+     * Look up a property by name, ignoring case.
+     *
+     * @param name the property name
+     * @return the index of the property, or -1 if there is no such property
+     */
+    int indexOfIgnoreCase(String name) {
+        Integer index = indexesIgnoreCase.get(name);
+        return index == null ? -1 : index;
+    }
+}
@@ -20,7 +20,6 @@
 package org.apache.axis2.databinding.utils;
 
 
-import java.beans.BeanInfo;
 import java.beans.IntrospectionException;
 import java.beans.PropertyDescriptor;
 import java.lang.reflect.Array;
@@ -30,7 +29,6 @@ import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -58,7 +56,6 @@ import org.apache.axiom.om.*;
 import org.apache.axiom.util.activation.DataHandlerUtils;
 import org.apache.axiom.util.base64.Base64Utils;
 import org.apache.axis2.AxisFault;
-import org.apache.axis2.classloader.BeanInfoCache;
 import org.apache.axis2.context.MessageContext;
 import org.apache.axis2.databinding.typemapping.SimpleTypeMapper;
 import org.apache.axis2.databinding.utils.reader.ADBXMLStreamReaderImpl;
@@ -112,14 +109,6 @@ public class BeanUtil {
     }
 
 
-    private static BeanInfo getBeanInfo(Class beanClass, Class beanSuperclass) throws IntrospectionException {
-        return BeanInfoCache.getCachedBeanInfo(beanClass, beanSuperclass);
-    }
-
-    private static BeanInfo getBeanInfo(Class beanClass) throws IntrospectionException {
-        return getBeanInfo(beanClass, null);
-    }
-
     private static List<Object> getPropertyQnameList(Object beanObject,
                                                      Class<?> beanClass,
                                                      QName beanName,
@@ -159,9 +148,10 @@ public class BeanUtil {
             if (axisService != null && axisService.getExcludeInfo() != null) {
                 beanExcludeInfo = axisService.getExcludeInfo().getBeanExcludeInfoForClass(beanClass.getName());
             }
-            BeanInfo beanInfo = getBeanInfo(beanClass, beanClass.getSuperclass());
-            PropertyDescriptor[] properties = beanInfo.getPropertyDescriptors();
-            for (PropertyDescriptor property : properties) {
+            BeanPropertyPlan plan = BeanPropertyPlan.getDeclaredPlan(beanClass);
+            for (int i = 0; i < plan.size(); i++) {
+                BeanPropertyPlan.Property planProperty = plan.getProperty(i);
+                PropertyDescriptor property = planProperty.getDescriptor();
                 String propertyName = property.getName();
                 Class<?> ptype = property.getPropertyType();
                 if (propertyName.equals("class") ||
@@ -169,25 +159,11 @@ public class BeanUtil {
                     continue;
                 }
 
-                Method readMethod = property.getReadMethod();
-                if (readMethod == null) {
-                    Class propertyType = property.getPropertyType();
-                    if (propertyType == java.lang.Boolean.class) {
-                        Method writeMethod = property.getWriteMethod();
-                        if (writeMethod != null) {
-                            String tmpWriteMethodName = writeMethod.getName();
-                            PropertyDescriptor tmpPropDesc =
-                                    new PropertyDescriptor(property.getName(),
-                                            beanObject.getClass(),
-                                            "is" + tmpWriteMethodName.substring(3),
-                                            tmpWriteMethodName);
-                            readMethod = tmpPropDesc.getReadMethod();
-                        }
-                    }
-                }
+                // The plan has already resolved the getter (including the isXxx fallback for
+                // java.lang.Boolean properties) and made it accessible
+                Method readMethod = planProperty.getReadMethod();
                 Object value;
                 if (readMethod != null) {
-                    readMethod.setAccessible(true);
                     value = readMethod.invoke(beanObject);
                 } else {
                     throw new AxisFault("Property '" + propertyName + "' in bean class '"
@@ -543,25 +519,13 @@ public class BeanUtil {
                     return beanElement.getFirstOMChild();
                 }
 
-                //use a comaprator to ignore the case of the bean element
+                //look up properties ignoring the case of the bean element
                 //names eg. if the property descriptor is getServiceName it
                 //should accept child element with ServiceName as well.
-                //but currently accepts only serviceName
-                Comparator comparator = new Comparator() {
-                    public int compare(Object o1, Object o2) {
-                        String string1 = (String) o1;
-                        String string2 = (String) o2;
-                        return string1.compareToIgnoreCase(string2);
-                    }
-                };
-                Map<String, PropertyDescriptor> properties = new TreeMap<String, PropertyDescriptor>(comparator);
-
-
-                BeanInfo beanInfo = getBeanInfo(beanClass);
-                PropertyDescriptor[] propDescs = beanInfo.getPropertyDescriptors();
-                for (PropertyDescriptor proprty : propDescs) {
-                    properties.put(proprty.getName(), proprty);
-                }
+                BeanPropertyPlan plan = BeanPropertyPlan.getPlan(beanClass);
+                // Each property is only set once; subsequent elements with the same name
+                // (e.g. array items) have been processed together with the first one
+                boolean[] processed = new boolean[plan.size()];
                 Iterator elements = beanElement.getChildren();
                 beanObj = objectSupplier.getObject(beanClass);
                 while (elements.hasNext()) {
@@ -581,8 +545,11 @@ public class BeanUtil {
                     // if parts/@href != null then need to find element with id and deserialize.
                     // before that first check whether we already have it in the hashtable
                     String partsLocalName = parts.getLocalName();
-                    PropertyDescriptor prty = properties.remove(partsLocalName);
-                    if (prty != null) {
+                    int index = plan.indexOfIgnoreCase(partsLocalName);
+                    if (index != -1 && !processed[index]) {
+                        processed[index] = true;
+                        BeanPropertyPlan.Property planProperty = plan.getProperty(index);
+                        PropertyDescriptor prty = planProperty.getDescriptor();
                         Class parameters = prty.getPropertyType();
                         if (prty.getName().equals("class"))
                             continue;
@@ -631,11 +598,9 @@ public class BeanUtil {
                                 partObj = deserialize(parameters, parts, objectSupplier, null);
                             }
                         }
-                        Object[] parms = new Object[]{partObj};
-                        Method writeMethod = prty.getWriteMethod();
+                        Method writeMethod = planProperty.getWriteMethod();
                         if (writeMethod != null) {
-                            writeMethod.setAccessible(true);
-                            writeMethod.invoke(beanObj, parms);
+                            writeMethod.invoke(beanObj, new Object[]{partObj});
                         }
                     }
                 }
@@ -660,12 +625,7 @@ public class BeanUtil {
                                      ObjectSupplier objectSupplier) throws AxisFault {
         Object beanObj;
         try {
-            HashMap<String, PropertyDescriptor> properties = new HashMap<String, PropertyDescriptor>();
-            BeanInfo beanInfo = getBeanInfo(beanClass);
-            PropertyDescriptor[] propDescs = beanInfo.getPropertyDescriptors();
-            for (PropertyDescriptor proprty : propDescs) {
-                properties.put(proprty.getName(), proprty);
-            }
+            BeanPropertyPlan plan = BeanPropertyPlan.getPlan(beanClass);
 
             beanObj = objectSupplier.getObject(beanClass);
             Iterator elements = beanElement.getChildren();
@@ -678,9 +638,10 @@ public class BeanUtil {
                     continue;
                 }
                 String partsLocalName = parts.getLocalName();
-                PropertyDescriptor prty = properties.get(
-                        partsLocalName.toLowerCase());
-                if (prty != null) {
+                int index = plan.indexOf(partsLocalName.toLowerCase());
+                if (index != -1) {
+                    BeanPropertyPlan.Property planProperty = plan.getProperty(index);
+                    PropertyDescriptor prty = planProperty.getDescriptor();
                     Class parameters = prty.getPropertyType();
                     if (prty.getName().equals("class"))
                         continue;
@@ -698,11 +659,9 @@ public class BeanUtil {
                             partObj = deserialize(parameters, parts, objectSupplier, null);
                         }
                     }
-                    Object[] parms = new Object[]{partObj};
-                    Method writeMethod = prty.getWriteMethod();
+                    Method writeMethod = planProperty.getWriteMethod();
                     if (writeMethod != null) {
-                        writeMethod.setAccessible(true);
-                        writeMethod.invoke(beanObj, parms);
+                        writeMethod.invoke(beanObj, new Object[]{partObj});
                     }
                 }
             }
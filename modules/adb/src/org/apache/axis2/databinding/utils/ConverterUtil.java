@@ -82,6 +82,11 @@ import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.text.NumberFormat;
 import java.text.ParseException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
 import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Date;
@@ -100,6 +105,8 @@ public class ConverterUtil {
     private static final String POSITIVE_INFINITY = "INF";
     private static final String NEGATIVE_INFINITY = "-INF";
 
+    private static final TimeZone GMT = TimeZone.getTimeZone("GMT");
+
     public static final String SYSTEM_PROPERTY_ADB_CONVERTERUTIL = "adb.converterutil";
 
     private static boolean isCustomClassPresent;
@@ -160,54 +167,53 @@ public class ConverterUtil {
 
     public static void appendTimeZone(Calendar calendar, StringBuffer dateString) {
         int timezoneOffSet = calendar.get(Calendar.ZONE_OFFSET) + calendar.get(Calendar.DST_OFFSET);
-        int timezoneOffSetInMinits = timezoneOffSet / 60000;
+        appendTimeZoneOffset(timezoneOffSet / 60000, dateString);
+    }
+
+    private static void appendTimeZoneOffset(int timezoneOffSetInMinits, StringBuffer dateString) {
         if (timezoneOffSetInMinits < 0){
-            dateString.append("-");
+            dateString.append('-');
             timezoneOffSetInMinits = timezoneOffSetInMinits * -1;
         } else {
-            dateString.append("+");
-        }
-        int hours = timezoneOffSetInMinits / 60;
-        int minits = timezoneOffSetInMinits % 60;
-
-        if (hours < 10) {
-            dateString.append("0");
+            dateString.append('+');
         }
-        dateString.append(hours).append(":");
-
-        if (minits < 10){
-            dateString.append("0");
-        }
-
-        dateString.append(minits);
+        appendDigits(dateString, timezoneOffSetInMinits / 60, 2);
+        dateString.append(':');
+        appendDigits(dateString, timezoneOffSetInMinits % 60, 2);
     }
 
     public static void appendDate(StringBuffer dateString, Calendar calendar) {
-
-        int year = calendar.get(Calendar.YEAR);
-
-        if (year < 1000){
-            dateString.append("0");
-        }
-        if (year < 100){
-            dateString.append("0");
-        }
-        if (year < 10) {
-            dateString.append("0");
-        }
-        dateString.append(year).append("-");
-
         // xml date month is started from 1 and calendar month is
         // started from 0. so have to add one
-        int month = calendar.get(Calendar.MONTH) + 1;
-        if (month < 10){
-            dateString.append("0");
+        appendDate(dateString, calendar.get(Calendar.YEAR), calendar.get(Calendar.MONTH) + 1,
+                calendar.get(Calendar.DAY_OF_MONTH));
+    }
+
+    private static void appendDate(StringBuffer dateString, int year, int month, int day) {
+        if (year < 0) {
+            dateString.append('-');
+            year = -year;
         }
-        dateString.append(month).append("-");
-        if (calendar.get(Calendar.DAY_OF_MONTH) < 10){
-            dateString.append("0");
+        appendDigits(dateString, year, 4);
+        dateString.append('-');
+        appendDigits(dateString, month, 2);
+        dateString.append('-');
+        appendDigits(dateString, day, 2);
+    }
+
+    /**
+     * Append a non negative number, left padded with zeros to the given minimum number of digits.
+     */
+    private static void appendDigits(StringBuffer buffer, int value, int digits) {
+        for (int limit = 10; digits > 1; digits--, limit *= 10) {
+            if (value < limit) {
+                for (; digits > 1; digits--) {
+                    buffer.append('0');
+                }
+                break;
+            }
         }
-        dateString.append(calendar.get(Calendar.DAY_OF_MONTH));
+        buffer.append(value);
     }
 
     private static String invokeToStringMethod(Object value, Class type) {
@@ -247,25 +253,13 @@ public class ConverterUtil {
     }
 
     public static void appendTime(Calendar value, StringBuffer dateString) {
-        if (value.get(Calendar.HOUR_OF_DAY) < 10) {
-            dateString.append("0");
-        }
-        dateString.append(value.get(Calendar.HOUR_OF_DAY)).append(":");
-        if (value.get(Calendar.MINUTE) < 10) {
-            dateString.append("0");
-        }
-        dateString.append(value.get(Calendar.MINUTE)).append(":");
-        if (value.get(Calendar.SECOND) < 10) {
-            dateString.append("0");
-        }
-        dateString.append(value.get(Calendar.SECOND)).append(".");
-        if (value.get(Calendar.MILLISECOND) < 10) {
-            dateString.append("0");
-        }
-        if (value.get(Calendar.MILLISECOND) < 100) {
-            dateString.append("0");
-        }
-        dateString.append(value.get(Calendar.MILLISECOND));
+        appendDigits(dateString, value.get(Calendar.HOUR_OF_DAY), 2);
+        dateString.append(':');
+        appendDigits(dateString, value.get(Calendar.MINUTE), 2);
+        dateString.append(':');
+        appendDigits(dateString, value.get(Calendar.SECOND), 2);
+        dateString.append('.');
+        appendDigits(dateString, value.get(Calendar.MILLISECOND), 3);
     }
 
     public static String convertToString(Day o) {
@@ -379,9 +373,7 @@ public class ConverterUtil {
         if ((s == null) || s.equals("")){
             return Integer.MIN_VALUE;
         }
-        if (s.startsWith("+")) {
-            s = s.substring(1);
-        }
+        // Integer.parseInt accepts a leading plus sign
         return Integer.parseInt(s);
     }
 
@@ -453,9 +445,6 @@ public class ConverterUtil {
         if ((s == null) || s.equals("")){
             return Long.MIN_VALUE;
         }
-        if (s.startsWith("+")) {
-            s = s.substring(1);
-        }
         return Long.parseLong(s);
     }
 
@@ -463,9 +452,6 @@ public class ConverterUtil {
         if ((s == null) || s.equals("")){
             return Short.MIN_VALUE;
         }
-        if (s.startsWith("+")) {
-            s = s.substring(1);
-        }
         return Short.parseShort(s);
     }
 
@@ -473,9 +459,9 @@ public class ConverterUtil {
 
         boolean returnValue = false;
         if ((s != null) && (s.length() > 0)) {
-            if ("1".equals(s) || s.toLowerCase().equals("true")) {
+            if ("1".equals(s) || s.equalsIgnoreCase("true")) {
                 returnValue = true;
-            } else if (!"0".equals(s) && !s.toLowerCase().equals("false")) {
+            } else if (!"0".equals(s) && !s.equalsIgnoreCase("false")) {
                 throw new RuntimeException("in valid string -" + s + " for boolean value");
             }
         }
@@ -568,50 +554,64 @@ public class ConverterUtil {
     public static Date convertToDate(String source) {
 
         // the lexical form of the date is '-'? yyyy '-' mm '-' dd zzzzzz?
-        if ((source == null) || source.trim().equals("")) {
+        if (source == null) {
+            return null;
+        }
+        int start = 0;
+        int end = source.length();
+        while (start < end && source.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && source.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        if (start == end) {
             return null;
         }
-        source = source.trim();
         boolean bc = false;
-        if (source.startsWith("-")) {
-            source = source.substring(1);
+        if (source.charAt(start) == '-') {
+            start++;
             bc = true;
         }
 
         int year = 0;
         int month = 0;
         int day = 0;
-        int timeZoneOffSet = TimeZone.getDefault().getRawOffset();
+        int timeZoneOffSet;
 
-        if (source.length() >= 10) {
+        if (end - start >= 10) {
             //first 10 numbers must give the year
-            if ((source.charAt(4) != '-') || (source.charAt(7) != '-')){
-                throw new RuntimeException("invalid date format (" + source + ") with out - s at correct place ");
+            if ((source.charAt(start + 4) != '-') || (source.charAt(start + 7) != '-')){
+                throw new RuntimeException("invalid date format (" + source.substring(start, end)
+                        + ") with out - s at correct place ");
             }
-            year = Integer.parseInt(source.substring(0,4));
-            month = Integer.parseInt(source.substring(5,7));
-            day = Integer.parseInt(source.substring(8,10));
-
-            if (source.length() > 10) {
-                String restpart = source.substring(10);
-                if (restpart.startsWith("Z")) {
+            year = parseDigits(source, start, start + 4);
+            month = parseDigits(source, start + 5, start + 7);
+            day = parseDigits(source, start + 8, start + 10);
+
+            int pos = start + 10;
+            if (pos < end) {
+                char c = source.charAt(pos);
+                if (c == 'Z') {
                     // this is a gmt time zone value
                     timeZoneOffSet = 0;
-                } else if (restpart.startsWith("+") || restpart.startsWith("-") || restpart.startsWith("T")) {
+                } else if (c == '+' || c == '-' || c == 'T') {
                     // this is a specific time format string
-                    if (restpart.charAt(3) != ':'){
+                    if (end - pos < 6 || source.charAt(pos + 3) != ':'){
                         throw new RuntimeException("invalid time zone format (" + source
                                 + ") without : at correct place");
                     }
-                    int hours = Integer.parseInt(restpart.substring(1,3));
-                    int minits = Integer.parseInt(restpart.substring(4,6));
+                    int hours = parseDigits(source, pos + 1, pos + 3);
+                    int minits = parseDigits(source, pos + 4, pos + 6);
                     timeZoneOffSet = ((hours * 60) + minits) * 60000;
-                    if (restpart.startsWith("-")){
+                    if (c == '-'){
                         timeZoneOffSet = timeZoneOffSet * -1;
                     }
                 } else {
                     throw new RuntimeException("In valid string sufix");
                 }
+            } else {
+                timeZoneOffSet = TimeZone.getDefault().getRawOffset();
             }
         } else {
             throw new RuntimeException("In valid string to parse");
@@ -627,7 +627,7 @@ public class ConverterUtil {
         calendar.set(Calendar.ZONE_OFFSET, timeZoneOffSet);
 
         // set the day light off set only if time zone
-        if (source.length() > 10) {
+        if (end - start > 10) {
             calendar.set(Calendar.DST_OFFSET, 0);
         }
         if (bc){
@@ -637,6 +637,75 @@ public class ConverterUtil {
         return calendar.getTime();
 
     }    
+
+    /**
+     * Convert the lexical representation of an <code>xsd:date</code> to a {@link LocalDate}.
+     * The time zone, if present, is validated but otherwise ignored. A leading minus sign denotes
+     * a negative (proleptic) year.
+     *
+     * @param source the lexical representation
+     * @return the date, or <code>null</code> if <code>source</code> is <code>null</code> or empty
+     */
+    public static LocalDate convertToLocalDate(String source) {
+        if (source == null) {
+            return null;
+        }
+        int start = 0;
+        int end = source.length();
+        while (start < end && source.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && source.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        if (start == end) {
+            return null;
+        }
+        boolean bc = source.charAt(start) == '-';
+        if (bc) {
+            start++;
+        }
+        if (end - start < 10 || source.charAt(start + 4) != '-'
+                || source.charAt(start + 7) != '-') {
+            throw new RuntimeException("invalid date format (" + source + ")");
+        }
+        int year = parseDigits(source, start, start + 4);
+        int month = parseDigits(source, start + 5, start + 7);
+        int day = parseDigits(source, start + 8, start + 10);
+        int pos = start + 10;
+        if (pos < end) {
+            boolean zulu = source.charAt(pos) == 'Z' && pos + 1 == end;
+            if (!zulu && !isTimeZoneOffset(source, pos, end)) {
+                throw new RuntimeException("invalid time zone format (" + source + ")");
+            }
+        }
+        return LocalDate.of(bc ? -year : year, month, day);
+    }
+
+    /**
+     * Check whether the given range is a time zone offset of the form <code>('+'|'-') hh ':'
+     * mm</code>.
+     */
+    private static boolean isTimeZoneOffset(String source, int start, int end) {
+        char sign = source.charAt(start);
+        return (sign == '+' || sign == '-') && end - start == 6
+                && isDigit(source.charAt(start + 1)) && isDigit(source.charAt(start + 2))
+                && source.charAt(start + 3) == ':'
+                && isDigit(source.charAt(start + 4)) && isDigit(source.charAt(start + 5));
+    }
+
+    /**
+     * Convert a {@link LocalDate} to the lexical representation of an <code>xsd:date</code>
+     * (without time zone).
+     *
+     * @param value the date
+     * @return the lexical representation
+     */
+    public static String convertToString(LocalDate value) {
+        StringBuffer dateString = new StringBuffer(11);
+        appendDate(dateString, value.getYear(), value.getMonthValue(), value.getDayOfMonth());
+        return dateString.toString();
+    }
     
     /**
      * Convert lexical representation of date to java.util.Date.
@@ -897,152 +966,228 @@ public class ConverterUtil {
      * @return Returns Calendar.
      */
     public static Calendar convertToDateTime(String source) {
-
-        if ((source == null) || source.trim().equals("")) {
+        DateTimeFields fields = parseDateTime(source);
+        if (fields == null) {
             return null;
         }
-        source = source.trim();
-        // the lexical representation of the date time as follows
-        // '-'? yyyy '-' mm '-' dd 'T' hh ':' mm ':' ss ('.' s+)? (zzzzzz)?
-        Date date = null;
         Calendar calendar = Calendar.getInstance();
         calendar.clear();
         calendar.setLenient(false);
-
-
-        if (source.startsWith("-")) {
-            source = source.substring(1);
+        if (fields.bc) {
             calendar.set(Calendar.ERA, GregorianCalendar.BC);
         }
-
-        int year = 0;
-        int month = 0;
-        int day = 0;
-        int hour = 0;
-        int minite = 0;
-        int second = 0;
-        long miliSecond = 0;
-        int timeZoneOffSet = TimeZone.getDefault().getRawOffset();
-        boolean haveTimeZone;
-
-
-        if ((source != null) && (source.length() >= 19)) {
-            if ((source.charAt(4) != '-') ||
-                    (source.charAt(7) != '-') ||
-                    (source.charAt(10) != 'T') ||
-                    (source.charAt(13) != ':') ||
-                    (source.charAt(16) != ':')) {
-                throw new RuntimeException("invalid date format (" + source + ") with out - s at correct place ");
+        int timeZoneOffSet;
+        if (!fields.haveTimeZone) {
+            timeZoneOffSet = TimeZone.getDefault().getRawOffset();
+        } else {
+            timeZoneOffSet = fields.timeZoneOffsetMinutes * 60000;
+            if (fields.zulu) {
+                calendar.setTimeZone((TimeZone) GMT.clone());
             }
-            year = Integer.parseInt(source.substring(0, 4));
-            month = Integer.parseInt(source.substring(5, 7));
-            day = Integer.parseInt(source.substring(8, 10));
-            hour = Integer.parseInt(source.substring(11, 13));
-            minite = Integer.parseInt(source.substring(14, 16));
-            second = Integer.parseInt(source.substring(17, 19));
+        }
+        calendar.set(Calendar.YEAR, fields.year);
+        // xml month is started from 1 and calendar month is started from 0
+        calendar.set(Calendar.MONTH, fields.month - 1);
+        calendar.set(Calendar.DAY_OF_MONTH, fields.day);
+        calendar.set(Calendar.HOUR_OF_DAY, fields.hour);
+        calendar.set(Calendar.MINUTE, fields.minute);
+        calendar.set(Calendar.SECOND, fields.second);
+        // digits beyond milliseconds are truncated
+        calendar.set(Calendar.MILLISECOND, fields.nanos / 1000000);
+        calendar.set(Calendar.ZONE_OFFSET, timeZoneOffSet);
+        // set the day light offset only if the time zone is present
+        if (fields.haveTimeZone) {
+            calendar.set(Calendar.DST_OFFSET, 0);
+        }
+        return calendar;
+    }
 
-            int milliSecondPartLength = 0;
+    /**
+     * Convert the lexical representation of an <code>xsd:dateTime</code> to an
+     * {@link OffsetDateTime}. If the value has no time zone, it is interpreted in the default time
+     * zone of the JVM, as in {@link #convertToDateTime(String)}. A leading minus sign denotes a
+     * negative (proleptic) year.
+     *
+     * @param source the lexical representation
+     * @return the date and time, or <code>null</code> if <code>source</code> is <code>null</code>
+     *         or empty
+     */
+    public static OffsetDateTime convertToOffsetDateTime(String source) {
+        DateTimeFields fields = parseDateTime(source);
+        if (fields == null) {
+            return null;
+        }
+        LocalDateTime dateTime = LocalDateTime.of(fields.bc ? -fields.year : fields.year,
+                fields.month, fields.day, fields.hour, fields.minute, fields.second, fields.nanos);
+        if (fields.haveTimeZone) {
+            return OffsetDateTime.of(dateTime,
+                    ZoneOffset.ofTotalSeconds(fields.timeZoneOffsetMinutes * 60));
+        } else {
+            return dateTime.atZone(ZoneId.systemDefault()).toOffsetDateTime();
+        }
+    }
 
-            if (source.length() == 19) {
-                haveTimeZone = false;
-            } else {
-                String rest = source.substring(19);
-                if (rest.startsWith(".")) {
-                    // i.e this have the ('.'s+) part
-                    if (rest.endsWith("Z")) {
-                        // this is in gmt time zone
-                        haveTimeZone = true;
-                        timeZoneOffSet = 0;
-                        calendar.setTimeZone(TimeZone.getTimeZone("GMT"));
-                        miliSecond = Integer.parseInt(rest.substring(1, rest.lastIndexOf("Z")));
-                        milliSecondPartLength = rest.substring(1,rest.lastIndexOf("Z")).trim().length();
-                    } else if ((rest.lastIndexOf("+") > 0) || (rest.lastIndexOf("-") > 0)) {
-                        // this is given in a general time zione
-                        haveTimeZone = true;
-                        String timeOffSet = null;
-                        if (rest.lastIndexOf("+") > 0) {
-                            timeOffSet = rest.substring(rest.lastIndexOf("+") + 1);
-                            miliSecond = Integer.parseInt(rest.substring(1, rest.lastIndexOf("+")));
-                            milliSecondPartLength = rest.substring(1, rest.lastIndexOf("+")).trim().length();
-                            // we keep +1 or -1 to finally calculate the value
-                            timeZoneOffSet = 1;
-
-                        } else if (rest.lastIndexOf("-") > 0) {
-                            timeOffSet = rest.substring(rest.lastIndexOf("-") + 1);
-                            miliSecond = Integer.parseInt(rest.substring(1, rest.lastIndexOf("-")));
-                            milliSecondPartLength = rest.substring(1, rest.lastIndexOf("-")).trim().length();
-                            // we keep +1 or -1 to finally calculate the value
-                            timeZoneOffSet = -1;
-                        }
-                        if (timeOffSet.charAt(2) != ':') {
-                            throw new RuntimeException("invalid time zone format (" + source
-                                    + ") without : at correct place");
-                        }
-                        int hours = Integer.parseInt(timeOffSet.substring(0, 2));
-                        int minits = Integer.parseInt(timeOffSet.substring(3, 5));
-                        timeZoneOffSet = ((hours * 60) + minits) * 60000 * timeZoneOffSet;
+    /**
+     * Convert an {@link OffsetDateTime} to the lexical representation of an
+     * <code>xsd:dateTime</code>. Fractional seconds are written without trailing zeros and are
+     * omitted if they are zero.
+     *
+     * @param value the date and time
+     * @return the lexical representation
+     */
+    public static String convertToString(OffsetDateTime value) {
+        StringBuffer dateString = new StringBuffer(35);
+        appendDate(dateString, value.getYear(), value.getMonthValue(), value.getDayOfMonth());
+        dateString.append('T');
+        appendDigits(dateString, value.getHour(), 2);
+        dateString.append(':');
+        appendDigits(dateString, value.getMinute(), 2);
+        dateString.append(':');
+        appendDigits(dateString, value.getSecond(), 2);
+        int nanos = value.getNano();
+        if (nanos != 0) {
+            int digits = 9;
+            while (nanos % 10 == 0) {
+                nanos /= 10;
+                digits--;
+            }
+            dateString.append('.');
+            appendDigits(dateString, nanos, digits);
+        }
+        int offsetSeconds = value.getOffset().getTotalSeconds();
+        if (offsetSeconds == 0) {
+            dateString.append('Z');
+        } else {
+            appendTimeZoneOffset(offsetSeconds / 60, dateString);
+        }
+        return dateString.toString();
+    }
 
-                    } else {
-                        // i.e it does not have time zone
-                        haveTimeZone = false;
-                        miliSecond = Integer.parseInt(rest.substring(1));
-                        milliSecondPartLength = rest.substring(1).trim().length();
-                    }
+    /**
+     * The fields of an <code>xsd:dateTime</code> value.
+     */
+    private static final class DateTimeFields {
+        boolean bc;
+        int year;
+        int month;
+        int day;
+        int hour;
+        int minute;
+        int second;
+        int nanos;
+        boolean haveTimeZone;
+        boolean zulu;
+        int timeZoneOffsetMinutes;
+    }
 
-                } else {
-                    if (rest.startsWith("Z")) {
-                        calendar.setTimeZone(TimeZone.getTimeZone("GMT"));
-                        // this is in gmt time zone
-                        haveTimeZone = true;
-                        timeZoneOffSet = 0;
-                    } else if (rest.startsWith("+") || rest.startsWith("-")) {
-                        // this is given in a general time zione
-                        haveTimeZone = true;
-                        if (rest.charAt(3) != ':') {
-                            throw new RuntimeException("invalid time zone format (" + source
-                                    + ") without : at correct place");
-                        }
-                        int hours = Integer.parseInt(rest.substring(1, 3));
-                        int minits = Integer.parseInt(rest.substring(4, 6));
-                        timeZoneOffSet = ((hours * 60) + minits) * 60000;
-                        if (rest.startsWith("-")) {
-                            timeZoneOffSet = timeZoneOffSet * -1;
-                        }
-                    } else {
-                        throw new NumberFormatException("in valid time zone attribute");
-                    }
+    /**
+     * Parse the lexical representation of an <code>xsd:dateTime</code>, i.e.
+     * <code>'-'? yyyy '-' mm '-' dd 'T' hh ':' mm ':' ss ('.' s+)? (zzzzzz)?</code>, without
+     * creating intermediate strings.
+     *
+     * @param source the lexical representation
+     * @return the fields, or <code>null</code> if <code>source</code> is <code>null</code> or
+     *         empty
+     */
+    private static DateTimeFields parseDateTime(String source) {
+        if (source == null) {
+            return null;
+        }
+        int start = 0;
+        int end = source.length();
+        while (start < end && source.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && source.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        if (start == end) {
+            return null;
+        }
+        DateTimeFields fields = new DateTimeFields();
+        if (source.charAt(start) == '-') {
+            start++;
+            fields.bc = true;
+        }
+        if (end - start < 19) {
+            throw new NumberFormatException("date string can not be less than 19 characters");
+        }
+        if ((source.charAt(start + 4) != '-') ||
+                (source.charAt(start + 7) != '-') ||
+                (source.charAt(start + 10) != 'T') ||
+                (source.charAt(start + 13) != ':') ||
+                (source.charAt(start + 16) != ':')) {
+            throw new RuntimeException("invalid date format (" + source.substring(start, end)
+                    + ") with out - s at correct place ");
+        }
+        fields.year = parseDigits(source, start, start + 4);
+        fields.month = parseDigits(source, start + 5, start + 7);
+        fields.day = parseDigits(source, start + 8, start + 10);
+        fields.hour = parseDigits(source, start + 11, start + 13);
+        fields.minute = parseDigits(source, start + 14, start + 16);
+        fields.second = parseDigits(source, start + 17, start + 19);
+
+        int pos = start + 19;
+        if (pos < end && source.charAt(pos) == '.') {
+            int fractionStart = ++pos;
+            int nanos = 0;
+            while (pos < end && isDigit(source.charAt(pos))) {
+                if (pos - fractionStart < 9) {
+                    nanos = nanos * 10 + (source.charAt(pos) - '0');
                 }
+                pos++;
             }
-            calendar.set(Calendar.YEAR, year);
-            // xml month is started from 1 and calendar month is started from 0
-            calendar.set(Calendar.MONTH, month - 1);
-            calendar.set(Calendar.DAY_OF_MONTH, day);
-            calendar.set(Calendar.HOUR_OF_DAY, hour);
-            calendar.set(Calendar.MINUTE, minite);
-            calendar.set(Calendar.SECOND, second);
-            if (milliSecondPartLength != 3){
-                // milisecond part represenst the fraction of the second so we have to
-                // find the fraction and multiply it by 1000. So if milisecond part
-                // has three digits nothing required
-                miliSecond = miliSecond * 1000;
-                for (int i = 0; i < milliSecondPartLength; i++) {
-                    miliSecond = miliSecond / 10;
-                }
+            int digits = pos - fractionStart;
+            if (digits == 0) {
+                throw new NumberFormatException("invalid fractional seconds in ("
+                        + source.substring(start, end) + ")");
             }
-            calendar.set(Calendar.MILLISECOND, (int)miliSecond);
-            calendar.set(Calendar.ZONE_OFFSET, timeZoneOffSet);
-            // set the day light offset only if the time zone is present
-            // set the day light offset only if the time zone is present
-            if (haveTimeZone) {
-                calendar.set(Calendar.DST_OFFSET, 0);
+            for (; digits < 9; digits++) {
+                nanos *= 10;
             }
+            fields.nanos = nanos;
+        }
+
+        if (pos < end) {
+            fields.haveTimeZone = true;
+            char c = source.charAt(pos);
+            if (c == 'Z' && pos + 1 == end) {
+                // this is in gmt time zone
+                fields.zulu = true;
+            } else if (c == '+' || c == '-') {
+                if (end - pos != 6 || source.charAt(pos + 3) != ':') {
+                    throw new RuntimeException("invalid time zone format (" + source
+                            + ") without : at correct place");
+                }
+                int offset = parseDigits(source, pos + 1, pos + 3) * 60
+                        + parseDigits(source, pos + 4, pos + 6);
+                fields.timeZoneOffsetMinutes = c == '-' ? -offset : offset;
+            } else {
+                throw new NumberFormatException("in valid time zone attribute");
+            }
+        }
+        return fields;
+    }
 
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
 
-        } else {
-            throw new NumberFormatException("date string can not be less than 19 characters");
+    /**
+     * Parse a sequence of decimal digits. Unlike {@link Integer#parseInt(String)}, this doesn't
+     * accept a sign and doesn't require the digits to be extracted into a separate string.
+     */
+    private static int parseDigits(String source, int start, int end) {
+        int value = 0;
+        for (int i = start; i < end; i++) {
+            char c = source.charAt(i);
+            if (!isDigit(c)) {
+                throw new NumberFormatException("For input string: \""
+                        + source.substring(start, end) + "\"");
+            }
+            value = value * 10 + (c - '0');
         }
-
-        return calendar;
+        return value;
     }
 
     /**
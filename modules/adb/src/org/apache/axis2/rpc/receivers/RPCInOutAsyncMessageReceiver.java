@@ -80,23 +80,13 @@ public class RPCInOutAsyncMessageReceiver extends AbstractMessageReceiver {
 
             AxisMessage inaxisMessage = op.getMessage(WSDLConstants.MESSAGE_LABEL_IN_VALUE);
             String messageNameSpace = null;
-            String methodName = op.getName().getLocalPart();
-            Method[] methods = ImplClass.getMethods();
-            for (int i = 0; i < methods.length; i++) {
-                if (methods[i].isBridge()) {
-                    continue;
-                }
-                if (methods[i].getName().equals(methodName)) {
-                    method = methods[i];
-                    break;
-                }
-            }
+            RPCMethodInvoker invoker = RPCMethodInvoker.getInvoker(op, ImplClass);
+            method = invoker.getMethod();
             Object resObject = null;
             if (inaxisMessage != null) {
                 resObject = RPCUtil.invokeServiceClass(inaxisMessage,
-                        method,
+                        invoker,
                         obj,
-                        messageNameSpace,
                         methodElement,inMessage);
             }
 
@@ -0,0 +1,250 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.axis2.rpc.receivers;
+
+import org.apache.axis2.AxisFault;
+import org.apache.axis2.description.AxisOperation;
+import org.apache.axis2.description.AxisService;
+import org.apache.axis2.description.Parameter;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Pre-resolved invocation of the service method that implements an RPC operation. The method is
+ * looked up once per {@link AxisOperation} and implementation class, together with its parameter
+ * types and the parameter names recorded at deployment time, and is called through a
+ * {@link MethodHandle} adapted to take its arguments as an <code>Object[]</code>.
+ * <p>
+ * Invokers are cached per operation; the cache is weak so that invokers are discarded when the
+ * service is undeployed.
+ */
+public final class RPCMethodInvoker {
+
+    private static final Log log = LogFactory.getLog(RPCMethodInvoker.class);
+
+    private static final Map<AxisOperation, RPCMethodInvoker> invokers =
+            Collections.synchronizedMap(new WeakHashMap<AxisOperation, RPCMethodInvoker>());
+
+    private final Class<?> implClass;
+    private final Method method;
+    private final Class<?>[] parameterTypes;
+    private final String[] parameterNames;
+
+    /**
+     * The method, with type <code>(Object, Object[])Object</code>, or <code>null</code> if no
+     * method handle could be created, in which case the method is invoked using reflection.
+     */
+    private final MethodHandle handle;
+
+    /**
+     * Constructor.
+     *
+     * @param implClass the service implementation class
+     * @param method the service method
+     * @param parameterNames the parameter names, or <code>null</code> if they are not known
+     * @param compile whether to create a method handle; this is only worthwhile if the invoker
+     *                is going to be reused
+     */
+    RPCMethodInvoker(Class<?> implClass, Method method, String[] parameterNames,
+                     boolean compile) {
+        this.implClass = implClass;
+        this.method = method;
+        this.parameterNames = parameterNames;
+        parameterTypes = method.getParameterTypes();
+        handle = compile ? createHandle(method) : null;
+    }
+
+    private static MethodHandle createHandle(Method method) {
+        try {
+            // The declaring class may not be public even though the method is
+            method.setAccessible(true);
+            int parameterCount = method.getParameterTypes().length;
+            return MethodHandles.lookup().unreflect(method)
+                    .asType(MethodType.genericMethodType(parameterCount + 1))
+                    .asSpreader(Object[].class, parameterCount);
+        } catch (Exception ex) {
+            if (log.isDebugEnabled()) {
+                log.debug("Unable to create a method handle for " + method
+                        + "; falling back to reflection", ex);
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Get the invoker for the given operation, creating it if necessary.
+     *
+     * @param axisOperation the operation
+     * @param implClass the service implementation class
+     * @return the invoker
+     * @throws AxisFault if the service class has no method matching the operation
+     */
+    public static RPCMethodInvoker getInvoker(AxisOperation axisOperation, Class<?> implClass)
+            throws AxisFault {
+        RPCMethodInvoker invoker = invokers.get(axisOperation);
+        if (invoker == null || invoker.implClass != implClass) {
+            Method method = (Method)axisOperation.getParameterValue("myMethod");
+            // If the declaring class has changed, then the cached method is invalid, so we need
+            // to reload it. This is to fix AXIS2-3947.
+            if (method == null || method.getDeclaringClass() != implClass) {
+                method = findMethod(axisOperation.getName().getLocalPart(), implClass);
+                axisOperation.addParameter("myMethod", method);
+            }
+            String[] parameterNames = null;
+            AxisService service = axisOperation.getAxisService();
+            if (service != null) {
+                Parameter namesParameter = service.getParameter(method.getName());
+                if (namesParameter != null && namesParameter.getValue() instanceof String[]) {
+                    parameterNames = (String[])namesParameter.getValue();
+                }
+            }
+            if (log.isDebugEnabled()) {
+                log.debug("Creating invoker for operation " + axisOperation.getName()
+                        + " using method " + method);
+            }
+            invoker = new RPCMethodInvoker(implClass, method, parameterNames, true);
+            invokers.put(axisOperation, invoker);
+        }
+        return invoker;
+    }
+
+    private static Method findMethod(String methodName, Class<?> implClass) throws AxisFault {
+        for (Method method : implClass.getMethods()) {
+            if (!method.isBridge() && method.getName().equals(methodName)) {
+                return method;
+            }
+        }
+        throw new AxisFault("No such method '" + methodName +
+                "' in class " + implClass.getName());
+    }
+
+    public Method getMethod() {
+        return method;
+    }
+
+    Class<?>[] getParameterTypes() {
+        return parameterTypes;
+    }
+
+    /**
+     * @return the parameter names recorded for the method at deployment time, or
+     *         <code>null</code> if they are not known
+     */
+    String[] getParameterNames() {
+        return parameterNames;
+    }
+
+    /**
+     * Invoke the method. Exceptions are reported in the same way as
+     * {@link Method#invoke(Object, Object...)}, i.e. exceptions thrown by the method itself are
+     * wrapped in an {@link InvocationTargetException}.
+     *
+     * @param implObject the service object
+     * @param args the arguments
+     * @return the return value of the method, or <code>null</code> if it is <code>void</code>
+     */
+    public Object invoke(Object implObject, Object[] args)
+            throws IllegalAccessException, InvocationTargetException {
+        if (handle == null) {
+            return method.invoke(implObject, args);
+        }
+        checkArguments(implObject, args);
+        try {
+            return (Object)handle.invokeExact(implObject, args);
+        } catch (Throwable ex) {
+            throw new InvocationTargetException(ex);
+        }
+    }
+
+    /**
+     * Perform the checks that {@link Method#invoke(Object, Object...)} would do, so that invalid
+     * arguments are reported as {@link IllegalArgumentException} and not as an exception thrown
+     * by the method. This includes the argument types: the method handle would otherwise throw
+     * a {@link ClassCastException} that can't be distinguished from one thrown by the method.
+     */
+    private void checkArguments(Object implObject, Object[] args) {
+        if (!implClass.isInstance(implObject)) {
+            throw new IllegalArgumentException("object is not an instance of declaring class");
+        }
+        int length = args == null ? 0 : args.length;
+        if (length != parameterTypes.length) {
+            throw new IllegalArgumentException("wrong number of arguments");
+        }
+        for (int i = 0; i < length; i++) {
+            Class<?> type = parameterTypes[i];
+            Object arg = args[i];
+            if (arg == null) {
+                if (type.isPrimitive()) {
+                    throw new IllegalArgumentException("argument " + i + " of primitive type "
+                            + type.getName() + " is null");
+                }
+            } else if (type.isPrimitive() ? !isWideningConversion(arg.getClass(), type)
+                    : !type.isInstance(arg)) {
+                throw new IllegalArgumentException("argument type mismatch: argument " + i
+                        + " of type " + arg.getClass().getName() + " is not assignable to "
+                        + type.getName());
+            }
+        }
+    }
+
+    /**
+     * Check whether a boxed value of the given class can be passed as an argument of the given
+     * primitive type, i.e. whether it unboxes to the same type or a type that can be converted
+     * using a widening primitive conversion.
+     */
+    private static boolean isWideningConversion(Class<?> wrapperType, Class<?> primitiveType) {
+        if (wrapperType == Boolean.class) {
+            return primitiveType == boolean.class;
+        } else if (wrapperType == Character.class) {
+            return primitiveType == char.class || primitiveType == int.class
+                    || primitiveType == long.class || primitiveType == float.class
+                    || primitiveType == double.class;
+        } else if (wrapperType == Byte.class) {
+            return primitiveType == byte.class || primitiveType == short.class
+                    || primitiveType == int.class || primitiveType == long.class
+                    || primitiveType == float.class || primitiveType == double.class;
+        } else if (wrapperType == Short.class) {
+            return primitiveType == short.class || primitiveType == int.class
+                    || primitiveType == long.class || primitiveType == float.class
+                    || primitiveType == double.class;
+        } else if (wrapperType == Integer.class) {
+            return primitiveType == int.class || primitiveType == long.class
+                    || primitiveType == float.class || primitiveType == double.class;
+        } else if (wrapperType == Long.class) {
+            return primitiveType == long.class || primitiveType == float.class
+                    || primitiveType == double.class;
+        } else if (wrapperType == Float.class) {
+            return primitiveType == float.class || primitiveType == double.class;
+        } else if (wrapperType == Double.class) {
+            return primitiveType == double.class;
+        } else {
+            return false;
+        }
+    }
+}
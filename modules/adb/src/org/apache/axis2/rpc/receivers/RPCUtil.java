@@ -212,6 +212,34 @@ public class RPCUtil {
                                             OMElement methodElement,
                                             MessageContext inMessage) throws AxisFault,
             IllegalAccessException, InvocationTargetException {
+        String[] parameterNames = null;
+        Parameter namesParameter = inMessage.getAxisService().getParameter(method.getName());
+        if (namesParameter != null){
+            parameterNames = (String[]) namesParameter.getValue();
+        }
+        return invokeServiceClass(inAxisMessage,
+                new RPCMethodInvoker(implObject.getClass(), method, parameterNames, false),
+                implObject, methodElement, inMessage);
+    }
+
+    /**
+     * Deserialize the request and invoke the service method, using the method, parameter types and
+     * parameter names pre-resolved by the given invoker.
+     *
+     * @param inAxisMessage the input message of the operation
+     * @param invoker the invoker for the operation (see
+     *                {@link RPCMethodInvoker#getInvoker(org.apache.axis2.description.AxisOperation, Class)})
+     * @param implObject the service object
+     * @param methodElement the first child element of the SOAP body
+     * @param inMessage the request message context
+     * @return the return value of the service method
+     */
+    public static Object invokeServiceClass(AxisMessage inAxisMessage,
+                                            RPCMethodInvoker invoker,
+                                            Object implObject,
+                                            OMElement methodElement,
+                                            MessageContext inMessage) throws AxisFault,
+            IllegalAccessException, InvocationTargetException {
         
         //POJO was not WS-I complient since it does generate an empty soap message for in comming
         //soap envelope when no input parameters are set. But now we have fixed this to include the
@@ -221,10 +249,10 @@ public class RPCUtil {
 
         if ((inAxisMessage.getElementQName() == null) || (methodElement == null)) {
             // method accept empty SOAPbody
-            return method.invoke(implObject);
+            return invoker.invoke(implObject, new Object[0]);
         } else {
             QName elementQName = inAxisMessage.getElementQName();
-            messageNameSpace = elementQName.getNamespaceURI();
+            String messageNameSpace = elementQName.getNamespaceURI();
             OMNamespace namespace = methodElement.getNamespace();
             if (messageNameSpace != null) {
                 if (namespace == null) {
@@ -243,19 +271,15 @@ public class RPCUtil {
                                 "qualified element. But received a namespace qualified element");
             }
             Object[] objectArray;
+            ObjectSupplier objectSupplier = inMessage.getAxisService().getObjectSupplier();
             if (inAxisMessage.isWrapped()) {
-                Parameter namesParameter = inMessage.getAxisService().getParameter(method.getName());
-                String[] parameterNames = null;
-                if (namesParameter != null){
-                    parameterNames = (String[]) namesParameter.getValue();
-                }
-                objectArray = RPCUtil.processRequest(methodElement,
-                        method, inMessage.getAxisService().getObjectSupplier(), parameterNames);
+                objectArray = BeanUtil.deserialize(methodElement, invoker.getParameterTypes(),
+                        objectSupplier, invoker.getParameterNames(), invoker.getMethod());
             } else {
-                objectArray = RPCUtil.processRequest((OMElement) methodElement.getParent(),
-                        method, inMessage.getAxisService().getObjectSupplier());
+                objectArray = BeanUtil.deserialize((OMElement) methodElement.getParent(),
+                        invoker.getParameterTypes(), objectSupplier, null, invoker.getMethod());
             }
-            return method.invoke(implObject, objectArray);
+            return invoker.invoke(implObject, objectArray);
 
         }
     }
@@ -139,6 +139,18 @@ public class BeanUtilTest extends TestCase {
         assertEquals("World", ((ComplexType) result).getChild());
     }
 
+    public void testDeserializeIgnoresCaseAndRepeatedElements() throws Exception {
+        for (int i = 0; i < 2; i++) {
+            OMElement element = omFactory.createOMElement(new QName("hello"));
+            omFactory.createOMElement(new QName("Child"), element).setText("First" + i);
+            omFactory.createOMElement(new QName("child"), element).setText("Second" + i);
+
+            Object result = BeanUtil.deserialize(ComplexType.class, element, objectSupplier, null);
+            assertTrue(result instanceof ComplexType);
+            assertEquals("First" + i, ((ComplexType) result).getChild());
+        }
+    }
+
     public void testProcessObjectAsObject() throws Exception {
         omElement.declareNamespace(omFactory.createOMNamespace(Constants.XSD_NAMESPACE, "xs"));
 
@@ -26,6 +26,10 @@ import static org.assertj.core.api.Assertions.assertThat;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.text.SimpleDateFormat;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
 import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Date;
@@ -234,6 +238,60 @@ public class ConverterUtilTest extends TestCase {
         
     }
     
+    public void testConvertToOffsetDateTime() {
+        assertEquals(OffsetDateTime.of(2007, 2, 15, 14, 54, 29, 399000000, ZoneOffset.ofHoursMinutes(5, 30)),
+                ConverterUtil.convertToOffsetDateTime("2007-02-15T14:54:29.399+05:30"));
+        assertEquals(OffsetDateTime.of(2012, 5, 17, 13, 57, 1, 123456789, ZoneOffset.UTC),
+                ConverterUtil.convertToOffsetDateTime(" 2012-05-17T13:57:01.1234567891Z "));
+        assertEquals(LocalDateTime.of(2007, 2, 15, 14, 54, 29),
+                ConverterUtil.convertToOffsetDateTime("2007-02-15T14:54:29").toLocalDateTime());
+        assertNull(ConverterUtil.convertToOffsetDateTime(""));
+
+        assertEquals("2007-02-15T14:54:29.399+05:30", ConverterUtil.convertToString(
+                OffsetDateTime.of(2007, 2, 15, 14, 54, 29, 399000000, ZoneOffset.ofHoursMinutes(5, 30))));
+        assertEquals("0012-05-17T03:04:05Z", ConverterUtil.convertToString(
+                OffsetDateTime.of(12, 5, 17, 3, 4, 5, 0, ZoneOffset.UTC)));
+        assertEquals("2012-05-17T13:57:01.5-01:00", ConverterUtil.convertToString(
+                OffsetDateTime.of(2012, 5, 17, 13, 57, 1, 500000000, ZoneOffset.ofHours(-1))));
+    }
+
+    public void testConvertToLocalDate() {
+        assertEquals(LocalDate.of(2007, 2, 15), ConverterUtil.convertToLocalDate("2007-02-15"));
+        assertEquals(LocalDate.of(2007, 2, 15), ConverterUtil.convertToLocalDate("2007-02-15Z"));
+        assertEquals(LocalDate.of(2007, 2, 15), ConverterUtil.convertToLocalDate("2007-02-15-12:30"));
+        assertEquals("2007-02-15", ConverterUtil.convertToString(LocalDate.of(2007, 2, 15)));
+        try {
+            ConverterUtil.convertToLocalDate("2007-02-15+1:30");
+            fail("Expected RuntimeException");
+        } catch (RuntimeException ex) {
+            // Expected
+        }
+    }
+
+    public void testConvertToDateTimeInvalid() {
+        String[] invalid = { "2007-02-15T14:54", "2007/02/15T14:54:29", "2007-02-15T14:54:29X",
+                "2007-02-15T14:54:29.", "2007-02-15T14:54:29+0530", "2007-02-15T14:54:29Zulu",
+                "2007-02-15T14:5a:29" };
+        for (String value : invalid) {
+            try {
+                ConverterUtil.convertToDateTime(value);
+                fail("Expected RuntimeException for " + value);
+            } catch (RuntimeException ex) {
+                // Expected
+            }
+        }
+    }
+
+    public void testConvertToDateTimeFractionalSeconds() {
+        // Digits beyond milliseconds are truncated
+        assertEquals(123, ConverterUtil.convertToDateTime("2012-05-17T13:57:01.1239Z")
+                .get(Calendar.MILLISECOND));
+        assertEquals(123, ConverterUtil.convertToDateTime("2012-05-17T13:57:01.12345678901Z")
+                .get(Calendar.MILLISECOND));
+        assertEquals(500, ConverterUtil.convertToDateTime("2012-05-17T13:57:01.5Z")
+                .get(Calendar.MILLISECOND));
+    }
+
     public void testconvertToDateXML() {
 
         Date date = null;
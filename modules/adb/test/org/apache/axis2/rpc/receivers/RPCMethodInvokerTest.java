@@ -0,0 +1,122 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.axis2.rpc.receivers;
+
+import java.lang.reflect.InvocationTargetException;
+
+import javax.xml.namespace.QName;
+
+import junit.framework.TestCase;
+import org.apache.axis2.AxisFault;
+import org.apache.axis2.description.AxisOperation;
+import org.apache.axis2.description.AxisService;
+import org.apache.axis2.description.InOutAxisOperation;
+
+public class RPCMethodInvokerTest extends TestCase {
+    public static class Service {
+        public String ping() {
+            return "pong";
+        }
+
+        public int add(int a, int b, int c, int d, int e) {
+            return a + b + c + d + e;
+        }
+
+        public void fail(String message) throws Exception {
+            throw new Exception(message);
+        }
+    }
+
+    private AxisOperation createOperation(String name) throws AxisFault {
+        AxisService service = new AxisService("Test");
+        AxisOperation operation = new InOutAxisOperation(new QName(name));
+        service.addOperation(operation);
+        return operation;
+    }
+
+    public void testInvoke() throws Exception {
+        Service service = new Service();
+        RPCMethodInvoker invoker = RPCMethodInvoker.getInvoker(createOperation("ping"),
+                Service.class);
+        assertEquals("pong", invoker.invoke(service, new Object[0]));
+
+        invoker = RPCMethodInvoker.getInvoker(createOperation("add"), Service.class);
+        assertEquals(15, invoker.invoke(service, new Object[] { 1, 2, 3, 4, 5 }));
+    }
+
+    public void testInvokerIsCached() throws Exception {
+        AxisOperation operation = createOperation("ping");
+        RPCMethodInvoker invoker = RPCMethodInvoker.getInvoker(operation, Service.class);
+        assertSame(invoker, RPCMethodInvoker.getInvoker(operation, Service.class));
+        assertEquals(invoker.getMethod(), operation.getParameterValue("myMethod"));
+    }
+
+    public void testExceptionIsWrapped() throws Exception {
+        RPCMethodInvoker invoker = RPCMethodInvoker.getInvoker(createOperation("fail"),
+                Service.class);
+        try {
+            invoker.invoke(new Service(), new Object[] { "test" });
+            fail("Expected InvocationTargetException");
+        } catch (InvocationTargetException ex) {
+            assertEquals("test", ex.getCause().getMessage());
+        }
+    }
+
+    public void testNullPrimitiveArgument() throws Exception {
+        RPCMethodInvoker invoker = RPCMethodInvoker.getInvoker(createOperation("add"),
+                Service.class);
+        try {
+            invoker.invoke(new Service(), new Object[] { 1, 2, null, 4, 5 });
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException ex) {
+            // Expected
+        }
+    }
+
+    public void testArgumentTypeMismatch() throws Exception {
+        RPCMethodInvoker invoker = RPCMethodInvoker.getInvoker(createOperation("fail"),
+                Service.class);
+        try {
+            invoker.invoke(new Service(), new Object[] { 1 });
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException ex) {
+            // Expected
+        }
+        invoker = RPCMethodInvoker.getInvoker(createOperation("add"), Service.class);
+        try {
+            invoker.invoke(new Service(), new Object[] { 1, 2, 3L, 4, 5 });
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException ex) {
+            // Expected
+        }
+        // Widening conversions are accepted, as with Method#invoke
+        assertEquals(15, invoker.invoke(new Service(),
+                new Object[] { 1, 2, (short)3, (byte)4, '\u0005' }));
+    }
+
+    public void testNoSuchMethod() throws Exception {
+        try {
+            RPCMethodInvoker.getInvoker(createOperation("missing"), Service.class);
+            fail("Expected AxisFault");
+        } catch (AxisFault ex) {
+            // Expected
+        }
+    }
+}
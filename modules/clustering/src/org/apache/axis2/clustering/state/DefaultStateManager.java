@@ -23,29 +23,69 @@ import org.apache.axiom.om.OMElement;
 import org.apache.axis2.AxisFault;
 import org.apache.axis2.clustering.ClusteringFault;
 import org.apache.axis2.clustering.state.commands.StateClusteringCommandCollection;
+import org.apache.axis2.clustering.state.commands.UpdateServiceGroupStateCommand;
+import org.apache.axis2.clustering.state.commands.UpdateServiceStateCommand;
+import org.apache.axis2.clustering.state.commands.UpdateStateCommand;
 import org.apache.axis2.clustering.tribes.ChannelSender;
 import org.apache.axis2.context.AbstractContext;
 import org.apache.axis2.context.ConfigurationContext;
+import org.apache.axis2.context.PropertyDifference;
 import org.apache.axis2.context.ServiceContext;
 import org.apache.axis2.context.ServiceGroupContext;
 import org.apache.axis2.description.Parameter;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
 
 /**
  * This class is the defaut StateManager of the Apache Tribes based clustering implementation
+ * <p>
+ * If the {@link #FLUSH_INTERVAL} parameter is set, property differences are not sent as soon as
+ * a context is updated, but accumulated and sent as a single message per flush interval, with
+ * later differences for the same property of the same context replacing earlier ones.
  */
 public class DefaultStateManager implements StateManager {
 
+    private static final Log log = LogFactory.getLog(DefaultStateManager.class);
+
+    /**
+     * Parameter specifying the interval (in milliseconds) at which batched property differences
+     * are sent to the group. If it is not set (or zero), updates are sent immediately.
+     */
+    public static final String FLUSH_INTERVAL = "replicationFlushInterval";
+
     private final Map<String, Parameter> parameters = new HashMap<String, Parameter>();
 
     private ChannelSender sender;
 
     private final Map<String, List> excludedReplicationPatterns = new HashMap<String, List>();
 
+    private long flushInterval;
+
+    /**
+     * Update commands waiting to be flushed, by context. Access is synchronized on the map.
+     */
+    private final Map<String, UpdateStateCommand> pendingUpdates =
+            new LinkedHashMap<String, UpdateStateCommand>();
+
+    /**
+     * Held while pending updates are taken from {@link #pendingUpdates} and sent, so that
+     * concurrent flushes (and the commands sent after a flush) reach the group in the order in
+     * which the updates were made. Always acquired before the lock on {@link #pendingUpdates}.
+     */
+    private final Object sendLock = new Object();
+
+    private ScheduledExecutorService flushExecutor;
+
     //TODO: Try to use an interface
     public void setSender(ChannelSender sender) {
         this.sender = sender;
@@ -60,7 +100,11 @@ public class DefaultStateManager implements StateManager {
                                                                  excludedReplicationPatterns,
                                                                  false);
         if (cmd != null) {
-            sender.sendToGroup(cmd);
+            if (flushInterval > 0) {
+                addPendingUpdate((UpdateStateCommand) cmd);
+            } else {
+                sender.sendToGroup(cmd);
+            }
         }
     }
 
@@ -69,7 +113,7 @@ public class DefaultStateManager implements StateManager {
         StateClusteringCommand cmd =
                 StateClusteringCommandFactory.getUpdateCommand(context, propertyNames);
         if (cmd != null) {
-            sender.sendToGroup(cmd);
+            flushAndSend(cmd);
         }
     }
 
@@ -78,17 +122,118 @@ public class DefaultStateManager implements StateManager {
                 StateClusteringCommandFactory.getCommandCollection(contexts,
                                                                    excludedReplicationPatterns);
         if (!cmd.isEmpty()) {
-            sender.sendToGroup(cmd);
+            if (flushInterval > 0) {
+                for (StateClusteringCommand update : cmd.getCommands()) {
+                    addPendingUpdate((UpdateStateCommand) update);
+                }
+            } else {
+                sender.sendToGroup(cmd);
+            }
         }
     }
 
     public void replicateState(StateClusteringCommand command) throws ClusteringFault {
-        sender.sendToGroup(command);
+        flushAndSend(command);
     }
 
     public void removeContext(AbstractContext context) throws ClusteringFault {
         StateClusteringCommand cmd = StateClusteringCommandFactory.getRemoveCommand(context);
-        sender.sendToGroup(cmd);
+        flushAndSend(cmd);
+    }
+
+    /**
+     * Send the pending property differences followed by the given command, without letting
+     * another flush send its differences in between.
+     */
+    private void flushAndSend(StateClusteringCommand cmd) throws ClusteringFault {
+        synchronized (sendLock) {
+            flush();
+            sender.sendToGroup(cmd);
+        }
+    }
+
+    private void addPendingUpdate(UpdateStateCommand cmd) {
+        String key = getPendingUpdateKey(cmd);
+        synchronized (pendingUpdates) {
+            UpdateStateCommand pending = pendingUpdates.get(key);
+            if (pending == null) {
+                pendingUpdates.put(key, cmd);
+            } else {
+                for (Object diff : cmd.getProperties().values()) {
+                    pending.addProperty((PropertyDifference) diff);
+                }
+            }
+            if (flushExecutor == null) {
+                startFlushExecutor();
+            }
+        }
+    }
+
+    private static String getPendingUpdateKey(UpdateStateCommand cmd) {
+        if (cmd instanceof UpdateServiceStateCommand) {
+            UpdateServiceStateCommand serviceCmd = (UpdateServiceStateCommand) cmd;
+            return "s:" + serviceCmd.getServiceGroupContextId() + ":" + serviceCmd.getServiceName();
+        } else if (cmd instanceof UpdateServiceGroupStateCommand) {
+            return "g:" + ((UpdateServiceGroupStateCommand) cmd).getServiceGroupContextId();
+        } else {
+            return "c";
+        }
+    }
+
+    private void startFlushExecutor() {
+        flushExecutor = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+            public Thread newThread(Runnable r) {
+                Thread thread = new Thread(r, "Axis2 state replication");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        flushExecutor.scheduleWithFixedDelay(new Runnable() {
+            public void run() {
+                try {
+                    flush();
+                } catch (Throwable e) {
+                    log.error("Could not replicate state", e);
+                }
+            }
+        }, flushInterval, flushInterval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Send all pending property differences to the group as a single message. This is a no-op
+     * if the {@link #FLUSH_INTERVAL} parameter is not set.
+     *
+     * @throws ClusteringFault if the message could not be sent
+     */
+    public void flush() throws ClusteringFault {
+        synchronized (sendLock) {
+            List<StateClusteringCommand> commands;
+            synchronized (pendingUpdates) {
+                if (pendingUpdates.isEmpty()) {
+                    return;
+                }
+                commands = new ArrayList<StateClusteringCommand>(pendingUpdates.values());
+                pendingUpdates.clear();
+            }
+            // Updates can still be added while the snapshot is being sent; they are sent by the
+            // next flush, which can't start before this one has completed
+            sender.sendToGroup(new StateClusteringCommandCollection(commands));
+        }
+    }
+
+    /**
+     * Stop the periodic flush and send any pending property differences.
+     *
+     * @throws ClusteringFault if the pending differences could not be sent
+     */
+    public void shutdown() throws ClusteringFault {
+        synchronized (pendingUpdates) {
+            if (flushExecutor != null) {
+                flushExecutor.shutdown();
+                flushExecutor = null;
+            }
+        }
+        flush();
     }
 
     public boolean isContextClusterable(AbstractContext context) {
@@ -112,6 +257,14 @@ public class DefaultStateManager implements StateManager {
     // ---------------------- Methods from ParameterInclude ----------------------------------------
     public void addParameter(Parameter param) throws AxisFault {
         parameters.put(param.getName(), param);
+        if (FLUSH_INTERVAL.equals(param.getName())) {
+            try {
+                flushInterval = Long.parseLong(((String) param.getValue()).trim());
+            } catch (NumberFormatException e) {
+                throw new AxisFault("Invalid value for the " + FLUSH_INTERVAL + " parameter: "
+                                    + param.getValue(), e);
+            }
+        }
     }
 
     public void removeParameter(Parameter param) throws AxisFault {
@@ -41,6 +41,18 @@ public class UpdateServiceStateCommand extends UpdateStateCommand {
     protected String serviceGroupContextId;
     protected String serviceName;
 
+    public String getServiceGroupName() {
+        return serviceGroupName;
+    }
+
+    public String getServiceGroupContextId() {
+        return serviceGroupContextId;
+    }
+
+    public String getServiceName() {
+        return serviceName;
+    }
+
     public void setServiceGroupName(String serviceGroupName) {
         this.serviceGroupName = serviceGroupName;
     }
@@ -24,6 +24,7 @@ import org.apache.axis2.clustering.state.StateClusteringCommand;
 import org.apache.axis2.context.PropertyDifference;
 
 import java.util.HashMap;
+import java.util.Map;
 
 /**
  * 
@@ -40,6 +41,14 @@ public abstract class UpdateStateCommand extends StateClusteringCommand {
         return propertyUpdater.getProperties().isEmpty();
     }
 
+    /**
+     * @return the {@link PropertyDifference}s carried by this command, keyed by property name, or
+     *         <code>null</code> if no property has been added
+     */
+    public Map getProperties() {
+        return propertyUpdater.getProperties();
+    }
+
     public void addProperty(PropertyDifference diff) {
         if (propertyUpdater.getProperties() == null) {
             propertyUpdater.setProperties(new HashMap());
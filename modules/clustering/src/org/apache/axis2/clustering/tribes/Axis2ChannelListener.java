@@ -50,6 +50,8 @@ public class Axis2ChannelListener implements ChannelListener {
 
     private ConfigurationContext configurationContext;
 
+    private StateCommandCodec codec = new StateCommandCodec();
+
     public Axis2ChannelListener(ConfigurationContext configurationContext,
                                 DefaultNodeManager nodeManager,
                                 DefaultStateManager stateManager) {
@@ -70,6 +72,10 @@ public class Axis2ChannelListener implements ChannelListener {
         this.configurationContext = configurationContext;
     }
 
+    public void setStateCommandCodec(StateCommandCodec codec) {
+        this.codec = codec;
+    }
+
     /**
      * Invoked by the channel to determine if the listener will process this message or not.
      * @param msg Serializable
@@ -88,10 +94,14 @@ public class Axis2ChannelListener implements ChannelListener {
     public void messageReceived(Serializable msg, Member sender) {
         try {
             byte[] message = ((ByteMessage) msg).getMessage();
-            msg = XByteBuffer.deserialize(message,
-                                          0,
-                                          message.length,
-                                          ClassLoaderUtil.getClassLoaders());
+            if (StateCommandCodec.isEncoded(message)) {
+                msg = codec.decode(message);
+            } else {
+                msg = XByteBuffer.deserialize(message,
+                                              0,
+                                              message.length,
+                                              ClassLoaderUtil.getClassLoaders());
+            }
         } catch (Exception e) {
             String errMsg = "Cannot deserialize received message";
             log.error(errMsg, e);
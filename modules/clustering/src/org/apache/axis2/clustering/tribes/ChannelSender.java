@@ -40,6 +40,7 @@ public class ChannelSender implements MessageSender {
     private Channel channel;
     private boolean synchronizeAllMembers;
     private MembershipManager membershipManager;
+    private StateCommandCodec codec = new StateCommandCodec();
 
     public ChannelSender(Channel channel,
                          MembershipManager membershipManager,
@@ -49,6 +50,16 @@ public class ChannelSender implements MessageSender {
         this.synchronizeAllMembers = synchronizeAllMembers;
     }
 
+    /**
+     * Set the codec used for state replication commands. It must be compatible with the codec
+     * used by the {@link Axis2ChannelListener} of the other members.
+     *
+     * @param codec the codec
+     */
+    public void setStateCommandCodec(StateCommandCodec codec) {
+        this.codec = codec;
+    }
+
     public synchronized void sendToGroup(ClusteringCommand msg,
                             MembershipManager membershipManager,
                             int additionalOptions) throws ClusteringFault {
@@ -106,6 +117,9 @@ public class ChannelSender implements MessageSender {
     }
 
     private ByteMessage toByteMessage(ClusteringCommand msg) throws IOException {
+        if (codec.canEncode(msg)) {
+            return new ByteMessage(codec.encode(msg));
+        }
         ByteArrayOutputStream bos = new ByteArrayOutputStream();
         ObjectOutputStream out = new ObjectOutputStream(bos);
         out.writeObject(msg);
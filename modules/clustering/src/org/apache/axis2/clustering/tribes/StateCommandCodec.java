@@ -0,0 +1,387 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.axis2.clustering.tribes;
+
+import org.apache.axis2.clustering.ClusteringCommand;
+import org.apache.axis2.clustering.state.StateClusteringCommand;
+import org.apache.axis2.clustering.state.commands.StateClusteringCommandCollection;
+import org.apache.axis2.clustering.state.commands.UpdateConfigurationStateCommand;
+import org.apache.axis2.clustering.state.commands.UpdateServiceGroupStateCommand;
+import org.apache.axis2.clustering.state.commands.UpdateServiceStateCommand;
+import org.apache.axis2.clustering.state.commands.UpdateStateCommand;
+import org.apache.axis2.context.PropertyDifference;
+import org.apache.catalina.tribes.io.XByteBuffer;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact binary encoding of the state replication commands, used by {@link ChannelSender}
+ * instead of Java serialization for {@link UpdateConfigurationStateCommand},
+ * {@link UpdateServiceGroupStateCommand}, {@link UpdateServiceStateCommand} and collections
+ * thereof. All other commands are still sent as serialized Java objects; the two formats are
+ * distinguished by the first byte of the message, which can never start a Java serialization
+ * stream.
+ * <p>
+ * Property values that are strings, boxed primitives or byte arrays are written with a one byte
+ * type tag followed by their value. Other values are delegated to a {@link ValueCodec}.
+ */
+public class StateCommandCodec {
+
+    private static final byte MAGIC = (byte) 0xA2;
+    private static final byte VERSION = 1;
+
+    private static final byte CMD_CONFIGURATION = 1;
+    private static final byte CMD_SERVICE_GROUP = 2;
+    private static final byte CMD_SERVICE = 3;
+    private static final byte CMD_COLLECTION = 4;
+
+    private static final byte VALUE_NULL = 0;
+    private static final byte VALUE_STRING = 1;
+    private static final byte VALUE_INTEGER = 2;
+    private static final byte VALUE_LONG = 3;
+    private static final byte VALUE_BOOLEAN = 4;
+    private static final byte VALUE_DOUBLE = 5;
+    private static final byte VALUE_FLOAT = 6;
+    private static final byte VALUE_SHORT = 7;
+    private static final byte VALUE_BYTE = 8;
+    private static final byte VALUE_CHARACTER = 9;
+    private static final byte VALUE_BYTES = 10;
+    private static final byte VALUE_OBJECT = 11;
+
+    /**
+     * The default {@link ValueCodec}, which uses Java serialization and resolves classes using
+     * the class loaders known to {@link ClassLoaderUtil}.
+     */
+    public static final ValueCodec JAVA_SERIALIZATION = new ValueCodec() {
+        public byte[] encode(Object value) throws IOException {
+            ByteArrayOutputStream bos = new ByteArrayOutputStream();
+            ObjectOutputStream out = new ObjectOutputStream(bos);
+            out.writeObject(value);
+            out.close();
+            return bos.toByteArray();
+        }
+
+        public Object decode(byte[] data) throws IOException {
+            try {
+                return XByteBuffer.deserialize(data, 0, data.length,
+                                               ClassLoaderUtil.getClassLoaders());
+            } catch (ClassNotFoundException e) {
+                IOException ex = new IOException("Cannot deserialize property value");
+                ex.initCause(e);
+                throw ex;
+            }
+        }
+    };
+
+    private final ValueCodec valueCodec;
+
+    public StateCommandCodec() {
+        this(JAVA_SERIALIZATION);
+    }
+
+    public StateCommandCodec(ValueCodec valueCodec) {
+        this.valueCodec = valueCodec;
+    }
+
+    /**
+     * Determine whether the given command can be encoded by this codec. Subclasses of the
+     * supported commands are excluded since they may carry additional state.
+     *
+     * @param command the command
+     * @return <code>true</code> if {@link #encode(ClusteringCommand)} can be used
+     */
+    public boolean canEncode(ClusteringCommand command) {
+        Class<?> commandClass = command.getClass();
+        if (commandClass == StateClusteringCommandCollection.class) {
+            List<StateClusteringCommand> commands =
+                    ((StateClusteringCommandCollection) command).getCommands();
+            if (commands == null) {
+                return false;
+            }
+            for (StateClusteringCommand child : commands) {
+                if (!canEncode(child)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return commandClass == UpdateConfigurationStateCommand.class
+               || commandClass == UpdateServiceGroupStateCommand.class
+               || commandClass == UpdateServiceStateCommand.class;
+    }
+
+    /**
+     * Determine whether a received message was produced by {@link #encode(ClusteringCommand)}.
+     *
+     * @param message the message
+     * @return <code>true</code> if the message should be decoded with {@link #decode(byte[])}
+     */
+    public static boolean isEncoded(byte[] message) {
+        return message.length > 0 && message[0] == MAGIC;
+    }
+
+    public byte[] encode(ClusteringCommand command) throws IOException {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream(256);
+        DataOutputStream out = new DataOutputStream(bos);
+        out.writeByte(MAGIC);
+        out.writeByte(VERSION);
+        writeCommand(out, (StateClusteringCommand) command);
+        out.flush();
+        return bos.toByteArray();
+    }
+
+    public StateClusteringCommand decode(byte[] message) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(message));
+        if (in.readByte() != MAGIC) {
+            throw new IOException("Not a state replication message");
+        }
+        int version = in.readByte();
+        if (version != VERSION) {
+            throw new IOException("Unsupported state replication message version " + version);
+        }
+        return readCommand(in);
+    }
+
+    private void writeCommand(DataOutputStream out, StateClusteringCommand command)
+            throws IOException {
+        if (command instanceof StateClusteringCommandCollection) {
+            List<StateClusteringCommand> commands =
+                    ((StateClusteringCommandCollection) command).getCommands();
+            out.writeByte(CMD_COLLECTION);
+            writeLength(out, commands.size());
+            for (StateClusteringCommand child : commands) {
+                writeCommand(out, child);
+            }
+            return;
+        }
+        if (command instanceof UpdateServiceStateCommand) {
+            UpdateServiceStateCommand cmd = (UpdateServiceStateCommand) command;
+            out.writeByte(CMD_SERVICE);
+            writeString(out, cmd.getServiceGroupName());
+            writeString(out, cmd.getServiceGroupContextId());
+            writeString(out, cmd.getServiceName());
+        } else if (command instanceof UpdateServiceGroupStateCommand) {
+            UpdateServiceGroupStateCommand cmd = (UpdateServiceGroupStateCommand) command;
+            out.writeByte(CMD_SERVICE_GROUP);
+            writeString(out, cmd.getServiceGroupName());
+            writeString(out, cmd.getServiceGroupContextId());
+        } else {
+            out.writeByte(CMD_CONFIGURATION);
+        }
+        Map properties = ((UpdateStateCommand) command).getProperties();
+        if (properties == null) {
+            writeLength(out, 0);
+            return;
+        }
+        writeLength(out, properties.size());
+        for (Object o : properties.values()) {
+            PropertyDifference diff = (PropertyDifference) o;
+            writeString(out, diff.getKey());
+            out.writeBoolean(diff.isRemoved());
+            if (!diff.isRemoved()) {
+                writeValue(out, diff.getValue());
+            }
+        }
+    }
+
+    private StateClusteringCommand readCommand(DataInputStream in) throws IOException {
+        byte type = in.readByte();
+        UpdateStateCommand command;
+        switch (type) {
+            case CMD_COLLECTION:
+                int count = readLength(in);
+                List<StateClusteringCommand> commands = new ArrayList<StateClusteringCommand>(count);
+                for (int i = 0; i < count; i++) {
+                    commands.add(readCommand(in));
+                }
+                return new StateClusteringCommandCollection(commands);
+            case CMD_SERVICE:
+                UpdateServiceStateCommand serviceCmd = new UpdateServiceStateCommand();
+                serviceCmd.setServiceGroupName(readString(in));
+                serviceCmd.setServiceGroupContextId(readString(in));
+                serviceCmd.setServiceName(readString(in));
+                command = serviceCmd;
+                break;
+            case CMD_SERVICE_GROUP:
+                UpdateServiceGroupStateCommand sgCmd = new UpdateServiceGroupStateCommand();
+                sgCmd.setServiceGroupName(readString(in));
+                sgCmd.setServiceGroupContextId(readString(in));
+                command = sgCmd;
+                break;
+            case CMD_CONFIGURATION:
+                command = new UpdateConfigurationStateCommand();
+                break;
+            default:
+                throw new IOException("Unknown state replication command type " + type);
+        }
+        int propertyCount = readLength(in);
+        // isPropertiesEmpty creates the property map, which execute expects to exist
+        command.isPropertiesEmpty();
+        for (int i = 0; i < propertyCount; i++) {
+            String key = readString(in);
+            boolean removed = in.readBoolean();
+            Object value = removed ? null : readValue(in);
+            command.addProperty(new PropertyDifference(key, value, removed));
+        }
+        return command;
+    }
+
+    private void writeValue(DataOutputStream out, Object value) throws IOException {
+        if (value == null) {
+            out.writeByte(VALUE_NULL);
+        } else if (value instanceof String) {
+            out.writeByte(VALUE_STRING);
+            writeString(out, (String) value);
+        } else if (value instanceof Integer) {
+            out.writeByte(VALUE_INTEGER);
+            out.writeInt((Integer) value);
+        } else if (value instanceof Long) {
+            out.writeByte(VALUE_LONG);
+            out.writeLong((Long) value);
+        } else if (value instanceof Boolean) {
+            out.writeByte(VALUE_BOOLEAN);
+            out.writeBoolean((Boolean) value);
+        } else if (value instanceof Double) {
+            out.writeByte(VALUE_DOUBLE);
+            out.writeDouble((Double) value);
+        } else if (value instanceof Float) {
+            out.writeByte(VALUE_FLOAT);
+            out.writeFloat((Float) value);
+        } else if (value instanceof Short) {
+            out.writeByte(VALUE_SHORT);
+            out.writeShort((Short) value);
+        } else if (value instanceof Byte) {
+            out.writeByte(VALUE_BYTE);
+            out.writeByte((Byte) value);
+        } else if (value instanceof Character) {
+            out.writeByte(VALUE_CHARACTER);
+            out.writeChar((Character) value);
+        } else if (value instanceof byte[]) {
+            out.writeByte(VALUE_BYTES);
+            writeBytes(out, (byte[]) value);
+        } else {
+            out.writeByte(VALUE_OBJECT);
+            writeBytes(out, valueCodec.encode(value));
+        }
+    }
+
+    private Object readValue(DataInputStream in) throws IOException {
+        byte type = in.readByte();
+        switch (type) {
+            case VALUE_NULL:
+                return null;
+            case VALUE_STRING:
+                return readString(in);
+            case VALUE_INTEGER:
+                return in.readInt();
+            case VALUE_LONG:
+                return in.readLong();
+            case VALUE_BOOLEAN:
+                return in.readBoolean();
+            case VALUE_DOUBLE:
+                return in.readDouble();
+            case VALUE_FLOAT:
+                return in.readFloat();
+            case VALUE_SHORT:
+                return in.readShort();
+            case VALUE_BYTE:
+                return in.readByte();
+            case VALUE_CHARACTER:
+                return in.readChar();
+            case VALUE_BYTES:
+                return readBytes(in);
+            case VALUE_OBJECT:
+                return valueCodec.decode(readBytes(in));
+            default:
+                throw new IOException("Unknown property value type " + type);
+        }
+    }
+
+    /**
+     * Write a string as its UTF-8 encoding prefixed by its length. <code>null</code> is written
+     * as a length of zero, so the empty string is shifted to a length of one.
+     */
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            writeLength(out, 0);
+        } else {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeLength(out, bytes.length + 1);
+            out.write(bytes);
+        }
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = readLength(in);
+        if (length == 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length - 1];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeBytes(DataOutputStream out, byte[] value) throws IOException {
+        writeLength(out, value.length);
+        out.write(value);
+    }
+
+    private static byte[] readBytes(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[readLength(in)];
+        in.readFully(bytes);
+        return bytes;
+    }
+
+    /**
+     * Write a non negative integer using 7 bits per byte, so that small lengths and counts
+     * take a single byte.
+     */
+    private static void writeLength(DataOutputStream out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    private static int readLength(DataInputStream in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                if (value < 0) {
+                    break;
+                }
+                return value;
+            }
+        }
+        throw new IOException("Malformed length");
+    }
+}
@@ -204,6 +204,7 @@ public class TribesClusteringAgent implements ClusteringAgent {
         axis2ChannelListener =
                 new Axis2ChannelListener(configurationContext, configurationManager, contextManager);
         channel.addChannelListener(axis2ChannelListener);
+        configureStateCommandCodec();
 
         byte[] domain = getClusterDomain();
         log.info("Cluster domain: " + new String(domain));
@@ -479,6 +480,28 @@ public class TribesClusteringAgent implements ClusteringAgent {
         multiPointSender.setMaxRetryAttempts(maxRetries);
     }
 
+    /**
+     * Use the ValueCodec configured with the stateValueCodec parameter, if any, to encode
+     * state replication commands
+     */
+    private void configureStateCommandCodec() throws ClusteringFault {
+        Parameter codecParam = getParameter(TribesConstants.STATE_VALUE_CODEC);
+        if (codecParam == null) {
+            return;
+        }
+        String clazz = ((String) codecParam.getValue()).trim();
+        StateCommandCodec codec;
+        try {
+            codec = new StateCommandCodec((ValueCodec) Class.forName(clazz).newInstance());
+        } catch (Exception e) {
+            String msg = "Cannot instantiate ValueCodec " + clazz;
+            log.error(msg, e);
+            throw new ClusteringFault(msg, e);
+        }
+        channelSender.setStateCommandCodec(codec);
+        axis2ChannelListener.setStateCommandCodec(codec);
+    }
+
     /**
      * A RequestBlockingHandler, which is an implementation of
      * {@link org.apache.axis2.engine.Handler} is added to the InFlow & InFaultFlow. This handler
@@ -826,6 +849,9 @@ public class TribesClusteringAgent implements ClusteringAgent {
      */
     public void shutdown() throws ClusteringFault {
         log.debug("Enter: TribesClusteringAgent::shutdown");
+        if (contextManager != null) {
+            contextManager.shutdown();
+        }
         if (channel != null) {
             try {
                 channel.removeChannelListener(rpcInitChannel);
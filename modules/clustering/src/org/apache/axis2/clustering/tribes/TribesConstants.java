@@ -63,4 +63,10 @@ public final class TribesConstants {
     public static final String BIND_ADDRESS = "bindAddress";
     public static final String TCP_LISTEN_PORT = "tcpListenPort";
     public static final String MAX_RETRIES = "maxRetries";
+
+    /**
+     * The name of a {@link ValueCodec} class used to encode replicated property values that are
+     * not strings, boxed primitives or byte arrays. Defaults to Java serialization.
+     */
+    public static final String STATE_VALUE_CODEC = "stateValueCodec";
 }
@@ -0,0 +1,49 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.axis2.clustering.tribes;
+
+import java.io.IOException;
+
+/**
+ * Encodes the replicated property values that {@link StateCommandCodec} has no built-in
+ * representation for, i.e. anything other than strings, boxed primitives and byte arrays.
+ * The default implementation uses Java serialization. An alternative implementation can be
+ * configured with the {@link TribesConstants#STATE_VALUE_CODEC} parameter; it must be the same on
+ * all members of the cluster.
+ */
+public interface ValueCodec {
+    /**
+     * Encode a value.
+     *
+     * @param value the value, never <code>null</code>
+     * @return the encoded value
+     * @throws IOException if the value cannot be encoded
+     */
+    byte[] encode(Object value) throws IOException;
+
+    /**
+     * Decode a value produced by {@link #encode(Object)}.
+     *
+     * @param data the encoded value
+     * @return the value
+     * @throws IOException if the value cannot be decoded
+     */
+    Object decode(byte[] data) throws IOException;
+}
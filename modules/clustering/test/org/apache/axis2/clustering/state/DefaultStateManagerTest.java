@@ -0,0 +1,180 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.axis2.clustering.state;
+
+import junit.framework.TestCase;
+import org.apache.axis2.AxisFault;
+import org.apache.axis2.clustering.ClusteringCommand;
+import org.apache.axis2.clustering.ClusteringFault;
+import org.apache.axis2.clustering.state.commands.StateClusteringCommandCollection;
+import org.apache.axis2.clustering.state.commands.UpdateStateCommand;
+import org.apache.axis2.clustering.tribes.ChannelSender;
+import org.apache.axis2.context.ConfigurationContext;
+import org.apache.axis2.context.PropertyDifference;
+import org.apache.axis2.description.Parameter;
+import org.apache.axis2.engine.AxisConfiguration;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class DefaultStateManagerTest extends TestCase {
+
+    private final List<ClusteringCommand> sent =
+            Collections.synchronizedList(new ArrayList<ClusteringCommand>());
+
+    /**
+     * If set, the first message sent blocks until this latch is released.
+     */
+    private volatile CountDownLatch release;
+    private final CountDownLatch sending = new CountDownLatch(1);
+
+    private DefaultStateManager stateManager;
+    private ConfigurationContext configurationContext;
+
+    protected void setUp() throws Exception {
+        stateManager = new DefaultStateManager();
+        stateManager.setSender(new ChannelSender(null, null, false) {
+            public void sendToGroup(ClusteringCommand msg) throws ClusteringFault {
+                CountDownLatch latch = release;
+                if (latch != null && sending.getCount() > 0) {
+                    sending.countDown();
+                    try {
+                        latch.await(10, TimeUnit.SECONDS);
+                    } catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                sent.add(msg);
+            }
+        });
+        configurationContext = new ConfigurationContext(new AxisConfiguration());
+    }
+
+    protected void tearDown() throws Exception {
+        stateManager.shutdown();
+    }
+
+    private void update(String key, Object value) throws ClusteringFault {
+        Map<String, Object> diffs = configurationContext.getPropertyDifferences();
+        diffs.put(key, new PropertyDifference(key, value, false));
+        stateManager.updateContext(configurationContext);
+        configurationContext.clearPropertyDifferences();
+    }
+
+    public void testImmediate() throws Exception {
+        update("a", "1");
+        update("b", "2");
+        assertEquals(2, sent.size());
+    }
+
+    public void testBatched() throws Exception {
+        stateManager.addParameter(
+                new Parameter(DefaultStateManager.FLUSH_INTERVAL, "3600000"));
+        update("a", "1");
+        update("b", "2");
+        update("a", "3");
+        assertTrue(sent.isEmpty());
+
+        stateManager.flush();
+        assertEquals(1, sent.size());
+        StateClusteringCommandCollection collection =
+                (StateClusteringCommandCollection) sent.get(0);
+        assertEquals(1, collection.getCommands().size());
+        Map properties = ((UpdateStateCommand) collection.getCommands().get(0)).getProperties();
+        assertEquals(2, properties.size());
+        assertEquals("3", ((PropertyDifference) properties.get("a")).getValue());
+
+        stateManager.flush();
+        assertEquals(1, sent.size());
+    }
+
+    public void testInvalidFlushInterval() throws Exception {
+        try {
+            stateManager.addParameter(
+                    new Parameter(DefaultStateManager.FLUSH_INTERVAL, "soon"));
+            fail("Expected AxisFault");
+        } catch (AxisFault e) {
+            assertTrue(e.getMessage().indexOf(DefaultStateManager.FLUSH_INTERVAL) != -1);
+        }
+        update("a", "1");
+        assertEquals(1, sent.size());
+    }
+
+    public void testReplicateStateFlushesPendingUpdates() throws Exception {
+        stateManager.addParameter(
+                new Parameter(DefaultStateManager.FLUSH_INTERVAL, "3600000"));
+        update("a", "1");
+        stateManager.replicateState(new StateClusteringCommandCollection(
+                new ArrayList<StateClusteringCommand>()));
+        assertEquals(2, sent.size());
+        assertTrue(sent.get(0) instanceof StateClusteringCommandCollection);
+    }
+
+    private Thread startFlush(final List<Throwable> errors) {
+        Thread thread = new Thread() {
+            public void run() {
+                try {
+                    stateManager.flush();
+                } catch (Throwable ex) {
+                    errors.add(ex);
+                }
+            }
+        };
+        thread.start();
+        return thread;
+    }
+
+    private static Object getSentValue(ClusteringCommand command, String key) {
+        StateClusteringCommandCollection collection = (StateClusteringCommandCollection) command;
+        Map properties = ((UpdateStateCommand) collection.getCommands().get(0)).getProperties();
+        return ((PropertyDifference) properties.get(key)).getValue();
+    }
+
+    public void testConcurrentFlushesPreserveOrder() throws Exception {
+        stateManager.addParameter(
+                new Parameter(DefaultStateManager.FLUSH_INTERVAL, "3600000"));
+        List<Throwable> errors = Collections.synchronizedList(new ArrayList<Throwable>());
+        release = new CountDownLatch(1);
+        update("a", "1");
+        // The first flush takes a snapshot and then stalls while sending it
+        Thread first = startFlush(errors);
+        assertTrue(sending.await(10, TimeUnit.SECONDS));
+        update("a", "2");
+        Thread second = startFlush(errors);
+        // The second flush must wait for the first one instead of overtaking it
+        long deadline = System.currentTimeMillis() + 10000;
+        while (second.getState() != Thread.State.BLOCKED
+                && second.getState() != Thread.State.TERMINATED
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        release.countDown();
+        first.join(10000);
+        second.join(10000);
+        assertTrue(errors.isEmpty());
+        assertEquals(2, sent.size());
+        assertEquals("1", getSentValue(sent.get(0), "a"));
+        assertEquals("2", getSentValue(sent.get(1), "a"));
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.axis2.clustering.tribes;
+
+import junit.framework.TestCase;
+import org.apache.axis2.clustering.TestDO;
+import org.apache.axis2.clustering.state.StateClusteringCommand;
+import org.apache.axis2.clustering.state.commands.DeleteServiceGroupStateCommand;
+import org.apache.axis2.clustering.state.commands.StateClusteringCommandCollection;
+import org.apache.axis2.clustering.state.commands.UpdateServiceGroupStateCommand;
+import org.apache.axis2.clustering.state.commands.UpdateServiceStateCommand;
+import org.apache.axis2.clustering.state.commands.UpdateStateCommand;
+import org.apache.axis2.context.PropertyDifference;
+
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class StateCommandCodecTest extends TestCase {
+
+    private final StateCommandCodec codec = new StateCommandCodec();
+
+    private UpdateServiceGroupStateCommand createServiceGroupCommand(String id) {
+        UpdateServiceGroupStateCommand cmd = new UpdateServiceGroupStateCommand();
+        cmd.setServiceGroupName("group");
+        cmd.setServiceGroupContextId(id);
+        cmd.addProperty(new PropertyDifference("string", "valueé", false));
+        cmd.addProperty(new PropertyDifference("int", 42, false));
+        cmd.addProperty(new PropertyDifference("long", Long.MAX_VALUE, false));
+        cmd.addProperty(new PropertyDifference("boolean", Boolean.TRUE, false));
+        cmd.addProperty(new PropertyDifference("double", 1.5d, false));
+        cmd.addProperty(new PropertyDifference("char", 'x', false));
+        cmd.addProperty(new PropertyDifference("bytes", new byte[] { 1, 2, 3 }, false));
+        cmd.addProperty(new PropertyDifference("empty", "", false));
+        cmd.addProperty(new PropertyDifference("null", null, false));
+        cmd.addProperty(new PropertyDifference("removed", null, true));
+        return cmd;
+    }
+
+    private static PropertyDifference getProperty(UpdateStateCommand cmd, String key) {
+        return (PropertyDifference) cmd.getProperties().get(key);
+    }
+
+    public void testServiceGroupCommand() throws Exception {
+        UpdateServiceGroupStateCommand cmd = createServiceGroupCommand("sg1");
+        assertTrue(codec.canEncode(cmd));
+        byte[] message = codec.encode(cmd);
+        assertTrue(StateCommandCodec.isEncoded(message));
+
+        UpdateServiceGroupStateCommand decoded =
+                (UpdateServiceGroupStateCommand) codec.decode(message);
+        assertEquals("group", decoded.getServiceGroupName());
+        assertEquals("sg1", decoded.getServiceGroupContextId());
+        assertEquals(10, decoded.getProperties().size());
+        assertEquals("valueé", getProperty(decoded, "string").getValue());
+        assertEquals(42, getProperty(decoded, "int").getValue());
+        assertEquals(Long.MAX_VALUE, getProperty(decoded, "long").getValue());
+        assertEquals(Boolean.TRUE, getProperty(decoded, "boolean").getValue());
+        assertEquals(1.5d, getProperty(decoded, "double").getValue());
+        assertEquals('x', getProperty(decoded, "char").getValue());
+        assertTrue(Arrays.equals(new byte[] { 1, 2, 3 },
+                                 (byte[]) getProperty(decoded, "bytes").getValue()));
+        assertEquals("", getProperty(decoded, "empty").getValue());
+        assertNull(getProperty(decoded, "null").getValue());
+        assertFalse(getProperty(decoded, "null").isRemoved());
+        assertTrue(getProperty(decoded, "removed").isRemoved());
+    }
+
+    public void testCollection() throws Exception {
+        List<StateClusteringCommand> commands = new ArrayList<StateClusteringCommand>();
+        commands.add(createServiceGroupCommand("sg1"));
+        UpdateServiceStateCommand serviceCmd = new UpdateServiceStateCommand();
+        serviceCmd.setServiceGroupName("group");
+        serviceCmd.setServiceGroupContextId("sg1");
+        serviceCmd.setServiceName("service");
+        serviceCmd.addProperty(new PropertyDifference("object", new TestDO("a", "b"), false));
+        commands.add(serviceCmd);
+        StateClusteringCommandCollection collection =
+                new StateClusteringCommandCollection(commands);
+        assertTrue(codec.canEncode(collection));
+
+        StateClusteringCommandCollection decoded =
+                (StateClusteringCommandCollection) codec.decode(codec.encode(collection));
+        assertEquals(2, decoded.getCommands().size());
+        UpdateServiceStateCommand decodedServiceCmd =
+                (UpdateServiceStateCommand) decoded.getCommands().get(1);
+        assertEquals("service", decodedServiceCmd.getServiceName());
+        TestDO value = (TestDO) getProperty(decodedServiceCmd, "object").getValue();
+        assertEquals("a", value.getName());
+        assertEquals("b", value.getValue());
+    }
+
+    public void testUnsupportedCommand() {
+        assertFalse(codec.canEncode(new DeleteServiceGroupStateCommand()));
+        List<StateClusteringCommand> commands = new ArrayList<StateClusteringCommand>();
+        commands.add(createServiceGroupCommand("sg1"));
+        commands.add(new DeleteServiceGroupStateCommand());
+        assertFalse(codec.canEncode(new StateClusteringCommandCollection(commands)));
+    }
+
+    public void testSmallerThanJavaSerialization() throws Exception {
+        List<StateClusteringCommand> commands = new ArrayList<StateClusteringCommand>();
+        for (int i = 0; i < 100; i++) {
+            commands.add(createServiceGroupCommand("sg" + i));
+        }
+        StateClusteringCommandCollection collection =
+                new StateClusteringCommandCollection(commands);
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        ObjectOutputStream out = new ObjectOutputStream(bos);
+        out.writeObject(collection);
+        out.close();
+        assertFalse(StateCommandCodec.isEncoded(bos.toByteArray()));
+        assertTrue(codec.encode(collection).length < bos.size() / 2);
+    }
+}
@@ -63,6 +63,9 @@
         private java.util.Map&lt;org.apache.axis2.client.FaultMapKey,java.lang.String> faultExceptionClassNameMap = new java.util.HashMap&lt;org.apache.axis2.client.FaultMapKey,java.lang.String>();
         private java.util.Map&lt;org.apache.axis2.client.FaultMapKey,java.lang.String> faultMessageMap = new java.util.HashMap&lt;org.apache.axis2.client.FaultMapKey,java.lang.String>();
 
+        //resolved fault exception constructors and setters, shared by all instances of the stub
+        private static final java.util.concurrent.ConcurrentMap&lt;org.apache.axis2.client.FaultMapKey,org.apache.axis2.client.FaultExceptionFactory> faultExceptionFactories = new java.util.concurrent.ConcurrentHashMap&lt;org.apache.axis2.client.FaultMapKey,org.apache.axis2.client.FaultExceptionFactory>();
+
         private static int counter = 0;
 
         private static synchronized java.lang.String getUniqueSuffix(){
@@ -128,6 +131,17 @@
 
     }
 
+    private org.apache.axis2.client.FaultExceptionFactory getFaultExceptionFactory(org.apache.axis2.client.FaultMapKey faultKey)
+            throws java.lang.ClassNotFoundException, java.lang.NoSuchMethodException {
+        org.apache.axis2.client.FaultExceptionFactory factory = faultExceptionFactories.get(faultKey);
+        if (factory == null) {
+            factory = org.apache.axis2.client.FaultExceptionFactory.create(faultExceptionClassNameMap.get(faultKey),
+                    faultMessageMap.get(faultKey), <xsl:value-of select="@name"/>.class.getClassLoader());
+            faultExceptionFactories.putIfAbsent(faultKey, factory);
+        }
+        return factory;
+    }
+
     /**
       *Constructor that takes in a configContext
       */
@@ -513,19 +527,10 @@
             org.apache.axiom.om.OMElement faultElt = f.getDetail();
             if (faultElt!=null){
                 if (faultExceptionNameMap.containsKey(new org.apache.axis2.client.FaultMapKey(faultElt.getQName(),"<xsl:value-of select="@originalName"/>"))){
-                    //make the fault by reflection
+                    //make the fault using the cached constructor and setter
                     try{
-                        java.lang.String exceptionClassName = faultExceptionClassNameMap.get(new org.apache.axis2.client.FaultMapKey(faultElt.getQName(),"<xsl:value-of select="@originalName"/>"));
-                        java.lang.Class exceptionClass = java.lang.Class.forName(exceptionClassName);
-                        java.lang.reflect.Constructor constructor = exceptionClass.getConstructor(java.lang.String.class);
-                        java.lang.Exception ex = (java.lang.Exception) constructor.newInstance(f.getMessage());
-                        //message class
-                        java.lang.String messageClassName = faultMessageMap.get(new org.apache.axis2.client.FaultMapKey(faultElt.getQName(),"<xsl:value-of select="@originalName"/>"));
-                        java.lang.Class messageClass = java.lang.Class.forName(messageClassName);
-                        java.lang.Object messageObject = fromOM(faultElt,messageClass);
-                        java.lang.reflect.Method m = exceptionClass.getMethod("setFaultMessage",
-                                   new java.lang.Class[]{messageClass});
-                        m.invoke(ex,new java.lang.Object[]{messageObject});
+                        org.apache.axis2.client.FaultExceptionFactory faultFactory = getFaultExceptionFactory(new org.apache.axis2.client.FaultMapKey(faultElt.getQName(),"<xsl:value-of select="@originalName"/>"));
+                        java.lang.Exception ex = faultFactory.newException(f.getMessage(), fromOM(faultElt,faultFactory.getMessageClass()));
                         <xsl:for-each select="fault/param">
                         if (ex instanceof <xsl:value-of select="@name"/>){
                           throw (<xsl:value-of select="@name"/>)ex;
@@ -783,19 +788,10 @@
 									org.apache.axiom.om.OMElement faultElt = f.getDetail();
 									if (faultElt!=null){
 										if (faultExceptionNameMap.containsKey(new org.apache.axis2.client.FaultMapKey(faultElt.getQName(),"<xsl:value-of select="@originalName"/>"))){
-											//make the fault by reflection
+											//make the fault using the cached constructor and setter
 											try{
-													java.lang.String exceptionClassName = faultExceptionClassNameMap.get(new org.apache.axis2.client.FaultMapKey(faultElt.getQName(),"<xsl:value-of select="@originalName"/>"));
-													java.lang.Class exceptionClass = java.lang.Class.forName(exceptionClassName);
-													java.lang.reflect.Constructor constructor = exceptionClass.getConstructor(java.lang.String.class);
-                                                    java.lang.Exception ex = (java.lang.Exception) constructor.newInstance(f.getMessage());
-													//message class
-													java.lang.String messageClassName = faultMessageMap.get(new org.apache.axis2.client.FaultMapKey(faultElt.getQName(),"<xsl:value-of select="@originalName"/>"));
-														java.lang.Class messageClass = java.lang.Class.forName(messageClassName);
-													java.lang.Object messageObject = fromOM(faultElt,messageClass);
-													java.lang.reflect.Method m = exceptionClass.getMethod("setFaultMessage",
-															new java.lang.Class[]{messageClass});
-													m.invoke(ex,new java.lang.Object[]{messageObject});
+											    org.apache.axis2.client.FaultExceptionFactory faultFactory = getFaultExceptionFactory(new org.apache.axis2.client.FaultMapKey(faultElt.getQName(),"<xsl:value-of select="@originalName"/>"));
+											    java.lang.Exception ex = faultFactory.newException(f.getMessage(), fromOM(faultElt,faultFactory.getMessageClass()));
 													<xsl:for-each select="fault/param">
 													if (ex instanceof <xsl:value-of select="@name"/>){
 														callback.receiveError<xsl:value-of select="$method-name"/>((<xsl:value-of select="@name"/>)ex);
@@ -1042,19 +1038,10 @@
                   org.apache.axiom.om.OMElement faultElt = f.getDetail();
                   if (faultElt!=null){
                       if (faultExceptionNameMap.containsKey(new org.apache.axis2.client.FaultMapKey(faultElt.getQName(),"<xsl:value-of select="@originalName"/>"))){
-                          //make the fault by reflection
+                          //make the fault using the cached constructor and setter
                           try{
-                              java.lang.String exceptionClassName = faultExceptionClassNameMap.get(new org.apache.axis2.client.FaultMapKey(faultElt.getQName(),"<xsl:value-of select="@originalName"/>"));
-                              java.lang.Class exceptionClass = java.lang.Class.forName(exceptionClassName);
-                              java.lang.Exception ex=
-                                      (java.lang.Exception) exceptionClass.newInstance();
-                              //message class
-                              java.lang.String messageClassName = faultMessageMap.get(new org.apache.axis2.client.FaultMapKey(faultElt.getQName(),"<xsl:value-of select="@originalName"/>"));
-                              java.lang.Class messageClass = java.lang.Class.forName(messageClassName);
-                              java.lang.Object messageObject = fromOM(faultElt,messageClass);
-                              java.lang.reflect.Method m = exceptionClass.getMethod("setFaultMessage",
-                                         new java.lang.Class[]{messageClass});
-                              m.invoke(ex,new java.lang.Object[]{messageObject});
+                              org.apache.axis2.client.FaultExceptionFactory faultFactory = getFaultExceptionFactory(new org.apache.axis2.client.FaultMapKey(faultElt.getQName(),"<xsl:value-of select="@originalName"/>"));
+                              java.lang.Exception ex = faultFactory.newException(fromOM(faultElt,faultFactory.getMessageClass()));
                               <xsl:for-each select="fault/param">
                               if (ex instanceof <xsl:value-of select="@name"/>){
                                 throw (<xsl:value-of select="@name"/>)ex;
@@ -168,7 +168,7 @@ public class JAXWSProxyHandler extends BindingProvider implements
                 throw ExceptionFactory.makeWebServiceException(
                         Messages.getMessage("proxyExcludedMethod", method.getName()));
             }
-            return invokeSEIMethod(method, args);
+            return invokeSEIMethod(method, operationDesc, args);
         }
     }
 
@@ -187,14 +187,12 @@ public class JAXWSProxyHandler extends BindingProvider implements
      * Performs the invocation of the method defined on the Service Endpoint
      * Interface.
      */
-    private Object invokeSEIMethod(Method method, Object[] args) throws Throwable {
+    private Object invokeSEIMethod(Method method, OperationDescription operationDesc,
+                                   Object[] args) throws Throwable {
         if (log.isDebugEnabled()) {
             log.debug("Attempting to invoke SEI Method " + method.getName());
         }
 
-        OperationDescription operationDesc =
-                endpointDesc.getEndpointInterfaceDescription().getOperation(method);
-
         // Create and configure the request MessageContext
         InvocationContext requestIC = InvocationContextFactory.createInvocationContext(null);
         MessageContext request = createRequest(method, args);
@@ -49,6 +49,10 @@ import java.util.Iterator;
 public class JsonFormatter implements MessageFormatter {
     private static final Log log = LogFactory.getLog(JsonFormatter.class);
 
+    // XSS protection, encode JSON Strings as HTML. Gson is thread safe, so the instance is shared.
+    private static final Gson gson = new GsonBuilder()
+            .registerTypeAdapter(String.class, new JsonHtmlEncoder()).create();
+
     public void writeTo(MessageContext outMsgCtxt, OMOutputFormat omOutputFormat, OutputStream outputStream, boolean preserve) throws AxisFault {
         String charSetEncoding = (String) outMsgCtxt.getProperty(Constants.Configuration.CHARACTER_SET_ENCODING);
         JsonWriter jsonWriter;
@@ -99,10 +103,6 @@ public class JsonFormatter implements MessageFormatter {
 
             } else {
                 try {
-                    GsonBuilder gsonBuilder = new GsonBuilder(); 
-                    // XSS protection, encode JSON Strings as HTML
-                    gsonBuilder.registerTypeAdapter(String.class, new JsonHtmlEncoder());
-                    Gson gson = gsonBuilder.create();
                     jsonWriter.beginObject();
                     jsonWriter.name(JsonConstant.RESPONSE);
                     Type returnType = (Type) outMsgCtxt.getProperty(JsonConstant.RETURN_TYPE);
@@ -0,0 +1,103 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.axis2.json.gson.rpc;
+
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.reflect.TypeToken;
+import org.apache.axis2.AxisFault;
+import org.apache.axis2.description.AxisOperation;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Pre-resolved binding between a JSON RPC request and a service method. It holds the
+ * {@link TypeAdapter}s for the method parameters so that they don't need to be looked up again for
+ * every request. Binders are cached per {@link AxisOperation}; the cache is weak so that binders
+ * are discarded when the service is undeployed.
+ */
+public final class JsonOperationBinder {
+
+    private static final Log log = LogFactory.getLog(JsonOperationBinder.class);
+
+    private static final Map<AxisOperation, JsonOperationBinder> binders =
+            Collections.synchronizedMap(new WeakHashMap<AxisOperation, JsonOperationBinder>());
+
+    private final Gson gson;
+    private final Class implClass;
+    private final Method method;
+    private final TypeAdapter<?>[] paramAdapters;
+
+    public JsonOperationBinder(Gson gson, Class implClass, Method method, Class[] paramClasses) {
+        this.gson = gson;
+        this.implClass = implClass;
+        this.method = method;
+        paramAdapters = new TypeAdapter<?>[paramClasses.length];
+        for (int i = 0; i < paramClasses.length; i++) {
+            paramAdapters[i] = gson.getAdapter(TypeToken.get(paramClasses[i]));
+        }
+    }
+
+    /**
+     * Get the binder for the given operation, creating it if necessary.
+     *
+     * @param axisOperation the operation
+     * @param implClass the service implementation class
+     * @return the binder
+     * @throws AxisFault if the service class has no method matching the operation
+     */
+    public static JsonOperationBinder getBinder(AxisOperation axisOperation, Class implClass)
+            throws AxisFault {
+        Gson gson = JsonUtils.getGson();
+        JsonOperationBinder binder = binders.get(axisOperation);
+        if (binder == null || binder.gson != gson || binder.implClass != implClass) {
+            String operationName = axisOperation.getName().getLocalPart();
+            Method method = JsonUtils.getOpMethod(operationName, implClass.getDeclaredMethods());
+            if (method == null) {
+                throw new AxisFault("No method named " + operationName + " found in "
+                        + implClass.getName());
+            }
+            if (log.isDebugEnabled()) {
+                log.debug("JsonOperationBinder.getBinder() creating binder for operation: "
+                        + operationName);
+            }
+            binder = new JsonOperationBinder(gson, implClass, method, method.getParameterTypes());
+            binders.put(axisOperation, binder);
+        }
+        return binder;
+    }
+
+    public Method getMethod() {
+        return method;
+    }
+
+    int getParameterCount() {
+        return paramAdapters.length;
+    }
+
+    TypeAdapter<?> getParameterAdapter(int index) {
+        return paramAdapters[index];
+    }
+}
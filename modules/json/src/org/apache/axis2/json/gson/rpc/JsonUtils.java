@@ -34,6 +34,29 @@ public class JsonUtils {
 
     private static final Log log = LogFactory.getLog(JsonUtils.class);
 
+    private static volatile Gson gson = new Gson();
+
+    /**
+     * Get the {@link Gson} instance used to deserialize the parameters of JSON RPC requests.
+     * {@link Gson} instances are thread safe, so a single instance is shared by all operations.
+     *
+     * @return the shared {@link Gson} instance
+     */
+    public static Gson getGson() {
+        return gson;
+    }
+
+    /**
+     * Replace the {@link Gson} instance used to deserialize the parameters of JSON RPC requests,
+     * e.g. to register custom type adapters. Cached {@link JsonOperationBinder}s are rebuilt the
+     * next time they are used.
+     *
+     * @param gson the {@link Gson} instance to use
+     */
+    public static void setGson(Gson gson) {
+        JsonUtils.gson = gson;
+    }
+
     public static Object invokeServiceClass(JsonReader jsonReader,
                                             Object service,
                                             Method operation ,
@@ -41,11 +64,19 @@ public class JsonUtils {
                                             int paramCount ) throws InvocationTargetException,
             IllegalAccessException, IOException  {
 
+        return invokeServiceClass(jsonReader, service,
+                new JsonOperationBinder(getGson(), service.getClass(), operation, paramClasses));
+    }
+
+    public static Object invokeServiceClass(JsonReader jsonReader,
+                                            Object service,
+                                            JsonOperationBinder binder) throws InvocationTargetException,
+            IllegalAccessException, IOException  {
+
+        Method operation = binder.getMethod();
+        int paramCount = binder.getParameterCount();
         Object[] methodParam = new Object[paramCount];
-	try {
-            Gson gson = new Gson();
-            String[] argNames = new String[paramCount];
-    
+        try {
             if( ! jsonReader.isLenient()){
                 jsonReader.setLenient(true);
             }
@@ -56,17 +87,17 @@ public class JsonUtils {
                 throw new IOException("Bad Request");
             }
             jsonReader.beginArray();
-    
-            int i = 0;
-            for (Class paramType : paramClasses) {
+
+            for (int i = 0; i < paramCount; i++) {
                 jsonReader.beginObject();
-                argNames[i] = jsonReader.nextName();
-                log.debug("JsonUtils.invokeServiceClass() on messageName: " +messageName+ " , is currently processing argName: " + argNames[i]);
-                methodParam[i] = gson.fromJson(jsonReader, paramType);   // gson handle all types well and return an object from it
+                String argName = jsonReader.nextName();
+                if (log.isDebugEnabled()) {
+                    log.debug("JsonUtils.invokeServiceClass() on messageName: " +messageName+ " , is currently processing argName: " + argName);
+                }
+                methodParam[i] = binder.getParameterAdapter(i).read(jsonReader);   // the adapter was resolved by gson when the binder was created
                 jsonReader.endObject();
-                i++;
             }
-    
+
             jsonReader.endArray();
             jsonReader.endObject();
         } catch (Exception ex) {
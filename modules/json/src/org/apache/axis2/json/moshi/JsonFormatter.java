@@ -54,14 +54,16 @@ import java.util.Date;
 public class JsonFormatter implements MessageFormatter {
     private static final Log log = LogFactory.getLog(JsonFormatter.class);
 
+    // Moshi and its adapters are thread safe, so they are created once and shared.
+    private static final Moshi moshi = new Moshi.Builder().add(String.class, new JsonHtmlEncoder()).add(Date.class, new Rfc3339DateJsonAdapter()).build();
+    private static final JsonAdapter<Object> adapter = moshi.adapter(Object.class);
+
     public void writeTo(MessageContext outMsgCtxt, OMOutputFormat omOutputFormat, OutputStream outputStream, boolean preserve) throws AxisFault {
         String charSetEncoding = (String) outMsgCtxt.getProperty(Constants.Configuration.CHARACTER_SET_ENCODING);
         JsonWriter jsonWriter;
         String msg;
 
         try {
-            Moshi moshi = new Moshi.Builder().add(String.class, new JsonHtmlEncoder()).add(Date.class, new Rfc3339DateJsonAdapter()).build();
-            JsonAdapter<Object> adapter = moshi.adapter(Object.class);
             BufferedSink sink = Okio.buffer(Okio.sink(outputStream));
             jsonWriter = JsonWriter.of(sink);
 
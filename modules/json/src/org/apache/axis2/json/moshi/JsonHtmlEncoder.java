@@ -29,7 +29,7 @@ import org.owasp.encoder.Encode;
 public final class JsonHtmlEncoder extends JsonAdapter<String> {
 
     @Override
-    public synchronized String fromJson(JsonReader reader) throws IOException {
+    public String fromJson(JsonReader reader) throws IOException {
         if (reader.peek() == JsonReader.Token.NULL) {
             return reader.nextNull();
         }
@@ -38,7 +38,7 @@ public final class JsonHtmlEncoder extends JsonAdapter<String> {
     }
   
     @Override
-    public synchronized void toJson(JsonWriter writer, String value) throws IOException {
+    public void toJson(JsonWriter writer, String value) throws IOException {
         if (value == null) {
             writer.nullValue();
         } else {
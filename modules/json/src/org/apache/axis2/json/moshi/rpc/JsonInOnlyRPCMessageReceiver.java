@@ -56,9 +56,9 @@ public class JsonInOnlyRPCMessageReceiver extends RPCInOnlyMessageReceiver {
                 }
                 Object serviceObj = getTheImplementationObject(inMessage);
                 AxisOperation op = inMessage.getOperationContext().getAxisOperation();
-                String operation = op.getName().getLocalPart();
-                log.debug("JsonInOnlyRPCMessageReceiver.invokeBusinessLogic() executing invokeService() with operation: " + operation);
-                invokeService(jsonReader, serviceObj, operation);
+                log.debug("JsonInOnlyRPCMessageReceiver.invokeBusinessLogic() executing invokeService() with operation: " + op.getName().getLocalPart());
+                JsonOperationBinder binder = JsonOperationBinder.getBinder(op, serviceObj.getClass());
+                invokeService(jsonReader, serviceObj, binder);
             } else {
                 throw new AxisFault("MoshiXMLStreamReader should have put as a property of messageContext " +
                         "to evaluate JSON message");
@@ -69,14 +69,19 @@ public class JsonInOnlyRPCMessageReceiver extends RPCInOnlyMessageReceiver {
     }
 
     public void invokeService(JsonReader jsonReader, Object serviceObj, String operation_name) throws AxisFault {
-        String msg;
         Class implClass = serviceObj.getClass();
         Method[] allMethods = implClass.getDeclaredMethods();
         Method method = JsonUtils.getOpMethod(operation_name, allMethods);
         Class[] paramClasses = method.getParameterTypes();
+        invokeService(jsonReader, serviceObj,
+                new JsonOperationBinder(JsonUtils.getMoshi(), implClass, method, paramClasses));
+    }
+
+    public void invokeService(JsonReader jsonReader, Object serviceObj, JsonOperationBinder binder) throws AxisFault {
+        String msg;
+        Method method = binder.getMethod();
         try {
-            int paramCount = paramClasses.length;
-            JsonUtils.invokeServiceClass(jsonReader, serviceObj, method, paramClasses, paramCount);
+            JsonUtils.invokeServiceClass(jsonReader, serviceObj, binder);
         } catch (IllegalAccessException e) {
             msg = "Does not have access to " +
                     "the definition of the specified class, field, method or constructor";
@@ -56,8 +56,8 @@ public class JsonRpcMessageReceiver extends RPCMessageReceiver {
                 }
                 Object serviceObj = getTheImplementationObject(inMessage);
                 AxisOperation op = inMessage.getOperationContext().getAxisOperation();
-                String operation = op.getName().getLocalPart();
-                invokeService(jsonReader, serviceObj, operation , outMessage);
+                JsonOperationBinder binder = JsonOperationBinder.getBinder(op, serviceObj.getClass());
+                invokeService(jsonReader, serviceObj, binder, outMessage);
             } else {
                 throw new AxisFault("MoshiXMLStreamReader should be put as a property of messageContext " +
                         "to evaluate JSON message");
@@ -69,14 +69,20 @@ public class JsonRpcMessageReceiver extends RPCMessageReceiver {
 
     public void invokeService(JsonReader jsonReader, Object serviceObj, String operation_name,
                                    MessageContext outMes) throws AxisFault {
-        String msg;
         Class implClass = serviceObj.getClass();
         Method[] allMethods = implClass.getDeclaredMethods();
         Method method = JsonUtils.getOpMethod(operation_name, allMethods);
         Class[] paramClasses = method.getParameterTypes();
+        invokeService(jsonReader, serviceObj,
+                new JsonOperationBinder(JsonUtils.getMoshi(), implClass, method, paramClasses), outMes);
+    }
+
+    public void invokeService(JsonReader jsonReader, Object serviceObj, JsonOperationBinder binder,
+                                   MessageContext outMes) throws AxisFault {
+        String msg;
+        Method method = binder.getMethod();
         try {
-            int paramCount = paramClasses.length;
-            Object retObj = JsonUtils.invokeServiceClass(jsonReader, serviceObj, method, paramClasses, paramCount);
+            Object retObj = JsonUtils.invokeServiceClass(jsonReader, serviceObj, binder);
 
             // handle response
             outMes.setProperty(JsonConstant.RETURN_OBJECT, retObj);
@@ -34,9 +34,7 @@ import java.lang.annotation.Annotation;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Type;
-import java.util.Arrays;
 import java.util.Date;
-import java.util.Map;
 import java.util.Set;
 import javax.annotation.Nullable;
 
@@ -45,6 +43,75 @@ public class JsonUtils {
 
     private static final Log log = LogFactory.getLog(JsonUtils.class);
 
+    // custom Moshi adapter so Json numbers become Java Long and Double
+    private static final JsonAdapter.Factory objectFactory =
+        new JsonAdapter.Factory() {
+          @Override
+          public @Nullable JsonAdapter<?> create(
+              Type type, Set<? extends Annotation> annotations, Moshi moshi) {
+            if (type != Object.class) return null;
+
+            final JsonAdapter<Object> delegate = moshi.nextAdapter(this, Object.class, annotations);
+            return new JsonAdapter<Object>() {
+              @Override
+              public @Nullable Object fromJson(JsonReader reader) throws IOException {
+                  if (reader.peek() != JsonReader.Token.NUMBER) {
+                    return delegate.fromJson(reader);
+                  } else {
+                      String n = reader.nextString();
+                      if (n.indexOf('.') != -1) {
+                          return Double.parseDouble(n);
+                      }
+      
+                      try{
+                          Long longValue = Long.parseLong(n);
+                          return longValue;
+                      }catch(Exception e){
+                      }
+      
+                      //if exception parsing long, try double again
+                      return Double.parseDouble(n);
+
+                  }
+              }
+
+              @Override
+              public void toJson(JsonWriter writer, @Nullable Object value) {
+                  try{
+                      delegate.toJson(writer, value);
+                  }catch(Exception ex){
+                     log.error(ex.getMessage(), ex);
+
+                  }
+              }
+            };
+          }
+        };
+
+    private static volatile Moshi moshi = new Moshi.Builder().add(objectFactory).add(Date.class, new Rfc3339DateJsonAdapter()).build();
+
+    /**
+     * Get the {@link Moshi} instance used to deserialize the parameters of JSON RPC requests.
+     * {@link Moshi} instances are thread safe and cache their adapters, so a single instance is
+     * shared by all operations.
+     *
+     * @return the shared {@link Moshi} instance
+     */
+    public static Moshi getMoshi() {
+        return moshi;
+    }
+
+    /**
+     * Replace the {@link Moshi} instance used to deserialize the parameters of JSON RPC requests,
+     * e.g. to register custom adapters. Cached {@link JsonOperationBinder}s are rebuilt the next
+     * time they are used.
+     *
+     * @param moshi the {@link Moshi} instance to use
+     */
+    public static void setMoshi(Moshi moshi) {
+        JsonUtils.moshi = moshi;
+    }
+
     public static Object invokeServiceClass(JsonReader jsonReader,
                                             Object service,
                                             Method operation ,
@@ -52,56 +119,19 @@ public class JsonUtils {
                                             int paramCount ) throws InvocationTargetException,
             IllegalAccessException, IOException  {
 
+        return invokeServiceClass(jsonReader, service,
+                new JsonOperationBinder(getMoshi(), service.getClass(), operation, paramClasses));
+    }
+
+    public static Object invokeServiceClass(JsonReader jsonReader,
+                                            Object service,
+                                            JsonOperationBinder binder) throws InvocationTargetException,
+            IllegalAccessException, IOException  {
+
+        Method operation = binder.getMethod();
+        int paramCount = binder.getParameterCount();
         Object[] methodParam = new Object[paramCount];
-	try {
-            // define custom Moshi adapter so Json numbers become Java Long and Double
-            JsonAdapter.Factory objectFactory =
-                new JsonAdapter.Factory() {
-                  @Override
-                  public @Nullable JsonAdapter<?> create(
-                      Type type, Set<? extends Annotation> annotations, Moshi moshi) {
-                    if (type != Object.class) return null;
-        
-                    final JsonAdapter<Object> delegate = moshi.nextAdapter(this, Object.class, annotations);
-                    return new JsonAdapter<Object>() {
-                      @Override
-                      public @Nullable Object fromJson(JsonReader reader) throws IOException {
-                          if (reader.peek() != JsonReader.Token.NUMBER) {
-                            return delegate.fromJson(reader);
-                          } else {
-                              String n = reader.nextString();
-                              if (n.indexOf('.') != -1) {
-                                  return Double.parseDouble(n);
-                              }
-              
-                              try{
-                                  Long longValue = Long.parseLong(n);
-                                  return longValue;
-                              }catch(Exception e){
-                              }
-              
-                              //if exception parsing long, try double again
-                              return Double.parseDouble(n);
-        
-                          }
-                      }
-        
-                      @Override
-                      public void toJson(JsonWriter writer, @Nullable Object value) {
-                          try{
-                              delegate.toJson(writer, value);
-                          }catch(Exception ex){
-                             log.error(ex.getMessage(), ex);
-
-                          }
-                      }
-                    };
-                  }
-                };
-			
-            Moshi moshiFrom = new Moshi.Builder().add(objectFactory).add(Date.class, new Rfc3339DateJsonAdapter()).build();
-            String[] argNames = new String[paramCount];
-    
+        try {
             jsonReader.beginObject();
             String messageName=jsonReader.nextName();     // get message name from input json stream
             if (messageName == null || !messageName.equals(operation.getName())) {
@@ -109,19 +139,17 @@ public class JsonUtils {
                 throw new IOException("Bad Request");
             }
             jsonReader.beginArray();
-    
-            int i = 0;
-            for (Class paramType : paramClasses) {
-            	JsonAdapter<Map> moshiFromJsonAdapter = null;
-            	moshiFromJsonAdapter = moshiFrom.adapter(paramType);
+
+            for (int i = 0; i < paramCount; i++) {
                 jsonReader.beginObject();
-                argNames[i] = jsonReader.nextName();
-                methodParam[i] = moshiFromJsonAdapter.fromJson(jsonReader);   // moshi handles all types well and returns an object from it
-                log.trace("JsonUtils.invokeServiceClass() completed processing on messageName: " +messageName+ " , arg name: " +argNames[i]+ " , methodParam: " +methodParam[i].getClass().getName()+ " , from argNames.length: " + argNames.length);
+                String argName = jsonReader.nextName();
+                methodParam[i] = binder.getParameterAdapter(i).fromJson(jsonReader);   // the adapter was resolved by moshi when the binder was created
+                if (log.isTraceEnabled()) {
+                    log.trace("JsonUtils.invokeServiceClass() completed processing on messageName: " +messageName+ " , arg name: " +argName+ " , methodParam: " +methodParam[i].getClass().getName()+ " , from paramCount: " + paramCount);
+                }
                 jsonReader.endObject();
-                i++;
             }
-    
+
             jsonReader.endArray();
             jsonReader.endObject();
         } catch (Exception ex) {
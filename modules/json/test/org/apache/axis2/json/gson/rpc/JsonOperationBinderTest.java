@@ -0,0 +1,53 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.axis2.json.gson.rpc;
+
+import com.google.gson.stream.JsonReader;
+import org.apache.axis2.description.AxisOperation;
+import org.apache.axis2.description.InOutAxisOperation;
+import org.junit.Assert;
+import org.junit.Test;
+
+import javax.xml.namespace.QName;
+import java.io.StringReader;
+
+public class JsonOperationBinderTest {
+
+    @Test
+    public void testBinderIsCached() throws Exception {
+        AxisOperation axisOperation = new InOutAxisOperation(new QName("echoPerson"));
+        JsonOperationBinder binder = JsonOperationBinder.getBinder(axisOperation, JSONPOJOService.class);
+        Assert.assertEquals("echoPerson", binder.getMethod().getName());
+        Assert.assertSame(binder, JsonOperationBinder.getBinder(axisOperation, JSONPOJOService.class));
+    }
+
+    @Test
+    public void testInvokeServiceClass() throws Exception {
+        AxisOperation axisOperation = new InOutAxisOperation(new QName("echoPerson"));
+        JsonOperationBinder binder = JsonOperationBinder.getBinder(axisOperation, JSONPOJOService.class);
+        String jsonRequest = "{\"echoPerson\":[{\"arg0\":{\"name\":\"Simon\",\"age\":\"35\",\"gender\":\"male\"}}]}";
+        Object result = JsonUtils.invokeServiceClass(new JsonReader(new StringReader(jsonRequest)),
+                new JSONPOJOService(), binder);
+        Person person = (Person)result;
+        Assert.assertEquals("Simon", person.getName());
+        Assert.assertEquals("35", person.getAge());
+        Assert.assertEquals("male", person.getGender());
+    }
+}
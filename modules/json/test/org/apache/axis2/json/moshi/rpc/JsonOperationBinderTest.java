@@ -0,0 +1,73 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.axis2.json.moshi.rpc;
+
+import com.squareup.moshi.JsonReader;
+import com.squareup.moshi.Moshi;
+import okio.Buffer;
+import org.apache.axis2.AxisFault;
+import org.apache.axis2.description.AxisOperation;
+import org.apache.axis2.description.InOutAxisOperation;
+import org.junit.Assert;
+import org.junit.Test;
+
+import javax.xml.namespace.QName;
+
+public class JsonOperationBinderTest {
+
+    @Test
+    public void testBinderIsCached() throws Exception {
+        AxisOperation axisOperation = new InOutAxisOperation(new QName("echoPerson"));
+        JsonOperationBinder binder = JsonOperationBinder.getBinder(axisOperation, JSONPOJOService.class);
+        Assert.assertEquals("echoPerson", binder.getMethod().getName());
+        Assert.assertSame(binder, JsonOperationBinder.getBinder(axisOperation, JSONPOJOService.class));
+    }
+
+    @Test
+    public void testBinderRebuiltWhenMoshiChanges() throws Exception {
+        AxisOperation axisOperation = new InOutAxisOperation(new QName("echoPerson"));
+        JsonOperationBinder binder = JsonOperationBinder.getBinder(axisOperation, JSONPOJOService.class);
+        Moshi moshi = JsonUtils.getMoshi();
+        JsonUtils.setMoshi(new Moshi.Builder().build());
+        try {
+            Assert.assertNotSame(binder, JsonOperationBinder.getBinder(axisOperation, JSONPOJOService.class));
+        } finally {
+            JsonUtils.setMoshi(moshi);
+        }
+    }
+
+    @Test(expected = AxisFault.class)
+    public void testUnknownOperation() throws Exception {
+        JsonOperationBinder.getBinder(new InOutAxisOperation(new QName("unknown")), JSONPOJOService.class);
+    }
+
+    @Test
+    public void testInvokeServiceClass() throws Exception {
+        AxisOperation axisOperation = new InOutAxisOperation(new QName("echoPerson"));
+        JsonOperationBinder binder = JsonOperationBinder.getBinder(axisOperation, JSONPOJOService.class);
+        String jsonRequest = "{\"echoPerson\":[{\"arg0\":{\"name\":\"Simon\",\"age\":\"35\",\"gender\":\"male\"}}]}";
+        Object result = JsonUtils.invokeServiceClass(JsonReader.of(new Buffer().writeUtf8(jsonRequest)),
+                new JSONPOJOService(), binder);
+        Person person = (Person)result;
+        Assert.assertEquals("Simon", person.getName());
+        Assert.assertEquals("35", person.getAge());
+        Assert.assertEquals("male", person.getGender());
+    }
+}
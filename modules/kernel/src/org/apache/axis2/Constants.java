@@ -366,6 +366,20 @@ public class Constants extends org.apache.axis2.namespace.Constants {
 
         public static final String CONFIG_CONTEXT_TIMEOUT_INTERVAL = "ConfigContextTimeoutInterval";
 
+        /**
+         * Parameter that enables virtual threads (Java 21 and later) for the Axis2 thread pool,
+         * the transport listener worker pools and the SimpleHTTPServer request executor. It may
+         * be set globally or on individual transport receivers.
+         */
+        public static final String USE_VIRTUAL_THREADS = "useVirtualThreads";
+
+        /**
+         * Parameter that enables the collection of per phase and per handler processing times.
+         * The statistics are exposed through JMX and through the <code>phaseMetrics</code>
+         * endpoint of <code>AxisServlet</code>.
+         */
+        public static final String ENABLE_PHASE_METRICS = "enablePhaseMetrics";
+
         public static final String TRANSPORT_IN_URL = "TransportInURL";
 
         public static final String URL_PARAMETER_LIST = "URLParameterList";
@@ -0,0 +1,133 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.axis2.client;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+/**
+ * Creates the exceptions that generated stubs throw for declared SOAP faults. The exception
+ * class, its constructors, the fault message class and the <code>setFaultMessage</code> method are
+ * resolved once, when the factory is created, so that generated stubs can cache the factory per
+ * {@link FaultMapKey} instead of looking up these classes and members every time a fault is
+ * received.
+ * <p>
+ * The exceptions thrown by the methods of this class are the same as those thrown by the
+ * equivalent reflective calls, so that stubs can handle them in the same way.
+ */
+public final class FaultExceptionFactory {
+    private final Class<?> messageClass;
+    private final Constructor<?> defaultConstructor;
+    private final Constructor<?> messageConstructor;
+    private final Method setFaultMessageMethod;
+
+    private FaultExceptionFactory(Class<?> messageClass, Constructor<?> defaultConstructor,
+                                  Constructor<?> messageConstructor,
+                                  Method setFaultMessageMethod) {
+        this.messageClass = messageClass;
+        this.defaultConstructor = defaultConstructor;
+        this.messageConstructor = messageConstructor;
+        this.setFaultMessageMethod = setFaultMessageMethod;
+    }
+
+    /**
+     * Create a factory.
+     *
+     * @param exceptionClassName the name of the exception class
+     * @param messageClassName the name of the class of the fault message
+     * @param classLoader the class loader used to load both classes
+     * @return the factory
+     * @throws ClassNotFoundException if one of the classes cannot be loaded
+     * @throws NoSuchMethodException if the exception class has no public
+     *         <code>setFaultMessage</code> method taking the fault message class as argument
+     */
+    public static FaultExceptionFactory create(String exceptionClassName,
+                                               String messageClassName,
+                                               ClassLoader classLoader)
+            throws ClassNotFoundException, NoSuchMethodException {
+        Class<?> exceptionClass = Class.forName(exceptionClassName, true, classLoader);
+        Class<?> messageClass = Class.forName(messageClassName, true, classLoader);
+        Method setFaultMessageMethod = exceptionClass.getMethod("setFaultMessage", messageClass);
+        return new FaultExceptionFactory(messageClass, getConstructor(exceptionClass),
+                getConstructor(exceptionClass, String.class), setFaultMessageMethod);
+    }
+
+    private static Constructor<?> getConstructor(Class<?> exceptionClass,
+                                                 Class<?>... parameterTypes) {
+        try {
+            return exceptionClass.getConstructor(parameterTypes);
+        } catch (NoSuchMethodException ex) {
+            // Only reported if the constructor is actually used
+            return null;
+        }
+    }
+
+    /**
+     * Get the class of the fault message, i.e. the class to which the fault detail needs to be
+     * converted before calling {@link #newException(String, Object)}.
+     *
+     * @return the fault message class
+     */
+    public Class<?> getMessageClass() {
+        return messageClass;
+    }
+
+    /**
+     * Create an exception using the constructor that takes no arguments and set its fault
+     * message.
+     *
+     * @param faultMessage the fault message
+     * @return the exception
+     */
+    public Exception newException(Object faultMessage)
+            throws NoSuchMethodException, InstantiationException, IllegalAccessException,
+                   InvocationTargetException {
+        if (defaultConstructor == null) {
+            throw new NoSuchMethodException(setFaultMessageMethod.getDeclaringClass().getName()
+                    + ".<init>()");
+        }
+        return setFaultMessage((Exception)defaultConstructor.newInstance(), faultMessage);
+    }
+
+    /**
+     * Create an exception using the constructor that takes the message as argument and set its
+     * fault message.
+     *
+     * @param message the exception message
+     * @param faultMessage the fault message
+     * @return the exception
+     */
+    public Exception newException(String message, Object faultMessage)
+            throws NoSuchMethodException, InstantiationException, IllegalAccessException,
+                   InvocationTargetException {
+        if (messageConstructor == null) {
+            throw new NoSuchMethodException(setFaultMessageMethod.getDeclaringClass().getName()
+                    + ".<init>(java.lang.String)");
+        }
+        return setFaultMessage((Exception)messageConstructor.newInstance(message), faultMessage);
+    }
+
+    private Exception setFaultMessage(Exception ex, Object faultMessage)
+            throws IllegalAccessException, InvocationTargetException {
+        setFaultMessageMethod.invoke(ex, faultMessage);
+        return ex;
+    }
+}
@@ -579,6 +579,46 @@ public class Options implements Externalizable, SafeSerializable {
         this.parent = parent;
     }
 
+    /**
+     * Create a copy of the values set on this instance, with a different parent. The values
+     * themselves are not copied, but the collections holding them are, so that the two instances
+     * can be modified independently.
+     *
+     * @param parent the parent of the copy (<code>null</code> if none)
+     * @return the copy
+     */
+    Options copy(Options parent) {
+        Options copy = new Options(parent);
+        if (properties != null) {
+            copy.properties = new HashMap<String, Object>(properties);
+        }
+        copy.soapVersionURI = soapVersionURI;
+        copy.isExceptionToBeThrownOnSOAPFault = isExceptionToBeThrownOnSOAPFault;
+        copy.timeOutInMilliSeconds = timeOutInMilliSeconds;
+        copy.useSeparateListener = useSeparateListener;
+        copy.action = action;
+        copy.faultTo = faultTo;
+        copy.from = from;
+        copy.listener = listener;
+        copy.transportIn = transportIn;
+        copy.transportInProtocol = transportInProtocol;
+        copy.messageId = messageId;
+        if (relationships != null) {
+            copy.relationships = new ArrayList<RelatesTo>(relationships);
+        }
+        copy.replyTo = replyTo;
+        if (referenceParameters != null) {
+            copy.referenceParameters = new ArrayList<OMElement>(referenceParameters);
+        }
+        copy.transportOut = transportOut;
+        copy.to = to;
+        copy.manageSession = manageSession;
+        copy.callTransportCleanup = callTransportCleanup;
+        copy.userName = userName;
+        copy.password = password;
+        return copy;
+    }
+
     /**
      * Set WS-Addressing Action / SOAP Action string.
      *
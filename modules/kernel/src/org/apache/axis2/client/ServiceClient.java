@@ -46,6 +46,7 @@ import org.apache.axis2.description.RobustOutOnlyAxisOperation;
 import org.apache.axis2.description.TransportOutDescription;
 import org.apache.axis2.engine.AxisConfiguration;
 import org.apache.axis2.engine.ListenerManager;
+import org.apache.axis2.engine.PhaseMetrics;
 import org.apache.axis2.i18n.Messages;
 import org.apache.axis2.namespace.Constants;
 import org.apache.axis2.util.Counter;
@@ -57,12 +58,15 @@ import org.apache.commons.logging.LogFactory;
 import javax.wsdl.Definition;
 import javax.xml.namespace.QName;
 import java.net.URL;
-import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * Client access to a service. Each instance of this class is associated with a particular {@link
  * org.apache.axis2.description.AxisService}, and the methods support operations using that service. Note that
- * these instances are not intended to be thread-safe.
+ * these instances are not intended to be thread-safe, unless concurrent mode is enabled using
+ * {@link #setConcurrent(boolean)}.
  * {@link Options} instances are used to configure various aspects of the service access.
  */
 public class ServiceClient {
@@ -118,7 +122,7 @@ public class ServiceClient {
     private Options overrideOptions;
 
     // list of headers to be sent with the simple APIs
-    private ArrayList<OMElement> headers;
+    private List<OMElement> headers;
 
     //whether we create configctx or not
     private boolean createConfigCtx;
@@ -127,6 +131,9 @@ public class ServiceClient {
 
     private boolean removeAxisService;
 
+    // whether the client may be used by multiple threads at the same time
+    private volatile boolean concurrent;
+
     /**
      * Create a service client configured to work with a specific AxisService. If this service is
      * already in the world that's handed in (in the form of a ConfigurationContext) then I will
@@ -336,6 +343,43 @@ public class ServiceClient {
         return overrideOptions;
     }    
 
+    /**
+     * Enable or disable concurrent mode. In concurrent mode, a single service client (and the
+     * generated stub that wraps it) can be used by multiple threads at the same time:
+     * <ul>
+     * <li>{@link #createClient(QName)} no longer cleans up the transport of the last operation
+     * context, because that context may belong to an invocation that is still in progress in
+     * another thread. Instead, the transport must be cleaned up for each invocation, either by
+     * setting the <code>callTransportCleanup</code> option or by calling
+     * {@link org.apache.axis2.transport.TransportSender#cleanup(MessageContext)} with the
+     * outgoing message context (as generated stubs do). For the same reason
+     * {@link #cleanupTransport()} should not be used.</li>
+     * <li>The override options are copied for each operation client instead of being linked into
+     * the options of the operation client.</li>
+     * <li>The headers added with {@link #addHeader(OMElement)} are copied into each envelope
+     * instead of being moved from one envelope to the next.</li>
+     * </ul>
+     * Values that are specific to an invocation should be set on the options of the operation
+     * client (which inherit from the options of this service client) and not on the shared
+     * options. The options, headers and engaged modules of the service client must not be changed
+     * while invocations are in progress.
+     *
+     * @param concurrent <code>true</code> to enable concurrent mode
+     */
+    public void setConcurrent(boolean concurrent) {
+        this.concurrent = concurrent;
+    }
+
+    /**
+     * Check whether concurrent mode is enabled.
+     *
+     * @return <code>true</code> if concurrent mode is enabled
+     * @see #setConcurrent(boolean)
+     */
+    public boolean isConcurrent() {
+        return concurrent;
+    }
+
     /**
      * Engage a module for this service client.
      *
@@ -378,7 +422,7 @@ public class ServiceClient {
      */
     public void addHeader(OMElement header) {
         if (headers == null) {
-            headers = new ArrayList<OMElement>();
+            headers = new CopyOnWriteArrayList<OMElement>();
         }
         headers.add(header);
     }
@@ -390,7 +434,7 @@ public class ServiceClient {
      */
     public void addHeader(SOAPHeaderBlock header) {
         if (headers == null) {
-            headers = new ArrayList<OMElement>();
+            headers = new CopyOnWriteArrayList<OMElement>();
         }
         headers.add(header);
     }
@@ -535,7 +579,7 @@ public class ServiceClient {
                 .getMessageContext(WSDLConstants.MESSAGE_LABEL_IN_VALUE);
         if (options.isCallTransportCleanup()) {
             response.getEnvelope().build();
-            cleanupTransport();
+            cleanupTransport(operationClient.getOperationContext());
         }
         return response.getEnvelope().getBody().getFirstElement();
     }
@@ -595,7 +639,10 @@ public class ServiceClient {
     public OperationClient createClient(QName operationQName) throws AxisFault {
         // If we're configured to do so, clean up the last OperationContext (thus
         // releasing its resources) each time we create a new one.
-        if (JavaUtils.isTrue(getOptions().getProperty(AUTO_OPERATION_CLEANUP), true) &&
+        // This is not possible in concurrent mode because the last OperationContext may be
+        // used by another thread.
+        if (!concurrent &&
+                JavaUtils.isTrue(getOptions().getProperty(AUTO_OPERATION_CLEANUP), true) &&
                 !getOptions().isUseSeparateListener()) {
             cleanupTransport();
         }
@@ -607,23 +654,42 @@ public class ServiceClient {
         }
 
         // add the option properties to the service context
-        String key;
-        for (Object o : options.getProperties().keySet()) {
-            key = (String)o;
-            serviceContext.setProperty(key, options.getProperties().get(key));
+        if (concurrent) {
+            synchronized (serviceContext) {
+                copyPropertiesToServiceContext();
+            }
+        } else {
+            copyPropertiesToServiceContext();
         }
         OperationClient operationClient = axisOperation.createClient(serviceContext, options);
 
         // if overide options have been set, that means we need to make sure
         // those options override the options of even the operation client. So,
-        // what we do is switch the parents around to make that work.
+        // what we do is switch the parents around to make that work. In concurrent
+        // mode the override options are shared by all threads, so we use a copy.
         if (overrideOptions != null) {
-            overrideOptions.setParent(operationClient.getOptions());
-            operationClient.setOptions(overrideOptions);
+            if (concurrent) {
+                operationClient.setOptions(overrideOptions.copy(operationClient.getOptions()));
+            } else {
+                overrideOptions.setParent(operationClient.getOptions());
+                operationClient.setOptions(overrideOptions);
+            }
         }
         return operationClient;
     }
 
+    /**
+     * Copy the option properties to the service context. Properties that already have the same
+     * value are not set again, so that repeated invocations don't modify the service context.
+     */
+    private void copyPropertiesToServiceContext() {
+        for (Map.Entry<String, Object> entry : options.getProperties().entrySet()) {
+            if (serviceContext.getLocalProperty(entry.getKey()) != entry.getValue()) {
+                serviceContext.setProperty(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
     /**
      * Return the SOAP factory to use depending on what options have been set. If the SOAP version
      * can not be seen in the options, version 1.1 is the default.
@@ -669,8 +735,10 @@ public class ServiceClient {
     public void addHeadersToEnvelope(SOAPEnvelope envelope) {
         if (headers != null) {
             SOAPHeader soapHeader = envelope.getHeader();
-            for (Object header : headers) {
-                soapHeader.addChild((OMElement)header);
+            for (OMElement header : headers) {
+                // Adding the header detaches it from the envelope of the previous invocation,
+                // which may still be in use in concurrent mode
+                soapHeader.addChild(concurrent ? header.cloneOMElement() : header);
             }
         }
     }
@@ -748,6 +816,11 @@ public class ServiceClient {
             AxisServiceGroup asg = axisConfiguration.getServiceGroup(serviceGroupName);
             if ((asg != null) && removeAxisService) {
                 axisConfiguration.removeServiceGroup(serviceGroupName);
+                // Client side services are not reported to the observers of the configuration
+                PhaseMetrics phaseMetrics = configContext.getPhaseMetrics();
+                if (phaseMetrics != null) {
+                    phaseMetrics.removeService(axisService);
+                }
             }
         } else {
             configContext.terminate();
@@ -776,10 +849,13 @@ public class ServiceClient {
      * @throws AxisFault
      */
     public void cleanupTransport() throws AxisFault {
-        final OperationContext lastOperationContext = getLastOperationContext();
-        if (lastOperationContext != null) {
+        cleanupTransport(getLastOperationContext());
+    }
+
+    private void cleanupTransport(OperationContext operationContext) throws AxisFault {
+        if (operationContext != null) {
             MessageContext outMessageContext =
-                    lastOperationContext
+                    operationContext
                             .getMessageContext(WSDLConstants.MESSAGE_LABEL_OUT_VALUE);
             if (outMessageContext != null) {
                 if (outMessageContext.getTransportOut() != null &&
@@ -52,6 +52,9 @@ import java.util.Iterator;
  * some <code>protected</code> methods intended for use by the actual stub
  * implementation code. The client API method names start with a leading
  * underscore character to avoid conflicts with actual implementation methods.
+ * <p>
+ * A stub may be shared by multiple threads if concurrent mode is enabled on its service client
+ * (see {@link ServiceClient#setConcurrent(boolean)}).
  */
 public abstract class Stub {
 
@@ -33,6 +33,7 @@ import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
 
 /**
  * This is the top most level of the Context hierarchy and is a bag of properties.
@@ -52,11 +53,28 @@ public abstract class AbstractContext {
      */
     public static final String COPY_PROPERTIES = "CopyProperties";
 
+    private static final AtomicLongFieldUpdater<AbstractContext> propertiesVersionUpdater =
+            AtomicLongFieldUpdater.newUpdater(AbstractContext.class, "propertiesVersion");
+
     protected long lastTouchedTime;
 
     protected transient AbstractContext parent;
     protected transient Map<String, Object> properties;
     private transient Map<String, Object> propertyDifferences;
+    private transient volatile PropertyMissCache propertyMissCache;
+
+    /**
+     * Incremented whenever the properties or the parent of this context change, if this context
+     * caches property misses. A {@link PropertyMissCache} records the versions of the context
+     * that owns it and of all its ancestors, so only changes along that chain invalidate it.
+     */
+    private transient volatile long propertiesVersion;
+
+    /**
+     * Set once the live properties map has been handed out through {@link #getProperties()}.
+     * From then on the map may be modified behind our back, so misses are no longer cached.
+     */
+    private transient volatile boolean propertiesExposed;
 
     protected AbstractContext(AbstractContext parent) {
         this.parent = parent;
@@ -96,6 +114,21 @@ public abstract class AbstractContext {
      *             {@link #setProperty(String, Object)} & {@link #removeProperty(String)}instead.
      */
     public Map<String, Object> getProperties() {
+        initPropertiesMap();
+        if (isPropertyMissCacheEnabled() && !propertiesExposed) {
+            propertiesExposed = true;
+            propertiesChanged();
+        }
+        return properties;
+    }
+
+    /**
+     * Get the properties map for read-only use within the context package, without disabling the
+     * property miss cache like {@link #getProperties()} does.
+     *
+     * @return The properties
+     */
+    Map<String, Object> getPropertiesForRead() {
         initPropertiesMap();
         return properties;
     }
@@ -123,6 +156,10 @@ public abstract class AbstractContext {
      * @return Returns the property.
      */
     public Object getProperty(String key) {
+        PropertyMissCache missCache = getPropertyMissCache();
+        if (missCache != null && missCache.contains(key)) {
+            return null;
+        }
         Object obj = properties == null ? null : properties.get(key);
         if (obj!=null) {
             // Assume that a property which is read may be updated.
@@ -137,9 +174,58 @@ public abstract class AbstractContext {
         } else if (parent!=null) {
             obj = parent.getProperty(key);
         } 
+        if (obj == null && missCache != null) {
+            missCache.add(key);
+        }
         return obj;
     }
 
+    /**
+     * Indicates whether this context caches keys that are neither found in this context nor in
+     * any of its ancestors. This is only worthwhile for long lived contexts whose properties
+     * rarely change, i.e. service, service group and configuration contexts; message processing
+     * looks up many absent keys through them.
+     *
+     * @return true if property misses should be cached
+     */
+    protected boolean isPropertyMissCacheEnabled() {
+        return false;
+    }
+
+    private PropertyMissCache getPropertyMissCache() {
+        if (!isPropertyMissCacheEnabled()) {
+            return null;
+        }
+        PropertyMissCache missCache = propertyMissCache;
+        if (missCache != null && missCache.isValid(this)) {
+            return missCache;
+        }
+        for (AbstractContext context = this; context != null; context = context.parent) {
+            if (context.propertiesExposed) {
+                return null;
+            }
+        }
+        missCache = new PropertyMissCache(this);
+        propertyMissCache = missCache;
+        return missCache;
+    }
+
+    long getPropertiesVersion() {
+        return propertiesVersion;
+    }
+
+    /**
+     * Invalidate the cached property misses of this context and of its descendants after a
+     * change to the properties or the parent of this context. Must be called after the change
+     * has been made. Changes to contexts that don't cache misses don't need to be tracked
+     * because they are never ancestors of a caching context.
+     */
+    private void propertiesChanged() {
+        if (isPropertyMissCacheEnabled()) {
+            propertiesVersionUpdater.incrementAndGet(this);
+        }
+    }
+
     /**
      * Retrieves an object given a key. Only searches at this level
      * i.e. getLocalProperty on MessageContext does not look in
@@ -197,6 +283,7 @@ public abstract class AbstractContext {
             } catch (ConcurrentModificationException cme) {
             }
         }
+        propertiesChanged();
         if(!isClusteringCheckDone) {
             isClusteringCheckDone = true;
             isClusteringOn = needPropertyDifferences();
@@ -260,6 +347,7 @@ public abstract class AbstractContext {
             } catch (ConcurrentModificationException cme) {
             }
         }
+        propertiesChanged();
     }
 
     /**
@@ -283,6 +371,7 @@ public abstract class AbstractContext {
                     }
                 }
             }
+            propertiesChanged();
             if(!isClusteringCheckDone) {
                 isClusteringCheckDone = true;
                 isClusteringOn = needPropertyDifferences();
@@ -309,6 +398,7 @@ public abstract class AbstractContext {
                 } catch (ConcurrentModificationException cme) {
                 }
             }
+            propertiesChanged();
         }
     }
 
@@ -341,6 +431,7 @@ public abstract class AbstractContext {
      */
     public void setParent(AbstractContext context) {
         parent = context;
+        propertiesChanged();
     }
 
     /**
@@ -354,6 +445,7 @@ public abstract class AbstractContext {
     public void setProperties(Map<String, Object> properties) {
         if (properties == null) {
             this.properties = null;
+            propertiesChanged();
         } else {
             Boolean copyProperties = ((Boolean) properties.get(COPY_PROPERTIES));
 
@@ -381,6 +473,7 @@ public abstract class AbstractContext {
                     } catch (ConcurrentModificationException cme) {
                     }
                 }
+                propertiesChanged();
             }
         }
     }
@@ -409,6 +502,7 @@ public abstract class AbstractContext {
                     debugPropertySet((String) key, value);
                 }
             }
+            propertiesChanged();
         }
     }
 
@@ -34,6 +34,7 @@ import org.apache.axis2.description.Parameter;
 import org.apache.axis2.engine.AxisConfiguration;
 import org.apache.axis2.engine.DependencyManager;
 import org.apache.axis2.engine.ListenerManager;
+import org.apache.axis2.engine.PhaseMetrics;
 import org.apache.axis2.engine.ServiceLifeCycle;
 import org.apache.axis2.i18n.Messages;
 import org.apache.axis2.java.security.AccessController;
@@ -42,14 +43,14 @@ import org.apache.axis2.util.JavaUtils;
 import org.apache.axis2.util.OnDemandLogger;
 import org.apache.axis2.util.threadpool.ThreadFactory;
 import org.apache.axis2.util.threadpool.ThreadPool;
+import org.apache.axis2.util.threadpool.VirtualThreadPool;
+import org.apache.axis2.util.threadpool.VirtualThreads;
 
 import java.io.File;
 import java.net.URL;
 import java.security.PrivilegedAction;
 import java.util.ArrayList;
-import java.util.Date;
 import java.util.HashMap;
-import java.util.Hashtable;
 import java.util.Iterator;
 import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
@@ -69,10 +70,17 @@ import java.util.concurrent.ConcurrentHashMap;
 public class ConfigurationContext extends AbstractContext {
 
     private static final OnDemandLogger log = new OnDemandLogger(ConfigurationContext.class);
+    /** Granularity (in milliseconds) of the SOAP session expiry. */
+    private static final long SESSION_EXPIRY_TICK = 1000;
+    private static final int SESSION_EXPIRY_WHEEL_SIZE = 512;
     /** Map containing <code>MessageID</code> to <code>OperationContext</code> mapping. */
     private final ConcurrentHashMap<String, OperationContext> operationContextMap = new ConcurrentHashMap<String, OperationContext>();
-    private final Hashtable<String, ServiceGroupContext> serviceGroupContextMap = new Hashtable<String, ServiceGroupContext>();
-    private Hashtable<String, ServiceGroupContext> applicationSessionServiceGroupContexts = new Hashtable<String, ServiceGroupContext>();
+    private final ConcurrentHashMap<String, ServiceGroupContext> serviceGroupContextMap = new ConcurrentHashMap<String, ServiceGroupContext>();
+    private final ConcurrentHashMap<String, ServiceGroupContext> applicationSessionServiceGroupContexts = new ConcurrentHashMap<String, ServiceGroupContext>();
+    /** Schedules the expiry of the SOAP session contexts in {@link #serviceGroupContextMap}. */
+    private final SessionExpiryWheel sessionExpiryWheel =
+            new SessionExpiryWheel(SESSION_EXPIRY_TICK, SESSION_EXPIRY_WHEEL_SIZE,
+                                   System.currentTimeMillis());
     private AxisConfiguration axisConfiguration;
     private ThreadFactory threadPool;
     //To keep TransportManager instance
@@ -88,6 +96,11 @@ public class ConfigurationContext extends AbstractContext {
     private String cachedServicePath = null;
     protected List<ContextListener> contextListeners;
     private boolean stopped = false;
+
+    /**
+     * Phase and handler timings, or <code>null</code> if they are not collected.
+     */
+    private volatile PhaseMetrics phaseMetrics;
     
     /**
      * Constructor
@@ -98,6 +111,17 @@ public class ConfigurationContext extends AbstractContext {
         super(null);
         this.axisConfiguration = axisConfiguration;
         initConfigContextTimeout(axisConfiguration);
+        initPhaseMetrics(axisConfiguration);
+    }
+
+    private void initPhaseMetrics(AxisConfiguration axisConfiguration) {
+        Parameter parameter = axisConfiguration
+                .getParameter(Constants.Configuration.ENABLE_PHASE_METRICS);
+        if (parameter != null && JavaUtils.isTrueExplicitly(parameter.getValue())) {
+            phaseMetrics = new PhaseMetrics();
+            phaseMetrics.register();
+            axisConfiguration.addObservers(phaseMetrics.getServiceObserver());
+        }
     }
 
     private void initConfigContextTimeout(AxisConfiguration axisConfiguration) {
@@ -237,8 +261,12 @@ public class ConfigurationContext extends AbstractContext {
                     }
                     ConfigurationContext cfgCtx = messageContext.getConfigurationContext();
                     serviceGroupContext = cfgCtx.createServiceGroupContext(axisServiceGroup);
-                    applicationSessionServiceGroupContexts
-                            .put(serviceGroupName, serviceGroupContext);
+                    // Another thread may have created the context in the meantime
+                    ServiceGroupContext existing = applicationSessionServiceGroupContexts
+                            .putIfAbsent(serviceGroupName, serviceGroupContext);
+                    if (existing != null) {
+                        serviceGroupContext = existing;
+                    }
                 }
                 messageContext.setServiceGroupContext(serviceGroupContext);
                 messageContext
@@ -363,6 +391,8 @@ public class ConfigurationContext extends AbstractContext {
         serviceGroupContextMap.put(id, serviceGroupContext);
         serviceGroupContext.touch();
         serviceGroupContext.setParent(this);
+        sessionExpiryWheel.schedule(serviceGroupContext,
+                serviceGroupContext.getLastTouchedTime() + getServiceGroupContextTimeoutInterval() + 1);
         // this is the best time to clean up the SGCtxts since are not being used anymore
         cleanupServiceGroupContexts();
     }
@@ -374,9 +404,6 @@ public class ConfigurationContext extends AbstractContext {
      */
     public void addServiceGroupContextIntoApplicationScopeTable
             (ServiceGroupContext serviceGroupContext) {
-        if (applicationSessionServiceGroupContexts == null) {
-            applicationSessionServiceGroupContexts = new Hashtable<String, ServiceGroupContext>();
-        }
         applicationSessionServiceGroupContexts.put(
                 serviceGroupContext.getDescription().getServiceGroupName(), serviceGroupContext);
     }
@@ -545,25 +572,17 @@ public class ConfigurationContext extends AbstractContext {
     public ServiceGroupContext getServiceGroupContext(String serviceGroupCtxId) {
 
         if (serviceGroupCtxId == null) {
-            // Hashtables require non-null key-value pairs
+            // ConcurrentHashMaps require non-null keys
             return null;
         }
 
-        ServiceGroupContext serviceGroupContext = null;
-
-        if (serviceGroupContextMap != null) {
-            serviceGroupContext =serviceGroupContextMap.get(serviceGroupCtxId);
-            if (serviceGroupContext != null) {
-                serviceGroupContext.touch();
-            } else {
-                serviceGroupContext =applicationSessionServiceGroupContexts
-                                .get(serviceGroupCtxId);
-                if (serviceGroupContext != null) {
-                    serviceGroupContext.touch();
-                }
-            }
+        ServiceGroupContext serviceGroupContext =serviceGroupContextMap.get(serviceGroupCtxId);
+        if (serviceGroupContext == null) {
+            serviceGroupContext =applicationSessionServiceGroupContexts.get(serviceGroupCtxId);
+        }
+        if (serviceGroupContext != null) {
+            serviceGroupContext.touch();
         }
-
 
         return serviceGroupContext;
     }
@@ -574,18 +593,10 @@ public class ConfigurationContext extends AbstractContext {
      * @return Returns hashmap of ServiceGroupContexts.
      */
     public String[] getServiceGroupContextIDs() {
-        String[] ids = new String[serviceGroupContextMap.size() +
-                                  applicationSessionServiceGroupContexts.size()];
-        int index = 0;
-        for (Object o : serviceGroupContextMap.keySet()) {
-            ids[index] = (String)o;
-            index++;
-        }
-        for (Object o : applicationSessionServiceGroupContexts.keySet()) {
-            ids[index] = (String)o;
-            index++;
-        }
-        return ids;
+        // The maps may change while we iterate, so don't rely on their sizes
+        List<String> ids = new ArrayList<String>(serviceGroupContextMap.keySet());
+        ids.addAll(applicationSessionServiceGroupContexts.keySet());
+        return ids.toArray(new String[ids.size()]);
     }
 
 
@@ -596,12 +607,25 @@ public class ConfigurationContext extends AbstractContext {
      */
     public ThreadFactory getThreadPool() {
         if (threadPool == null) {
-            threadPool = new ThreadPool();
+            threadPool = createThreadPool();
         }
 
         return threadPool;
     }
 
+    private ThreadFactory createThreadPool() {
+        Parameter useVirtualThreads = axisConfiguration == null ? null
+                : axisConfiguration.getParameter(Constants.Configuration.USE_VIRTUAL_THREADS);
+        if (useVirtualThreads != null && JavaUtils.isTrueExplicitly(useVirtualThreads.getValue())) {
+            if (VirtualThreads.isSupported()) {
+                return new VirtualThreadPool();
+            }
+            log.warn(Constants.Configuration.USE_VIRTUAL_THREADS + " is set, but virtual threads "
+                    + "are not supported by this Java version; using the default thread pool");
+        }
+        return new ThreadPool();
+    }
+
     /**
      * Set the AxisConfiguration to the specified configuration
      *
@@ -631,32 +655,25 @@ public class ConfigurationContext extends AbstractContext {
      * @param serviceGroupContextId The ID of the ServiceGroupContext
      */
     public void removeServiceGroupContext(String serviceGroupContextId) {
-        if (serviceGroupContextMap == null) {
-            return;
-        }
-        ServiceGroupContext serviceGroupContext =serviceGroupContextMap.get(serviceGroupContextId);
-        serviceGroupContextMap.remove(serviceGroupContextId);
+        ServiceGroupContext serviceGroupContext =serviceGroupContextMap.remove(serviceGroupContextId);
         cleanupServiceContexts(serviceGroupContext);
     }
 
+    /**
+     * Expire the SOAP session contexts that have timed out. The expiry wheel only looks at the
+     * contexts that became due since the last call, and concurrent callers don't wait for each
+     * other.
+     */
     private void cleanupServiceGroupContexts() {
-        if (serviceGroupContextMap == null) {
+        long currentTime = System.currentTimeMillis();
+        if (!sessionExpiryWheel.isDue(currentTime)) {
             return;
         }
-        long currentTime = new Date().getTime();
-
-        synchronized (serviceGroupContextMap) {
-            for (Iterator<String> sgCtxtMapKeyIter = serviceGroupContextMap.keySet().iterator();
-                 sgCtxtMapKeyIter.hasNext();) {
-                String sgCtxtId = sgCtxtMapKeyIter.next();
-                ServiceGroupContext serviceGroupContext =serviceGroupContextMap.get(sgCtxtId);
-                if ((currentTime - serviceGroupContext.getLastTouchedTime()) >
-                    getServiceGroupContextTimeoutInterval()) {
-                    sgCtxtMapKeyIter.remove();
-                    cleanupServiceContexts(serviceGroupContext);
-                    contextRemoved(serviceGroupContext);
-                }
-            }
+        List<ServiceGroupContext> expired = sessionExpiryWheel.expire(currentTime,
+                getServiceGroupContextTimeoutInterval(), serviceGroupContextMap);
+        for (ServiceGroupContext serviceGroupContext : expired) {
+            cleanupServiceContexts(serviceGroupContext);
+            contextRemoved(serviceGroupContext);
         }
     }
 
@@ -694,8 +711,7 @@ public class ConfigurationContext extends AbstractContext {
 
     /** Called during shutdown to clean up all Contexts */
     public void cleanupContexts() {
-        if ((applicationSessionServiceGroupContexts != null) &&
-            (applicationSessionServiceGroupContexts.size() > 0)) {
+        if (applicationSessionServiceGroupContexts.size() > 0) {
             for (Object o : applicationSessionServiceGroupContexts.values()) {
                 ServiceGroupContext serviceGroupContext =
                         (ServiceGroupContext)o;
@@ -703,7 +719,7 @@ public class ConfigurationContext extends AbstractContext {
             }
             applicationSessionServiceGroupContexts.clear();
         }
-        if ((serviceGroupContextMap != null) && (serviceGroupContextMap.size() > 0)) {
+        if (serviceGroupContextMap.size() > 0) {
             for (Object o : serviceGroupContextMap.values()) {
                 ServiceGroupContext serviceGroupContext =
                         (ServiceGroupContext)o;
@@ -767,6 +783,32 @@ public class ConfigurationContext extends AbstractContext {
         }
         stopped = true;
     }
+    /**
+     * Get the phase and handler timings collected for this configuration.
+     *
+     * @return the timings, or <code>null</code> if the
+     *         {@link Constants.Configuration#ENABLE_PHASE_METRICS} parameter is not set
+     */
+    public PhaseMetrics getPhaseMetrics() {
+        return phaseMetrics;
+    }
+
+    /**
+     * Enable or disable the collection of phase and handler timings.
+     *
+     * @param phaseMetrics the object that collects the timings, or <code>null</code> to disable
+     *                     the collection
+     */
+    public synchronized void setPhaseMetrics(PhaseMetrics phaseMetrics) {
+        if (this.phaseMetrics != null) {
+            axisConfiguration.removeObserver(this.phaseMetrics.getServiceObserver());
+        }
+        this.phaseMetrics = phaseMetrics;
+        if (phaseMetrics != null) {
+            axisConfiguration.addObservers(phaseMetrics.getServiceObserver());
+        }
+    }
+
     /**
      * Invoked during shutdown to stop the ListenerManager and perform configuration cleanup
      *
@@ -774,6 +816,9 @@ public class ConfigurationContext extends AbstractContext {
      */
     public void terminate() throws AxisFault {
         shutdownModulesAndServices();
+        if (phaseMetrics != null) {
+            phaseMetrics.unregister();
+        }
         if (listenerManager != null) {
             listenerManager.destroy();
         }
@@ -937,18 +982,13 @@ public class ConfigurationContext extends AbstractContext {
             return;
         }
 
-        ArrayList<String> toBeRemovedList = new ArrayList<String>();
         Iterator<ServiceGroupContext> serviceGroupContexts = serviceGroupContextMap.values().iterator();
         while (serviceGroupContexts.hasNext()) {
             ServiceGroupContext serviceGroupContext =serviceGroupContexts.next();
             if (serviceGroupContext.getDescription().equals(serviceGroup)) {
-                toBeRemovedList.add(serviceGroupContext.getId());
+                serviceGroupContexts.remove();
             }
         }
-        for (Object aToBeRemovedList : toBeRemovedList) {
-            String s = (String)aToBeRemovedList;
-            serviceGroupContextMap.remove(s);
-        }
     }
 
     /* (non-Javadoc)
@@ -957,4 +997,8 @@ public class ConfigurationContext extends AbstractContext {
     public ConfigurationContext getRootContext() {
         return this;
     }
+
+    protected boolean isPropertyMissCacheEnabled() {
+        return true;
+    }
 }
\ No newline at end of file
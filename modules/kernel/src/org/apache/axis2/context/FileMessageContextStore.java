@@ -0,0 +1,529 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.axis2.context;
+
+import org.apache.axis2.AxisFault;
+import org.apache.axis2.context.externalize.ObjectInputStreamWithCL;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.RandomAccessFile;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * {@link MessageContextStore} that keeps the externalized message contexts in append-only
+ * segment files in a given directory, so that they neither occupy the heap nor get lost when
+ * the server is restarted. Only an index mapping message IDs to the location of the
+ * corresponding record is kept in memory.
+ * <p>
+ * Each record consists of the payload length, a CRC32 checksum of the payload, the message ID
+ * and the payload produced by {@link MessageContext#writeExternal(java.io.ObjectOutput)}.
+ * Retrieving or removing a message context appends a removal record (with a payload length of
+ * -1), so that the index can be rebuilt by replaying the segments in order when the store is
+ * reopened. A truncated record at the end of a segment (e.g. after a crash) is discarded.
+ * <p>
+ * Once the active segment reaches the configured maximum size, a new segment is started.
+ * Sealed segments that no longer contain any live record are deleted, oldest first. When the
+ * sealed segments contain more dead data than live data, the remaining live records are copied
+ * to the active segment and the sealed segments are deleted.
+ */
+public class FileMessageContextStore implements MessageContextStore {
+    private static final Log log = LogFactory.getLog(FileMessageContextStore.class);
+
+    public static final long DEFAULT_MAX_SEGMENT_SIZE = 64L * 1024 * 1024;
+
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".dat";
+
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    /**
+     * The size of the fixed part of a record: payload length, checksum and message ID length.
+     */
+    private static final int HEADER_LENGTH = 10;
+
+    private static final class Segment {
+        final long number;
+        final File file;
+        final RandomAccessFile raf;
+        final FileChannel channel;
+        /** The number of bytes written to the segment */
+        long size;
+        /** The number of bytes taken by records that are still referenced by the index */
+        long liveBytes;
+
+        Segment(long number, File file) throws IOException {
+            this.number = number;
+            this.file = file;
+            raf = new RandomAccessFile(file, "rw");
+            channel = raf.getChannel();
+        }
+
+        void close() {
+            try {
+                raf.close();
+            } catch (IOException e) {
+                log.warn("Error closing " + file, e);
+            }
+        }
+    }
+
+    private static final class Entry {
+        final Segment segment;
+        final long payloadOffset;
+        final int payloadLength;
+        final int checksum;
+        final int recordLength;
+
+        Entry(Segment segment, long payloadOffset, int payloadLength, int checksum,
+              int recordLength) {
+            this.segment = segment;
+            this.payloadOffset = payloadOffset;
+            this.payloadLength = payloadLength;
+            this.checksum = checksum;
+            this.recordLength = recordLength;
+        }
+    }
+
+    private final File directory;
+    private final long maxSegmentSize;
+    private final Map<String, Entry> index = new HashMap<String, Entry>();
+    /** The sealed segments, oldest first */
+    private final LinkedList<Segment> sealedSegments = new LinkedList<Segment>();
+    private Segment activeSegment;
+    private boolean closed;
+
+    /**
+     * Open a store using the default maximum segment size.
+     *
+     * @param directory the directory containing the segment files; created if necessary
+     * @throws AxisFault if the existing segments could not be read
+     */
+    public FileMessageContextStore(File directory) throws AxisFault {
+        this(directory, DEFAULT_MAX_SEGMENT_SIZE);
+    }
+
+    /**
+     * Open a store.
+     *
+     * @param directory the directory containing the segment files; created if necessary
+     * @param maxSegmentSize the size in bytes above which a new segment is started
+     * @throws AxisFault if the existing segments could not be read
+     */
+    public FileMessageContextStore(File directory, long maxSegmentSize) throws AxisFault {
+        this.directory = directory;
+        this.maxSegmentSize = maxSegmentSize;
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new AxisFault("Unable to create directory " + directory);
+        }
+        try {
+            for (Segment segment : openSegments()) {
+                load(segment);
+                if (activeSegment != null) {
+                    sealedSegments.add(activeSegment);
+                }
+                activeSegment = segment;
+            }
+            if (activeSegment == null) {
+                activeSegment = createSegment(0);
+            }
+            releaseDeadSegments();
+        } catch (IOException e) {
+            closeSegments();
+            throw AxisFault.makeFault(e);
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("Opened message context store in " + directory + " with " + index.size()
+                    + " message contexts");
+        }
+    }
+
+    private List<Segment> openSegments() throws IOException {
+        List<Long> numbers = new ArrayList<Long>();
+        String[] names = directory.list();
+        if (names != null) {
+            for (String name : names) {
+                if (name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX)) {
+                    try {
+                        numbers.add(Long.valueOf(name.substring(SEGMENT_PREFIX.length(),
+                                name.length() - SEGMENT_SUFFIX.length())));
+                    } catch (NumberFormatException e) {
+                        // Not one of our files
+                    }
+                }
+            }
+        }
+        Collections.sort(numbers);
+        List<Segment> segments = new ArrayList<Segment>(numbers.size());
+        for (Long number : numbers) {
+            segments.add(new Segment(number.longValue(), getSegmentFile(number.longValue())));
+        }
+        return segments;
+    }
+
+    private File getSegmentFile(long number) {
+        return new File(directory, SEGMENT_PREFIX + number + SEGMENT_SUFFIX);
+    }
+
+    private Segment createSegment(long number) throws IOException {
+        return new Segment(number, getSegmentFile(number));
+    }
+
+    /**
+     * Replay the records of a segment into the index.
+     */
+    private void load(Segment segment) throws IOException {
+        long fileSize = segment.channel.size();
+        long offset = 0;
+        DataInputStream in = new DataInputStream(new BufferedInputStream(
+                new FileInputStream(segment.file)));
+        try {
+            while (fileSize - offset >= HEADER_LENGTH) {
+                int payloadLength = in.readInt();
+                int checksum = in.readInt();
+                int idLength = in.readUnsignedShort();
+                long payloadOffset = offset + HEADER_LENGTH + idLength;
+                if (payloadLength < -1 || payloadOffset + Math.max(payloadLength, 0) > fileSize) {
+                    break;
+                }
+                byte[] id = new byte[idLength];
+                in.readFully(id);
+                String messageID = new String(id, UTF8);
+                int recordLength = HEADER_LENGTH + idLength;
+                if (payloadLength == -1) {
+                    removeEntry(messageID);
+                } else {
+                    skipFully(in, payloadLength);
+                    recordLength += payloadLength;
+                    putEntry(messageID, new Entry(segment, payloadOffset, payloadLength, checksum,
+                            recordLength));
+                }
+                offset += recordLength;
+            }
+        } finally {
+            in.close();
+        }
+        if (offset < fileSize) {
+            log.warn("Discarding incomplete record at offset " + offset + " in " + segment.file);
+            segment.channel.truncate(offset);
+        }
+        segment.size = offset;
+    }
+
+    private static void skipFully(DataInputStream in, int count) throws IOException {
+        int remaining = count;
+        while (remaining > 0) {
+            int skipped = in.skipBytes(remaining);
+            if (skipped <= 0) {
+                throw new EOFException();
+            }
+            remaining -= skipped;
+        }
+    }
+
+    private void putEntry(String messageID, Entry entry) {
+        Entry old = index.put(messageID, entry);
+        if (old != null) {
+            old.segment.liveBytes -= old.recordLength;
+        }
+        entry.segment.liveBytes += entry.recordLength;
+    }
+
+    private Entry removeEntry(String messageID) {
+        Entry old = index.remove(messageID);
+        if (old != null) {
+            old.segment.liveBytes -= old.recordLength;
+        }
+        return old;
+    }
+
+    public void store(MessageContext msgContext) throws AxisFault {
+        String messageID = msgContext.getMessageID();
+        if (messageID == null) {
+            throw new AxisFault("Cannot store a message context without message ID");
+        }
+        byte[] payload;
+        try {
+            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            ObjectOutputStream out = new ObjectOutputStream(baos);
+            msgContext.writeExternal(out);
+            out.close();
+            payload = baos.toByteArray();
+        } catch (IOException e) {
+            throw AxisFault.makeFault(e);
+        }
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        synchronized (this) {
+            checkOpen();
+            try {
+                putEntry(messageID, append(messageID, payload, (int)crc.getValue()));
+            } catch (IOException e) {
+                throw AxisFault.makeFault(e);
+            }
+        }
+    }
+
+    public MessageContext retrieve(String messageID, ConfigurationContext configContext)
+            throws AxisFault {
+        byte[] payload;
+        synchronized (this) {
+            checkOpen();
+            Entry entry = index.get(messageID);
+            if (entry == null) {
+                return null;
+            }
+            try {
+                payload = read(entry);
+                CRC32 crc = new CRC32();
+                crc.update(payload);
+                if ((int)crc.getValue() != entry.checksum) {
+                    throw new AxisFault("Corrupted record for message " + messageID + " in "
+                            + entry.segment.file);
+                }
+                append(messageID, null, 0);
+                removeEntry(messageID);
+                reclaimSpace();
+            } catch (IOException e) {
+                throw AxisFault.makeFault(e);
+            }
+        }
+        MessageContext msgContext = new MessageContext();
+        try {
+            ObjectInputStream in = new ObjectInputStreamWithCL(new ByteArrayInputStream(payload));
+            msgContext.readExternal(in);
+        } catch (IOException e) {
+            throw AxisFault.makeFault(e);
+        } catch (ClassNotFoundException e) {
+            throw AxisFault.makeFault(e);
+        }
+        msgContext.activate(configContext);
+        return msgContext;
+    }
+
+    public synchronized boolean remove(String messageID) throws AxisFault {
+        checkOpen();
+        if (!index.containsKey(messageID)) {
+            return false;
+        }
+        try {
+            append(messageID, null, 0);
+            removeEntry(messageID);
+            reclaimSpace();
+        } catch (IOException e) {
+            throw AxisFault.makeFault(e);
+        }
+        return true;
+    }
+
+    public synchronized boolean contains(String messageID) {
+        return index.containsKey(messageID);
+    }
+
+    public synchronized int size() {
+        return index.size();
+    }
+
+    /**
+     * @return the number of segment files currently used by the store
+     */
+    public synchronized int getSegmentCount() {
+        return closed ? 0 : sealedSegments.size() + 1;
+    }
+
+    /**
+     * Copy the live records of all sealed segments to the active segment and delete the sealed
+     * segments.
+     *
+     * @throws AxisFault if an I/O error occurs
+     */
+    public synchronized void compact() throws AxisFault {
+        checkOpen();
+        try {
+            doCompact();
+        } catch (IOException e) {
+            throw AxisFault.makeFault(e);
+        }
+    }
+
+    public synchronized void close() throws AxisFault {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            activeSegment.channel.force(false);
+        } catch (IOException e) {
+            log.warn("Error flushing " + activeSegment.file, e);
+        }
+        closeSegments();
+        index.clear();
+    }
+
+    private void closeSegments() {
+        for (Segment segment : sealedSegments) {
+            segment.close();
+        }
+        sealedSegments.clear();
+        if (activeSegment != null) {
+            activeSegment.close();
+        }
+    }
+
+    private void checkOpen() throws AxisFault {
+        if (closed) {
+            throw new AxisFault("Message context store in " + directory + " has been closed");
+        }
+    }
+
+    /**
+     * Append a record to the active segment.
+     *
+     * @param messageID the message ID
+     * @param payload the externalized message context, or <code>null</code> for a removal record
+     * @param checksum the checksum of the payload
+     * @return the index entry for the record, or <code>null</code> for a removal record
+     */
+    private Entry append(String messageID, byte[] payload, int checksum) throws IOException {
+        byte[] id = messageID.getBytes(UTF8);
+        if (id.length > 0xFFFF) {
+            throw new IOException("Message ID too long: " + messageID);
+        }
+        if (activeSegment.size >= maxSegmentSize) {
+            sealedSegments.add(activeSegment);
+            activeSegment = createSegment(activeSegment.number + 1);
+        }
+        int payloadLength = payload == null ? 0 : payload.length;
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_LENGTH + id.length + payloadLength);
+        buffer.putInt(payload == null ? -1 : payloadLength);
+        buffer.putInt(checksum);
+        buffer.putShort((short)id.length);
+        buffer.put(id);
+        if (payload != null) {
+            buffer.put(payload);
+        }
+        // Call flip() through Buffer, so that the code also runs on Java 8, where
+        // ByteBuffer doesn't override it
+        ((Buffer)buffer).flip();
+        Segment segment = activeSegment;
+        long offset = segment.size;
+        long position = offset;
+        while (buffer.hasRemaining()) {
+            position += segment.channel.write(buffer, position);
+        }
+        segment.size = position;
+        return payload == null ? null : new Entry(segment, offset + HEADER_LENGTH + id.length,
+                payloadLength, checksum, buffer.limit());
+    }
+
+    private static byte[] read(Entry entry) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(entry.payloadLength);
+        long position = entry.payloadOffset;
+        while (buffer.hasRemaining()) {
+            int c = entry.segment.channel.read(buffer, position);
+            if (c == -1) {
+                throw new EOFException("Unexpected end of " + entry.segment.file);
+            }
+            position += c;
+        }
+        return buffer.array();
+    }
+
+    /**
+     * Delete sealed segments that no longer contain live records and compact the remaining ones
+     * if they consist mostly of dead records.
+     */
+    private void reclaimSpace() throws IOException {
+        releaseDeadSegments();
+        long size = 0;
+        long liveBytes = 0;
+        for (Segment segment : sealedSegments) {
+            size += segment.size;
+            liveBytes += segment.liveBytes;
+        }
+        long deadBytes = size - liveBytes;
+        if (deadBytes >= maxSegmentSize && deadBytes > liveBytes) {
+            doCompact();
+        }
+    }
+
+    /**
+     * Delete the oldest sealed segments as long as they contain no live records. A removal
+     * record may only be dropped together with all the segments older than it; otherwise the
+     * record it cancels would reappear when the store is reopened.
+     */
+    private void releaseDeadSegments() {
+        while (!sealedSegments.isEmpty() && sealedSegments.getFirst().liveBytes == 0) {
+            deleteSegment(sealedSegments.removeFirst());
+        }
+    }
+
+    private void doCompact() throws IOException {
+        if (sealedSegments.isEmpty()) {
+            return;
+        }
+        List<Segment> segments = new ArrayList<Segment>(sealedSegments);
+        List<Map.Entry<String, Entry>> toCopy = new ArrayList<Map.Entry<String, Entry>>();
+        for (Map.Entry<String, Entry> mapEntry : index.entrySet()) {
+            if (mapEntry.getValue().segment != activeSegment) {
+                toCopy.add(mapEntry);
+            }
+        }
+        for (Map.Entry<String, Entry> mapEntry : toCopy) {
+            Entry entry = mapEntry.getValue();
+            putEntry(mapEntry.getKey(), append(mapEntry.getKey(), read(entry), entry.checksum));
+        }
+        // Delete oldest first so that a crash leaves a consistent suffix of the segments
+        for (Segment segment : segments) {
+            sealedSegments.remove(segment);
+            deleteSegment(segment);
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("Compacted message context store in " + directory + "; copied "
+                    + toCopy.size() + " records from " + segments.size() + " segments");
+        }
+    }
+
+    private void deleteSegment(Segment segment) {
+        segment.close();
+        if (!segment.file.delete()) {
+            log.warn("Unable to delete " + segment.file);
+        }
+    }
+}
@@ -147,8 +147,10 @@ public class MessageContext extends AbstractContext
      */
     // supported revision levels, add a new level to manage compatible changes
     private static final int REVISION_2 = 2;
+    // revision 3 saves the MetaDataEntry objects in compact form
+    private static final int REVISION_3 = 3;
     // current revision level of this object
-    private static final int revisionID = REVISION_2;
+    private static final int revisionID = REVISION_3;
 
     private static final boolean DEBUG_ENABLED = log.isDebugEnabled() || log.isTraceEnabled();
 
@@ -1021,13 +1023,13 @@ public class MessageContext extends AbstractContext
         // We have to access the contexts in reverse order, in order to allow
         // a nearer context to overwrite values from a more distant context
         if (configurationContext != null) {
-            resultMap.putAll(configurationContext.getProperties());
+            resultMap.putAll(configurationContext.getPropertiesForRead());
         }
         if (serviceGroupContext != null) {
-            resultMap.putAll(serviceGroupContext.getProperties());
+            resultMap.putAll(serviceGroupContext.getPropertiesForRead());
         }
         if (serviceContext != null) {
-            resultMap.putAll(serviceContext.getProperties());
+            resultMap.putAll(serviceContext.getPropertiesForRead());
         }
         if (operationContext != null) {
             resultMap.putAll(operationContext.getProperties());
@@ -2345,7 +2347,8 @@ public class MessageContext extends AbstractContext
         //    int          - current handler index
         //    int          - current phase index
         //    int          - expected number of entries in the list
-        //    objects      - MetaDataEntry object per list entry
+        //    objects      - MetaDataEntry object per list entry,
+        //                        in compact form since revision 3
         //                        last entry will be empty MetaDataEntry
         //                        with MetaDataEntry.LAST_ENTRY marker
         //    int          - adjusted number of entries in the list
@@ -2404,7 +2407,7 @@ public class MessageContext extends AbstractContext
                             objClass + "] qname [" + qnameAsString + "]");
                 }
 
-                out.writeObject(mdEntry);
+                MetaDataEntry.writeCompact(out, mdEntry);
 
                 // update the index so that the index
                 // now indicates the next entry that
@@ -2424,7 +2427,7 @@ public class MessageContext extends AbstractContext
             MetaDataEntry lastEntry = new MetaDataEntry();
             lastEntry.setClassName(MetaDataEntry.END_OF_LIST);
 
-            out.writeObject(lastEntry);
+            MetaDataEntry.writeCompact(out, lastEntry);
             nextIndex++;
 
             // nextIndex also gives us the number of entries
@@ -2454,7 +2457,8 @@ public class MessageContext extends AbstractContext
         //    UTF          - description string
         //    boolean      - active flag
         //    int          - expected number of entries in the list
-        //    objects      - MetaDataEntry object per list entry
+        //    objects      - MetaDataEntry object per list entry,
+        //                        in compact form since revision 3
         //                        last entry will be empty MetaDataEntry
         //                        with MetaDataEntry.LAST_ENTRY marker
         //    int          - adjusted number of entries in the list
@@ -2509,7 +2513,7 @@ public class MessageContext extends AbstractContext
                             objClass + "] qname [" + qnameAsString + "]");
                 }
 
-                out.writeObject(mdEntry);
+                MetaDataEntry.writeCompact(out, mdEntry);
 
                 // update the index so that the index
                 // now indicates the next entry that
@@ -2529,7 +2533,7 @@ public class MessageContext extends AbstractContext
             MetaDataEntry lastEntry = new MetaDataEntry();
             lastEntry.setClassName(MetaDataEntry.END_OF_LIST);
 
-            out.writeObject(lastEntry);
+            MetaDataEntry.writeCompact(out, lastEntry);
             execNextIndex++;
 
             // execNextIndex also gives us the number of entries
@@ -2586,7 +2590,7 @@ public class MessageContext extends AbstractContext
             metaAxisOperation = new MetaDataEntry(axisOperation.getClass().getName(),
                                                   axisOperation.getName().toString());
         }
-        out.writeObject(metaAxisOperation);
+        MetaDataEntry.writeCompact(out, metaAxisOperation);
 
         //---------------------------------------------------------
         // operation context
@@ -2619,7 +2623,7 @@ public class MessageContext extends AbstractContext
             metaAxisService = new MetaDataEntry(axisService.getClass().getName(), 
                     axisService.getName(), serviceAndPortNames);
         }
-        out.writeObject(metaAxisService);
+        MetaDataEntry.writeCompact(out, metaAxisService);
 
         //-------------------------
         // serviceContextID string
@@ -2665,7 +2669,7 @@ public class MessageContext extends AbstractContext
             metaAxisServiceGroup = new MetaDataEntry(axisServiceGroup.getClass().getName(),
                                                      axisServiceGroup.getServiceGroupName());
         }
-        out.writeObject(metaAxisServiceGroup);
+        MetaDataEntry.writeCompact(out, metaAxisServiceGroup);
 
         //-----------------------------
         // serviceGroupContextId string
@@ -2734,7 +2738,7 @@ public class MessageContext extends AbstractContext
                                                 axisMessage.getName(), amTmpElemQNameString);
 
         }
-        out.writeObject(metaAxisMessage);
+        MetaDataEntry.writeCompact(out, metaAxisMessage);
 
         //---------------------------------------------------------
         // configuration context
@@ -2766,14 +2770,14 @@ public class MessageContext extends AbstractContext
         if (transportIn != null) {
             metaTransportIn = new MetaDataEntry(null, transportIn.getName());
         }
-        out.writeObject(metaTransportIn);
+        MetaDataEntry.writeCompact(out, metaTransportIn);
 
         // TransportOutDescription transportOut
         metaTransportOut = null;
         if (transportOut != null) {
             metaTransportOut = new MetaDataEntry(null, transportOut.getName());
         }
-        out.writeObject(metaTransportOut);
+        MetaDataEntry.writeCompact(out, metaTransportOut);
 
 
         //---------------------------------------------------------
@@ -2880,7 +2884,7 @@ public class MessageContext extends AbstractContext
         }
 
         // make sure the object data is in a revision level we can handle
-        if (revID != REVISION_2) {
+        if (revID != REVISION_2 && revID != REVISION_3) {
             throw new ClassNotFoundException(ExternalizeConstants.UNSUPPORTED_REVID);
         }
 
@@ -2936,7 +2940,8 @@ public class MessageContext extends AbstractContext
         //    int          - current phase index
         //    int          - expected number of entries in the list
         //                        not including the last entry marker
-        //    objects      - MetaDataEntry object per list entry
+        //    objects      - MetaDataEntry object per list entry,
+        //                        in compact form since revision 3
         //                        last entry will be empty MetaDataEntry
         //                        with MetaDataEntry.LAST_ENTRY marker
         //    int          - adjusted number of entries in the list
@@ -2984,7 +2989,7 @@ public class MessageContext extends AbstractContext
                 // stop when we get to the end-of-list marker
 
                 // get the object
-                Object tmpObj = in.readObject();
+                Object tmpObj = readMetaDataEntry(in, revID);
 
                 count++;
 
@@ -3061,7 +3066,8 @@ public class MessageContext extends AbstractContext
         //    boolean      - active flag
         //    int          - expected number of entries in the list
         //                        not including the last entry marker
-        //    objects      - MetaDataEntry object per list entry
+        //    objects      - MetaDataEntry object per list entry,
+        //                        in compact form since revision 3
         //                        last entry will be empty MetaDataEntry
         //                        with MetaDataEntry.LAST_ENTRY marker
         //    int          - adjusted number of entries in the list
@@ -3131,7 +3137,7 @@ public class MessageContext extends AbstractContext
                 // stop when we get to the end-of-list marker
 
                 // get the object
-                Object tmpObj = in.readObject();
+                Object tmpObj = readMetaDataEntry(in, revID);
 
                 count++;
 
@@ -3238,7 +3244,7 @@ public class MessageContext extends AbstractContext
             log.trace(getLogIDString() +
                       ": readExternal(): About to read axisOperation, marker is: " + marker);
         }
-        metaAxisOperation = (MetaDataEntry) in.readObject();
+        metaAxisOperation = readMetaDataEntry(in, revID);
 
         // operation context is not usable until it has been activated
         // NOTE: expect this to be the parent
@@ -3267,7 +3273,7 @@ public class MessageContext extends AbstractContext
             log.trace(getLogIDString() +
                       ": readExternal(): About to read axisService, marker is: " + marker);
         }
-        metaAxisService = (MetaDataEntry) in.readObject();
+        metaAxisService = readMetaDataEntry(in, revID);
 
         //-------------------------
         // serviceContextID string
@@ -3315,7 +3321,7 @@ public class MessageContext extends AbstractContext
             log.trace(getLogIDString() +
                       ": readExternal(): About to read AxisServiceGroup, marker is: " + marker);
         }
-        metaAxisServiceGroup = (MetaDataEntry) in.readObject();
+        metaAxisServiceGroup = readMetaDataEntry(in, revID);
 
         //-----------------------------
         // serviceGroupContextId string
@@ -3363,7 +3369,7 @@ public class MessageContext extends AbstractContext
             log.trace(getLogIDString() +
                       ": readExternal(): About to read AxisMessage, marker is: " + marker);
         }
-        metaAxisMessage = (MetaDataEntry) in.readObject();
+        metaAxisMessage = readMetaDataEntry(in, revID);
         reconcileAxisMessage = (metaAxisMessage != null);
 
 
@@ -3394,12 +3400,12 @@ public class MessageContext extends AbstractContext
         // TransportInDescription transportIn
         // is not usable until the meta data has been reconciled
         transportIn = null;
-        metaTransportIn = (MetaDataEntry) in.readObject();
+        metaTransportIn = readMetaDataEntry(in, revID);
 
         // TransportOutDescription transportOut
         // is not usable until the meta data has been reconciled
         transportOut = null;
-        metaTransportOut = (MetaDataEntry) in.readObject();
+        metaTransportOut = readMetaDataEntry(in, revID);
 
         //---------------------------------------------------------
         // properties
@@ -4014,6 +4020,23 @@ public class MessageContext extends AbstractContext
     }
 
 
+    /**
+     * Read a MetaDataEntry saved by writeExternal().  Revision 2 saved the
+     * entries as serialized objects; later revisions use the compact form.
+     *
+     * @param in    The stream to read the entry from
+     * @param revID The revision of the saved message context
+     * @return the entry, which may be null
+     */
+    private static MetaDataEntry readMetaDataEntry(ObjectInput in, int revID)
+            throws IOException, ClassNotFoundException {
+        if (revID == REVISION_2) {
+            return (MetaDataEntry) in.readObject();
+        }
+        return MetaDataEntry.readCompact(in);
+    }
+
+
     /**
      * Process the list of handlers from the Phase object
      * into the appropriate meta data.
@@ -0,0 +1,91 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.axis2.context;
+
+import org.apache.axis2.AxisFault;
+
+/**
+ * Store for paused {@link MessageContext}s. A handler that pauses a message (by returning
+ * {@link org.apache.axis2.engine.Handler.InvocationResponse#SUSPEND}) can park the message context
+ * in a store instead of keeping a reference to it, so that a large number of suspended flows
+ * does not need to be kept on the heap and, depending on the implementation, survives a
+ * restart. When the message is to be resumed, the handler retrieves the message context from
+ * the store and passes it to {@link org.apache.axis2.engine.AxisEngine#resume(MessageContext)}.
+ * <p>
+ * Message contexts are saved using {@link MessageContext#writeExternal(java.io.ObjectOutput)}
+ * and are keyed by their message ID. The usual restrictions of the message context
+ * externalization apply; in particular, objects that need to survive the round trip must be
+ * saved through the {@link SelfManagedDataManager} mechanism or be serializable properties.
+ * <p>
+ * Implementations must be thread safe.
+ */
+public interface MessageContextStore {
+    /**
+     * Save a message context. If the store already contains a message context with the same
+     * message ID, it is replaced.
+     *
+     * @param msgContext the message context; must have a message ID
+     * @throws AxisFault if the message context could not be saved
+     */
+    void store(MessageContext msgContext) throws AxisFault;
+
+    /**
+     * Remove a message context from the store and reactivate it.
+     *
+     * @param messageID the message ID of the message context
+     * @param configContext the configuration context used to
+     *                      {@linkplain MessageContext#activate(ConfigurationContext) activate}
+     *                      the message context
+     * @return the message context, or <code>null</code> if the store doesn't contain a message
+     *         context with the given message ID
+     * @throws AxisFault if the message context could not be restored
+     */
+    MessageContext retrieve(String messageID, ConfigurationContext configContext)
+            throws AxisFault;
+
+    /**
+     * Discard a message context without restoring it.
+     *
+     * @param messageID the message ID of the message context
+     * @return <code>true</code> if the store contained a message context with the given ID
+     * @throws AxisFault if the removal could not be recorded
+     */
+    boolean remove(String messageID) throws AxisFault;
+
+    /**
+     * Check whether the store contains a message context with the given message ID.
+     *
+     * @param messageID the message ID
+     * @return <code>true</code> if the message context is in the store
+     */
+    boolean contains(String messageID);
+
+    /**
+     * @return the number of message contexts in the store
+     */
+    int size();
+
+    /**
+     * Release the resources used by the store. Message contexts that have not been retrieved
+     * are kept if the store is persistent.
+     *
+     * @throws AxisFault if an error occurred while closing the store
+     */
+    void close() throws AxisFault;
+}
@@ -97,8 +97,10 @@ public class OperationContext extends AbstractContext
      */
     // supported revision levels, add a new level to manage compatible changes
     private static final int REVISION_2 = 2;
+    // revision 3 saves the MetaDataEntry objects in compact form
+    private static final int REVISION_3 = 3;
     // current revision level of this object
-    private static final int revisionID = REVISION_2;
+    private static final int revisionID = REVISION_3;
 
 
     /**
@@ -387,7 +389,7 @@ public class OperationContext extends AbstractContext
             metaAxisOperation = new MetaDataEntry(axisOperation.getClass().getName(),
                                                   axisOperation.getName().toString());
         }
-        out.writeObject(metaAxisOperation);
+        MetaDataEntry.writeCompact(out, metaAxisOperation);
 
         //---------------------------------------------------------
         // AxisOperation axisService
@@ -407,7 +409,7 @@ public class OperationContext extends AbstractContext
                     new MetaDataEntry(axisService.getClass().getName(), axisService.getName(),
                             serviceAndPortNames);
         }
-        out.writeObject(metaAxisService);
+        MetaDataEntry.writeCompact(out, metaAxisService);
 
         //---------------------------------------------------------
         // parent
@@ -556,7 +558,7 @@ public class OperationContext extends AbstractContext
         }
 
         // make sure the object data is in a revision level we can handle
-        if (revID != REVISION_2) {
+        if (revID != REVISION_2 && revID != REVISION_3) {
             throw new ClassNotFoundException(ExternalizeConstants.UNSUPPORTED_REVID);
         }
 
@@ -590,14 +592,14 @@ public class OperationContext extends AbstractContext
         // axisOperation is not usable until the meta data has been reconciled
         axisOperation = null;
         in.readUTF(); // read marker
-        metaAxisOperation = (MetaDataEntry) in.readObject();
+        metaAxisOperation = readMetaDataEntry(in, revID);
 
         //---------------------------------------------------------
         // axis service meta data
         //---------------------------------------------------------
         // axisService is not usable until the meta data has been reconciled
         in.readUTF(); // read marker
-        metaAxisService = (MetaDataEntry) in.readObject();
+        metaAxisService = readMetaDataEntry(in, revID);
 
         //---------------------------------------------------------
         // parent
@@ -623,6 +625,23 @@ public class OperationContext extends AbstractContext
     }
 
 
+    /**
+     * Read a MetaDataEntry saved by writeExternal().  Revision 2 saved the
+     * entries as serialized objects; later revisions use the compact form.
+     *
+     * @param in    The stream to read the entry from
+     * @param revID The revision of the saved operation context
+     * @return the entry, which may be null
+     */
+    private static MetaDataEntry readMetaDataEntry(ObjectInput in, int revID)
+            throws IOException, ClassNotFoundException {
+        if (revID == REVISION_2) {
+            return (MetaDataEntry) in.readObject();
+        }
+        return MetaDataEntry.readCompact(in);
+    }
+
+
     /**
      * This method checks to see if additional work needs to be
      * done in order to complete the object reconstitution.
@@ -0,0 +1,85 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.axis2.context;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Set of property keys that were found neither in a context nor in any of its ancestors. An
+ * instance records the chain of contexts from its owner to the root together with their
+ * properties versions, and is only valid as long as that chain and those versions are unchanged;
+ * see {@link AbstractContext#getProperty(String)}.
+ */
+final class PropertyMissCache {
+    /**
+     * Upper bound for the number of cached keys, so that applications using generated property
+     * names can't make the cache grow without limit.
+     */
+    private static final int MAX_SIZE = 256;
+
+    private final AbstractContext[] contexts;
+    private final long[] versions;
+    private final Map<String, Boolean> misses = new ConcurrentHashMap<String, Boolean>();
+
+    PropertyMissCache(AbstractContext owner) {
+        int depth = 0;
+        for (AbstractContext context = owner; context != null; context = context.parent) {
+            depth++;
+        }
+        contexts = new AbstractContext[depth];
+        versions = new long[depth];
+        AbstractContext context = owner;
+        for (int i = 0; i < depth && context != null; i++) {
+            contexts[i] = context;
+            versions[i] = context.getPropertiesVersion();
+            context = context.parent;
+        }
+    }
+
+    /**
+     * Check whether the cache is still valid for the given context, i.e. whether neither the
+     * chain of ancestors nor the properties of any context in that chain have changed since the
+     * cache was created.
+     *
+     * @param owner the context that owns the cache
+     * @return <code>true</code> if the cached misses can be used
+     */
+    boolean isValid(AbstractContext owner) {
+        AbstractContext context = owner;
+        for (int i = 0; i < contexts.length; i++) {
+            if (context != contexts[i] || context.getPropertiesVersion() != versions[i]) {
+                return false;
+            }
+            context = context.parent;
+        }
+        return context == null;
+    }
+
+    boolean contains(String key) {
+        return key != null && misses.containsKey(key);
+    }
+
+    void add(String key) {
+        if (key != null && misses.size() < MAX_SIZE) {
+            misses.put(key, Boolean.TRUE);
+        }
+    }
+}
@@ -332,7 +332,7 @@ public class ServiceContext extends AbstractContext
         //---------------------------------------------------------
         // properties
         //---------------------------------------------------------
-        out.writeMap(getProperties());
+        out.writeMap(getPropertiesForRead());
         
         //---------------------------------------------------------
         // AxisService
@@ -558,7 +558,7 @@ public class ServiceContext extends AbstractContext
     public void putContextProperties(ServiceContext context, boolean doParentProperties) {
         if (context != null) {
             // get the current properties on this context object
-            Map<String, Object> props = getProperties();
+            Map<String, Object> props = getPropertiesForRead();
 
             // copy them to the specified context object
             context.mergeProperties(props);
@@ -615,5 +615,9 @@ public class ServiceContext extends AbstractContext
         return configContext;
     }
 
+    protected boolean isPropertyMissCacheEnabled() {
+        return true;
+    }
+
 
 }
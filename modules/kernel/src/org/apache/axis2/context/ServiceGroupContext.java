@@ -247,7 +247,7 @@ public class ServiceGroupContext extends AbstractContext
     public void putContextProperties(ServiceGroupContext context) {
         if (context != null) {
             // get the current properties on this context object
-            Map<String, Object> props = getProperties();
+            Map<String, Object> props = getPropertiesForRead();
 
             // copy them to the specified context object
             context.mergeProperties(props);
@@ -302,7 +302,7 @@ public class ServiceGroupContext extends AbstractContext
         //---------------------------------------------------------
         // properties
         //---------------------------------------------------------
-        out.writeMap(getProperties());
+        out.writeMap(getPropertiesForRead());
 
         //---------------------------------------------------------
         // AxisServiceGroup
@@ -513,4 +513,8 @@ public class ServiceGroupContext extends AbstractContext
         //parent of the ServiceGroupContext is the ConfigurationContext
         return (ConfigurationContext) this.getParent();
     }
+
+    protected boolean isPropertyMissCacheEnabled() {
+        return true;
+    }
 }
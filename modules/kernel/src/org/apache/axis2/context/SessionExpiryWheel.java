@@ -0,0 +1,151 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.axis2.context;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Hashed timing wheel used by {@link ConfigurationContext} to expire SOAP session
+ * {@link ServiceGroupContext}s. Each slot holds the contexts that are due in a given tick, so a
+ * sweep only looks at the contexts that may have expired since the previous sweep instead of
+ * scanning the whole session table.
+ * <p>
+ * Contexts are not rescheduled when they are touched. Instead, when a slot is processed, the
+ * deadline of each context is recomputed from its last touched time and the context is put back
+ * into the wheel if it is still alive. Contexts whose deadline lies beyond the span of the wheel
+ * simply go around once more. Only one thread sweeps at a time; other threads never wait for the
+ * sweep to complete.
+ */
+final class SessionExpiryWheel {
+    private final long tickDuration;
+    private final int mask;
+    private final Queue<ServiceGroupContext>[] slots;
+    private final AtomicBoolean sweeping = new AtomicBoolean();
+
+    /**
+     * The last tick that has been processed.
+     */
+    private volatile long processedTick;
+
+    /**
+     * Constructor.
+     *
+     * @param tickDuration the duration of a tick in milliseconds
+     * @param wheelSize the number of slots; will be rounded up to a power of two
+     * @param now the current time in milliseconds
+     */
+    @SuppressWarnings("unchecked")
+    SessionExpiryWheel(long tickDuration, int wheelSize, long now) {
+        this.tickDuration = tickDuration;
+        int size = Integer.highestOneBit(Math.max(wheelSize, 2) - 1) << 1;
+        mask = size - 1;
+        slots = new Queue[size];
+        for (int i = 0; i < size; i++) {
+            slots[i] = new ConcurrentLinkedQueue<ServiceGroupContext>();
+        }
+        processedTick = now / tickDuration;
+    }
+
+    /**
+     * Schedule a context to be checked at the given time.
+     *
+     * @param serviceGroupContext the context
+     * @param deadline the time (in milliseconds) at which the context will expire unless it is
+     *                 touched again
+     */
+    void schedule(ServiceGroupContext serviceGroupContext, long deadline) {
+        // Never schedule into a slot that has already been processed in the current revolution
+        long tick = Math.max(deadline / tickDuration, processedTick + 1);
+        slots[(int)(tick & mask)].add(serviceGroupContext);
+    }
+
+    /**
+     * Check whether a tick has elapsed since the last sweep, i.e. whether calling
+     * {@link #expire(long, long, ConcurrentMap)} may find anything to do.
+     *
+     * @param now the current time in milliseconds
+     * @return true if a sweep is due
+     */
+    boolean isDue(long now) {
+        return now / tickDuration > processedTick;
+    }
+
+    /**
+     * Process all ticks that have elapsed since the last sweep. Contexts that have expired are
+     * removed from the given registry and returned. Contexts that are no longer registered are
+     * dropped. If another thread is already sweeping, this method returns immediately.
+     *
+     * @param now the current time in milliseconds
+     * @param timeout the session timeout in milliseconds
+     * @param registry the map of session IDs to contexts
+     * @return the contexts that have been removed from the registry
+     */
+    List<ServiceGroupContext> expire(long now, long timeout,
+                                     ConcurrentMap<String, ServiceGroupContext> registry) {
+        if (!isDue(now) || !sweeping.compareAndSet(false, true)) {
+            return Collections.emptyList();
+        }
+        try {
+            List<ServiceGroupContext> expired = null;
+            List<ServiceGroupContext> alive = new ArrayList<ServiceGroupContext>();
+            long nowTick = now / tickDuration;
+            long firstTick = processedTick + 1;
+            // After a long idle period, a single revolution covers every slot
+            if (nowTick - firstTick > mask) {
+                firstTick = nowTick - mask;
+            }
+            for (long tick = firstTick; tick <= nowTick; tick++) {
+                Queue<ServiceGroupContext> slot = slots[(int)(tick & mask)];
+                ServiceGroupContext serviceGroupContext;
+                while ((serviceGroupContext = slot.poll()) != null) {
+                    String id = serviceGroupContext.getId();
+                    if (id == null || registry.get(id) != serviceGroupContext) {
+                        // Already removed (or replaced); forget about it
+                        continue;
+                    }
+                    if (now - serviceGroupContext.getLastTouchedTime() > timeout) {
+                        if (registry.remove(id, serviceGroupContext)) {
+                            if (expired == null) {
+                                expired = new ArrayList<ServiceGroupContext>();
+                            }
+                            expired.add(serviceGroupContext);
+                        }
+                    } else {
+                        alive.add(serviceGroupContext);
+                    }
+                }
+            }
+            processedTick = nowTick;
+            for (ServiceGroupContext serviceGroupContext : alive) {
+                schedule(serviceGroupContext,
+                         serviceGroupContext.getLastTouchedTime() + timeout + 1);
+            }
+            return expired == null ? Collections.<ServiceGroupContext>emptyList() : expired;
+        } finally {
+            sweeping.set(false);
+        }
+    }
+}
@@ -172,18 +172,24 @@ public class ActivateUtils {
             log.debug("ActivateUtils.findService serviceName: " + serviceName +", extraName: "
                 + extraName);
         }
-        HashMap services = axisConfig.getServices();
+        // The service with the same name, if any, is the only possible exact match; try it first
+        // to avoid copying and scanning the whole service map in the common case
+        AxisService foundService = serviceName == null ? null
+                : axisConfig.getServiceForActivation(serviceName);
+        boolean exactServiceNameMatch = foundService != null && checkAxisService(foundService,
+                serviceClassName, serviceName, extraName) == MatchType.NAME_MATCH;
+        if (!exactServiceNameMatch) {
+            foundService = null;
+        }
 
-        Iterator its = services.values().iterator();
+        Iterator its = exactServiceNameMatch ? null : axisConfig.getServices().values().iterator();
 
         // We loop through all the axis services looking for an exact match of the name, and if 
         // it exists, the extra information of the fully qualified Service QName and the port
         // name.  If we find an exact match, including the name of the service, we stop looking.
         // If no exact match is found after searching the entire list, then we use the first 
         // match of the extra information we found.  Note that picking the first one found is arbitrary.
-        boolean exactServiceNameMatch = false;
-        AxisService foundService = null;
-        while (its.hasNext() && !exactServiceNameMatch) {
+        while (!exactServiceNameMatch && its.hasNext()) {
             AxisService service = (AxisService) its.next();
             switch(checkAxisService(service, serviceClassName, serviceName, extraName)) {
             case NAME_MATCH:
@@ -395,6 +401,21 @@ public class ActivateUtils {
         if (namespace == null || "".equals(namespace)) {
             ignoreNamespace = true;
         }
+
+        // If the namespace is compared, only the operation with exactly that name can match
+        if (!ignoreNamespace) {
+            AxisOperation operation = (AxisOperation) service.getChild(opQName);
+            if (operation == null || !operation.getName().equals(opQName)
+                    || !operation.getClass().getName().equals(opClassName)) {
+                operation = null;
+            }
+            if (log.isTraceEnabled()) {
+                log.trace("ObjectStateUtils:findOperation(service): ignoreNamespace [false]"
+                        + " classname [" + opClassName + "]  QName ["
+                        + opQName.toString() + "]  returning  [" + operation + "]");
+            }
+            return operation;
+        }
         
         while (ito.hasNext()) {
             AxisOperation operation = (AxisOperation) ito.next();
@@ -304,7 +304,7 @@ public class MessageExternalizeUtils  implements ExternalizeConstants {
     /**
      * MessageOutputStream writes DataBlock chunks to the ObjectOutput.
      */
-    private static class MessageOutputStream extends OutputStream {
+    static class MessageOutputStream extends OutputStream {
         ObjectOutput out;
         boolean isDebug;
         MessageOutputStream(ObjectOutput out) {
@@ -369,7 +369,7 @@ public class MessageExternalizeUtils  implements ExternalizeConstants {
      * MessageInputStream controls the reading of the DataBlock chunks
      *
      */
-    private static class MessageInputStream extends InputStream {
+    static class MessageInputStream extends InputStream {
         
         ObjectInput in;
         boolean isDebug;
@@ -400,9 +400,11 @@ public class MessageExternalizeUtils  implements ExternalizeConstants {
                 ret = -1;
             } else {
                 chunkAvail--;
-                ret = in.readByte();
+                ret = in.readByte() & 0xFF;
+            }
+            if (isDebug) {
+                log.debug("returning " + ret);
             }
-            log.debug("returning " + ret);
             return ret;
         }
 
@@ -36,6 +36,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 
+import javax.xml.namespace.QName;
+
 /**
  * A SafeObjectOutputStream provides extra mechanisms to ensure that 
  * objects can be safely serialized to the ObjectOutput.
@@ -567,7 +569,13 @@ public class SafeObjectOutputStream implements ObjectOutput,
             obj instanceof String ||
             obj instanceof Integer ||
             obj instanceof Boolean ||
-            obj instanceof Long;
+            obj instanceof Long ||
+            obj instanceof Short ||
+            obj instanceof Byte ||
+            obj instanceof Character ||
+            obj instanceof Double ||
+            obj instanceof Float ||
+            obj instanceof QName;
         return isSafeSerializable;
     }
     
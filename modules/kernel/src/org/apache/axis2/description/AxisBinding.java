@@ -34,6 +34,7 @@ import org.apache.axiom.om.OMNamespace;
 import org.apache.axiom.soap.SOAP11Constants;
 import org.apache.axis2.AxisFault;
 import org.apache.axis2.Constants;
+import org.apache.axis2.dispatchers.HTTPLocationRouter;
 import org.apache.axis2.util.PolicyUtil;
 import org.apache.axis2.util.WSDLSerializationUtil;
 import org.apache.neethi.Policy;
@@ -52,6 +53,9 @@ public class AxisBinding extends AxisDescription {
 
     private Map<String, AxisBindingMessage> faults;
 
+    /** Compiled form of the {@link WSDL2Constants#HTTP_LOCATION_TABLE} property */
+    private volatile HTTPLocationRouter httpLocationRouter;
+
     public AxisBindingMessage getFault(String name) {
         return (AxisBindingMessage) faults.get(name);
     }
@@ -68,6 +72,29 @@ public class AxisBinding extends AxisDescription {
 
     public void setProperty(String name, Object value) {
         options.put(name, value);
+        if (WSDL2Constants.HTTP_LOCATION_TABLE.equals(name)) {
+            httpLocationRouter = null;
+        }
+    }
+
+    /**
+     * Get the router used to dispatch requests based on the HTTP location of the operations of
+     * this binding. The router is built from the {@link WSDL2Constants#HTTP_LOCATION_TABLE}
+     * property the first time it is requested, which is expected to happen after the binding
+     * has been fully deployed.
+     *
+     * @return the router, or <code>null</code> if the binding has no HTTP location table
+     */
+    public HTTPLocationRouter getHTTPLocationRouter() {
+        HTTPLocationRouter router = httpLocationRouter;
+        if (router == null) {
+            Map httpLocationTable = (Map) options.get(WSDL2Constants.HTTP_LOCATION_TABLE);
+            if (httpLocationTable != null) {
+                router = new HTTPLocationRouter(httpLocationTable);
+                httpLocationRouter = router;
+            }
+        }
+        return router;
     }
 
     /**
@@ -119,10 +119,12 @@ import java.util.Collection;
 import java.util.Date;
 import java.util.Enumeration;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Hashtable;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.Vector;
 import java.util.concurrent.CopyOnWriteArrayList;
 
@@ -184,7 +186,7 @@ public class AxisService extends AxisDescription {
     // Collection of aliases that are invalid for this service because they are
     // duplicated across
     // multiple operations under this service.
-    private List<String> invalidOperationsAliases = null;
+    private Set<String> invalidOperationsAliases = null;
     // private HashMap operations = new HashMap();
 
     // to store module ref at deploy time parsing
@@ -364,7 +366,7 @@ public class AxisService extends AxisDescription {
     public AxisService() {
         super();
         this.operationsAliasesMap = new HashMap();
-        this.invalidOperationsAliases = new ArrayList();
+        this.invalidOperationsAliases = new HashSet<String>();
         this.excludeOperationsNameList = new ArrayList();
         moduleConfigmap = new HashMap();
         // by default service scope is for the request
@@ -39,6 +39,8 @@ import org.apache.axis2.context.OperationContext;
 import org.apache.axis2.context.ServiceContext;
 import org.apache.axis2.engine.AxisEngine;
 import org.apache.axis2.i18n.Messages;
+import org.apache.axis2.kernel.NonBlockingTransportSender;
+import org.apache.axis2.kernel.TransportSender;
 import org.apache.axis2.kernel.TransportUtils;
 import org.apache.axis2.kernel.http.HTTPConstants;
 import org.apache.axis2.util.CallbackReceiver;
@@ -224,6 +226,8 @@ class OutInAxisOperationClient extends OperationClient {
                 // Send the SOAP Message and receive a response
                 send(mc);
                 completed = true;
+            } else if (isNonBlockingTransport(mc)) {
+                sendNonBlocking(mc, axisCallback);
             } else {
                 sc.getConfigurationContext().getThreadPool().execute(
                         new NonBlockingInvocationWorker(mc, axisCallback));
@@ -380,9 +384,17 @@ class OutInAxisOperationClient extends OperationClient {
      * @throws AxisFault Sends the message using a two way transport and waits for a response
      */
     protected MessageContext send(MessageContext msgContext) throws AxisFault {
+        MessageContext responseMessageContext = createResponseMessageContext(msgContext);
 
-        // create the responseMessageContext
+        //sending the message
+        AxisEngine.send(msgContext);
 
+        processResponse(msgContext, responseMessageContext);
+        return responseMessageContext;
+    }
+
+    private MessageContext createResponseMessageContext(MessageContext msgContext)
+            throws AxisFault {
         MessageContext responseMessageContext =
                 msgContext.getConfigurationContext().createMessageContext();
 
@@ -394,10 +406,19 @@ class OutInAxisOperationClient extends OperationClient {
         responseMessageContext.setServiceContext(msgContext.getServiceContext());
         responseMessageContext.setAxisMessage(
                 axisOp.getMessage(WSDLConstants.MESSAGE_LABEL_IN_VALUE));
+        return responseMessageContext;
+    }
 
-        //sending the message
-        AxisEngine.send(msgContext);
-
+    /**
+     * Process the response after the transport has received it.
+     *
+     * @param msgContext the request message context on which the transport has set the response
+     *                   properties
+     * @param responseMessageContext the response message context
+     * @throws AxisFault if something went wrong
+     */
+    private void processResponse(MessageContext msgContext, MessageContext responseMessageContext)
+            throws AxisFault {
         responseMessageContext.setDoingREST(msgContext.isDoingREST());
 
         // Copy RESPONSE properties which the transport set onto the request message context when it processed
@@ -412,7 +433,90 @@ class OutInAxisOperationClient extends OperationClient {
         responseMessageContext.setTransportIn(msgContext.getTransportIn());
         responseMessageContext.setTransportOut(msgContext.getTransportOut());
         handleResponse(responseMessageContext);
-        return responseMessageContext;
+    }
+
+    private static boolean isNonBlockingTransport(MessageContext msgContext) {
+        TransportSender sender = msgContext.getTransportOut() == null ? null
+                : msgContext.getTransportOut().getSender();
+        return sender instanceof NonBlockingTransportSender
+                && ((NonBlockingTransportSender)sender).isNonBlocking(msgContext);
+    }
+
+    /**
+     * Non-blocking invocation over a {@link NonBlockingTransportSender}. The message is sent on
+     * the calling thread, but no thread waits for the response: the response is processed and
+     * the callback notified on the thread on which the transport reports the response.
+     *
+     * @param msgContext the request message context
+     * @param axisCallback the callback to notify
+     */
+    private void sendNonBlocking(final MessageContext msgContext,
+                                 final AxisCallback axisCallback) {
+        try {
+            final MessageContext responseMessageContext = createResponseMessageContext(msgContext);
+            msgContext.setProperty(NonBlockingTransportSender.RESPONSE_LISTENER,
+                    new NonBlockingTransportSender.ResponseListener() {
+                        public void responseReceived(MessageContext requestMessageContext) {
+                            try {
+                                processResponse(requestMessageContext, responseMessageContext);
+                            } catch (Exception e) {
+                                notifyCallback(axisCallback, null, e);
+                                return;
+                            }
+                            notifyCallback(axisCallback, responseMessageContext, null);
+                        }
+
+                        public void failed(Exception ex) {
+                            notifyCallback(axisCallback, null, ex);
+                        }
+                    });
+            AxisEngine.send(msgContext);
+        } catch (AxisFault e) {
+            notifyCallback(axisCallback, null, e);
+        }
+    }
+
+    /**
+     * Notify the callback of a non-blocking invocation about the outcome of the invocation.
+     *
+     * @param axisCallback the callback, or <code>null</code> if there is none
+     * @param response the response message context, or <code>null</code> if the invocation
+     *                 failed or there is no response
+     * @param error the error, or <code>null</code> if the invocation succeeded
+     */
+    private void notifyCallback(AxisCallback axisCallback, MessageContext response,
+                                Exception error) {
+        if (axisCallback == null) {
+            return;
+        }
+        try {
+            if (error == null && response != null) {
+                SOAPEnvelope resenvelope = response.getEnvelope();
+
+                if (resenvelope.hasFault()) {
+                    SOAPBody body = resenvelope.getBody();
+                    // If a fault was found, create an AxisFault with a MessageContext so that
+                    // other programming models can deserialize the fault to an alternative form.
+                    AxisFault fault = new AxisFault(body.getFault(), response);
+                    if (options.isExceptionToBeThrownOnSOAPFault()) {
+                        axisCallback.onError(fault);
+                    } else {
+                        axisCallback.onFault(response);
+                    }
+                } else {
+                    axisCallback.onMessage(response);
+                }
+            }
+        } catch (Exception e) {
+            error = e;
+        }
+        try {
+            if (error != null) {
+                axisCallback.onError(error);
+            }
+        } finally {
+            axisCallback.onComplete();
+        }
     }
 
     /**
@@ -430,44 +534,16 @@ class OutInAxisOperationClient extends OperationClient {
         }
 
         public void run() {
+            MessageContext response;
             try {
                 // send the request and wait for response
-                MessageContext response = send(msgctx);
-                // call the callback
-                if (response != null) {
-                    SOAPEnvelope resenvelope = response.getEnvelope();
-                    
-                    if (resenvelope.hasFault()) {
-                        SOAPBody body = resenvelope.getBody();
-                        // If a fault was found, create an AxisFault with a MessageContext so that
-                        // other programming models can deserialize the fault to an alternative form.
-                        AxisFault fault = new AxisFault(body.getFault(), response);
-                        if (axisCallback != null) {
-                            if (options.isExceptionToBeThrownOnSOAPFault()) {
-                                axisCallback.onError(fault);
-                            } else {
-                                axisCallback.onFault(response);
-                            }
-                        }
-
-                    } else {
-                        if (axisCallback != null) {
-                            axisCallback.onMessage(response);
-                        }
-
-                    }
-                }
-
+                response = send(msgctx);
             } catch (Exception e) {
-                if (axisCallback != null) {
-                    axisCallback.onError(e);
-                }
-
-            } finally {
-                if (axisCallback != null) {
-                    axisCallback.onComplete();
-                }
+                notifyCallback(axisCallback, null, e);
+                return;
             }
+            // call the callback
+            notifyCallback(axisCallback, response, null);
         }
     }
 
@@ -20,6 +20,7 @@
 package org.apache.axis2.dispatchers;
 
 import org.apache.axis2.AxisFault;
+import org.apache.axis2.context.ConfigurationContext;
 import org.apache.axis2.context.MessageContext;
 import org.apache.axis2.description.AxisOperation;
 import org.apache.axis2.description.AxisService;
@@ -44,32 +45,53 @@ public class ActionBasedOperationDispatcher extends AbstractOperationDispatcher
                     action);
         }
         if (action != null) {
-            // REVIEW: Should we FIRST try to find an operation that explicitly mapped this 
-            // SOAPAction as an alias by calling: 
-            // AxisOperation op = service.getOperationByAction(action);
-            // And THEN, if we didn't find an explicit mapping of this action, see if there's an 
-            // operation that has the same name as the action, and route to that by calling:
-            // service.getOperationBySOAPAction(action);
-            AxisOperation op = service.getOperationBySOAPAction(action);
-            if (op == null) {
-                op = service.getOperationByAction(action);
+            AxisOperation op = null;
+            ConfigurationContext configContext = messageContext.getConfigurationContext();
+            if (configContext != null) {
+                op = configContext.getAxisConfiguration().getDispatchTable()
+                        .getOperation(service, action);
             }
-            
-            /*
-             * HACK: Please remove this when we add support for custom action
-             * uri
-             */
-            if ((op == null) && (action.lastIndexOf('/') != -1)) {
-                op = service.getOperation(new QName(action.substring(action.lastIndexOf('/'),
-                                                                     action.length())));
+            if (op == null) {
+                // Not in the table, e.g. an operation added after the service was deployed
+                op = findOperationByAction(service, action);
             }
-            
             return op;
         }
 
         return null;
     }
 
+    /**
+     * Find the operation of a service for an action, without going through the dispatch table.
+     *
+     * @param service the service
+     * @param action the SOAP action or WS-Addressing action
+     * @return the operation, or null if none matches
+     */
+    static AxisOperation findOperationByAction(AxisService service, String action) {
+        // REVIEW: Should we FIRST try to find an operation that explicitly mapped this
+        // SOAPAction as an alias by calling:
+        // AxisOperation op = service.getOperationByAction(action);
+        // And THEN, if we didn't find an explicit mapping of this action, see if there's an
+        // operation that has the same name as the action, and route to that by calling:
+        // service.getOperationBySOAPAction(action);
+        AxisOperation op = service.getOperationBySOAPAction(action);
+        if (op == null) {
+            op = service.getOperationByAction(action);
+        }
+
+        /*
+         * HACK: Please remove this when we add support for custom action
+         * uri
+         */
+        if ((op == null) && (action.lastIndexOf('/') != -1)) {
+            op = service.getOperation(new QName(action.substring(action.lastIndexOf('/'),
+                                                                 action.length())));
+        }
+
+        return op;
+    }
+
     public void initDispatcher() {
         init(new HandlerDescription(NAME));
     }
@@ -0,0 +1,332 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.axis2.dispatchers;
+
+import org.apache.axiom.om.OMElement;
+import org.apache.axis2.AxisFault;
+import org.apache.axis2.description.AxisEndpoint;
+import org.apache.axis2.description.AxisModule;
+import org.apache.axis2.description.AxisOperation;
+import org.apache.axis2.description.AxisService;
+import org.apache.axis2.description.AxisServiceGroup;
+import org.apache.axis2.description.Parameter;
+import org.apache.axis2.engine.AxisConfiguration;
+import org.apache.axis2.engine.AxisEvent;
+import org.apache.axis2.engine.AxisObserver;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Lookup tables used by the dispatchers to find the service and the operation of a message.
+ * There is one DispatchTable per AxisConfiguration (see
+ * {@link AxisConfiguration#getDispatchTable()}). The tables are never modified once published:
+ * they are rebuilt, copy-on-write, when the AxisConfiguration notifies its observers that a
+ * service has been deployed or removed, or that a module has been engaged or disengaged. Lookups
+ * therefore need no locking and don't allocate.
+ * <p/>
+ * Client side services are not notified to the observers, so they are not in the tables. The
+ * dispatchers fall back to the AxisConfiguration and the AxisService for the names that are not
+ * found here.
+ */
+public class DispatchTable implements AxisObserver {
+    private static final Log log = LogFactory.getLog(DispatchTable.class);
+
+    private static final ServiceEntry[] EMPTY_SERVICE_TABLE = new ServiceEntry[16];
+
+    /**
+     * The entries by service and endpoint name, from which the service table is built. Guarded
+     * by this.
+     */
+    private final Map<String, ServiceEntry> serviceEntries = new HashMap<String, ServiceEntry>();
+
+    /**
+     * Open addressing hash table of the service entries, which can be searched for a part of a
+     * string without creating a substring.
+     */
+    private volatile ServiceEntry[] serviceTable = EMPTY_SERVICE_TABLE;
+
+    /**
+     * The operations of each service by action.
+     */
+    private volatile Map<AxisService, Map<String, AxisOperation>> operationTables =
+            new IdentityHashMap<AxisService, Map<String, AxisOperation>>();
+
+    /**
+     * An entry of the service table.
+     */
+    static final class ServiceEntry {
+        final String name;
+        final int hash;
+        final AxisService service;
+
+        /**
+         * Whether {@link #endpoint} should be set as the endpoint of the messages dispatched
+         * with this name.
+         */
+        final boolean hasEndpoint;
+        final AxisEndpoint endpoint;
+
+        /**
+         * Whether the endpoint of the messages dispatched with this name should be inferred
+         * from the transport, which takes precedence over {@link #endpoint}.
+         */
+        final boolean inferEndpoint;
+
+        ServiceEntry(String name, AxisService service) {
+            this.name = name;
+            this.hash = name.hashCode();
+            this.service = service;
+
+            // The endpoint is given by the endpoint name that may follow the service name
+            boolean hasEndpoint = false;
+            AxisEndpoint endpoint = null;
+            boolean inferEndpoint = false;
+            Map<String, AxisEndpoint> endpoints = service.getEndpoints();
+            if (endpoints != null) {
+                if (endpoints.size() == 1) {
+                    hasEndpoint = true;
+                    endpoint = endpoints.get(service.getEndpointName());
+                } else {
+                    String[] temp = name.split("/");
+                    int periodIndex = temp[temp.length - 1].lastIndexOf('.');
+                    if (periodIndex != -1) {
+                        hasEndpoint = true;
+                        endpoint = endpoints.get(temp[temp.length - 1].substring(periodIndex + 1));
+                    }
+                    AxisEndpoint firstEndpoint =
+                            endpoints.get(temp[0].substring(temp[0].indexOf(".") + 1));
+                    if (firstEndpoint != null) {
+                        hasEndpoint = true;
+                        endpoint = firstEndpoint;
+                    } else {
+                        inferEndpoint = true;
+                    }
+                }
+            }
+            this.hasEndpoint = hasEndpoint;
+            this.endpoint = endpoint;
+            this.inferEndpoint = inferEndpoint;
+        }
+    }
+
+    public DispatchTable(AxisConfiguration axisConfig) {
+        init(axisConfig);
+    }
+
+    /**
+     * Find the service that has the given name, or one of its endpoints.
+     *
+     * @param path a string starting with the name
+     * @param length the length of the name
+     * @return the entry of the service, or null if no service has that name
+     */
+    ServiceEntry getService(String path, int length) {
+        ServiceEntry[] table = serviceTable;
+        int hash = 0;
+        for (int i = 0; i < length; i++) {
+            hash = 31 * hash + path.charAt(i);
+        }
+        int mask = table.length - 1;
+        for (int i = spread(hash) & mask; ; i = (i + 1) & mask) {
+            ServiceEntry entry = table[i];
+            if (entry == null) {
+                return null;
+            }
+            if (entry.hash == hash && entry.name.length() == length && path.startsWith(entry.name)) {
+                return entry;
+            }
+        }
+    }
+
+    /**
+     * Find an operation of a service by SOAP action or WS-Addressing action.
+     *
+     * @param service the service
+     * @param action the action
+     * @return the operation, or null if the action is not in the table
+     */
+    AxisOperation getOperation(AxisService service, String action) {
+        Map<String, AxisOperation> operations = operationTables.get(service);
+        return operations == null ? null : operations.get(action);
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * Publish a new service table built from {@link #serviceEntries}. Must be called while
+     * holding the lock on this.
+     */
+    private void publishServiceTable() {
+        int capacity = EMPTY_SERVICE_TABLE.length;
+        // Keep the table at most half full, so that probe sequences stay short
+        while (capacity < serviceEntries.size() * 2) {
+            capacity <<= 1;
+        }
+        ServiceEntry[] table = new ServiceEntry[capacity];
+        int mask = capacity - 1;
+        for (ServiceEntry entry : serviceEntries.values()) {
+            int i = spread(entry.hash) & mask;
+            while (table[i] != null) {
+                i = (i + 1) & mask;
+            }
+            table[i] = entry;
+        }
+        serviceTable = table;
+    }
+
+    /**
+     * Map each action that {@link ActionBasedOperationDispatcher} can resolve for the
+     * operations of a service to the operation it resolves to.
+     */
+    private static Map<String, AxisOperation> buildOperationTable(AxisService service) {
+        Map<String, AxisOperation> table = new HashMap<String, AxisOperation>();
+        for (Iterator<AxisOperation> operations = service.getOperations(); operations.hasNext();) {
+            AxisOperation operation = operations.next();
+            addAction(table, service, operation.getName().getLocalPart());
+            addAction(table, service, operation.getSoapAction());
+            addAction(table, service, operation.getInputAction());
+            ArrayList<String> mappings = operation.getWSAMappingList();
+            if (mappings != null) {
+                for (String mapping : mappings) {
+                    addAction(table, service, mapping);
+                }
+            }
+        }
+        return table;
+    }
+
+    private static void addAction(Map<String, AxisOperation> table, AxisService service,
+                                  String action) {
+        if (action != null && !table.containsKey(action)) {
+            AxisOperation operation = ActionBasedOperationDispatcher.findOperationByAction(service, action);
+            if (operation != null) {
+                table.put(action, operation);
+            }
+        }
+    }
+
+    private void addService(AxisService service) {
+        serviceEntries.put(service.getName(), new ServiceEntry(service.getName(), service));
+        Map<String, AxisEndpoint> endpoints = service.getEndpoints();
+        if (endpoints != null) {
+            for (String endpointName : endpoints.keySet()) {
+                String name = service.getName() + "." + endpointName;
+                serviceEntries.put(name, new ServiceEntry(name, service));
+            }
+        }
+    }
+
+    private void removeService(AxisService service) {
+        for (Iterator<ServiceEntry> entries = serviceEntries.values().iterator();
+             entries.hasNext();) {
+            if (entries.next().service == service) {
+                entries.remove();
+            }
+        }
+    }
+
+    public synchronized void init(AxisConfiguration axisConfig) {
+        serviceEntries.clear();
+        Map<AxisService, Map<String, AxisOperation>> operations =
+                new IdentityHashMap<AxisService, Map<String, AxisOperation>>();
+        for (AxisService service : axisConfig.getServices().values()) {
+            if (!service.isClientSide()) {
+                addService(service);
+                operations.put(service, buildOperationTable(service));
+            }
+        }
+        publishServiceTable();
+        operationTables = operations;
+    }
+
+    public synchronized void serviceUpdate(AxisEvent event, AxisService service) {
+        Map<AxisService, Map<String, AxisOperation>> operations =
+                new IdentityHashMap<AxisService, Map<String, AxisOperation>>(operationTables);
+        switch (event.getEventType()) {
+            case AxisEvent.SERVICE_DEPLOY:
+                removeService(service);
+                addService(service);
+                operations.put(service, buildOperationTable(service));
+                break;
+            case AxisEvent.SERVICE_REMOVE:
+                removeService(service);
+                operations.remove(service);
+                break;
+            default:
+                // Stopped services stay in the tables; the dispatchers check that they are active
+                return;
+        }
+        publishServiceTable();
+        operationTables = operations;
+        if (log.isDebugEnabled()) {
+            log.debug("Dispatch table updated for service " + service.getName() + "; "
+                    + serviceEntries.size() + " service and endpoint names");
+        }
+    }
+
+    public void serviceGroupUpdate(AxisEvent event, AxisServiceGroup serviceGroup) {
+        // The services of the group are notified individually
+    }
+
+    public synchronized void moduleUpdate(AxisEvent event, AxisModule module) {
+        int eventType = event.getEventType();
+        if (eventType == AxisEvent.MODULE_ENGAGED || eventType == AxisEvent.MODULE_DISENGAGED) {
+            // Modules can add and remove operations, so the operation tables are rebuilt
+            Map<AxisService, Map<String, AxisOperation>> operations =
+                    new IdentityHashMap<AxisService, Map<String, AxisOperation>>();
+            for (AxisService service : operationTables.keySet()) {
+                operations.put(service, buildOperationTable(service));
+            }
+            operationTables = operations;
+        }
+    }
+
+    public void addParameter(Parameter parameter) throws AxisFault {
+        // No parameters
+    }
+
+    public void removeParameter(Parameter parameter) throws AxisFault {
+        // No parameters
+    }
+
+    public void deserializeParameters(OMElement parameterElement) throws AxisFault {
+        // No parameters
+    }
+
+    public Parameter getParameter(String name) {
+        return null;
+    }
+
+    public ArrayList<Parameter> getParameters() {
+        return null;
+    }
+
+    public boolean isParameterLocked(String parameterName) {
+        return false;
+    }
+}
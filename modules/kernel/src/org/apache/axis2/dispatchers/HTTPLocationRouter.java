@@ -0,0 +1,143 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.axis2.dispatchers;
+
+import org.apache.axis2.description.AxisOperation;
+
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Compiled form of the HTTP location table of a binding (see
+ * {@link org.apache.axis2.description.WSDL2Constants#HTTP_LOCATION_TABLE}), used by
+ * {@link HTTPLocationBasedDispatcher}. The keys of the table are the HTTP method followed by the
+ * constant part of the HTTP location, i.e. the part before the first template variable. They are
+ * stored in a radix tree so that the operation whose key is the longest prefix of a request path
+ * is found in time proportional to the length of the path, independently of the number of
+ * operations.
+ */
+public class HTTPLocationRouter {
+
+    private static class Node {
+        /** The labels of the edges to the child nodes; no two labels start with the same char */
+        String[] edges = new String[0];
+        Node[] children = new Node[0];
+        /** The operation whose key ends at this node, if any */
+        AxisOperation operation;
+
+        int indexOf(char c) {
+            for (int i = 0; i < edges.length; i++) {
+                if (edges[i].charAt(0) == c) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        void addChild(String edge, Node child) {
+            int length = edges.length;
+            String[] newEdges = new String[length + 1];
+            Node[] newChildren = new Node[length + 1];
+            System.arraycopy(edges, 0, newEdges, 0, length);
+            System.arraycopy(children, 0, newChildren, 0, length);
+            newEdges[length] = edge;
+            newChildren[length] = child;
+            edges = newEdges;
+            children = newChildren;
+        }
+    }
+
+    private final Node root = new Node();
+
+    /**
+     * Create a router for the given HTTP location table.
+     *
+     * @param httpLocationTable map of HTTP method and constant HTTP location prefixes to
+     *                          {@link AxisOperation} instances
+     */
+    public HTTPLocationRouter(Map httpLocationTable) {
+        for (Iterator iter = httpLocationTable.entrySet().iterator(); iter.hasNext();) {
+            Map.Entry entry = (Map.Entry) iter.next();
+            add((String) entry.getKey(), (AxisOperation) entry.getValue());
+        }
+    }
+
+    private void add(String location, AxisOperation operation) {
+        Node node = root;
+        int pos = 0;
+        while (pos < location.length()) {
+            int i = node.indexOf(location.charAt(pos));
+            if (i == -1) {
+                Node leaf = new Node();
+                leaf.operation = operation;
+                node.addChild(location.substring(pos), leaf);
+                return;
+            }
+            String edge = node.edges[i];
+            int common = 1;
+            while (common < edge.length() && pos + common < location.length()
+                    && edge.charAt(common) == location.charAt(pos + common)) {
+                common++;
+            }
+            if (common < edge.length()) {
+                // Split the edge
+                Node split = new Node();
+                split.addChild(edge.substring(common), node.children[i]);
+                node.edges[i] = edge.substring(0, common);
+                node.children[i] = split;
+            }
+            node = node.children[i];
+            pos += common;
+        }
+        node.operation = operation;
+    }
+
+    /**
+     * Find the operation for the given request path.
+     *
+     * @param requestPath the HTTP method followed by the part of the request URL after the
+     *                    service name
+     * @return the operation with the longest location that is a prefix of the request path, or
+     *         <code>null</code> if there is none
+     */
+    public AxisOperation getOperation(String requestPath) {
+        AxisOperation operation = null;
+        Node node = root;
+        int pos = 0;
+        while (true) {
+            if (node.operation != null) {
+                operation = node.operation;
+            }
+            if (pos == requestPath.length()) {
+                break;
+            }
+            int i = node.indexOf(requestPath.charAt(pos));
+            if (i == -1) {
+                break;
+            }
+            String edge = node.edges[i];
+            if (!requestPath.startsWith(edge, pos)) {
+                break;
+            }
+            node = node.children[i];
+            pos += edge.length();
+        }
+        return operation;
+    }
+}
@@ -30,6 +30,7 @@ import org.apache.axis2.description.HandlerDescription;
 import org.apache.axis2.description.TransportInDescription;
 import org.apache.axis2.description.WSDL2Constants;
 import org.apache.axis2.engine.AxisConfiguration;
+import org.apache.axis2.i18n.Messages;
 import org.apache.axis2.util.LoggingControl;
 import org.apache.axis2.util.Utils;
 import org.apache.axis2.wsdl.WSDLUtil;
@@ -67,55 +68,19 @@ public class RequestURIBasedServiceDispatcher extends AbstractServiceDispatcher
                 AxisConfiguration registry =
                         configurationContext.getAxisConfiguration();
 
-                /**
-                 * Split the serviceOpPart from '/' and add part by part and check whether we have
-                 * a service. This is because we are supporting hierarchical services. We can't
-                 * decide the service name just by looking at the request URL.
-                 */
+                DispatchTable.ServiceEntry entry = findService(serviceOpPart, registry);
                 AxisService axisService = null;
-                String[] parts = serviceOpPart.split("/");
-                String serviceName = "";
-                int count = 0;
-
-                /**
-                 * To avoid performance issues if an incorrect URL comes in with a long service name
-                 * including lots of '/' separated strings, we limit the hierarchical depth to 10
-                 */
-                while (axisService == null && count < parts.length &&
-                        count < Constants.MAX_HIERARCHICAL_DEPTH) {
-                    serviceName = count == 0 ? serviceName + parts[count] :
-                            serviceName + "/" + parts[count];
-                    axisService = registry.getService(serviceName);
-                    count++;
-                }
 
                 // If the axisService is not null we get the binding that the request came to add
                 // add it as a property to the messageContext
-                if (axisService != null) {
-                    Map endpoints = axisService.getEndpoints();
-                    if (endpoints != null) {
-                        if (endpoints.size() == 1) {
-                            messageContext.setProperty(WSDL2Constants.ENDPOINT_LOCAL_NAME,
-                                    endpoints.get(
-            								axisService.getEndpointName()));
-            			} else {
-                            String[] temp = serviceName.split("/");
-                            int periodIndex = temp[temp.length - 1].lastIndexOf('.');
-                            if (periodIndex != -1) {
-                                String endpointName
-                                        = temp[temp.length - 1].substring(periodIndex + 1);
-                                messageContext.setProperty(WSDL2Constants.ENDPOINT_LOCAL_NAME,
-                                        endpoints.get(endpointName));
-                            }
-                            String endpointName = temp[0].substring(temp[0].indexOf(".") + 1);
-                            AxisEndpoint endpoint = (AxisEndpoint) endpoints.get(endpointName);
-                            if (endpoint != null) {
-                                messageContext.setProperty(WSDL2Constants.ENDPOINT_LOCAL_NAME,
-                                                           endpoint);
-                            } else {
-                                inferEndpoint(messageContext, axisService);
-                            }
-                        }
+                if (entry != null) {
+                    axisService = entry.service;
+                    if (entry.hasEndpoint) {
+                        messageContext.setProperty(WSDL2Constants.ENDPOINT_LOCAL_NAME,
+                                                   entry.endpoint);
+                    }
+                    if (entry.inferEndpoint) {
+                        inferEndpoint(messageContext, axisService);
                     }
                 }
 
@@ -136,6 +101,56 @@ public class RequestURIBasedServiceDispatcher extends AbstractServiceDispatcher
         }
     }
 
+    /**
+     * Split the serviceOpPart from '/' and add part by part and check whether we have a service.
+     * This is because we are supporting hierarchical services. We can't decide the service name
+     * just by looking at the request URL. The parts are first looked up in the dispatch table,
+     * which doesn't need a substring per part, and then in the AxisConfiguration, which also
+     * knows the client side services.
+     */
+    private DispatchTable.ServiceEntry findService(String serviceOpPart,
+                                                   AxisConfiguration registry) throws AxisFault {
+        DispatchTable dispatchTable = registry.getDispatchTable();
+        // Trailing '/' characters never start a new part
+        int length = serviceOpPart.length();
+        while (length > 0 && serviceOpPart.charAt(length - 1) == '/') {
+            length--;
+        }
+        for (int pass = 0; pass < 2; pass++) {
+            int count = 0;
+            int end = -1;
+
+            /**
+             * To avoid performance issues if an incorrect URL comes in with a long service name
+             * including lots of '/' separated strings, we limit the hierarchical depth to 10
+             */
+            while (end + 1 < length && count < Constants.MAX_HIERARCHICAL_DEPTH) {
+                end = serviceOpPart.indexOf('/', end + 1);
+                if (end == -1 || end > length) {
+                    end = length;
+                }
+                if (pass == 0) {
+                    DispatchTable.ServiceEntry entry = dispatchTable.getService(serviceOpPart, end);
+                    if (entry != null) {
+                        if (!entry.service.isActive()) {
+                            throw new AxisFault(Messages.getMessage("serviceinactive",
+                                                                    entry.name));
+                        }
+                        return entry;
+                    }
+                } else {
+                    String serviceName = serviceOpPart.substring(0, end);
+                    AxisService axisService = registry.getService(serviceName);
+                    if (axisService != null) {
+                        return new DispatchTable.ServiceEntry(serviceName, axisService);
+                    }
+                }
+                count++;
+            }
+        }
+        return null;
+    }
+
     public void initDispatcher() {
         init(new HandlerDescription(NAME));
     }
@@ -57,10 +57,6 @@ public class SOAPMessageBodyBasedOperationDispatcher extends AbstractOperationDi
                 QName qName = new QName(ns.getNamespaceURI(), localPart);
                 axisOperation = service.getOperationByMessageElementQName(qName);
             }
-            if (axisOperation == null) {
-                QName qName = new QName(localPart);
-                axisOperation = service.getOperation(qName);
-            }
         }
         return axisOperation;
     }
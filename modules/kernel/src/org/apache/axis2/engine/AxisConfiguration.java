@@ -49,6 +49,7 @@ import org.apache.axis2.deployment.DeploymentException;
 import org.apache.axis2.deployment.ModuleDeployer;
 import org.apache.axis2.deployment.repository.util.DeploymentFileData;
 import org.apache.axis2.deployment.util.PhasesInfo;
+import org.apache.axis2.dispatchers.DispatchTable;
 import org.apache.axis2.description.AxisDescription;
 import org.apache.axis2.description.AxisEndpoint;
 import org.apache.axis2.description.AxisModule;
@@ -113,6 +114,11 @@ public class AxisConfiguration extends AxisDescription {
     private Map<String, AxisService> allServices = new ConcurrentHashMap<String, AxisService>();
     private Map<String, AxisService> allEndpoints = new ConcurrentHashMap<String, AxisService>();
 
+    /**
+     * The lookup tables of the dispatchers, kept up to date as an AxisObserver
+     */
+    private final DispatchTable dispatchTable;
+
     /**
      * Stores the module specified in the server.xml at the document parsing time.
      */
@@ -196,6 +202,8 @@ public class AxisConfiguration extends AxisDescription {
 
         this.phasesinfo = new PhasesInfo();
         targetResolvers = new ArrayList<TargetResolver>();
+        dispatchTable = new DispatchTable(this);
+        observerSet.add(dispatchTable);
     }
 
     public void addMessageReceiver(String mepURL,
@@ -383,6 +391,9 @@ public class AxisConfiguration extends AxisDescription {
                 // remove all the ones we added...
                 for (AxisService service : servicesIAdded) {
                     allServices.remove(service.getName());
+                    if (!service.isClientSide()) {
+                        notifyObservers(new AxisEvent(AxisEvent.SERVICE_REMOVE, service), service);
+                    }
                 }
                 // And toss this in case anyone wants it?
                 throw axisFault;
@@ -956,6 +967,16 @@ public class AxisConfiguration extends AxisDescription {
         return outFaultPhases;
     }
 
+    /**
+     * Get the lookup tables used by the dispatchers to find the service and operation of a
+     * message.
+     *
+     * @return the dispatch table of this configuration
+     */
+    public DispatchTable getDispatchTable() {
+        return dispatchTable;
+    }
+
     public PhasesInfo getPhasesInfo() {
         return phasesinfo;
     }
@@ -1383,6 +1404,7 @@ public class AxisConfiguration extends AxisDescription {
         this.allEndpoints.clear();
         this.allModules.clear();
         this.allServices.clear();
+        this.dispatchTable.init(this);
         this.outPhases.clear();
         this.messageReceivers.clear();
         this.targetResolvers.clear();
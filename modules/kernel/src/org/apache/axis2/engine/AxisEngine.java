@@ -166,7 +166,7 @@ public class AxisEngine {
                                 "nomessagereciever",
                                 msgContext.getAxisOperation().getName().toString()));
                     }
-                    receiver.receive(msgContext);
+                    invokeMessageReceiver(receiver, msgContext);
                 }
                 flowComplete(msgContext);
             } else if (pi.equals(InvocationResponse.SUSPEND)) {
@@ -234,9 +234,14 @@ public class AxisEngine {
 
         InvocationResponse pi = InvocationResponse.CONTINUE;
 
-        while (msgContext.getCurrentHandlerIndex() < msgContext.getExecutionChain().size()) {
-            Handler currentHandler = (Handler) msgContext.getExecutionChain().
-                    get(msgContext.getCurrentHandlerIndex());
+        // The chain and the index are re-read on every iteration because a handler may replace
+        // the execution chain (or pause and later resume the flow); each Phase runs its handlers
+        // from a precompiled array.
+        List<Handler> executionChain;
+        int currentHandlerIndex;
+        while ((currentHandlerIndex = msgContext.getCurrentHandlerIndex())
+                < (executionChain = msgContext.getExecutionChain()).size()) {
+            Handler currentHandler = executionChain.get(currentHandlerIndex);
 
             try {
                 if (!resuming) {
@@ -269,12 +274,44 @@ public class AxisEngine {
                 break;
             }
 
-            msgContext.setCurrentHandlerIndex(msgContext.getCurrentHandlerIndex() + 1);
+            msgContext.setCurrentHandlerIndex(currentHandlerIndex + 1);
         }
 
         return pi;
     }
 
+    private static void invokeMessageReceiver(MessageReceiver receiver, MessageContext msgContext)
+            throws AxisFault {
+        PhaseMetrics metrics = PhaseMetrics.get(msgContext);
+        if (metrics == null) {
+            receiver.receive(msgContext);
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            receiver.receive(msgContext);
+        } finally {
+            metrics.recordPhase(msgContext, PhaseMetrics.MESSAGE_RECEIVER,
+                    System.nanoTime() - start);
+        }
+    }
+
+    private static void invokeTransportSender(TransportSender sender, MessageContext msgContext)
+            throws AxisFault {
+        PhaseMetrics metrics = PhaseMetrics.get(msgContext);
+        if (metrics == null) {
+            sender.invoke(msgContext);
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            sender.invoke(msgContext);
+        } finally {
+            metrics.recordPhase(msgContext, PhaseMetrics.TRANSPORT_SENDER,
+                    System.nanoTime() - start);
+        }
+    }
+
     private static void flowComplete(MessageContext msgContext) {
         Iterator<Handler> invokedPhaseIterator = msgContext.getExecutedPhases();
 
@@ -324,7 +361,7 @@ public class AxisEngine {
                             "nomessagereciever",
                             msgContext.getAxisOperation().getName().toString()));
                 }
-                receiver.receive(msgContext);
+                invokeMessageReceiver(receiver, msgContext);
             }
             flowComplete(msgContext);
         }
@@ -359,7 +396,7 @@ public class AxisEngine {
             // write the Message to the Wire
             TransportOutDescription transportOut = msgContext.getTransportOut();
             TransportSender sender = transportOut.getSender();
-            sender.invoke(msgContext);
+            invokeTransportSender(sender, msgContext);
             flowComplete(msgContext);
         }
 
@@ -428,7 +465,7 @@ public class AxisEngine {
                     msgContext.getConfigurationContext().getThreadPool().execute(
                             new TransportNonBlockingInvocationWorker(msgContext, sender));
                 } else {
-                    sender.invoke(msgContext);
+                    invokeTransportSender(sender, msgContext);
                 }
                 //REVIEW: In the case of the TransportNonBlockingInvocationWorker, does this need to wait until that finishes?
                 flowComplete(msgContext);
@@ -511,7 +548,7 @@ public class AxisEngine {
             }
             TransportSender sender = transportOut.getSender();
 
-            sender.invoke(msgContext);
+            invokeTransportSender(sender, msgContext);
             flowComplete(msgContext);
         } else if (pi.equals(InvocationResponse.SUSPEND)) {
         } else if (pi.equals(InvocationResponse.ABORT)) {
@@ -574,7 +611,7 @@ public class AxisEngine {
             }
             TransportSender sender = transportOut.getSender();
 
-            sender.invoke(msgContext);
+            invokeTransportSender(sender, msgContext);
             flowComplete(msgContext);
         } else if (pi.equals(InvocationResponse.SUSPEND)) {
         } else if (pi.equals(InvocationResponse.ABORT)) {
@@ -612,7 +649,7 @@ public class AxisEngine {
 
         public void run() {
             try {
-                sender.invoke(msgctx);
+                invokeTransportSender(sender, msgctx);
             } catch (Exception e) {
                 log.info(msgctx.getLogIDString() + " " + e.getMessage());
                 if (msgctx.getProperty(MessageContext.DISABLE_ASYNC_CALLBACK_ON_TRANSPORT_ERROR) ==
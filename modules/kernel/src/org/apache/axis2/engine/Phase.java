@@ -30,9 +30,15 @@ import org.apache.axis2.util.LoggingControl;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
+import java.util.AbstractList;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.Iterator;
 import java.util.List;
+import java.util.ListIterator;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
 
 /**
  * A Phase is an ordered collection of Handlers.
@@ -52,6 +58,128 @@ public class Phase implements Handler {
      */
     private List<Handler> handlers;
 
+    /**
+     * Snapshot of {@link #handlers} used by {@link #invoke(MessageContext)} and
+     * {@link #flowComplete(MessageContext)}. It is recompiled whenever the handlers change (i.e.
+     * when the Phase is built at deployment time and when modules are engaged or disengaged), so
+     * that message processing doesn't need to go through the list.
+     */
+    private volatile Handler[] compiledHandlers = new Handler[0];
+
+    /**
+     * View of {@link #handlers} returned by {@link #getHandlers()}. Code outside of this class
+     * has historically added and removed handlers through that list, so modifications need to
+     * update {@link #compiledHandlers} as well. Iterators are snapshots of the handlers, so that
+     * callers can iterate while the Phase is being modified.
+     */
+    private final List<Handler> handlerListView = new AbstractList<Handler>() {
+        public Handler get(int index) {
+            return handlers.get(index);
+        }
+
+        public int size() {
+            return handlers.size();
+        }
+
+        public Iterator<Handler> iterator() {
+            return handlers.iterator();
+        }
+
+        public ListIterator<Handler> listIterator() {
+            return handlers.listIterator();
+        }
+
+        public ListIterator<Handler> listIterator(int index) {
+            return handlers.listIterator(index);
+        }
+
+        public Handler set(int index, Handler handler) {
+            synchronized (Phase.this) {
+                Handler previous = handlers.set(index, handler);
+                compileHandlers();
+                return previous;
+            }
+        }
+
+        public void add(int index, Handler handler) {
+            synchronized (Phase.this) {
+                handlers.add(index, handler);
+                compileHandlers();
+            }
+        }
+
+        public Handler remove(int index) {
+            synchronized (Phase.this) {
+                Handler removed = handlers.remove(index);
+                compileHandlers();
+                return removed;
+            }
+        }
+
+        // The snapshot iterators don't support modifications, so the methods of AbstractList
+        // that remove or replace elements through an iterator are implemented on the list itself
+
+        public boolean remove(Object handler) {
+            synchronized (Phase.this) {
+                boolean changed = handlers.remove(handler);
+                compileHandlers();
+                return changed;
+            }
+        }
+
+        public boolean removeAll(Collection<?> c) {
+            synchronized (Phase.this) {
+                boolean changed = handlers.removeAll(c);
+                compileHandlers();
+                return changed;
+            }
+        }
+
+        public boolean retainAll(Collection<?> c) {
+            synchronized (Phase.this) {
+                boolean changed = handlers.retainAll(c);
+                compileHandlers();
+                return changed;
+            }
+        }
+
+        public boolean removeIf(Predicate<? super Handler> filter) {
+            synchronized (Phase.this) {
+                boolean changed = handlers.removeIf(filter);
+                compileHandlers();
+                return changed;
+            }
+        }
+
+        public void replaceAll(UnaryOperator<Handler> operator) {
+            synchronized (Phase.this) {
+                handlers.replaceAll(operator);
+                compileHandlers();
+            }
+        }
+
+        public void sort(Comparator<? super Handler> c) {
+            synchronized (Phase.this) {
+                handlers.sort(c);
+                compileHandlers();
+            }
+        }
+
+        public void clear() {
+            synchronized (Phase.this) {
+                handlers.clear();
+                compileHandlers();
+            }
+        }
+
+        protected void removeRange(int fromIndex, int toIndex) {
+            synchronized (Phase.this) {
+                handlers.subList(fromIndex, toIndex).clear();
+                compileHandlers();
+            }
+        }
+    };
+
     /**
      * A handler has been marked as present in both the first phase and the last phase
      */
@@ -94,7 +222,7 @@ public class Phase implements Handler {
      *
      * @param handler the Handler to add
      */
-    public void addHandler(Handler handler) {
+    public synchronized void addHandler(Handler handler) {
         log.debug("Handler " + handler.getName() + " added to Phase " + phaseName);
 
         if (phaseLastSet) {
@@ -107,6 +235,7 @@ public class Phase implements Handler {
         } else {
             handlers.add(handler);
         }
+        compileHandlers();
     }
 
     /**
@@ -115,7 +244,7 @@ public class Phase implements Handler {
      * @param handlerDesc the HandlerDescription to add
      * @throws PhaseException if there is a problem
      */
-    public void addHandler(HandlerDescription handlerDesc) throws PhaseException {
+    public synchronized void addHandler(HandlerDescription handlerDesc) throws PhaseException {
         Iterator<Handler> handlers_itr = getHandlers().iterator();
 
         while (handlers_itr.hasNext()) {
@@ -141,6 +270,7 @@ public class Phase implements Handler {
             } else {
                 handlers.add(handlerDesc.getHandler());
                 isOneHandler = true;
+                compileHandlers();
             }
         } else if (handlerDesc.getRules().isPhaseFirst()) {
             setPhaseFirst(handlerDesc.getHandler());
@@ -159,12 +289,22 @@ public class Phase implements Handler {
      * @param handler the Handler to add
      * @param index the position in the Phase at which to place the Handler
      */
-    public void addHandler(Handler handler, int index) {
+    public synchronized void addHandler(Handler handler, int index) {
         if (log.isDebugEnabled()) {
             log.debug("Handler " + handler.getName() + " inserted at position " + index +
                     " of Phase " + phaseName);
         }
         handlers.add(index, handler);
+        compileHandlers();
+    }
+
+    /**
+     * Rebuild the handler snapshot used during message processing. Must be called after every
+     * modification of {@link #handlers}, while holding the lock on this Phase, so that concurrent
+     * modifications can't leave a stale snapshot behind.
+     */
+    private void compileHandlers() {
+        compiledHandlers = handlers.toArray(new Handler[handlers.size()]);
     }
 
     /**
@@ -196,7 +336,7 @@ public class Phase implements Handler {
         // Default version does nothing
     }
 
-    private void insertHandler(HandlerDescription handlerDesc) throws PhaseException {
+    private synchronized void insertHandler(HandlerDescription handlerDesc) throws PhaseException {
         Handler handler = handlerDesc.getHandler();
         PhaseRule rules = handler.getHandlerDesc().getRules();
         String beforeName = rules.getBefore();
@@ -273,6 +413,7 @@ public class Phase implements Handler {
                 handlers.add(handler);
             }
         }
+        compileHandlers();
     }
 
     /**
@@ -284,7 +425,20 @@ public class Phase implements Handler {
      * @throws org.apache.axis2.AxisFault
      */
     public final InvocationResponse invoke(MessageContext msgctx) throws AxisFault {
-        
+        PhaseMetrics metrics = PhaseMetrics.get(msgctx);
+        if (metrics == null) {
+            return invoke(msgctx, null);
+        }
+        long start = System.nanoTime();
+        try {
+            return invoke(msgctx, metrics);
+        } finally {
+            metrics.recordPhase(msgctx, phaseName, System.nanoTime() - start);
+        }
+    }
+
+    private InvocationResponse invoke(MessageContext msgctx, PhaseMetrics metrics)
+            throws AxisFault {
         if (isDebugEnabled) {
             log.debug(msgctx.getLogIDString() + " Checking pre-condition for Phase \"" + phaseName +
                     "\"");
@@ -300,12 +454,10 @@ public class Phase implements Handler {
             log.debug(msgctx.getLogIDString() + " Invoking phase \"" + phaseName + "\"");
         }
 
-        int handlersSize = handlers.size();
-        
-        for (int i= currentIndex; i < handlersSize; i++) {
-            Handler handler = (Handler) handlers.get(i);
+        Handler[] handlers = compiledHandlers;
 
-            InvocationResponse pi = invokeHandler(handler, msgctx);
+        for (int i= currentIndex; i < handlers.length; i++) {
+            InvocationResponse pi = invokeHandler(handlers[i], msgctx, metrics);
            
             if (!pi.equals(InvocationResponse.CONTINUE)) {
                 return pi;
@@ -325,14 +477,22 @@ public class Phase implements Handler {
         return InvocationResponse.CONTINUE;
     }
     
-    private InvocationResponse invokeHandler(Handler handler, MessageContext msgctx)
-            throws AxisFault  {
+    private InvocationResponse invokeHandler(Handler handler, MessageContext msgctx,
+                                             PhaseMetrics metrics) throws AxisFault  {
         if (isDebugEnabled) {
             log.debug(msgctx.getLogIDString() + " Invoking Handler '" + handler.getName() +
                     "' in Phase '" + phaseName + "'");
         }
         
-        return handler.invoke(msgctx);
+        if (metrics == null) {
+            return handler.invoke(msgctx);
+        }
+        long start = System.nanoTime();
+        try {
+            return handler.invoke(msgctx);
+        } finally {
+            metrics.recordHandler(msgctx, phaseName, handler, System.nanoTime() - start);
+        }
     }
 
     public void flowComplete(MessageContext msgContext) {
@@ -341,11 +501,13 @@ public class Phase implements Handler {
                     phaseName + "\"");
         }
 
+        Handler[] handlers = compiledHandlers;
+
         // This will be non-zero if we failed during execution of one of the
         // handlers in this phase
         int currentHandlerIndex = msgContext.getCurrentPhaseIndex();
         if (currentHandlerIndex == 0) {
-            currentHandlerIndex = handlers.size();
+            currentHandlerIndex = handlers.length;
         } else {
             /*We need to set it to 0 so that any previous phases will execute all
          * of their handlers.*/
@@ -353,7 +515,7 @@ public class Phase implements Handler {
         }
 
         for (; currentHandlerIndex > 0; currentHandlerIndex--) {
-            Handler handler = (Handler) handlers.get(currentHandlerIndex - 1);
+            Handler handler = handlers[currentHandlerIndex - 1];
 
             if (isDebugEnabled) {
                 log.debug(msgContext.getLogIDString() + " Invoking flowComplete() for Handler '" +
@@ -369,7 +531,7 @@ public class Phase implements Handler {
     }
 
     public int getHandlerCount() {
-        return handlers.size();
+        return compiledHandlers.length;
     }
 
     public HandlerDescription getHandlerDesc() {
@@ -377,12 +539,14 @@ public class Phase implements Handler {
     }
 
     /**
-     * Gets all the handlers in the phase.
+     * Gets all the handlers in the phase. The returned list is a live view: changes made through
+     * it are applied to the phase. Prefer {@link #addHandler(Handler)},
+     * {@link #removeHandler(HandlerDescription)} etc., which respect the phase rules.
      *
-     * @return Returns an ArrayList of Handlers
+     * @return Returns a List of Handlers
      */
     public List<Handler> getHandlers() {
-        return handlers;
+        return handlerListView;
     }
 
     public String getName() {
@@ -411,13 +575,14 @@ public class Phase implements Handler {
      * @param handler the Handler to add
      * @throws PhaseException if another Handler is already set as phaseFirst
      */
-    public void setPhaseFirst(Handler handler) throws PhaseException {
+    public synchronized void setPhaseFirst(Handler handler) throws PhaseException {
         if (phaseFirstSet) {
             throw new PhaseException("PhaseFirst has been set already, cannot have two"
                     + " phaseFirst Handlers for Phase '" + this.getPhaseName() + "'");
         }
         handlers.add(0, handler);
         phaseFirstSet = true;
+        compileHandlers();
     }
 
     /**
@@ -427,7 +592,7 @@ public class Phase implements Handler {
      * @param handler the Handler to add
      * @throws PhaseException if another Handler is already set as phaseLast
      */
-    public void setPhaseLast(Handler handler) throws PhaseException {
+    public synchronized void setPhaseLast(Handler handler) throws PhaseException {
         if (phaseLastSet) {
             throw new PhaseException("PhaseLast already has been set,"
                     + " cannot have two PhaseLast Handler for same phase "
@@ -436,6 +601,7 @@ public class Phase implements Handler {
 
         handlers.add(handler);
         phaseLastSet = true;
+        compileHandlers();
     }
 
     /**
@@ -443,8 +609,9 @@ public class Phase implements Handler {
      *
      * @param handlerDesc the HandlerDescription to remove
      */
-    public void removeHandler(HandlerDescription handlerDesc) {
+    public synchronized void removeHandler(HandlerDescription handlerDesc) {
         if (handlers.remove(handlerDesc.getHandler())) {
+            compileHandlers();
             PhaseRule rule = handlerDesc.getRules();
             if (rule.isPhaseFirst()) {
                 phaseFirstSet = false;
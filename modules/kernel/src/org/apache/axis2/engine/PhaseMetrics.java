@@ -0,0 +1,304 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.axis2.engine;
+
+import org.apache.axiom.om.OMElement;
+import org.apache.axis2.context.ConfigurationContext;
+import org.apache.axis2.context.MessageContext;
+import org.apache.axis2.description.AxisModule;
+import org.apache.axis2.description.AxisOperation;
+import org.apache.axis2.description.AxisService;
+import org.apache.axis2.description.AxisServiceGroup;
+import org.apache.axis2.description.Parameter;
+import org.apache.axis2.util.Histogram;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Collects the time spent in each phase and handler while processing messages, aggregated per
+ * service and operation. Enabled by setting the {@link
+ * org.apache.axis2.Constants.Configuration#ENABLE_PHASE_METRICS} parameter in axis2.xml, in which
+ * case {@link Phase#invoke(MessageContext)} and {@link AxisEngine} record the timings; when it
+ * is disabled, the only overhead is a <code>null</code> check.
+ * <p>
+ * Recording a timing doesn't allocate memory (once the histograms for a given operation, phase
+ * and handler exist). Timings are attributed to the operation known at the time the phase or
+ * handler completes, so that the phases that run before dispatching (transport, addressing,
+ * pre-dispatch) are reported under {@link #UNDISPATCHED}. The message receiver and the transport
+ * sender are reported as the pseudo phases {@link #MESSAGE_RECEIVER} and
+ * {@link #TRANSPORT_SENDER}.
+ * <p>
+ * Entries are kept per {@link AxisOperation}. They are discarded when the service is removed
+ * from the configuration (see {@link #getServiceObserver()} and {@link #removeService(AxisService)}),
+ * so that the metrics don't keep undeployed services reachable. Handler timings are kept by
+ * handler name.
+ */
+public class PhaseMetrics implements PhaseMetricsMBean {
+
+    private static final Log log = LogFactory.getLog(PhaseMetrics.class);
+
+    /** Name used instead of service and operation for messages that are not yet dispatched. */
+    public static final String UNDISPATCHED = "-";
+
+    /** Pseudo phase for the invocation of the message receiver. */
+    public static final String MESSAGE_RECEIVER = "MessageReceiver";
+
+    /** Pseudo phase for the invocation of the transport sender. */
+    public static final String TRANSPORT_SENDER = "TransportSender";
+
+    /**
+     * Timings of a single phase.
+     */
+    private static class PhaseTimings {
+        final Histogram total = new Histogram();
+        final ConcurrentMap<String, Histogram> handlers =
+                new ConcurrentHashMap<String, Histogram>();
+    }
+
+    /**
+     * Timings of the phases executed for a single operation, by phase name.
+     */
+    private static class OperationTimings {
+        final ConcurrentMap<String, PhaseTimings> phases =
+                new ConcurrentHashMap<String, PhaseTimings>();
+
+        PhaseTimings getPhase(String phaseName) {
+            PhaseTimings timings = phases.get(phaseName);
+            if (timings == null) {
+                timings = new PhaseTimings();
+                PhaseTimings existing = phases.putIfAbsent(phaseName, timings);
+                if (existing != null) {
+                    timings = existing;
+                }
+            }
+            return timings;
+        }
+    }
+
+    private final ConcurrentMap<AxisOperation, OperationTimings> operations =
+            new ConcurrentHashMap<AxisOperation, OperationTimings>();
+    private final OperationTimings undispatched = new OperationTimings();
+
+    /**
+     * Discards the statistics of services that are removed from the configuration.
+     */
+    private final AxisObserver serviceObserver = new AxisObserver() {
+        public void init(AxisConfiguration axisConfig) {
+        }
+
+        public void serviceUpdate(AxisEvent event, AxisService service) {
+            if (event.getEventType() == AxisEvent.SERVICE_REMOVE) {
+                removeService(service);
+            }
+        }
+
+        public void serviceGroupUpdate(AxisEvent event, AxisServiceGroup serviceGroup) {
+            // The services of the group are notified individually
+        }
+
+        public void moduleUpdate(AxisEvent event, AxisModule module) {
+        }
+
+        public void addParameter(Parameter param) {
+        }
+
+        public void removeParameter(Parameter param) {
+        }
+
+        public void deserializeParameters(OMElement parameterElement) {
+        }
+
+        public Parameter getParameter(String name) {
+            return null;
+        }
+
+        public ArrayList<Parameter> getParameters() {
+            return new ArrayList<Parameter>();
+        }
+
+        public boolean isParameterLocked(String parameterName) {
+            return false;
+        }
+    };
+
+    private ObjectName objectName;
+
+    /**
+     * Get the metrics for the configuration the given message is processed in.
+     *
+     * @param msgContext the message context
+     * @return the metrics, or <code>null</code> if they are disabled
+     */
+    static PhaseMetrics get(MessageContext msgContext) {
+        ConfigurationContext configurationContext = msgContext.getConfigurationContext();
+        return configurationContext == null ? null : configurationContext.getPhaseMetrics();
+    }
+
+    private OperationTimings getOperation(MessageContext msgContext) {
+        AxisOperation operation = msgContext.getAxisOperation();
+        if (operation == null) {
+            return undispatched;
+        }
+        OperationTimings timings = operations.get(operation);
+        if (timings == null) {
+            timings = new OperationTimings();
+            OperationTimings existing = operations.putIfAbsent(operation, timings);
+            if (existing != null) {
+                timings = existing;
+            }
+        }
+        return timings;
+    }
+
+    /**
+     * Record the time spent in a phase.
+     *
+     * @param msgContext the message being processed
+     * @param phaseName the name of the phase
+     * @param nanos the time, in nanoseconds
+     */
+    public void recordPhase(MessageContext msgContext, String phaseName, long nanos) {
+        getOperation(msgContext).getPhase(phaseName).total.record(nanos / 1000);
+    }
+
+    /**
+     * Record the time spent in a handler.
+     *
+     * @param msgContext the message being processed
+     * @param phaseName the name of the phase the handler belongs to
+     * @param handler the handler
+     * @param nanos the time, in nanoseconds
+     */
+    public void recordHandler(MessageContext msgContext, String phaseName, Handler handler,
+                              long nanos) {
+        ConcurrentMap<String, Histogram> handlers =
+                getOperation(msgContext).getPhase(phaseName).handlers;
+        String handlerName = String.valueOf(handler.getName());
+        Histogram histogram = handlers.get(handlerName);
+        if (histogram == null) {
+            histogram = new Histogram();
+            Histogram existing = handlers.putIfAbsent(handlerName, histogram);
+            if (existing != null) {
+                histogram = existing;
+            }
+        }
+        histogram.record(nanos / 1000);
+    }
+
+    public Map<String, Map<String, Long>> getStatistics() {
+        Map<String, Map<String, Long>> statistics = new TreeMap<String, Map<String, Long>>();
+        addStatistics(statistics, UNDISPATCHED, undispatched);
+        for (Map.Entry<AxisOperation, OperationTimings> entry : operations.entrySet()) {
+            AxisOperation operation = entry.getKey();
+            AxisService service = operation.getAxisService();
+            String operationName = operation.getName() == null ? UNDISPATCHED
+                    : operation.getName().getLocalPart();
+            addStatistics(statistics,
+                    (service == null ? UNDISPATCHED : service.getName()) + "/" + operationName,
+                    entry.getValue());
+        }
+        return statistics;
+    }
+
+    private static void addStatistics(Map<String, Map<String, Long>> statistics, String prefix,
+                                      OperationTimings timings) {
+        for (Map.Entry<String, PhaseTimings> phase : timings.phases.entrySet()) {
+            String phasePrefix = prefix + "/" + phase.getKey();
+            if (phase.getValue().total.getCount() > 0) {
+                statistics.put(phasePrefix, phase.getValue().total.getSnapshot());
+            }
+            for (Map.Entry<String, Histogram> handler : phase.getValue().handlers.entrySet()) {
+                statistics.put(phasePrefix + "/" + handler.getKey(),
+                        handler.getValue().getSnapshot());
+            }
+        }
+    }
+
+    /**
+     * Discard the statistics of the operations of the given service.
+     *
+     * @param service the service
+     */
+    public void removeService(AxisService service) {
+        for (Iterator<AxisOperation> it = operations.keySet().iterator(); it.hasNext(); ) {
+            if (it.next().getAxisService() == service) {
+                it.remove();
+            }
+        }
+    }
+
+    /**
+     * Get the observer that discards the statistics of services when they are removed. The
+     * {@link ConfigurationContext} registers it with the {@link AxisConfiguration} while the
+     * metrics are enabled. Since the configuration doesn't notify observers about client side
+     * services, {@link org.apache.axis2.client.ServiceClient#cleanup()} calls
+     * {@link #removeService(AxisService)} for these.
+     *
+     * @return the observer
+     */
+    public AxisObserver getServiceObserver() {
+        return serviceObserver;
+    }
+
+    public void reset() {
+        operations.clear();
+        undispatched.phases.clear();
+    }
+
+    /**
+     * Register the metrics with the platform MBean server.
+     */
+    public synchronized void register() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName("org.apache.axis2:Type=PhaseMetrics");
+            for (int i = 2; server.isRegistered(name); i++) {
+                name = new ObjectName("org.apache.axis2:Type=PhaseMetrics,Instance=" + i);
+            }
+            server.registerMBean(this, name);
+            objectName = name;
+        } catch (Exception ex) {
+            log.warn("Unable to register phase metrics MBean", ex);
+        }
+    }
+
+    /**
+     * Unregister the metrics from the platform MBean server.
+     */
+    public synchronized void unregister() {
+        if (objectName != null) {
+            try {
+                ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+            } catch (Exception ex) {
+                log.warn("Unable to unregister phase metrics MBean", ex);
+            }
+            objectName = null;
+        }
+    }
+}
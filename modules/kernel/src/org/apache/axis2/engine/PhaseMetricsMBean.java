@@ -0,0 +1,37 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.axis2.engine;
+
+import java.util.Map;
+
+/**
+ * JMX interface of {@link PhaseMetrics}.
+ */
+public interface PhaseMetricsMBean {
+
+    /**
+     * Get the processing time distributions, in microseconds.
+     *
+     * @return a map from "service/operation/phase" and "service/operation/phase/handler" to a
+     *         summary with count, min, mean, percentiles and max
+     */
+    Map<String, Map<String, Long>> getStatistics();
+
+    void reset();
+}
@@ -0,0 +1,75 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.axis2.kernel;
+
+import org.apache.axis2.context.MessageContext;
+
+/**
+ * Transport sender that is able to execute a request-response exchange without blocking the
+ * calling thread. For non-blocking invocations of out-in operations (e.g.
+ * {@link org.apache.axis2.client.ServiceClient#sendReceiveNonBlocking}) over such a transport,
+ * the client doesn't dedicate a thread of the configuration context's thread pool to each
+ * invocation. Instead it sets a {@link ResponseListener} as the {@link #RESPONSE_LISTENER}
+ * property on the request message context and sends the message on the calling thread. The
+ * transport sender starts the exchange, returns from {@link #invoke(MessageContext)} and
+ * notifies the listener once the response is available.
+ * <p>
+ * When the listener is notified of the response, the transport must have set the same
+ * properties on the request message context as in a blocking invocation, in particular
+ * {@link MessageContext#TRANSPORT_IN} on the operation context. Since the listener processes
+ * the response on the thread that notifies it, the transport should have read the response
+ * completely at that point so that processing the response never blocks on I/O.
+ */
+public interface NonBlockingTransportSender extends TransportSender {
+    /**
+     * Name of the message context property that holds the {@link ResponseListener}. If this
+     * property is set, the transport sender must either throw an exception from
+     * {@link #invoke(MessageContext)} or notify the listener exactly once.
+     */
+    String RESPONSE_LISTENER = "NonBlockingTransportSender.ResponseListener";
+
+    /**
+     * Check whether the given message can be sent without blocking.
+     *
+     * @param msgContext the request message context
+     * @return <code>true</code> if the sender will notify a {@link ResponseListener} set on the
+     *         message context instead of blocking until the response is available
+     */
+    boolean isNonBlocking(MessageContext msgContext);
+
+    /**
+     * Receives the outcome of a non-blocking exchange.
+     */
+    interface ResponseListener {
+        /**
+         * Called when the response has been received.
+         *
+         * @param msgContext the request message context
+         */
+        void responseReceived(MessageContext msgContext);
+
+        /**
+         * Called if the exchange failed.
+         *
+         * @param ex the cause of the failure
+         */
+        void failed(Exception ex);
+    }
+}
@@ -446,6 +446,41 @@ public class HTTPConstants {
 
     public static final String MULTITHREAD_HTTP_CONNECTION_MANAGER = "MULTITHREAD_HTTP_CONNECTION_MANAGER";
 
+    /**
+     * Transport sender parameter that sets the maximum number of pooled connections in the
+     * connection manager shared by all requests of a configuration context.
+     */
+    public static final String MAX_TOTAL_CONNECTIONS = "MAX_TOTAL_CONNECTIONS";
+
+    /**
+     * Transport sender parameter that sets the maximum number of pooled connections per host
+     * (route) in the shared connection manager.
+     */
+    public static final String MAX_CONNECTIONS_PER_HOST = "MAX_CONNECTIONS_PER_HOST";
+
+    /**
+     * Parameter of the HttpClient 5 based transport sender that makes it use HTTP/2 for all
+     * requests, so that concurrent requests to the same host are multiplexed over a single
+     * connection. Plain HTTP connections use HTTP/2 with prior knowledge, TLS connections
+     * negotiate HTTP/2 using ALPN.
+     */
+    public static final String HTTP2 = "HTTP2";
+
+    /**
+     * Parameter of the HttpClient 5 based transport sender that sets the number of I/O threads.
+     */
+    public static final String IO_THREAD_COUNT = "IO_THREAD_COUNT";
+
+    /**
+     * Field DEFAULT_MAX_TOTAL_CONNECTIONS
+     */
+    public static final int DEFAULT_MAX_TOTAL_CONNECTIONS = 200;
+
+    /**
+     * Field DEFAULT_MAX_CONNECTIONS_PER_HOST
+     */
+    public static final int DEFAULT_MAX_CONNECTIONS_PER_HOST = 200;
+
     /**
      * Field CACHED_HTTP_CLIENT
      */
@@ -19,6 +19,7 @@
 
 package org.apache.axis2.util;
 
+import org.apache.axis2.context.externalize.ExternalizeConstants;
 import org.apache.axis2.context.externalize.SafeObjectInputStream;
 import org.apache.axis2.context.externalize.SafeObjectOutputStream;
 import org.apache.axis2.context.externalize.SafeSerializable;
@@ -323,4 +324,81 @@ public class MetaDataEntry implements Externalizable, SafeSerializable {
 
     }
 
+    /**
+     * Save a MetaDataEntry, which may be null, in compact form.  Unlike
+     * writeExternal(), the entry and its children are written as primitive
+     * data, without the overhead of object serialization.  This is the form
+     * used by the contexts since their revision 3.
+     * <p/>
+     * FORMAT
+     *    boolean      - active flag (nothing else is written for a null entry)
+     *    string       - class name
+     *    string       - QName as a string
+     *    string       - extra name
+     *    int          - number of children, -1 if there is no list
+     *    entries      - a compact MetaDataEntry per child
+     * where a string is written as a boolean active flag, followed by the
+     * UTF value if it is not null.
+     *
+     * @param out The stream to write the entry to
+     * @param entry The entry to write, or null
+     * @throws IOException
+     */
+    public static void writeCompact(ObjectOutput out, MetaDataEntry entry) throws IOException {
+        if (entry == null) {
+            out.writeBoolean(ExternalizeConstants.EMPTY_OBJECT);
+            return;
+        }
+        out.writeBoolean(ExternalizeConstants.ACTIVE_OBJECT);
+        writeString(out, entry.className);
+        writeString(out, entry.qnameAsString);
+        writeString(out, entry.extraName);
+        if (entry.children == null) {
+            out.writeInt(-1);
+        } else {
+            out.writeInt(entry.children.size());
+            for (Object child : entry.children) {
+                writeCompact(out, (MetaDataEntry) child);
+            }
+        }
+    }
+
+    /**
+     * Restore a MetaDataEntry that was saved with writeCompact().
+     *
+     * @param in The stream to read the entry from
+     * @return the entry, or null if a null entry was saved
+     * @throws IOException
+     */
+    public static MetaDataEntry readCompact(ObjectInput in) throws IOException {
+        if (in.readBoolean() != ExternalizeConstants.ACTIVE_OBJECT) {
+            return null;
+        }
+        MetaDataEntry entry = new MetaDataEntry();
+        entry.className = readString(in);
+        entry.qnameAsString = readString(in);
+        entry.extraName = readString(in);
+        int size = in.readInt();
+        if (size >= 0) {
+            entry.children = new ArrayList(size);
+            for (int i = 0; i < size; i++) {
+                entry.children.add(readCompact(in));
+            }
+        }
+        return entry;
+    }
+
+    private static void writeString(ObjectOutput out, String s) throws IOException {
+        if (s == null) {
+            out.writeBoolean(ExternalizeConstants.EMPTY_OBJECT);
+        } else {
+            out.writeBoolean(ExternalizeConstants.ACTIVE_OBJECT);
+            out.writeUTF(s);
+        }
+    }
+
+    private static String readString(ObjectInput in) throws IOException {
+        return in.readBoolean() == ExternalizeConstants.ACTIVE_OBJECT ? in.readUTF() : null;
+    }
+
 }
@@ -0,0 +1,73 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.axis2.util.threadpool;
+
+import org.apache.axis2.AxisFault;
+import org.apache.axis2.i18n.Messages;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Alternative to {@link ThreadPool} that runs every task in a new virtual thread. It is used
+ * instead of {@link ThreadPool} if the <code>useVirtualThreads</code> parameter is set in
+ * axis2.xml and the Java runtime supports virtual threads. Unlike {@link ThreadPool}, the number
+ * of concurrently executing tasks is not limited, so tasks that block on slow backends don't
+ * delay other tasks.
+ */
+public class VirtualThreadPool implements ThreadFactory {
+    private static final Log log = LogFactory.getLog(VirtualThreadPool.class);
+
+    private final ExecutorService executor;
+    private volatile boolean shutDown;
+
+    public VirtualThreadPool() {
+        executor = VirtualThreads.newExecutor("Axis2 Task-");
+    }
+
+    public void execute(Runnable worker) {
+        if (shutDown) {
+            throw new RuntimeException(Messages.getMessage("threadpoolshutdown"));
+        }
+        executor.execute(worker);
+    }
+
+    /**
+     * A forceful shutdown mechanism for thread pool.
+     */
+    public void forceShutDown() {
+        if (log.isDebugEnabled()) {
+            log.debug("forceShutDown called. Thread workers will be stopped");
+        }
+        shutDown = true;
+        executor.shutdownNow();
+    }
+
+    /**
+     * Stop accepting new tasks. Tasks that have already been submitted are still executed.
+     *
+     * @throws org.apache.axis2.AxisFault
+     */
+    public void safeShutDown() throws AxisFault {
+        shutDown = true;
+        executor.shutdown();
+    }
+}
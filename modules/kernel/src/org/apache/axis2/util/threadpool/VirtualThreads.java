@@ -0,0 +1,136 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.axis2.util.threadpool;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Helper to create virtual thread based executors. Virtual threads are only available on Java 21
+ * and later while Axis2 is built for older Java versions, so the relevant APIs are accessed
+ * reflectively.
+ * <p>
+ * A virtual thread that blocks inside a <code>synchronized</code> block is pinned to its carrier
+ * thread. To find out whether this happens in a deployment, run the JVM with
+ * <code>-Djdk.tracePinnedThreads=short</code> (or <code>full</code>); a hint is logged the first
+ * time a virtual thread executor is created without that option.
+ */
+public final class VirtualThreads {
+    private static final Log log = LogFactory.getLog(VirtualThreads.class);
+
+    private static final Method ofVirtualMethod;
+    private static final Method nameMethod;
+    private static final Method factoryMethod;
+    private static final Method newThreadPerTaskExecutorMethod;
+
+    private static volatile boolean pinningHintLogged;
+
+    static {
+        Method ofVirtual = null;
+        Method name = null;
+        Method factory = null;
+        Method newThreadPerTaskExecutor = null;
+        try {
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            ofVirtual = Thread.class.getMethod("ofVirtual");
+            name = builderClass.getMethod("name", String.class, long.class);
+            factory = builderClass.getMethod("factory");
+            newThreadPerTaskExecutor = Executors.class.getMethod("newThreadPerTaskExecutor",
+                    java.util.concurrent.ThreadFactory.class);
+        } catch (ClassNotFoundException ex) {
+            // Not supported by this Java version
+        } catch (NoSuchMethodException ex) {
+            // Not supported by this Java version
+        }
+        if (newThreadPerTaskExecutor == null) {
+            ofVirtual = null;
+        }
+        ofVirtualMethod = ofVirtual;
+        nameMethod = name;
+        factoryMethod = factory;
+        newThreadPerTaskExecutorMethod = newThreadPerTaskExecutor;
+    }
+
+    private VirtualThreads() {}
+
+    /**
+     * Check whether the Java runtime supports virtual threads.
+     *
+     * @return <code>true</code> if virtual threads are supported
+     */
+    public static boolean isSupported() {
+        return ofVirtualMethod != null;
+    }
+
+    /**
+     * Create a thread factory that creates virtual threads named <code>namePrefix</code> followed
+     * by a sequence number.
+     *
+     * @param namePrefix the thread name prefix
+     * @return the thread factory
+     * @throws UnsupportedOperationException if virtual threads are not supported
+     */
+    public static java.util.concurrent.ThreadFactory newThreadFactory(String namePrefix) {
+        if (!isSupported()) {
+            throw new UnsupportedOperationException(
+                    "Virtual threads require Java 21 or later");
+        }
+        try {
+            Object builder = ofVirtualMethod.invoke(null);
+            builder = nameMethod.invoke(builder, namePrefix, 0L);
+            return (java.util.concurrent.ThreadFactory)factoryMethod.invoke(builder);
+        } catch (IllegalAccessException ex) {
+            throw new UnsupportedOperationException(ex);
+        } catch (InvocationTargetException ex) {
+            throw new UnsupportedOperationException(ex.getCause());
+        }
+    }
+
+    /**
+     * Create an executor that starts a new virtual thread for each task.
+     *
+     * @param namePrefix the thread name prefix
+     * @return the executor
+     * @throws UnsupportedOperationException if virtual threads are not supported
+     */
+    public static ExecutorService newExecutor(String namePrefix) {
+        java.util.concurrent.ThreadFactory threadFactory = newThreadFactory(namePrefix);
+        ExecutorService executor;
+        try {
+            executor = (ExecutorService)newThreadPerTaskExecutorMethod.invoke(null, threadFactory);
+        } catch (IllegalAccessException ex) {
+            throw new UnsupportedOperationException(ex);
+        } catch (InvocationTargetException ex) {
+            throw new UnsupportedOperationException(ex.getCause());
+        }
+        if (!pinningHintLogged && System.getProperty("jdk.tracePinnedThreads") == null) {
+            pinningHintLogged = true;
+            log.info("Using virtual threads for " + namePrefix + "; run with "
+                    + "-Djdk.tracePinnedThreads=short to report virtual threads pinned while "
+                    + "blocking in synchronized blocks");
+        }
+        return executor;
+    }
+}
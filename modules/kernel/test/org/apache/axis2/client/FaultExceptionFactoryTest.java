@@ -0,0 +1,99 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.axis2.client;
+
+import junit.framework.TestCase;
+
+public class FaultExceptionFactoryTest extends TestCase {
+    public static class FaultMessage {
+    }
+
+    public static class FaultException extends Exception {
+        private FaultMessage faultMessage;
+
+        public FaultException() {
+        }
+
+        public FaultException(String message) {
+            super(message);
+        }
+
+        public void setFaultMessage(FaultMessage faultMessage) {
+            this.faultMessage = faultMessage;
+        }
+
+        public FaultMessage getFaultMessage() {
+            return faultMessage;
+        }
+    }
+
+    public static class NoMessageConstructorException extends Exception {
+        public void setFaultMessage(FaultMessage faultMessage) {
+        }
+    }
+
+    private FaultExceptionFactory createFactory(Class<?> exceptionClass) throws Exception {
+        return FaultExceptionFactory.create(exceptionClass.getName(),
+                FaultMessage.class.getName(), getClass().getClassLoader());
+    }
+
+    public void testNewException() throws Exception {
+        FaultExceptionFactory factory = createFactory(FaultException.class);
+        assertSame(FaultMessage.class, factory.getMessageClass());
+        FaultMessage faultMessage = new FaultMessage();
+        FaultException ex = (FaultException)factory.newException("test", faultMessage);
+        assertEquals("test", ex.getMessage());
+        assertSame(faultMessage, ex.getFaultMessage());
+        ex = (FaultException)factory.newException(faultMessage);
+        assertNull(ex.getMessage());
+        assertSame(faultMessage, ex.getFaultMessage());
+    }
+
+    public void testMissingConstructor() throws Exception {
+        FaultExceptionFactory factory = createFactory(NoMessageConstructorException.class);
+        assertTrue(factory.newException(new FaultMessage())
+                instanceof NoMessageConstructorException);
+        try {
+            factory.newException("test", new FaultMessage());
+            fail("Expected NoSuchMethodException");
+        } catch (NoSuchMethodException ex) {
+            // Expected
+        }
+    }
+
+    public void testMissingSetter() throws Exception {
+        try {
+            createFactory(Exception.class);
+            fail("Expected NoSuchMethodException");
+        } catch (NoSuchMethodException ex) {
+            // Expected
+        }
+    }
+
+    public void testMissingClass() throws Exception {
+        try {
+            FaultExceptionFactory.create("org.example.MissingException",
+                    FaultMessage.class.getName(), getClass().getClassLoader());
+            fail("Expected ClassNotFoundException");
+        } catch (ClassNotFoundException ex) {
+            // Expected
+        }
+    }
+}
@@ -21,9 +21,18 @@ package org.apache.axis2.client;
 import java.io.File;
 import java.net.URL;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import javax.xml.namespace.QName;
 
+import org.apache.axiom.om.OMAbstractFactory;
+import org.apache.axiom.om.OMElement;
+import org.apache.axiom.soap.SOAPEnvelope;
+import org.apache.axiom.soap.SOAPFactory;
+import org.apache.axis2.AxisFault;
 import org.apache.axis2.context.ConfigurationContext;
 import org.apache.axis2.context.ConfigurationContextFactory;
 import org.apache.ws.commons.schema.XmlSchema;
@@ -53,4 +62,85 @@ public class ServiceClientTest extends Assert {
         XmlSchema schema = schemas.get(0);
         assertNotNull(schema.getTypeByName(new QName("urn:test", "echoResponse")));
     }
+
+    @Test
+    public void testConcurrentOverrideOptions() throws Exception {
+        ServiceClient serviceClient = new ServiceClient(
+                ConfigurationContextFactory.createEmptyConfigurationContext(), null);
+        serviceClient.setConcurrent(true);
+        serviceClient.getOptions().setAction("default");
+        serviceClient.getOptions().setTimeOutInMilliSeconds(1000);
+        Options overrideOptions = new Options();
+        overrideOptions.setAction("override");
+        serviceClient.setOverrideOptions(overrideOptions);
+
+        OperationClient client1 = serviceClient.createClient(ServiceClient.ANON_OUT_IN_OP);
+        OperationClient client2 = serviceClient.createClient(ServiceClient.ANON_OUT_IN_OP);
+        assertNotSame(client1.getOptions(), client2.getOptions());
+        assertNotSame(overrideOptions, client1.getOptions());
+        assertNull(overrideOptions.getParent());
+        assertEquals("override", client1.getOptions().getAction());
+        assertEquals(1000, client1.getOptions().getTimeOutInMilliSeconds());
+
+        // Values set for one invocation don't affect the other one
+        client1.getOptions().setTimeOutInMilliSeconds(2000);
+        assertEquals(1000, client2.getOptions().getTimeOutInMilliSeconds());
+        serviceClient.cleanup();
+    }
+
+    @Test
+    public void testConcurrentHeaders() throws Exception {
+        ServiceClient serviceClient = new ServiceClient(
+                ConfigurationContextFactory.createEmptyConfigurationContext(), null);
+        serviceClient.setConcurrent(true);
+        OMElement header = OMAbstractFactory.getOMFactory().createOMElement(
+                new QName("urn:test", "header"));
+        serviceClient.addHeader(header);
+
+        SOAPFactory factory = OMAbstractFactory.getSOAP11Factory();
+        SOAPEnvelope envelope1 = factory.getDefaultEnvelope();
+        SOAPEnvelope envelope2 = factory.getDefaultEnvelope();
+        serviceClient.addHeadersToEnvelope(envelope1);
+        serviceClient.addHeadersToEnvelope(envelope2);
+        assertNotNull(envelope1.getHeader().getFirstChildWithName(new QName("urn:test", "header")));
+        assertNotNull(envelope2.getHeader().getFirstChildWithName(new QName("urn:test", "header")));
+        assertNull(header.getParent());
+        serviceClient.cleanup();
+    }
+
+    @Test
+    public void testConcurrentCreateClient() throws Exception {
+        final ServiceClient serviceClient = new ServiceClient(
+                ConfigurationContextFactory.createEmptyConfigurationContext(), null);
+        serviceClient.setConcurrent(true);
+        serviceClient.getOptions().setProperty("test", "value");
+        serviceClient.setOverrideOptions(new Options());
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Future<?>[] futures = new Future<?>[4];
+            for (int i = 0; i < futures.length; i++) {
+                futures[i] = executor.submit(new Runnable() {
+                    public void run() {
+                        try {
+                            for (int j = 0; j < 1000; j++) {
+                                OperationClient client = serviceClient.createClient(
+                                        ServiceClient.ANON_OUT_IN_OP);
+                                assertEquals("value", client.getOptions().getProperty("test"));
+                            }
+                        } catch (AxisFault ex) {
+                            throw new RuntimeException(ex);
+                        }
+                    }
+                });
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        }
+        assertEquals("value", serviceClient.getServiceContext().getProperty("test"));
+        serviceClient.cleanup();
+    }
 }
@@ -117,5 +117,67 @@ public class ContextHierarchyTest extends TestCase {
         axisConfiguration.addParameter(new Parameter(key2, value2));
         assertEquals(value2, msgctx.getParameter(key2).getValue());
     }
+
+    public void testPropertyMissCacheInvalidation() throws AxisFault {
+        ServiceGroupContext serviceGroupContext = configurationContext.createServiceGroupContext(
+                axisService.getAxisServiceGroup());
+        ServiceContext serviceContext = serviceGroupContext.getServiceContext(axisService);
+        OperationContext opContext = axisOperation.findOperationContext(msgctx,
+                                                                        serviceContext);
+        axisOperation.registerOperationContext(msgctx, opContext);
+        msgctx.setServiceContext(serviceContext);
+
+        String key = "missingKey";
+        // Look up twice so that the second lookup is answered by the miss cache
+        assertNull(msgctx.getProperty(key));
+        assertNull(serviceContext.getProperty(key));
+
+        configurationContext.setProperty(key, "cfg");
+        assertEquals("cfg", msgctx.getProperty(key));
+        assertEquals("cfg", serviceContext.getProperty(key));
+
+        serviceGroupContext.setProperty(key, "sg");
+        assertEquals("sg", msgctx.getProperty(key));
+
+        serviceGroupContext.removeProperty(key);
+        configurationContext.removeProperty(key);
+        assertNull(msgctx.getProperty(key));
+        assertNull(serviceContext.getProperty(key));
+
+        // Changes made through the live map returned by getProperties() must be visible as well
+        configurationContext.getProperties().put(key, "live");
+        assertEquals("live", serviceContext.getProperty(key));
+    }
+
+    public void testPropertyMissCacheScope() throws AxisFault {
+        ServiceGroupContext serviceGroupContext = configurationContext.createServiceGroupContext(
+                axisService.getAxisServiceGroup());
+        ServiceContext serviceContext = serviceGroupContext.getServiceContext(axisService);
+        AxisService otherService = new AxisService("OtherService");
+        axisConfiguration.addService(otherService);
+        ServiceGroupContext otherServiceGroupContext =
+                configurationContext.createServiceGroupContext(otherService.getAxisServiceGroup());
+        ServiceContext otherServiceContext =
+                otherServiceGroupContext.getServiceContext(otherService);
+
+        PropertyMissCache missCache = new PropertyMissCache(serviceContext);
+        assertTrue(missCache.isValid(serviceContext));
+        // Changes to contexts outside of the ancestor chain don't invalidate the cache
+        otherServiceContext.setProperty("key", "value");
+        otherServiceGroupContext.setProperty("key", "value");
+        msgctx.setProperty("key", "value");
+        assertTrue(missCache.isValid(serviceContext));
+
+        serviceGroupContext.setProperty("key", "value");
+        assertFalse(missCache.isValid(serviceContext));
+        missCache = new PropertyMissCache(serviceContext);
+        configurationContext.removeProperty("nonExistingKey");
+        assertTrue(missCache.isValid(serviceContext));
+        configurationContext.setProperty("key", "value");
+        assertFalse(missCache.isValid(serviceContext));
+        missCache = new PropertyMissCache(serviceContext);
+        serviceContext.setParent(otherServiceGroupContext);
+        assertFalse(missCache.isValid(serviceContext));
+    }
     
 }
@@ -0,0 +1,184 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.axis2.context;
+
+import junit.framework.TestCase;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+
+public class FileMessageContextStoreTest extends TestCase {
+    private File directory;
+    private ConfigurationContext configContext;
+
+    protected void setUp() throws Exception {
+        directory = File.createTempFile("mcstore", null);
+        directory.delete();
+        configContext = ConfigurationContextFactory.createEmptyConfigurationContext();
+    }
+
+    protected void tearDown() throws Exception {
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        directory.delete();
+    }
+
+    private static MessageContext createMessageContext(String messageID) {
+        MessageContext mc = new MessageContext();
+        mc.setMessageID(messageID);
+        mc.setProperty("key", "value-" + messageID);
+        return mc;
+    }
+
+    public void testStoreAndRetrieve() throws Exception {
+        FileMessageContextStore store = new FileMessageContextStore(directory);
+        try {
+            store.store(createMessageContext("urn:uuid:1"));
+            store.store(createMessageContext("urn:uuid:2"));
+            assertEquals(2, store.size());
+            assertTrue(store.contains("urn:uuid:1"));
+
+            MessageContext mc = store.retrieve("urn:uuid:1", configContext);
+            assertEquals("urn:uuid:1", mc.getMessageID());
+            assertEquals("value-urn:uuid:1", mc.getProperty("key"));
+            assertSame(configContext, mc.getConfigurationContext());
+            assertFalse(store.contains("urn:uuid:1"));
+            assertNull(store.retrieve("urn:uuid:1", configContext));
+
+            assertTrue(store.remove("urn:uuid:2"));
+            assertFalse(store.remove("urn:uuid:2"));
+            assertEquals(0, store.size());
+        } finally {
+            store.close();
+        }
+    }
+
+    public void testReplace() throws Exception {
+        FileMessageContextStore store = new FileMessageContextStore(directory);
+        try {
+            store.store(createMessageContext("urn:uuid:1"));
+            MessageContext mc = createMessageContext("urn:uuid:1");
+            mc.setProperty("key", "updated");
+            store.store(mc);
+            assertEquals(1, store.size());
+            assertEquals("updated", store.retrieve("urn:uuid:1", configContext).getProperty("key"));
+        } finally {
+            store.close();
+        }
+    }
+
+    public void testReopen() throws Exception {
+        FileMessageContextStore store = new FileMessageContextStore(directory);
+        for (int i = 0; i < 10; i++) {
+            store.store(createMessageContext("urn:uuid:" + i));
+        }
+        store.retrieve("urn:uuid:3", configContext);
+        store.remove("urn:uuid:7");
+        store.close();
+
+        store = new FileMessageContextStore(directory);
+        try {
+            assertEquals(8, store.size());
+            assertFalse(store.contains("urn:uuid:3"));
+            assertFalse(store.contains("urn:uuid:7"));
+            assertEquals("value-urn:uuid:5",
+                    store.retrieve("urn:uuid:5", configContext).getProperty("key"));
+        } finally {
+            store.close();
+        }
+    }
+
+    public void testIncompleteRecordDiscarded() throws Exception {
+        FileMessageContextStore store = new FileMessageContextStore(directory);
+        store.store(createMessageContext("urn:uuid:1"));
+        store.store(createMessageContext("urn:uuid:2"));
+        store.close();
+
+        File segment = new File(directory, "segment-0.dat");
+        RandomAccessFile raf = new RandomAccessFile(segment, "rw");
+        try {
+            raf.setLength(raf.length() - 5);
+        } finally {
+            raf.close();
+        }
+
+        store = new FileMessageContextStore(directory);
+        try {
+            assertEquals(1, store.size());
+            assertTrue(store.contains("urn:uuid:1"));
+            // New records are appended after the last complete record
+            store.store(createMessageContext("urn:uuid:3"));
+            assertEquals("value-urn:uuid:3",
+                    store.retrieve("urn:uuid:3", configContext).getProperty("key"));
+        } finally {
+            store.close();
+        }
+    }
+
+    public void testSegmentsReleased() throws Exception {
+        FileMessageContextStore store = new FileMessageContextStore(directory, 4096);
+        try {
+            for (int i = 0; i < 100; i++) {
+                store.store(createMessageContext("urn:uuid:" + i));
+            }
+            assertTrue(store.getSegmentCount() > 1);
+            for (int i = 0; i < 100; i++) {
+                assertNotNull(store.retrieve("urn:uuid:" + i, configContext));
+            }
+            assertEquals(1, store.getSegmentCount());
+            assertEquals(1, directory.list().length);
+        } finally {
+            store.close();
+        }
+    }
+
+    public void testCompact() throws Exception {
+        FileMessageContextStore store = new FileMessageContextStore(directory, 4096);
+        for (int i = 0; i < 100; i++) {
+            store.store(createMessageContext("urn:uuid:" + i));
+        }
+        int segmentCount = store.getSegmentCount();
+        // Keep a few message contexts alive in the older segments
+        for (int i = 0; i < 100; i++) {
+            if (i % 10 != 0) {
+                store.remove("urn:uuid:" + i);
+            }
+        }
+        store.compact();
+        assertEquals(10, store.size());
+        assertTrue(store.getSegmentCount() < segmentCount);
+        assertEquals(store.getSegmentCount(), directory.list().length);
+        store.close();
+
+        store = new FileMessageContextStore(directory, 4096);
+        try {
+            assertEquals(10, store.size());
+            for (int i = 0; i < 100; i += 10) {
+                assertEquals("value-urn:uuid:" + i,
+                        store.retrieve("urn:uuid:" + i, configContext).getProperty("key"));
+            }
+        } finally {
+            store.close();
+        }
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.axis2.context;
+
+import org.apache.axis2.context.externalize.SafeObjectOutputStream;
+import org.apache.axis2.description.AxisOperation;
+import org.apache.axis2.description.AxisService;
+import org.apache.axis2.description.InOutAxisOperation;
+import org.apache.axis2.util.MetaDataEntry;
+
+import javax.xml.namespace.QName;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.util.HashMap;
+import java.util.Map;
+
+import junit.framework.TestCase;
+
+/**
+ * Test that an OperationContext is restored and reattached to its AxisOperation, both from the
+ * current externalization revision and from revision 2.
+ */
+public class OperationContextExternalizeTest extends TestCase {
+    private ConfigurationContext configContext;
+    private AxisService axisService;
+    private AxisOperation axisOperation;
+
+    protected void setUp() throws Exception {
+        configContext = ConfigurationContextFactory.createEmptyConfigurationContext();
+        axisService = new AxisService("service1");
+        axisOperation = new InOutAxisOperation(new QName("http://op.name/space/1", "op1"));
+        axisService.addOperation(axisOperation);
+        axisService.addOperation(
+                new InOutAxisOperation(new QName("http://op.name/space/1", "op2")));
+        configContext.getAxisConfiguration().addService(axisService);
+    }
+
+    private OperationContext read(byte[] bytes) throws Exception {
+        ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(bytes));
+        OperationContext ctxRead = new OperationContext();
+        ctxRead.readExternal(ois);
+        ctxRead.activate(configContext);
+        return ctxRead;
+    }
+
+    public void testExternalizeCurrentRevision() throws Exception {
+        ServiceGroupContext sgc =
+                configContext.createServiceGroupContext(axisService.getAxisServiceGroup());
+        OperationContext ctx = new OperationContext(axisOperation, sgc.getServiceContext(axisService));
+        ctx.setProperty("key1", "value1");
+
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        ObjectOutputStream oos = new ObjectOutputStream(baos);
+        ctx.writeExternal(oos);
+        oos.close();
+
+        OperationContext ctxRead = read(baos.toByteArray());
+        assertSame(axisOperation, ctxRead.getAxisOperation());
+        assertEquals("value1", ctxRead.getProperty("key1"));
+    }
+
+    /**
+     * Read a stream in the format written by revision 2, which saved the MetaDataEntry objects
+     * in serialized form.
+     */
+    public void testReadRevision2() throws Exception {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        ObjectOutputStream oos = new ObjectOutputStream(baos);
+        SafeObjectOutputStream out = SafeObjectOutputStream.install(oos);
+        out.writeLong(ObjectStreamClass.lookup(OperationContext.class).getSerialVersionUID());
+        out.writeInt(2);
+        out.writeLong(System.currentTimeMillis());
+        out.writeBoolean(false);
+        out.writeObject(null);
+        out.writeObject("[OperationContext: logID=test]");
+        out.writeUTF("properties");
+        Map<String, String> properties = new HashMap<String, String>();
+        properties.put("key1", "value1");
+        out.writeMap(properties);
+        out.writeUTF("metaAxisOperation");
+        out.writeObject(new MetaDataEntry(InOutAxisOperation.class.getName(),
+                axisOperation.getName().toString()));
+        out.writeUTF("metaAxisService");
+        out.writeObject(new MetaDataEntry(AxisService.class.getName(), axisService.getName(),
+                (String) null));
+        out.writeUTF("parent");
+        out.writeObject(null);
+        out.writeUTF("messagecontexts");
+        out.writeMap(null);
+        out.writeUTF("metaMessageContextMap");
+        out.writeMap(null);
+        oos.close();
+
+        OperationContext ctxRead = read(baos.toByteArray());
+        assertSame(axisOperation, ctxRead.getAxisOperation());
+        assertEquals("value1", ctxRead.getProperty("key1"));
+    }
+}
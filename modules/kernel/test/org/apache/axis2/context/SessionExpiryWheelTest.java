@@ -0,0 +1,97 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.axis2.context;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+import junit.framework.TestCase;
+import org.apache.axis2.description.AxisService;
+import org.apache.axis2.engine.AxisConfiguration;
+
+public class SessionExpiryWheelTest extends TestCase {
+    private static final long TIMEOUT = 30000;
+
+    private ConfigurationContext configurationContext;
+    private AxisService axisService;
+    private ConcurrentHashMap<String, ServiceGroupContext> registry;
+    private SessionExpiryWheel wheel;
+
+    protected void setUp() throws Exception {
+        AxisConfiguration axisConfiguration = new AxisConfiguration();
+        axisService = new AxisService("Temp");
+        axisConfiguration.addService(axisService);
+        configurationContext = new ConfigurationContext(axisConfiguration);
+        registry = new ConcurrentHashMap<String, ServiceGroupContext>();
+        wheel = new SessionExpiryWheel(1000, 16, 0);
+    }
+
+    private ServiceGroupContext createSession(long lastTouchedTime) {
+        ServiceGroupContext serviceGroupContext =
+                configurationContext.createServiceGroupContext(axisService.getAxisServiceGroup());
+        serviceGroupContext.setId("session" + registry.size());
+        serviceGroupContext.setLastTouchedTime(lastTouchedTime);
+        registry.put(serviceGroupContext.getId(), serviceGroupContext);
+        wheel.schedule(serviceGroupContext, lastTouchedTime + TIMEOUT + 1);
+        return serviceGroupContext;
+    }
+
+    public void testExpire() {
+        ServiceGroupContext first = createSession(0);
+        ServiceGroupContext second = createSession(5000);
+
+        assertTrue(wheel.expire(20000, TIMEOUT, registry).isEmpty());
+
+        List<ServiceGroupContext> expired = wheel.expire(31000, TIMEOUT, registry);
+        assertEquals(1, expired.size());
+        assertSame(first, expired.get(0));
+        assertFalse(registry.containsKey(first.getId()));
+        assertTrue(registry.containsKey(second.getId()));
+
+        expired = wheel.expire(40000, TIMEOUT, registry);
+        assertEquals(1, expired.size());
+        assertSame(second, expired.get(0));
+        assertTrue(registry.isEmpty());
+    }
+
+    public void testTouchedSessionIsRescheduled() {
+        ServiceGroupContext session = createSession(0);
+        session.setLastTouchedTime(25000);
+        assertTrue(wheel.expire(31000, TIMEOUT, registry).isEmpty());
+        assertTrue(registry.containsKey(session.getId()));
+        List<ServiceGroupContext> expired = wheel.expire(56000, TIMEOUT, registry);
+        assertEquals(1, expired.size());
+        assertSame(session, expired.get(0));
+    }
+
+    public void testRemovedSessionIsDropped() {
+        ServiceGroupContext session = createSession(0);
+        registry.remove(session.getId());
+        assertTrue(wheel.expire(31000, TIMEOUT, registry).isEmpty());
+    }
+
+    public void testLongIdlePeriod() {
+        // Much longer than the span of the wheel
+        ServiceGroupContext session = createSession(0);
+        List<ServiceGroupContext> expired = wheel.expire(1000000, TIMEOUT, registry);
+        assertEquals(1, expired.size());
+        assertSame(session, expired.get(0));
+    }
+}
@@ -19,7 +19,10 @@
 package org.apache.axis2.context.externalize;
 
 import org.apache.axis2.AxisFault;
+import org.apache.axis2.description.AxisOperation;
 import org.apache.axis2.description.AxisService;
+import org.apache.axis2.description.InOutAxisOperation;
+import org.apache.axis2.description.OutInAxisOperation;
 import org.apache.axis2.description.WSDL11ToAllAxisServicesBuilder;
 import org.apache.axis2.engine.AxisConfiguration;
 
@@ -138,6 +141,53 @@ public class ActivateUtilsTest extends TestCase {
         assertSame("Should have found matching service without matching extraname", svc1, foundService);
     }
     
+    /**
+     * Test that an operation saved with a namespace is found by its exact name, and only if the
+     * class name matches as well.
+     * @throws AxisFault 
+     */
+    public void testFindOperationWithNamespace() throws AxisFault {
+        AxisService svc1 = new AxisService("service1");
+        AxisOperation op1 = new InOutAxisOperation(new QName("http://op.name/space/1", "op1"));
+        AxisOperation op2 = new OutInAxisOperation(new QName("http://op.name/space/1", "op2"));
+        svc1.addOperation(op1);
+        svc1.addOperation(op2);
+
+        assertSame(op1, ActivateUtils.findOperation(svc1, InOutAxisOperation.class.getName(),
+                new QName("http://op.name/space/1", "op1")));
+        assertSame(op2, ActivateUtils.findOperation(svc1, OutInAxisOperation.class.getName(),
+                new QName("http://op.name/space/1", "op2")));
+        assertNull("Should not have found an operation with a different class name",
+                ActivateUtils.findOperation(svc1, OutInAxisOperation.class.getName(),
+                        new QName("http://op.name/space/1", "op1")));
+        assertNull("Should not have found an operation with a different namespace",
+                ActivateUtils.findOperation(svc1, InOutAxisOperation.class.getName(),
+                        new QName("http://op.name/space/2", "op1")));
+        assertNull("Should not have found an operation with a different name",
+                ActivateUtils.findOperation(svc1, InOutAxisOperation.class.getName(),
+                        new QName("http://op.name/space/1", "op3")));
+    }
+
+    /**
+     * Test that an operation saved without a namespace, as done by previous versions of Axis2,
+     * is found by the local part of its name.
+     * @throws AxisFault 
+     */
+    public void testFindOperationWithoutNamespace() throws AxisFault {
+        AxisService svc1 = new AxisService("service1");
+        AxisOperation op1 = new InOutAxisOperation(new QName("http://op.name/space/1", "op1"));
+        svc1.addOperation(op1);
+
+        assertSame(op1, ActivateUtils.findOperation(svc1, InOutAxisOperation.class.getName(),
+                new QName("op1")));
+        assertNull("Should not have found an operation with a different class name",
+                ActivateUtils.findOperation(svc1, OutInAxisOperation.class.getName(),
+                        new QName("op1")));
+        assertNull("Should not have found an operation with a different name",
+                ActivateUtils.findOperation(svc1, InOutAxisOperation.class.getName(),
+                        new QName("op2")));
+    }
+
 
     private void setupAxisService(AxisService axisService, QName serviceQN, String portName) throws AxisFault {
         axisService.setName(generateAxisServiceName(serviceQN, portName));
@@ -0,0 +1,118 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.axis2.context.externalize;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
+import junit.framework.TestCase;
+
+/**
+ * Validate the DataBlock streams that carry the message of a MessageContext.
+ */
+public class MessageExternalizeUtilsTest extends TestCase {
+    private static byte[] allByteValues() {
+        byte[] bytes = new byte[256];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) i;
+        }
+        return bytes;
+    }
+
+    /**
+     * Write all byte values twice, once in a single DataBlock and once with one DataBlock per
+     * byte, followed by the EndBlocks marker.
+     */
+    private static ObjectInputStream createDataBlocks() throws Exception {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        ObjectOutputStream oos = new ObjectOutputStream(baos);
+        MessageExternalizeUtils.MessageOutputStream mos =
+                new MessageExternalizeUtils.MessageOutputStream(oos);
+        mos.write(allByteValues());
+        for (int i = 0; i < 256; i++) {
+            mos.write(i);
+        }
+        oos.writeInt(0);
+        oos.close();
+        return new ObjectInputStream(new ByteArrayInputStream(baos.toByteArray()));
+    }
+
+    /**
+     * Test that the single byte read returns unsigned values, so that 0xFF is not taken for
+     * the end of the stream.
+     */
+    public void testReadSingleBytes() throws Exception {
+        MessageExternalizeUtils.MessageInputStream mis =
+                new MessageExternalizeUtils.MessageInputStream(createDataBlocks());
+        for (int pass = 0; pass < 2; pass++) {
+            for (int i = 0; i < 256; i++) {
+                assertEquals(i, mis.read());
+            }
+        }
+        assertEquals(-1, mis.read());
+        assertEquals(-1, mis.read());
+    }
+
+    /**
+     * Test that single byte and array reads can be mixed across DataBlocks.
+     */
+    public void testReadMixed() throws Exception {
+        MessageExternalizeUtils.MessageInputStream mis =
+                new MessageExternalizeUtils.MessageInputStream(createDataBlocks());
+        assertEquals(0, mis.read());
+        byte[] buffer = new byte[511];
+        int offset = 0;
+        int count;
+        while (offset < buffer.length
+                && (count = mis.read(buffer, offset, buffer.length - offset)) > 0) {
+            offset += count;
+        }
+        assertEquals(buffer.length, offset);
+        byte[] expected = allByteValues();
+        for (int i = 0; i < buffer.length; i++) {
+            assertEquals(expected[(i + 1) % 256], buffer[i]);
+        }
+        assertEquals(-1, mis.read());
+        assertEquals(-1, mis.read(buffer));
+    }
+
+    /**
+     * Test that closing the stream skips the remaining DataBlocks, so that the data that
+     * follows the message can be read.
+     */
+    public void testClose() throws Exception {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        ObjectOutputStream oos = new ObjectOutputStream(baos);
+        MessageExternalizeUtils.MessageOutputStream mos =
+                new MessageExternalizeUtils.MessageOutputStream(oos);
+        mos.write(allByteValues());
+        mos.write(0xFF);
+        oos.writeInt(0);
+        oos.writeUTF("next");
+        oos.close();
+        ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(baos.toByteArray()));
+        MessageExternalizeUtils.MessageInputStream mis =
+                new MessageExternalizeUtils.MessageInputStream(in);
+        assertEquals(0, mis.read());
+        mis.close();
+        assertEquals("next", in.readUTF());
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.axis2.dispatchers;
+
+import junit.framework.TestCase;
+import org.apache.axis2.AxisFault;
+import org.apache.axis2.addressing.EndpointReference;
+import org.apache.axis2.context.ConfigurationContext;
+import org.apache.axis2.context.ConfigurationContextFactory;
+import org.apache.axis2.context.MessageContext;
+import org.apache.axis2.description.AxisEndpoint;
+import org.apache.axis2.description.AxisOperation;
+import org.apache.axis2.description.AxisService;
+import org.apache.axis2.description.InOnlyAxisOperation;
+import org.apache.axis2.engine.AxisConfiguration;
+
+import javax.xml.namespace.QName;
+
+public class DispatchTableTest extends TestCase {
+    private ConfigurationContext cc;
+    private AxisConfiguration ac;
+    private DispatchTable dispatchTable;
+
+    protected void setUp() throws Exception {
+        cc = ConfigurationContextFactory.createEmptyConfigurationContext();
+        ac = cc.getAxisConfiguration();
+        dispatchTable = ac.getDispatchTable();
+    }
+
+    private AxisService dispatch(String path) throws AxisFault {
+        MessageContext messageContext = cc.createMessageContext();
+        messageContext.setTo(new EndpointReference("http://127.0.0.1:8080/axis2/services/" + path));
+        return new RequestURIBasedServiceDispatcher().findService(messageContext);
+    }
+
+    public void testDeployAndRemove() throws Exception {
+        AxisService service = new AxisService("foo/Echo");
+        service.addEndpoint("EchoEndpoint", new AxisEndpoint());
+        assertNull(dispatchTable.getService("foo/Echo/echo", 8));
+
+        ac.addService(service);
+        assertSame(service, dispatchTable.getService("foo/Echo/echo", 8).service);
+        assertSame(service, dispatchTable.getService("foo/Echo.EchoEndpoint", 21).service);
+        assertNull(dispatchTable.getService("foo/Echo/echo", 3));
+        assertNull(dispatchTable.getService("foo/Echo/echo", 7));
+        assertSame(service, dispatch("foo/Echo/echo"));
+
+        ac.removeService("foo/Echo");
+        assertNull(dispatchTable.getService("foo/Echo/echo", 8));
+        assertNull(dispatchTable.getService("foo/Echo.EchoEndpoint", 21));
+        assertNull(dispatch("foo/Echo/echo"));
+    }
+
+    public void testClientSideService() throws Exception {
+        AxisService service = new AxisService("anonService");
+        service.setClientSide(true);
+        ac.addService(service);
+        // Client side services are not notified to the observers, so they are only found
+        // through the AxisConfiguration
+        assertNull(dispatchTable.getService("anonService", 11));
+        assertSame(service, dispatch("anonService/op"));
+    }
+
+    public void testInactiveService() throws Exception {
+        ac.addService(new AxisService("Echo"));
+        ac.stopService("Echo");
+        try {
+            dispatch("Echo/echo");
+            fail("Expected AxisFault");
+        } catch (AxisFault e) {
+            // Expected
+        }
+        ac.startService("Echo");
+        assertNotNull(dispatch("Echo/echo"));
+    }
+
+    public void testOperations() throws Exception {
+        AxisService service = new AxisService("Echo");
+        AxisOperation echo = new InOnlyAxisOperation(new QName("echo"));
+        echo.setSoapAction("urn:echo");
+        service.addOperation(echo);
+        ac.addService(service);
+        assertSame(echo, dispatchTable.getOperation(service, "urn:echo"));
+        assertSame(echo, dispatchTable.getOperation(service, "echo"));
+        assertNull(dispatchTable.getOperation(service, "urn:other"));
+
+        // Operations added after the deployment are not in the table, but are still found by
+        // the dispatchers
+        AxisOperation other = new InOnlyAxisOperation(new QName("other"));
+        other.setSoapAction("urn:other");
+        service.addOperation(other);
+        assertNull(dispatchTable.getOperation(service, "urn:other"));
+        MessageContext messageContext = cc.createMessageContext();
+        messageContext.setSoapAction("urn:other");
+        assertSame(other, new ActionBasedOperationDispatcher().findOperation(service,
+                                                                            messageContext));
+    }
+
+    public void testManyServices() throws Exception {
+        AxisService[] services = new AxisService[1000];
+        for (int i = 0; i < services.length; i++) {
+            services[i] = new AxisService((i % 2 == 0 ? "" : "group" + (i % 10) + "/")
+                    + "Service" + i);
+            ac.addService(services[i]);
+        }
+        for (int i = 0; i < services.length; i++) {
+            assertSame(services[i], dispatch(services[i].getName() + "/op"));
+        }
+        for (int i = 0; i < services.length; i += 2) {
+            ac.removeService(services[i].getName());
+        }
+        for (int i = 0; i < services.length; i++) {
+            assertEquals(i % 2 == 0 ? null : services[i],
+                         dispatch(services[i].getName() + "/op"));
+        }
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.axis2.dispatchers;
+
+import junit.framework.TestCase;
+import org.apache.axis2.description.AxisOperation;
+import org.apache.axis2.description.InOnlyAxisOperation;
+
+import javax.xml.namespace.QName;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class HTTPLocationRouterTest extends TestCase {
+
+    public void testLongestPrefixMatch() {
+        AxisOperation getStudents = new InOnlyAxisOperation(new QName("getStudents"));
+        AxisOperation getStudent = new InOnlyAxisOperation(new QName("getStudent"));
+        AxisOperation getStudentCourses = new InOnlyAxisOperation(new QName("getStudentCourses"));
+        AxisOperation addStudent = new InOnlyAxisOperation(new QName("addStudent"));
+        AxisOperation search = new InOnlyAxisOperation(new QName("search"));
+
+        // Keys as created by WSDLUtil.getConstantFromHTTPLocation
+        Map<String, AxisOperation> table = new HashMap<String, AxisOperation>();
+        table.put("GET/students/", getStudents);
+        table.put("GET/student/", getStudent);
+        table.put("GET/student/courses/", getStudentCourses);
+        table.put("POST/student/", addStudent);
+        table.put("GET?q=", search);
+
+        HTTPLocationRouter router = new HTTPLocationRouter(table);
+        assertSame(getStudents, router.getOperation("GET/students/"));
+        assertSame(getStudent, router.getOperation("GET/student/42/"));
+        assertSame(getStudentCourses, router.getOperation("GET/student/courses/42/"));
+        assertSame(addStudent, router.getOperation("POST/student/"));
+        assertSame(search, router.getOperation("GET?q=axis2/"));
+        assertNull(router.getOperation("GET/stud/"));
+        assertNull(router.getOperation("DELETE/student/42/"));
+        assertNull(router.getOperation("GET"));
+    }
+
+    public void testNestedLocations() {
+        AxisOperation root = new InOnlyAxisOperation(new QName("root"));
+        AxisOperation a = new InOnlyAxisOperation(new QName("a"));
+        AxisOperation abc = new InOnlyAxisOperation(new QName("abc"));
+
+        // Insert the longest location first so that adding the shorter ones splits its edge
+        Map<String, AxisOperation> table = new LinkedHashMap<String, AxisOperation>();
+        table.put("GET/abc", abc);
+        table.put("GET/a", a);
+        table.put("GET/", root);
+
+        HTTPLocationRouter router = new HTTPLocationRouter(table);
+        assertSame(root, router.getOperation("GET/"));
+        assertSame(root, router.getOperation("GET/x"));
+        assertSame(a, router.getOperation("GET/a"));
+        assertSame(a, router.getOperation("GET/ab"));
+        assertSame(abc, router.getOperation("GET/abcd"));
+    }
+}
@@ -0,0 +1,168 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.axis2.engine;
+
+import java.util.Map;
+
+import javax.xml.namespace.QName;
+
+import junit.framework.TestCase;
+import org.apache.axis2.AxisFault;
+import org.apache.axis2.client.ServiceClient;
+import org.apache.axis2.context.ConfigurationContext;
+import org.apache.axis2.context.MessageContext;
+import org.apache.axis2.description.AxisOperation;
+import org.apache.axis2.description.AxisService;
+import org.apache.axis2.description.HandlerDescription;
+import org.apache.axis2.description.InOutAxisOperation;
+import org.apache.axis2.engine.Handler.InvocationResponse;
+import org.apache.axis2.handlers.AbstractHandler;
+
+public class PhaseMetricsTest extends TestCase {
+    private static class DispatchingHandler extends AbstractHandler {
+        private final AxisOperation operation;
+
+        DispatchingHandler(String name, AxisOperation operation) {
+            HandlerDescription desc = new HandlerDescription(name);
+            desc.setHandler(this);
+            init(desc);
+            this.operation = operation;
+        }
+
+        public InvocationResponse invoke(MessageContext msgContext) throws AxisFault {
+            if (operation != null) {
+                msgContext.setAxisOperation(operation);
+            }
+            return InvocationResponse.CONTINUE;
+        }
+    }
+
+    private ConfigurationContext configurationContext;
+    private AxisOperation operation;
+
+    protected void setUp() throws Exception {
+        AxisConfiguration axisConfiguration = new AxisConfiguration();
+        AxisService service = new AxisService("Echo");
+        operation = new InOutAxisOperation(new QName("echo"));
+        service.addOperation(operation);
+        axisConfiguration.addService(service);
+        configurationContext = new ConfigurationContext(axisConfiguration);
+    }
+
+    private MessageContext createMessageContext() {
+        return configurationContext.createMessageContext();
+    }
+
+    public void testDisabledByDefault() throws Exception {
+        assertNull(configurationContext.getPhaseMetrics());
+        Phase phase = new Phase("test");
+        phase.addHandler(new DispatchingHandler("h", null));
+        assertEquals(InvocationResponse.CONTINUE, phase.invoke(createMessageContext()));
+    }
+
+    public void testRecordPhasesAndHandlers() throws Exception {
+        PhaseMetrics metrics = new PhaseMetrics();
+        configurationContext.setPhaseMetrics(metrics);
+
+        Phase transport = new Phase("Transport");
+        transport.addHandler(new DispatchingHandler("t", null));
+        Phase dispatch = new Phase("Dispatch");
+        dispatch.addHandler(new DispatchingHandler("dispatcher", operation));
+        Phase security = new Phase("Security");
+        security.addHandler(new DispatchingHandler("h1", null));
+        security.addHandler(new DispatchingHandler("h2", null));
+
+        for (int i = 0; i < 3; i++) {
+            MessageContext msgContext = createMessageContext();
+            transport.invoke(msgContext);
+            dispatch.invoke(msgContext);
+            security.invoke(msgContext);
+        }
+
+        Map<String, Map<String, Long>> statistics = metrics.getStatistics();
+        assertEquals(Long.valueOf(3), statistics.get("-/Transport").get("count"));
+        assertEquals(Long.valueOf(3), statistics.get("-/Transport/t").get("count"));
+        // The operation is known once the dispatcher has completed
+        assertEquals(Long.valueOf(3),
+                statistics.get("Echo/echo/Dispatch/dispatcher").get("count"));
+        assertEquals(Long.valueOf(3), statistics.get("Echo/echo/Dispatch").get("count"));
+        assertEquals(Long.valueOf(3), statistics.get("Echo/echo/Security").get("count"));
+        assertEquals(Long.valueOf(3), statistics.get("Echo/echo/Security/h1").get("count"));
+        assertEquals(Long.valueOf(3), statistics.get("Echo/echo/Security/h2").get("count"));
+        assertTrue(statistics.get("Echo/echo/Security").containsKey("p99"));
+
+        metrics.reset();
+        assertTrue(metrics.getStatistics().isEmpty());
+    }
+
+    public void testRemovedServicesAreDiscarded() throws Exception {
+        PhaseMetrics metrics = new PhaseMetrics();
+        configurationContext.setPhaseMetrics(metrics);
+        ServiceClient serviceClient = new ServiceClient(configurationContext, null);
+        AxisOperation clientOperation =
+                serviceClient.getAxisService().getOperation(ServiceClient.ANON_OUT_IN_OP);
+        String clientPrefix = serviceClient.getAxisService().getName() + "/"
+                + ServiceClient.ANON_OUT_IN_OP.getLocalPart();
+
+        Phase transport = new Phase("Transport");
+        transport.addHandler(new DispatchingHandler("t", null));
+        Phase dispatch = new Phase("Dispatch");
+        dispatch.addHandler(new DispatchingHandler("dispatcher", operation));
+        MessageContext msgContext = createMessageContext();
+        transport.invoke(msgContext);
+        dispatch.invoke(msgContext);
+        Phase client = new Phase("Client");
+        client.addHandler(new DispatchingHandler("c", clientOperation));
+        client.invoke(createMessageContext());
+
+        Map<String, Map<String, Long>> statistics = metrics.getStatistics();
+        assertTrue(statistics.containsKey("Echo/echo/Dispatch"));
+        assertTrue(statistics.containsKey(clientPrefix + "/Client"));
+
+        configurationContext.getAxisConfiguration().removeService("Echo");
+        statistics = metrics.getStatistics();
+        assertFalse(statistics.containsKey("Echo/echo/Dispatch"));
+        assertTrue(statistics.containsKey("-/Transport/t"));
+        assertTrue(statistics.containsKey(clientPrefix + "/Client"));
+
+        // Client side services are discarded by ServiceClient#cleanup()
+        serviceClient.cleanup();
+        statistics = metrics.getStatistics();
+        assertFalse(statistics.containsKey(clientPrefix + "/Client"));
+        assertTrue(statistics.containsKey("-/Transport/t"));
+
+        // The observer is removed when the metrics are disabled
+        int observers = configurationContext.getAxisConfiguration().getObserversList().size();
+        configurationContext.setPhaseMetrics(null);
+        assertEquals(observers - 1,
+                configurationContext.getAxisConfiguration().getObserversList().size());
+    }
+
+    public void testEnabledByParameter() throws Exception {
+        AxisConfiguration axisConfiguration = new AxisConfiguration();
+        axisConfiguration.addParameter("enablePhaseMetrics", "true");
+        ConfigurationContext configurationContext = new ConfigurationContext(axisConfiguration);
+        try {
+            assertNotNull(configurationContext.getPhaseMetrics());
+        } finally {
+            configurationContext.getPhaseMetrics().unregister();
+        }
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.axis2.engine;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import junit.framework.TestCase;
+import org.apache.axis2.AxisFault;
+import org.apache.axis2.context.MessageContext;
+import org.apache.axis2.description.HandlerDescription;
+import org.apache.axis2.engine.Handler.InvocationResponse;
+import org.apache.axis2.handlers.AbstractHandler;
+
+public class PhaseTest extends TestCase {
+    private final List<String> invoked = new ArrayList<String>();
+
+    private class RecordingHandler extends AbstractHandler {
+        private boolean suspend;
+
+        RecordingHandler(String name) {
+            HandlerDescription desc = new HandlerDescription(name);
+            desc.setHandler(this);
+            init(desc);
+        }
+
+        public InvocationResponse invoke(MessageContext msgContext) throws AxisFault {
+            invoked.add(getName());
+            if (suspend) {
+                suspend = false;
+                return InvocationResponse.SUSPEND;
+            }
+            return InvocationResponse.CONTINUE;
+        }
+    }
+
+    private Phase createPhase(RecordingHandler[] handlers) {
+        Phase phase = new Phase("test");
+        for (int i = 0; i < handlers.length; i++) {
+            handlers[i] = new RecordingHandler("h" + i);
+            phase.addHandler(handlers[i]);
+        }
+        return phase;
+    }
+
+    public void testInvokeAll() throws Exception {
+        RecordingHandler[] handlers = new RecordingHandler[20];
+        Phase phase = createPhase(handlers);
+        assertEquals(20, phase.getHandlerCount());
+        MessageContext msgContext = new MessageContext();
+        assertEquals(InvocationResponse.CONTINUE, phase.invoke(msgContext));
+        assertEquals(20, invoked.size());
+        for (int i = 0; i < 20; i++) {
+            assertEquals("h" + i, invoked.get(i));
+        }
+        assertEquals(0, msgContext.getCurrentPhaseIndex());
+    }
+
+    public void testSuspendAndResume() throws Exception {
+        RecordingHandler[] handlers = new RecordingHandler[20];
+        Phase phase = createPhase(handlers);
+        handlers[10].suspend = true;
+        MessageContext msgContext = new MessageContext();
+        assertEquals(InvocationResponse.SUSPEND, phase.invoke(msgContext));
+        assertEquals(11, invoked.size());
+        assertEquals(10, msgContext.getCurrentPhaseIndex());
+        invoked.clear();
+        // Resuming re-invokes the handler that paused the flow
+        assertEquals(InvocationResponse.CONTINUE, phase.invoke(msgContext));
+        assertEquals(10, invoked.size());
+        assertEquals("h10", invoked.get(0));
+        assertEquals("h19", invoked.get(9));
+    }
+
+    public void testModificationsAreVisible() throws Exception {
+        RecordingHandler[] handlers = new RecordingHandler[3];
+        Phase phase = createPhase(handlers);
+        phase.removeHandler(handlers[1].getHandlerDesc());
+        assertEquals(2, phase.getHandlerCount());
+        phase.addHandler(new RecordingHandler("extra"), 0);
+        phase.invoke(new MessageContext());
+        assertEquals("extra", invoked.get(0));
+        assertEquals("h0", invoked.get(1));
+        assertEquals("h2", invoked.get(2));
+    }
+
+    public void testModificationsThroughHandlerList() throws Exception {
+        RecordingHandler[] handlers = new RecordingHandler[3];
+        Phase phase = createPhase(handlers);
+        List<Handler> handlerList = phase.getHandlers();
+        handlerList.add(new RecordingHandler("extra"));
+        handlerList.remove(handlers[0]);
+        assertEquals(3, phase.getHandlerCount());
+        phase.invoke(new MessageContext());
+        assertEquals(3, invoked.size());
+        assertEquals("h1", invoked.get(0));
+        assertEquals("h2", invoked.get(1));
+        assertEquals("extra", invoked.get(2));
+
+        invoked.clear();
+        handlerList.clear();
+        assertEquals(0, phase.getHandlerCount());
+        phase.invoke(new MessageContext());
+        assertTrue(invoked.isEmpty());
+    }
+
+    public void testIterationDuringModification() throws Exception {
+        RecordingHandler[] handlers = new RecordingHandler[3];
+        Phase phase = createPhase(handlers);
+        Iterator<Handler> it = phase.getHandlers().iterator();
+        phase.addHandler(new RecordingHandler("extra"));
+        phase.removeHandler(handlers[0].getHandlerDesc());
+        for (int i = 0; i < 3; i++) {
+            assertSame(handlers[i], it.next());
+        }
+        assertFalse(it.hasNext());
+        assertEquals(3, phase.getHandlerCount());
+    }
+
+    public void testConcurrentModifications() throws Exception {
+        final Phase phase = new Phase("test");
+        Thread[] threads = new Thread[4];
+        for (int i = 0; i < threads.length; i++) {
+            final String prefix = "t" + i + "-";
+            threads[i] = new Thread() {
+                public void run() {
+                    for (int j = 0; j < 100; j++) {
+                        phase.addHandler(new RecordingHandler(prefix + j));
+                    }
+                }
+            };
+            threads[i].start();
+        }
+        for (int i = 0; i < threads.length; i++) {
+            threads[i].join();
+        }
+        assertEquals(400, phase.getHandlers().size());
+        assertEquals(400, phase.getHandlerCount());
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.axis2.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+
+import junit.framework.TestCase;
+
+public class MetaDataEntryTest extends TestCase {
+    private static MetaDataEntry createPhaseEntry() {
+        MetaDataEntry phase = new MetaDataEntry("org.apache.axis2.engine.Phase", "Dispatch");
+        phase.addToList(new MetaDataEntry("org.example.Handler1", "handler1"));
+        phase.addToList(new MetaDataEntry("org.example.Handler2", "{urn:test}handler2",
+                "extra"));
+        MetaDataEntry emptyList = new MetaDataEntry("org.example.Handler3", null);
+        emptyList.setChildren(new ArrayList());
+        phase.addToList(emptyList);
+        return phase;
+    }
+
+    private static MetaDataEntry roundTrip(MetaDataEntry entry) throws Exception {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        ObjectOutputStream oos = new ObjectOutputStream(baos);
+        MetaDataEntry.writeCompact(oos, entry);
+        oos.writeUTF("next");
+        oos.close();
+        ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(baos.toByteArray()));
+        MetaDataEntry result = MetaDataEntry.readCompact(ois);
+        assertEquals("next", ois.readUTF());
+        return result;
+    }
+
+    private static void assertEntryEquals(MetaDataEntry expected, MetaDataEntry actual) {
+        assertEquals(expected.getClassName(), actual.getClassName());
+        assertEquals(expected.getQNameAsString(), actual.getQNameAsString());
+        assertEquals(expected.getExtraName(), actual.getExtraName());
+        if (expected.getChildren() == null) {
+            assertNull(actual.getChildren());
+        } else {
+            assertEquals(expected.getChildren().size(), actual.getChildren().size());
+            for (int i = 0; i < expected.getChildren().size(); i++) {
+                assertEntryEquals((MetaDataEntry) expected.getChildren().get(i),
+                        (MetaDataEntry) actual.getChildren().get(i));
+            }
+        }
+    }
+
+    public void testCompactRoundTrip() throws Exception {
+        MetaDataEntry phase = createPhaseEntry();
+        assertEntryEquals(phase, roundTrip(phase));
+        MetaDataEntry service = new MetaDataEntry("org.apache.axis2.description.AxisService",
+                "service1", "{urn:test}service1:port1");
+        assertEntryEquals(service, roundTrip(service));
+        assertEntryEquals(new MetaDataEntry(), roundTrip(new MetaDataEntry()));
+        assertNull(roundTrip(null));
+    }
+
+    public void testCompactFormIsSmaller() throws Exception {
+        MetaDataEntry phase = createPhaseEntry();
+        ByteArrayOutputStream serialized = new ByteArrayOutputStream();
+        ObjectOutputStream oos = new ObjectOutputStream(serialized);
+        oos.writeObject(phase);
+        oos.close();
+        ByteArrayOutputStream compact = new ByteArrayOutputStream();
+        oos = new ObjectOutputStream(compact);
+        MetaDataEntry.writeCompact(oos, phase);
+        oos.close();
+        assertTrue(compact.size() < serialized.size());
+    }
+}
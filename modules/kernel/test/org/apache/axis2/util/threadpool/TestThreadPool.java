@@ -21,9 +21,12 @@ package org.apache.axis2.util.threadpool;
 
 import org.apache.axis2.AbstractTestCase;
 import org.apache.axis2.AxisFault;
+import org.apache.axis2.i18n.Messages;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 public class TestThreadPool extends AbstractTestCase {
     /**
@@ -33,7 +36,7 @@ public class TestThreadPool extends AbstractTestCase {
         super(testName);
     }
 
-    class TestWorker implements Runnable {
+    static class TestWorker implements Runnable {
         private boolean workDone;
 
         public void run() {
@@ -64,4 +67,45 @@ public class TestThreadPool extends AbstractTestCase {
 
     }
 
+    public void testVirtualThreadPool() throws Exception {
+        if (!VirtualThreads.isSupported()) {
+            try {
+                new VirtualThreadPool();
+                fail("Expected UnsupportedOperationException");
+            } catch (UnsupportedOperationException ex) {
+                // Expected
+            }
+            return;
+        }
+        VirtualThreadPool tPool = new VirtualThreadPool();
+        final CountDownLatch latch = new CountDownLatch(5);
+        for (int i = 0; i < 5; i++) {
+            tPool.execute(new Runnable() {
+                public void run() {
+                    latch.countDown();
+                }
+            });
+        }
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        tPool.safeShutDown();
+        assertRejected(tPool);
+    }
+
+    public void testVirtualThreadPoolForceShutDown() throws Exception {
+        if (!VirtualThreads.isSupported()) {
+            return;
+        }
+        VirtualThreadPool tPool = new VirtualThreadPool();
+        tPool.forceShutDown();
+        assertRejected(tPool);
+    }
+
+    private static void assertRejected(ThreadFactory tPool) {
+        try {
+            tPool.execute(new TestWorker());
+            fail("Expected the pool to reject the task");
+        } catch (RuntimeException ex) {
+            assertEquals(Messages.getMessage("threadpoolshutdown"), ex.getMessage());
+        }
+    }
 }
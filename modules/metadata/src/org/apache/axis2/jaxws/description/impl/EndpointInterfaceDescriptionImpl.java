@@ -71,6 +71,12 @@ public class EndpointInterfaceDescriptionImpl
     private final ArrayList<OperationDescription> operationDescriptions =
             new ArrayList<OperationDescription>();
     private Map<QName, List<OperationDescription>> dispatchableOperations;
+    /**
+     * Indexes used to look up operations by SEI method, operation name, QName and Java method
+     * name.  Built lazily from operationDescriptions and discarded when an operation is added or
+     * updated.
+     */
+    private volatile OperationIndex operationIndex;
     private final DescriptionBuilderComposite dbc;
 
     //Logging setup
@@ -114,7 +120,10 @@ public class EndpointInterfaceDescriptionImpl
         if (log.isDebugEnabled()) {
             log.debug("start addOperation for " + operation);
         }
-        operationDescriptions.add(operation);
+        synchronized (this) {
+            operationDescriptions.add(operation);
+            operationIndex = null;
+        }
         // Clear the runtime description information, it will need to be rebuilt.
         ServiceDescriptionImpl sd = (getEndpointDescriptionImpl() == null) ? null:
             getEndpointDescriptionImpl().getServiceDescriptionImpl();
@@ -435,6 +444,7 @@ public class EndpointInterfaceDescriptionImpl
                             //this operation. If it is, let it be created as its own opDesc.
                             if (!DescriptionUtils.isAsync(seiMethod)) {
                                 ((OperationDescriptionImpl) checkOpDesc).setSEIMethod(seiMethod);
+                                resetOperationIndex();
                                 addOpDesc = false;
                                 break;
                             }
@@ -465,24 +475,13 @@ public class EndpointInterfaceDescriptionImpl
             return null;
         }
 
-        ArrayList<OperationDescription> matchingOperations = new ArrayList<OperationDescription>();
-        for (OperationDescription operation : getOperations()) {
-            if (javaMethodName.equals(operation.getJavaMethodName())) {
-                matchingOperations.add(operation);
-            } else {
-                if (log.isDebugEnabled()) {
-                    log.debug("getOperationForJavaMethod() found no match for javaMethodName: " + javaMethodName + "  on operation: " + operation.getJavaMethodName());
-                }
-	    }	    
-        }
-
+        OperationDescription[] matchingOperations =
+                getOperationIndex().operationsByJavaMethodName.get(javaMethodName);
         if (log.isDebugEnabled()) {
-            log.debug("getOperationForJavaMethod() found match size: " + matchingOperations.size());
+            log.debug("getOperationForJavaMethod() found match size: " +
+                    (matchingOperations == null ? 0 : matchingOperations.length));
         }
-        if (matchingOperations.size() == 0)
-            return null;
-        else
-            return matchingOperations.toArray(new OperationDescription[0]);
+        return matchingOperations == null ? null : matchingOperations.clone();
     }
 
     /**
@@ -496,18 +495,34 @@ public class EndpointInterfaceDescriptionImpl
             return null;
         }
 
-        OperationDescription matchingOperation = null;
-        for (OperationDescription operation : getOperations()) {
-            if (operationName.equals(operation.getOperationName())) {
-                matchingOperation = operation;
-                break;
-            }
-        }
-        return matchingOperation;
+        return getOperationIndex().operationsByName.get(operationName);
     }
 
     public OperationDescription[] getOperations() {
-        return operationDescriptions.toArray(new OperationDescription[0]);
+        return getOperationIndex().operations.clone();
+    }
+
+    /**
+     * Discard the operation indexes.  This must be called when an operation in the list is
+     * modified in a way that changes its SEI method, name or Java method name.
+     */
+    private synchronized void resetOperationIndex() {
+        operationIndex = null;
+    }
+
+    private OperationIndex getOperationIndex() {
+        OperationIndex index = operationIndex;
+        if (index == null) {
+            synchronized (this) {
+                index = operationIndex;
+                if (index == null) {
+                    index = new OperationIndex(
+                            operationDescriptions.toArray(new OperationDescription[0]));
+                    operationIndex = index;
+                }
+            }
+        }
+        return index;
     }
 
     public EndpointDescriptionImpl getEndpointDescriptionImpl() {
@@ -528,20 +543,11 @@ public class EndpointInterfaceDescriptionImpl
     public OperationDescription[] getOperation(QName operationQName) {
         OperationDescription[] returnOperations = null;
         if (!DescriptionUtils.isEmpty(operationQName)) {
-            ArrayList<OperationDescription> matchingOperations =
-                    new ArrayList<OperationDescription>();
-            OperationDescription[] allOperations = getOperations();
-            for (OperationDescription operation : allOperations) {
-                if (operation.getName().getLocalPart().equals(operationQName.getLocalPart())) {
-                    matchingOperations.add(operation);
-                }
-            }
-            // Only return an array if there's anything in it
-            if (matchingOperations.size() > 0) {
-                returnOperations = matchingOperations.toArray(new OperationDescription[0]);
-            }
+            // Only the local part is compared
+            returnOperations =
+                    getOperationIndex().operationsByLocalName.get(operationQName.getLocalPart());
         }
-        return returnOperations;
+        return returnOperations == null ? null : returnOperations.clone();
     }
 
     /* (non-Javadoc)
@@ -631,17 +637,10 @@ public class EndpointInterfaceDescriptionImpl
      * @return
      */
     public OperationDescription getOperation(Method seiMethod) {
-        OperationDescription returnOperation = null;
-        if (seiMethod != null) {
-            OperationDescription[] allOperations = getOperations();
-            for (OperationDescription operation : allOperations) {
-                if (operation.getSEIMethod() != null && operation.getSEIMethod().equals(seiMethod))
-                {
-                    returnOperation = operation;
-                }
-            }
+        if (seiMethod == null) {
+            return null;
         }
-        return returnOperation;
+        return getOperationIndex().operationsBySEIMethod.get(seiMethod);
     }
 
     public Class getSEIClass() {
@@ -1022,4 +1021,66 @@ public class EndpointInterfaceDescriptionImpl
             }
         });
     }
+
+    /**
+     * Immutable lookup tables for a snapshot of the operation list.  Where several operations
+     * match a single key, the order of the operation list is preserved; for the single valued
+     * lookups, the SEI method maps to the last matching operation and the operation name to the
+     * first, as the previous linear searches did.
+     */
+    private static class OperationIndex {
+        final OperationDescription[] operations;
+        final Map<Method, OperationDescription> operationsBySEIMethod =
+                new HashMap<Method, OperationDescription>();
+        final Map<String, OperationDescription> operationsByName =
+                new HashMap<String, OperationDescription>();
+        final Map<String, OperationDescription[]> operationsByLocalName;
+        final Map<String, OperationDescription[]> operationsByJavaMethodName;
+
+        OperationIndex(OperationDescription[] operations) {
+            this.operations = operations;
+            Map<String, List<OperationDescription>> byLocalName =
+                    new HashMap<String, List<OperationDescription>>();
+            Map<String, List<OperationDescription>> byJavaMethodName =
+                    new HashMap<String, List<OperationDescription>>();
+            for (OperationDescription operation : operations) {
+                if (operation.getSEIMethod() != null) {
+                    operationsBySEIMethod.put(operation.getSEIMethod(), operation);
+                }
+                String operationName = operation.getOperationName();
+                if (operationName != null && !operationsByName.containsKey(operationName)) {
+                    operationsByName.put(operationName, operation);
+                }
+                if (operation.getName() != null) {
+                    add(byLocalName, operation.getName().getLocalPart(), operation);
+                }
+                if (operation.getJavaMethodName() != null) {
+                    add(byJavaMethodName, operation.getJavaMethodName(), operation);
+                }
+            }
+            operationsByLocalName = toArrays(byLocalName);
+            operationsByJavaMethodName = toArrays(byJavaMethodName);
+        }
+
+        private static void add(Map<String, List<OperationDescription>> map, String key,
+                                OperationDescription operation) {
+            List<OperationDescription> list = map.get(key);
+            if (list == null) {
+                list = new ArrayList<OperationDescription>();
+                map.put(key, list);
+            }
+            list.add(operation);
+        }
+
+        private static Map<String, OperationDescription[]> toArrays(
+                Map<String, List<OperationDescription>> map) {
+            Map<String, OperationDescription[]> result =
+                    new HashMap<String, OperationDescription[]>();
+            for (Map.Entry<String, List<OperationDescription>> entry : map.entrySet()) {
+                result.put(entry.getKey(),
+                        entry.getValue().toArray(new OperationDescription[0]));
+            }
+            return result;
+        }
+    }
 }
@@ -0,0 +1,169 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.axis2.jaxws.description.impl;
+
+import junit.framework.TestCase;
+import org.apache.axis2.jaxws.description.DescriptionFactory;
+import org.apache.axis2.jaxws.description.EndpointDescription;
+import org.apache.axis2.jaxws.description.EndpointInterfaceDescription;
+import org.apache.axis2.jaxws.description.OperationDescription;
+import org.apache.axis2.jaxws.description.ServiceDescription;
+
+import jakarta.jws.WebMethod;
+import jakarta.jws.WebService;
+import javax.xml.namespace.QName;
+import jakarta.xml.ws.AsyncHandler;
+import jakarta.xml.ws.Response;
+import jakarta.xml.ws.Service;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.Future;
+
+/**
+ * Verify the operation lookups of EndpointInterfaceDescriptionImpl, which are served from an
+ * index, when the operations are first created from WSDL and later updated with an SEI that
+ * contains overloaded Java methods and several methods for the same WSDL operation.
+ */
+public class OperationIndexTests extends TestCase {
+    private static final String NAMESPACE_URI =
+        "http://org.apache.axis2.jaxws.description.impl.ClientDBCSupportEndpointTests";
+
+    public void testLookupsBeforeAndAfterUpdateWithSEI() throws Exception {
+        QName serviceQName = new QName(NAMESPACE_URI, "svcLocalPart");
+        QName portQName = new QName(NAMESPACE_URI, "portLocalPart");
+        QName operationQName = new QName(NAMESPACE_URI, "echoMessage");
+        ServiceDescription svcDesc =
+            DescriptionFactory.createServiceDescription(ClientDBCSupportEndpointTests.getWsdlURL(),
+                                                        serviceQName, Service.class);
+
+        // The operations are first created from the WSDL, without any SEI methods
+        EndpointDescription epDesc =
+            DescriptionFactory.updateEndpoint(svcDesc, null, portQName,
+                                              DescriptionFactory.UpdateType.CREATE_DISPATCH);
+        EndpointInterfaceDescription eiDesc = epDesc.getEndpointInterfaceDescription();
+
+        Method echoMessage = OperationIndexSEI.class.getMethod("echoMessage", String.class);
+        Method echoMessageAsync =
+            OperationIndexSEI.class.getMethod("echoMessageAsync", String.class);
+        Method echoMessageAsyncHandler =
+            OperationIndexSEI.class.getMethod("echoMessageAsync", String.class, AsyncHandler.class);
+        Method overloaded = OperationIndexSEI.class.getMethod("overloaded", String.class);
+        Method overloadedInt =
+            OperationIndexSEI.class.getMethod("overloaded", String.class, int.class);
+
+        OperationDescription[] opDescs = eiDesc.getOperations();
+        assertEquals(1, opDescs.length);
+        OperationDescription wsdlOpDesc = opDescs[0];
+        assertNull(wsdlOpDesc.getSEIMethod());
+        OperationDescription[] byQName = eiDesc.getOperation(operationQName);
+        assertNotNull(byQName);
+        assertEquals(1, byQName.length);
+        assertSame(wsdlOpDesc, byQName[0]);
+        // Without an SEI method the operation has neither an operation name nor a Java method name
+        assertNull(eiDesc.getOperation("echoMessage"));
+        assertNull(eiDesc.getOperationForJavaMethod("echoMessage"));
+        assertNull(eiDesc.getOperation(echoMessage));
+
+        // Changing the returned arrays must not affect the index
+        opDescs[0] = null;
+        byQName[0] = null;
+        assertSame(wsdlOpDesc, eiDesc.getOperations()[0]);
+        assertSame(wsdlOpDesc, eiDesc.getOperation(operationQName)[0]);
+
+        // The SEI method is set on the existing operation and the other methods are added
+        DescriptionFactory.updateEndpoint(svcDesc, OperationIndexSEI.class, portQName,
+                                          DescriptionFactory.UpdateType.GET_PORT);
+        assertSame(eiDesc, epDesc.getEndpointInterfaceDescription());
+
+        opDescs = eiDesc.getOperations();
+        assertEquals(5, opDescs.length);
+        assertSame(wsdlOpDesc, opDescs[0]);
+        assertEquals(echoMessage, wsdlOpDesc.getSEIMethod());
+
+        // Lookups by SEI method
+        assertSame(wsdlOpDesc, eiDesc.getOperation(echoMessage));
+        OperationDescription asyncOpDesc = eiDesc.getOperation(echoMessageAsync);
+        OperationDescription asyncHandlerOpDesc = eiDesc.getOperation(echoMessageAsyncHandler);
+        OperationDescription overloadedOpDesc = eiDesc.getOperation(overloaded);
+        OperationDescription overloadedIntOpDesc = eiDesc.getOperation(overloadedInt);
+        Set<OperationDescription> distinct = new HashSet<OperationDescription>(Arrays.asList(
+                wsdlOpDesc, asyncOpDesc, asyncHandlerOpDesc, overloadedOpDesc,
+                overloadedIntOpDesc));
+        assertEquals(5, distinct.size());
+        assertFalse(distinct.contains(null));
+        assertEquals(distinct, new HashSet<OperationDescription>(Arrays.asList(opDescs)));
+        assertEquals(overloaded, overloadedOpDesc.getSEIMethod());
+        assertEquals(overloadedInt, overloadedIntOpDesc.getSEIMethod());
+
+        // Lookups by WSDL operation local name; the async methods share it with the sync method
+        byQName = eiDesc.getOperation(operationQName);
+        assertEquals(3, byQName.length);
+        assertEquals(new HashSet<OperationDescription>(Arrays.asList(
+                wsdlOpDesc, asyncOpDesc, asyncHandlerOpDesc)),
+                new HashSet<OperationDescription>(Arrays.asList(byQName)));
+
+        // Lookups by operation name return the first operation with that name
+        assertSame(wsdlOpDesc, eiDesc.getOperation("echoMessage"));
+        assertSame(overloadedOpDesc, eiDesc.getOperation("overloaded"));
+        assertSame(overloadedIntOpDesc, eiDesc.getOperation("overloaded2"));
+
+        // Lookups by Java method name return all the overloaded methods
+        OperationDescription[] byJavaMethod = eiDesc.getOperationForJavaMethod("echoMessage");
+        assertEquals(1, byJavaMethod.length);
+        assertSame(wsdlOpDesc, byJavaMethod[0]);
+        byJavaMethod = eiDesc.getOperationForJavaMethod("echoMessageAsync");
+        assertEquals(2, byJavaMethod.length);
+        assertEquals(new HashSet<OperationDescription>(Arrays.asList(
+                asyncOpDesc, asyncHandlerOpDesc)),
+                new HashSet<OperationDescription>(Arrays.asList(byJavaMethod)));
+        byJavaMethod = eiDesc.getOperationForJavaMethod("overloaded");
+        assertEquals(2, byJavaMethod.length);
+        assertEquals(new HashSet<OperationDescription>(Arrays.asList(
+                overloadedOpDesc, overloadedIntOpDesc)),
+                new HashSet<OperationDescription>(Arrays.asList(byJavaMethod)));
+        assertNull(eiDesc.getOperationForJavaMethod("overloaded2"));
+
+        // Changing the returned arrays must not affect the index
+        byJavaMethod[0] = null;
+        byJavaMethod[1] = null;
+        assertEquals(2, eiDesc.getOperationForJavaMethod("overloaded").length);
+        assertFalse(Arrays.asList(eiDesc.getOperationForJavaMethod("overloaded")).contains(null));
+
+        // Updating again with the same SEI doesn't change anything
+        DescriptionFactory.updateEndpoint(svcDesc, OperationIndexSEI.class, portQName,
+                                          DescriptionFactory.UpdateType.GET_PORT);
+        assertEquals(5, eiDesc.getOperations().length);
+        assertSame(overloadedIntOpDesc, eiDesc.getOperation(overloadedInt));
+    }
+}
+
+@WebService(targetNamespace = "http://org.apache.axis2.jaxws.description.impl.ClientDBCSupportEndpointTests")
+interface OperationIndexSEI {
+    public String echoMessage(String toEcho);
+    @WebMethod(operationName = "echoMessage")
+    public Response<String> echoMessageAsync(String toEcho);
+    @WebMethod(operationName = "echoMessage")
+    public Future<?> echoMessageAsync(String toEcho, AsyncHandler<String> asyncHandler);
+    public String overloaded(String value);
+    @WebMethod(operationName = "overloaded2")
+    public String overloaded(String value, int count);
+}
@@ -0,0 +1,81 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.axis2.validation;
+
+import java.util.List;
+
+import javax.xml.validation.Schema;
+import javax.xml.validation.Validator;
+
+import org.apache.ws.commons.schema.XmlSchema;
+
+/**
+ * Compiled form of the schemas of a service, together with the {@link XmlSchema} instances it was
+ * built from (so that changes to the service's schema list can be detected) and a per thread
+ * {@link Validator}. Validators are not thread safe, but they can be reused once they have been
+ * reset.
+ */
+final class CompiledSchema {
+    private final XmlSchema[] sources;
+    private final Schema schema;
+    private final ThreadLocal<Validator> validators = new ThreadLocal<Validator>();
+
+    CompiledSchema(XmlSchema[] sources, Schema schema) {
+        this.sources = sources;
+        this.schema = schema;
+    }
+
+    /**
+     * Check whether this compiled schema was built from exactly the given list of schemas.
+     *
+     * @param schemas the current schema list of the service
+     * @return <code>true</code> if the compiled schema is still up to date
+     */
+    boolean isUpToDate(List<XmlSchema> schemas) {
+        if (schemas.size() != sources.length) {
+            return false;
+        }
+        for (int i = 0; i < sources.length; i++) {
+            if (schemas.get(i) != sources[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    Schema getSchema() {
+        return schema;
+    }
+
+    /**
+     * Get a validator for the current thread. The validator is reset before being returned.
+     *
+     * @return a validator that may only be used by the calling thread
+     */
+    Validator getValidator() {
+        Validator validator = validators.get();
+        if (validator == null) {
+            validator = schema.newValidator();
+            validators.set(validator);
+        } else {
+            validator.reset();
+        }
+        return validator;
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.axis2.validation;
+
+import java.io.UnsupportedEncodingException;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import javax.xml.XMLConstants;
+import javax.xml.transform.Source;
+import javax.xml.transform.stream.StreamSource;
+import javax.xml.validation.Schema;
+import javax.xml.validation.SchemaFactory;
+
+import org.apache.axiom.blob.Blobs;
+import org.apache.axiom.blob.MemoryBlob;
+import org.apache.axiom.blob.MemoryBlobOutputStream;
+import org.apache.axis2.AxisFault;
+import org.apache.axis2.description.AxisService;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.ws.commons.schema.XmlSchema;
+import org.xml.sax.SAXException;
+
+/**
+ * Cache of compiled schemas, keyed by {@link AxisService}. Entries are weakly referenced so that
+ * they disappear together with the service when it is undeployed or redeployed. An entry is
+ * recompiled if the schema list of the service changes.
+ */
+final class SchemaCache {
+    private static final Log log = LogFactory.getLog(SchemaCache.class);
+
+    private static final Map<AxisService,CompiledSchema> cache =
+            new WeakHashMap<AxisService,CompiledSchema>();
+
+    private SchemaCache() {}
+
+    /**
+     * Get the compiled schema for the given service, compiling it if necessary.
+     *
+     * @param service the service
+     * @return the compiled schema, or <code>null</code> if the service has no schemas
+     * @throws AxisFault if the schemas of the service could not be compiled
+     */
+    static CompiledSchema getCompiledSchema(AxisService service) throws AxisFault {
+        List<XmlSchema> schemas = service.getSchema();
+        if (schemas.isEmpty()) {
+            return null;
+        }
+        CompiledSchema compiledSchema;
+        synchronized (cache) {
+            compiledSchema = cache.get(service);
+        }
+        if (compiledSchema != null && compiledSchema.isUpToDate(schemas)) {
+            return compiledSchema;
+        }
+        // Compile outside of the lock; if two threads race, the result is the same anyway.
+        compiledSchema = compile(schemas);
+        synchronized (cache) {
+            cache.put(service, compiledSchema);
+        }
+        return compiledSchema;
+    }
+
+    /**
+     * Remove the compiled schema for the given service from the cache.
+     *
+     * @param service the service
+     */
+    static void invalidate(AxisService service) {
+        synchronized (cache) {
+            cache.remove(service);
+        }
+    }
+
+    private static CompiledSchema compile(List<XmlSchema> schemas) throws AxisFault {
+        XmlSchema[] sources = schemas.toArray(new XmlSchema[schemas.size()]);
+        if (log.isDebugEnabled()) {
+            log.debug("Compiling " + sources.length + " schema(s)");
+        }
+        SchemaFactory schemaFactory = SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI);
+        schemaFactory.setErrorHandler(new SchemaFactoryErrorHandler());
+        Source[] schemaSources = new Source[sources.length];
+        for (int i = 0; i < sources.length; i++) {
+            MemoryBlob blob = Blobs.createMemoryBlob();
+            MemoryBlobOutputStream out = blob.getOutputStream();
+            try {
+                sources[i].write(out);
+            } catch (UnsupportedEncodingException ex) {
+                throw AxisFault.makeFault(ex);
+            }
+            out.close();
+            schemaSources[i] = new StreamSource(blob.getInputStream());
+        }
+        Schema schema;
+        try {
+            schema = schemaFactory.newSchema(schemaSources);
+        } catch (SAXException ex) {
+            throw new AxisFault("Failed to compile schemas", ex);
+        }
+        return new CompiledSchema(sources, schema);
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.axis2.validation;
+
+import java.util.Iterator;
+
+import org.apache.axis2.AxisFault;
+import org.apache.axis2.context.ConfigurationContext;
+import org.apache.axis2.description.AxisDescription;
+import org.apache.axis2.description.AxisModule;
+import org.apache.axis2.description.AxisService;
+import org.apache.axis2.description.AxisServiceGroup;
+import org.apache.axis2.engine.AxisConfiguration;
+import org.apache.axis2.modules.Module;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.neethi.Assertion;
+import org.apache.neethi.Policy;
+
+/**
+ * Module implementation for the schema validation module. When the module is engaged, the schemas
+ * of the affected services are compiled eagerly so that the first message doesn't pay for the
+ * compilation. Services deployed after the module has been engaged globally are compiled lazily by
+ * {@link SchemaValidationHandler}.
+ */
+public class SchemaValidationModule implements Module {
+    private static final Log log = LogFactory.getLog(SchemaValidationModule.class);
+
+    public void init(ConfigurationContext configContext, AxisModule module) throws AxisFault {
+    }
+
+    public void engageNotify(AxisDescription axisDescription) throws AxisFault {
+        if (axisDescription instanceof AxisService) {
+            precompile((AxisService)axisDescription);
+        } else if (axisDescription instanceof AxisServiceGroup) {
+            for (Iterator<AxisService> it = ((AxisServiceGroup)axisDescription).getServices(); it.hasNext(); ) {
+                precompile(it.next());
+            }
+        } else if (axisDescription instanceof AxisConfiguration) {
+            for (AxisService service : ((AxisConfiguration)axisDescription).getServices().values()) {
+                precompile(service);
+            }
+        }
+    }
+
+    private static void precompile(AxisService service) {
+        SchemaCache.invalidate(service);
+        if (SchemaValidationHandler.isValidationDisabled(service)) {
+            return;
+        }
+        try {
+            SchemaCache.getCompiledSchema(service);
+        } catch (AxisFault ex) {
+            // Don't refuse the engagement; the error will be reported when a message is processed.
+            log.warn("Failed to compile schemas for service " + service.getName(), ex);
+        }
+    }
+
+    public boolean canSupportAssertion(Assertion assertion) {
+        return true;
+    }
+
+    public void applyPolicy(Policy policy, AxisDescription axisDescription) throws AxisFault {
+    }
+
+    public void shutdown(ConfigurationContext configurationContext) throws AxisFault {
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.axis2.validation;
+
+import java.io.StringReader;
+
+import javax.xml.transform.stream.StreamSource;
+
+import org.apache.axis2.description.AxisService;
+import org.apache.ws.commons.schema.XmlSchema;
+import org.apache.ws.commons.schema.XmlSchemaCollection;
+import org.junit.Assert;
+import org.junit.Test;
+import org.xml.sax.SAXException;
+
+public class SchemaCacheTest {
+    static final String SCHEMA =
+            "<xs:schema xmlns:xs='http://www.w3.org/2001/XMLSchema'"
+            + " targetNamespace='urn:test' elementFormDefault='qualified'>"
+            + "<xs:element name='echo'><xs:complexType><xs:sequence>"
+            + "<xs:element name='value' type='xs:int'/>"
+            + "</xs:sequence></xs:complexType></xs:element>"
+            + "</xs:schema>";
+
+    static final String OTHER_SCHEMA =
+            "<xs:schema xmlns:xs='http://www.w3.org/2001/XMLSchema'"
+            + " targetNamespace='urn:other' elementFormDefault='qualified'>"
+            + "<xs:element name='ping' type='xs:string'/>"
+            + "</xs:schema>";
+
+    static XmlSchema readSchema(String schema) {
+        return new XmlSchemaCollection().read(new StreamSource(new StringReader(schema)));
+    }
+
+    static AxisService createService() {
+        AxisService service = new AxisService("TestService");
+        service.addSchema(readSchema(SCHEMA));
+        return service;
+    }
+
+    private static void validate(CompiledSchema compiledSchema, String document) throws Exception {
+        compiledSchema.getValidator().validate(new StreamSource(new StringReader(document)));
+    }
+
+    @Test
+    public void testNoSchemas() throws Exception {
+        Assert.assertNull(SchemaCache.getCompiledSchema(new AxisService("NoSchemas")));
+    }
+
+    @Test
+    public void testCacheHit() throws Exception {
+        AxisService service = createService();
+        CompiledSchema compiledSchema = SchemaCache.getCompiledSchema(service);
+        Assert.assertNotNull(compiledSchema);
+        Assert.assertSame(compiledSchema, SchemaCache.getCompiledSchema(service));
+        Assert.assertNotSame(compiledSchema, SchemaCache.getCompiledSchema(createService()));
+    }
+
+    @Test
+    public void testRecompileAfterInvalidate() throws Exception {
+        AxisService service = createService();
+        CompiledSchema compiledSchema = SchemaCache.getCompiledSchema(service);
+        SchemaCache.invalidate(service);
+        CompiledSchema recompiled = SchemaCache.getCompiledSchema(service);
+        Assert.assertNotSame(compiledSchema, recompiled);
+        Assert.assertSame(recompiled, SchemaCache.getCompiledSchema(service));
+    }
+
+    @Test
+    public void testRecompileAfterSchemaChange() throws Exception {
+        AxisService service = createService();
+        CompiledSchema compiledSchema = SchemaCache.getCompiledSchema(service);
+        service.addSchema(readSchema(OTHER_SCHEMA));
+        CompiledSchema recompiled = SchemaCache.getCompiledSchema(service);
+        Assert.assertNotSame(compiledSchema, recompiled);
+        // The new schema is taken into account
+        validate(recompiled, "<ping xmlns='urn:other'>hello</ping>");
+    }
+
+    @Test
+    public void testEngageRecompiles() throws Exception {
+        AxisService service = createService();
+        CompiledSchema compiledSchema = SchemaCache.getCompiledSchema(service);
+        new SchemaValidationModule().engageNotify(service);
+        Assert.assertNotSame(compiledSchema, SchemaCache.getCompiledSchema(service));
+    }
+
+    @Test
+    public void testInvalidDocumentRejected() throws Exception {
+        CompiledSchema compiledSchema = SchemaCache.getCompiledSchema(createService());
+        validate(compiledSchema, "<echo xmlns='urn:test'><value>42</value></echo>");
+        try {
+            validate(compiledSchema, "<echo xmlns='urn:test'><value>abc</value></echo>");
+            Assert.fail("Expected SAXException");
+        } catch (SAXException ex) {
+            // Expected
+        }
+        // The validator is reset and remains usable after a failure
+        validate(compiledSchema, "<echo xmlns='urn:test'><value>43</value></echo>");
+        try {
+            validate(compiledSchema, "<echo xmlns='urn:test'><unexpected/></echo>");
+            Assert.fail("Expected SAXException");
+        } catch (SAXException ex) {
+            // Expected
+        }
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.axis2.validation;
+
+import org.apache.axiom.om.OMAbstractFactory;
+import org.apache.axiom.om.util.AXIOMUtil;
+import org.apache.axiom.soap.SOAPEnvelope;
+import org.apache.axis2.AxisFault;
+import org.apache.axis2.context.MessageContext;
+import org.apache.axis2.description.AxisService;
+import org.apache.axis2.description.Parameter;
+import org.apache.axis2.engine.Handler.InvocationResponse;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SchemaValidationHandlerTest {
+    private static MessageContext createMessageContext(AxisService service, String body)
+            throws Exception {
+        SOAPEnvelope envelope = OMAbstractFactory.getSOAP11Factory().getDefaultEnvelope();
+        envelope.getBody().addChild(AXIOMUtil.stringToOM(body));
+        MessageContext msgContext = new MessageContext();
+        msgContext.setAxisService(service);
+        msgContext.setEnvelope(envelope);
+        return msgContext;
+    }
+
+    @Test
+    public void testValidMessage() throws Exception {
+        AxisService service = SchemaCacheTest.createService();
+        SchemaValidationHandler handler = new SchemaValidationHandler();
+        for (int i = 0; i < 2; i++) {
+            MessageContext msgContext = createMessageContext(service,
+                    "<echo xmlns='urn:test'><value>" + i + "</value></echo>");
+            Assert.assertSame(InvocationResponse.CONTINUE, handler.invoke(msgContext));
+            // The body is still available to the message receiver
+            Assert.assertEquals("echo",
+                    msgContext.getEnvelope().getBody().getFirstElement().getLocalName());
+        }
+    }
+
+    @Test
+    public void testInvalidMessage() throws Exception {
+        AxisService service = SchemaCacheTest.createService();
+        SchemaValidationHandler handler = new SchemaValidationHandler();
+        // Compile the schema with a valid message first, so that the cached schema is used
+        handler.invoke(createMessageContext(service, "<echo xmlns='urn:test'><value>1</value></echo>"));
+        try {
+            handler.invoke(createMessageContext(service,
+                    "<echo xmlns='urn:test'><value>abc</value></echo>"));
+            Assert.fail("Expected AxisFault");
+        } catch (AxisFault ex) {
+            // Expected
+        }
+    }
+
+    @Test
+    public void testValidationDisabled() throws Exception {
+        AxisService service = SchemaCacheTest.createService();
+        service.addParameter(new Parameter("disableSchemaValidation", "true"));
+        Assert.assertSame(InvocationResponse.CONTINUE, new SchemaValidationHandler().invoke(
+                createMessageContext(service, "<echo xmlns='urn:test'><value>abc</value></echo>")));
+    }
+}
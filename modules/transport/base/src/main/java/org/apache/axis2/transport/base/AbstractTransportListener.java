@@ -23,7 +23,10 @@ import org.apache.axis2.context.SessionContext;
 import org.apache.axis2.context.MessageContext;
 import org.apache.axis2.description.*;
 import org.apache.axis2.AxisFault;
+import org.apache.axis2.Constants;
+import org.apache.axis2.util.JavaUtils;
 import org.apache.axis2.util.MessageContextBuilder;
+import org.apache.axis2.util.threadpool.VirtualThreads;
 import org.apache.axis2.transport.base.threads.WorkerPool;
 import org.apache.axis2.transport.base.threads.WorkerPoolFactory;
 import org.apache.axis2.transport.base.tracker.AxisServiceFilter;
@@ -100,6 +103,10 @@ public abstract class AbstractTransportListener implements TransportListener {
             //this.workerPool = cfgCtx.getThreadPool(); not yet implemented
             throw new AxisFault("Unsupported thread pool for task execution - Axis2 thread pool");
         } else {
+            if (this.workerPool == null && useVirtualThreads()) {
+                this.workerPool = WorkerPoolFactory.getVirtualThreadWorkerPool(
+                        getTransportName() + "-Worker");
+            }
             if (this.workerPool == null) { // FIXME <-- workaround for AXIS2-4552
                 this.workerPool = WorkerPoolFactory.getWorkerPool(
                         config.getServerCoreThreads(),
@@ -139,6 +146,29 @@ public abstract class AbstractTransportListener implements TransportListener {
 
     }
 
+    /**
+     * Check whether the <code>useVirtualThreads</code> parameter is set on the transport receiver
+     * or, if it is not set there, in axis2.xml.
+     *
+     * @return <code>true</code> if virtual threads should be used and are supported
+     */
+    private boolean useVirtualThreads() {
+        Parameter param = transportIn.getParameter(Constants.Configuration.USE_VIRTUAL_THREADS);
+        if (param == null) {
+            param = cfgCtx.getAxisConfiguration().getParameter(
+                    Constants.Configuration.USE_VIRTUAL_THREADS);
+        }
+        if (param == null || !JavaUtils.isTrueExplicitly(param.getValue())) {
+            return false;
+        }
+        if (!VirtualThreads.isSupported()) {
+            log.warn(Constants.Configuration.USE_VIRTUAL_THREADS + " is set, but virtual threads "
+                    + "are not supported by this Java version; using the default worker pool");
+            return false;
+        }
+        return true;
+    }
+
     public void destroy() {
         try {
             if (state == BaseConstants.STARTED) {
@@ -236,8 +266,18 @@ public abstract class AbstractTransportListener implements TransportListener {
             disableTransportForService(service);
             return;
         }
-        registerMBean(new TransportListenerEndpointView(this, serviceName),
-                      getEndpointMBeanName(serviceName));
+        registerMBean(createEndpointView(serviceName), getEndpointMBeanName(serviceName));
+    }
+
+    /**
+     * Create the MBean that is registered for each service exposed over this transport.
+     * Transports that provide additional per service statistics may override this method.
+     *
+     * @param serviceName the name of the service
+     * @return the MBean instance
+     */
+    protected TransportListenerEndpointView createEndpointView(String serviceName) {
+        return new TransportListenerEndpointView(this, serviceName);
     }
 
     void internalStopListeningForService(AxisService service) {
@@ -308,6 +348,8 @@ public abstract class AbstractTransportListener implements TransportListener {
         msgCtx.setProperty(MessageContext.TRANSPORT_HEADERS, trpHeaders);
 
         // send the message context through the axis engine
+        boolean timed = metrics != null && metrics.isTimingEnabled();
+        long start = timed ? System.nanoTime() : 0;
         try {
             // check if an Axis2 callback has been registered for this message
             Map callBackMap = (Map) msgCtx.getConfigurationContext().
@@ -335,6 +377,10 @@ public abstract class AbstractTransportListener implements TransportListener {
             if (msgCtx.isServerSide()) {
                 AxisEngine.sendFault(MessageContextBuilder.createFaultMessageContext(msgCtx, e));
             }
+        } finally {
+            if (timed) {
+                metrics.notifyProcessingTime(msgCtx, System.nanoTime() - start);
+            }
         }
     }
 
@@ -506,6 +552,34 @@ public abstract class AbstractTransportListener implements TransportListener {
         return null;
     }
 
+    public Map getReceivedSizePercentiles() {
+        if (metrics != null) {
+            return metrics.getReceivedSizeHistogram().getSnapshot();
+        }
+        return null;
+    }
+
+    public Map getSentSizePercentiles() {
+        if (metrics != null) {
+            return metrics.getSentSizeHistogram().getSnapshot();
+        }
+        return null;
+    }
+
+    public Map getProcessingTimePercentiles() {
+        if (metrics != null) {
+            return metrics.getProcessingTimeHistogram().getSnapshot();
+        }
+        return null;
+    }
+
+    public Map getOperationStatistics() {
+        if (metrics != null) {
+            return metrics.getOperationStatistics();
+        }
+        return null;
+    }
+
     public void resetStatistics() {
         if (metrics != null) {
             metrics.reset();
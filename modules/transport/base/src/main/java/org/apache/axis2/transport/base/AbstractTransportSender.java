@@ -104,25 +104,42 @@ public abstract class AbstractTransportSender extends AbstractHandler implements
             Constants.Configuration.TRANSPORT_URL);
 
         if (targetAddress != null) {
-            sendMessage(msgContext, targetAddress, null);
+            sendMessageTimed(msgContext, targetAddress, null);
         } else if (msgContext.getTo() != null && !msgContext.getTo().hasAnonymousAddress()) {
             targetAddress = msgContext.getTo().getAddress();
 
             if (!msgContext.getTo().hasNoneAddress()) {
-                sendMessage(msgContext, targetAddress, null);
+                sendMessageTimed(msgContext, targetAddress, null);
             } else {
                 //Don't send the message.
                 return InvocationResponse.CONTINUE;
             }
         } else if (msgContext.isServerSide()) {
             // get the out transport info for server side when target EPR is unknown
-            sendMessage(msgContext, null,
+            sendMessageTimed(msgContext, null,
                 (OutTransportInfo) msgContext.getProperty(Constants.OUT_TRANSPORT_INFO));
         }
 
         return InvocationResponse.CONTINUE;
     }
 
+    /**
+     * Send a message, recording the time spent in the processing time metrics.
+     */
+    private void sendMessageTimed(MessageContext msgContext, String targetEPR,
+        OutTransportInfo outTransportInfo) throws AxisFault {
+        if (metrics == null || !metrics.isTimingEnabled()) {
+            sendMessage(msgContext, targetEPR, outTransportInfo);
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            sendMessage(msgContext, targetEPR, outTransportInfo);
+        } finally {
+            metrics.notifyProcessingTime(msgContext, System.nanoTime() - start);
+        }
+    }
+
     /**
      * Process a new incoming message (Response) through the axis engine
      * @param msgCtx the axis MessageContext
@@ -378,6 +395,34 @@ public abstract class AbstractTransportSender extends AbstractHandler implements
         return null;
     }
 
+    public Map getReceivedSizePercentiles() {
+        if (metrics != null) {
+            return metrics.getReceivedSizeHistogram().getSnapshot();
+        }
+        return null;
+    }
+
+    public Map getSentSizePercentiles() {
+        if (metrics != null) {
+            return metrics.getSentSizeHistogram().getSnapshot();
+        }
+        return null;
+    }
+
+    public Map getProcessingTimePercentiles() {
+        if (metrics != null) {
+            return metrics.getProcessingTimeHistogram().getSnapshot();
+        }
+        return null;
+    }
+
+    public Map getOperationStatistics() {
+        if (metrics != null) {
+            return metrics.getOperationStatistics();
+        }
+        return null;
+    }
+
     public void resetStatistics() {
         if (metrics != null) {
             metrics.reset();
@@ -43,6 +43,10 @@ public interface ManagementSupport {
     public long getMaxSizeSent();
     public double getAvgSizeSent();
     public Map getResponseCodeTable();
+    public Map getReceivedSizePercentiles();
+    public Map getSentSizePercentiles();
+    public Map getProcessingTimePercentiles();
+    public Map getOperationStatistics();
 
     public void resetStatistics();
     public long getLastResetTime();
@@ -19,63 +19,87 @@
 
 package org.apache.axis2.transport.base;
 import org.apache.axis2.context.MessageContext;
+import org.apache.axis2.description.AxisOperation;
+import org.apache.axis2.description.AxisService;
+import org.apache.axis2.util.Histogram;
 
 import java.util.Map;
-import java.util.Collections;
 import java.util.HashMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
- * Collects metrics related to a transport that has metrics support enabled
+ * Collects metrics related to a transport that has metrics support enabled.
+ * <p>
+ * All counters are {@link LongAdder}s and message sizes and processing times are recorded in
+ * lock free {@link Histogram}s, so that threads processing messages concurrently don't contend
+ * on a common monitor. With {@link #LEVEL_NONE}, nothing is recorded at all.
  */
 public class MetricsCollector {
 
     public static final int LEVEL_NONE = 0;
     public static final int LEVEL_TRANSPORT = 1;
     public static final int LEVEL_FULL = 2;
-    private static final Long ONE = (long) 1;
 
     /** By default, full metrics collection is enabled */
-    private int level = LEVEL_FULL;
+    private volatile int level = LEVEL_FULL;
 
-    private long messagesReceived;
-    private long faultsReceiving;
-    private long timeoutsReceiving;
-    private long bytesReceived;
-    private long minSizeReceived;
-    private long maxSizeReceived;
-    private double avgSizeReceived;
+    private final LongAdder messagesReceived = new LongAdder();
+    private final LongAdder faultsReceiving = new LongAdder();
+    private final LongAdder timeoutsReceiving = new LongAdder();
+    private final LongAdder bytesReceived = new LongAdder();
+    private final Histogram sizeReceived = new Histogram();
 
-    private long messagesSent;
-    private long faultsSending;
-    private long timeoutsSending;
-    private long bytesSent;
-    private long minSizeSent;
-    private long maxSizeSent;
-    private double avgSizeSent;
+    private final LongAdder messagesSent = new LongAdder();
+    private final LongAdder faultsSending = new LongAdder();
+    private final LongAdder timeoutsSending = new LongAdder();
+    private final LongAdder bytesSent = new LongAdder();
+    private final Histogram sizeSent = new Histogram();
 
-    private final Map<Integer, Long> responseCodeTable =
-        Collections.synchronizedMap(new HashMap<Integer, Long>());
+    /** Processing times in microseconds */
+    private final Histogram processingTime = new Histogram();
 
-    private long lastResetTime = System.currentTimeMillis();
+    private final ConcurrentMap<Integer, LongAdder> responseCodeTable =
+        new ConcurrentHashMap<Integer, LongAdder>();
 
-    public void reset() {
-        messagesReceived  = 0;
-        faultsReceiving   = 0;
-        timeoutsReceiving = 0;
-        bytesReceived     = 0;
-        minSizeReceived   = 0;
-        maxSizeReceived   = 0;
-        avgSizeReceived   = 0;
-
-        messagesSent      = 0;
-        faultsSending     = 0;
-        timeoutsSending   = 0;
-        bytesSent         = 0;
-        minSizeSent       = 0;
-        maxSizeSent       = 0;
-        avgSizeSent       = 0;
+    /** Per operation metrics, keyed by service and operation name; only for {@link #LEVEL_FULL} */
+    private final ConcurrentMap<String, OperationMetrics> operationMetrics =
+        new ConcurrentHashMap<String, OperationMetrics>();
+
+    private volatile long lastResetTime = System.currentTimeMillis();
+
+    /**
+     * Metrics collected for a single operation.
+     */
+    private static class OperationMetrics {
+        final LongAdder faults = new LongAdder();
+        final Histogram processingTime = new Histogram();
+
+        Map<String, Long> getSnapshot() {
+            Map<String, Long> snapshot = processingTime.getSnapshot();
+            snapshot.put("faults", faults.sum());
+            return snapshot;
+        }
+    }
 
+    public void reset() {
+        messagesReceived.reset();
+        faultsReceiving.reset();
+        timeoutsReceiving.reset();
+        bytesReceived.reset();
+        sizeReceived.reset();
+
+        messagesSent.reset();
+        faultsSending.reset();
+        timeoutsSending.reset();
+        bytesSent.reset();
+        sizeSent.reset();
+
+        processingTime.reset();
         responseCodeTable.clear();
+        operationMetrics.clear();
         lastResetTime = System.currentTimeMillis();
     }
 
@@ -92,19 +116,19 @@ public class MetricsCollector {
     }
 
     public long getMessagesReceived() {
-        return messagesReceived;
+        return messagesReceived.sum();
     }
 
     public long getFaultsReceiving() {
-        return faultsReceiving;
+        return faultsReceiving.sum();
     }
 
     public long getTimeoutsReceiving() {
-        return timeoutsReceiving;
+        return timeoutsReceiving.sum();
     }
 
     public long getBytesReceived() {
-        return bytesReceived;
+        return bytesReceived.sum();
     }
 
     /**
@@ -114,110 +138,221 @@ public class MetricsCollector {
      * @return the number of messages sent
      */
     public long getMessagesSent() {
-        return messagesSent;
+        return messagesSent.sum();
     }
 
     public long getFaultsSending() {
-        return faultsSending;
+        return faultsSending.sum();
     }
 
     public long getTimeoutsSending() {
-        return timeoutsSending;
+        return timeoutsSending.sum();
     }
 
     public long getBytesSent() {
-        return bytesSent;
+        return bytesSent.sum();
     }
 
     public long getMinSizeReceived() {
-        return minSizeReceived;
+        return sizeReceived.getMin();
     }
 
     public long getMaxSizeReceived() {
-        return maxSizeReceived;
+        return sizeReceived.getMax();
     }
 
     public long getMinSizeSent() {
-        return minSizeSent;
+        return sizeSent.getMin();
     }
 
     public long getMaxSizeSent() {
-        return maxSizeSent;
+        return sizeSent.getMax();
     }
 
     public double getAvgSizeReceived() {
-        return avgSizeReceived;
+        return sizeReceived.getMean();
     }
 
     public double getAvgSizeSent() {
-        return avgSizeSent;
+        return sizeSent.getMean();
+    }
+
+    /**
+     * @return the distribution of the sizes of the received messages
+     */
+    public Histogram getReceivedSizeHistogram() {
+        return sizeReceived;
+    }
+
+    /**
+     * @return the distribution of the sizes of the sent messages
+     */
+    public Histogram getSentSizeHistogram() {
+        return sizeSent;
     }
 
+    /**
+     * Get the distribution of processing times, in microseconds. For a transport listener this
+     * is the time spent processing incoming messages in the Axis engine; for a transport sender
+     * it is the time spent sending messages (including waiting for synchronous responses).
+     *
+     * @return the distribution of processing times
+     */
+    public Histogram getProcessingTimeHistogram() {
+        return processingTime;
+    }
+
+    /**
+     * Get a snapshot of the response codes reported so far.
+     *
+     * @return a map with the number of occurrences of each response code
+     */
     public Map<Integer, Long> getResponseCodeTable() {
-        return responseCodeTable;
+        Map<Integer, Long> table = new HashMap<Integer, Long>();
+        for (Map.Entry<Integer, LongAdder> entry : responseCodeTable.entrySet()) {
+            table.put(entry.getKey(), entry.getValue().sum());
+        }
+        return table;
+    }
+
+    /**
+     * Get the processing time distribution (in microseconds) and the number of faults for each
+     * operation. Only collected with {@link #LEVEL_FULL}.
+     *
+     * @return a map from "service/operation" to a summary as returned by
+     *         {@link Histogram#getSnapshot()} with an additional <tt>faults</tt> entry
+     */
+    public Map<String, Map<String, Long>> getOperationStatistics() {
+        Map<String, Map<String, Long>> statistics = new TreeMap<String, Map<String, Long>>();
+        for (Map.Entry<String, OperationMetrics> entry : operationMetrics.entrySet()) {
+            statistics.put(entry.getKey(), entry.getValue().getSnapshot());
+        }
+        return statistics;
     }
 
-    public synchronized void incrementMessagesReceived() {
-        messagesReceived++;
+    public void incrementMessagesReceived() {
+        if (level != LEVEL_NONE) {
+            messagesReceived.increment();
+        }
     }
 
-    public synchronized void incrementFaultsReceiving() {
-        faultsReceiving++;
+    public void incrementFaultsReceiving() {
+        if (level != LEVEL_NONE) {
+            faultsReceiving.increment();
+        }
     }
 
-    public synchronized void incrementTimeoutsReceiving() {
-        timeoutsReceiving++;
+    public void incrementTimeoutsReceiving() {
+        if (level != LEVEL_NONE) {
+            timeoutsReceiving.increment();
+        }
     }
 
-    public synchronized void incrementBytesReceived(long size) {
-        bytesReceived += size;
+    public void incrementBytesReceived(long size) {
+        if (level != LEVEL_NONE) {
+            bytesReceived.add(size);
+        }
     }
 
-    public synchronized void incrementMessagesSent() {
-        messagesSent++;
+    public void incrementMessagesSent() {
+        if (level != LEVEL_NONE) {
+            messagesSent.increment();
+        }
     }
 
-    public synchronized void incrementFaultsSending() {
-        faultsSending++;
+    public void incrementFaultsSending() {
+        if (level != LEVEL_NONE) {
+            faultsSending.increment();
+        }
     }
 
-    public synchronized void incrementTimeoutsSending() {
-        timeoutsSending++;
+    public void incrementTimeoutsSending() {
+        if (level != LEVEL_NONE) {
+            timeoutsSending.increment();
+        }
     }
 
-    public synchronized void incrementBytesSent(long size) {
-        bytesSent += size;
+    public void incrementBytesSent(long size) {
+        if (level != LEVEL_NONE) {
+            bytesSent.add(size);
+        }
     }
     
-    public synchronized void notifyReceivedMessageSize(long size) {
-        if (minSizeReceived == 0 || size < minSizeReceived) {
-            minSizeReceived = size;
+    public void notifyReceivedMessageSize(long size) {
+        if (level != LEVEL_NONE) {
+            sizeReceived.record(size);
         }
-        if (size > maxSizeReceived) {
-            maxSizeReceived = size;
+    }
+
+    public void notifySentMessageSize(long size) {
+        if (level != LEVEL_NONE) {
+            sizeSent.record(size);
         }
-        avgSizeReceived = (avgSizeReceived == 0 ? size : (avgSizeReceived + size) / 2);
     }
 
-    public synchronized void notifySentMessageSize(long size) {
-        if (minSizeSent == 0 || size < minSizeSent) {
-            minSizeSent = size;
+    public void reportResponseCode(int respCode) {
+        if (level == LEVEL_NONE) {
+            return;
         }
-        if (size > maxSizeSent) {
-            maxSizeSent = size;
+        LongAdder counter = responseCodeTable.get(respCode);
+        if (counter == null) {
+            counter = new LongAdder();
+            LongAdder existing = responseCodeTable.putIfAbsent(respCode, counter);
+            if (existing != null) {
+                counter = existing;
+            }
         }
-        avgSizeSent = (avgSizeSent == 0 ? size : (avgSizeSent + size) / 2);
+        counter.increment();
     }
 
-    public void reportResponseCode(int respCode) {
-        synchronized(responseCodeTable) {
-            Object o = responseCodeTable.get(respCode);
-            if (o == null) {
-                responseCodeTable.put(respCode, ONE);
-            } else {
-                responseCodeTable.put(respCode, (Long) o + 1);
+    /**
+     * Check whether processing times should be measured, so that callers can avoid calling
+     * {@link System#nanoTime()} when metrics collection is disabled.
+     *
+     * @return <code>true</code> if processing times are recorded
+     */
+    public boolean isTimingEnabled() {
+        return level != LEVEL_NONE;
+    }
+
+    /**
+     * Record the time it took to process a message.
+     *
+     * @param mc the message context, used to determine the operation, or <code>null</code>
+     * @param nanos the processing time in nanoseconds
+     */
+    public void notifyProcessingTime(MessageContext mc, long nanos) {
+        if (level == LEVEL_NONE) {
+            return;
+        }
+        long micros = nanos / 1000;
+        processingTime.record(micros);
+        OperationMetrics m = getOperationMetrics(mc);
+        if (m != null) {
+            m.processingTime.record(micros);
+        }
+    }
+
+    private OperationMetrics getOperationMetrics(MessageContext mc) {
+        if (mc == null || level != LEVEL_FULL) {
+            return null;
+        }
+        AxisOperation operation = mc.getAxisOperation();
+        if (operation == null || operation.getName() == null) {
+            return null;
+        }
+        AxisService service = operation.getAxisService();
+        String key = service == null ? operation.getName().getLocalPart()
+                : service.getName() + "/" + operation.getName().getLocalPart();
+        OperationMetrics m = operationMetrics.get(key);
+        if (m == null) {
+            m = new OperationMetrics();
+            OperationMetrics existing = operationMetrics.putIfAbsent(key, m);
+            if (existing != null) {
+                m = existing;
             }
         }
+        return m;
     }
 
     // --- enhanced methods ---
@@ -242,6 +377,10 @@ public class MetricsCollector {
         if (m != null) {
             m.incrementFaultsReceiving(errorCode);
         }
+        OperationMetrics o = getOperationMetrics(mc);
+        if (o != null) {
+            o.faults.increment();
+        }
     }
 
     public void incrementTimeoutsReceiving(MessageContext mc) {
@@ -274,6 +413,10 @@ public class MetricsCollector {
         if (m != null) {
             m.incrementFaultsSending(errorCode);
         }
+        OperationMetrics o = getOperationMetrics(mc);
+        if (o != null) {
+            o.faults.increment();
+        }
     }
 
     public void incrementTimeoutsSending(MessageContext mc) {
@@ -153,6 +153,34 @@ public class TransportView implements TransportViewMBean {
         return null;
     }    
 
+    public Map getReceivedSizePercentiles() {
+        if (managementSupport != null) {
+            return managementSupport.getReceivedSizePercentiles();
+        }
+        return null;
+    }
+
+    public Map getSentSizePercentiles() {
+        if (managementSupport != null) {
+            return managementSupport.getSentSizePercentiles();
+        }
+        return null;
+    }
+
+    public Map getProcessingTimePercentiles() {
+        if (managementSupport != null) {
+            return managementSupport.getProcessingTimePercentiles();
+        }
+        return null;
+    }
+
+    public Map getOperationStatistics() {
+        if (managementSupport != null) {
+            return managementSupport.getOperationStatistics();
+        }
+        return null;
+    }
+
     public int getActiveThreadCount() {
         if (managementSupport != null) {
             return managementSupport.getActiveThreadCount();
@@ -40,6 +40,10 @@ public interface TransportViewMBean {
     public int  getActiveThreadCount();
     public int getQueueSize();
     public Map getResponseCodeTable();
+    public Map getReceivedSizePercentiles();
+    public Map getSentSizePercentiles();
+    public Map getProcessingTimePercentiles();
+    public Map getOperationStatistics();
 
     // JMX Operations
     public void start() throws Exception;
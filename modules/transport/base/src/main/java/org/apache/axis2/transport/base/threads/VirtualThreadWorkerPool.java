@@ -0,0 +1,76 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *   * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.apache.axis2.transport.base.threads;
+
+import org.apache.axis2.util.threadpool.VirtualThreads;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Worker pool that executes each task in a new virtual thread. There is no queue: tasks start
+ * immediately, so a large number of tasks blocked on slow backends doesn't prevent other tasks
+ * from running. Requires Java 21 or later.
+ */
+public class VirtualThreadWorkerPool implements WorkerPool {
+
+    static final Log log = LogFactory.getLog(VirtualThreadWorkerPool.class);
+
+    private final ExecutorService executor;
+    private final AtomicInteger activeCount = new AtomicInteger();
+
+    public VirtualThreadWorkerPool(String threadGroupId) {
+        if (log.isDebugEnabled()) {
+            log.debug("Using virtual threads for " + threadGroupId);
+        }
+        executor = VirtualThreads.newExecutor(threadGroupId + "-");
+    }
+
+    public void execute(final Runnable task) {
+        executor.execute(new Runnable() {
+            public void run() {
+                activeCount.incrementAndGet();
+                try {
+                    task.run();
+                } catch (Throwable t) {
+                    log.error("Uncaught exception", t);
+                } finally {
+                    activeCount.decrementAndGet();
+                }
+            }
+        });
+    }
+
+    public int getActiveCount() {
+        return activeCount.get();
+    }
+
+    public int getQueueSize() {
+        return 0;
+    }
+
+    public void shutdown(int timeout) throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(timeout, TimeUnit.MILLISECONDS);
+    }
+}
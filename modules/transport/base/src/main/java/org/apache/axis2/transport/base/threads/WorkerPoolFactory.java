@@ -50,4 +50,15 @@ public class WorkerPoolFactory {
                 queueLength, threadGroupName,
                 threadGroupId, queue);
     }
+
+    /**
+     * Create a worker pool that runs each task in a new virtual thread.
+     *
+     * @param threadGroupId the prefix of the thread names
+     * @return the worker pool
+     * @throws UnsupportedOperationException if the Java runtime doesn't support virtual threads
+     */
+    public static WorkerPool getVirtualThreadWorkerPool(String threadGroupId) {
+        return new VirtualThreadWorkerPool(threadGroupId);
+    }
 }
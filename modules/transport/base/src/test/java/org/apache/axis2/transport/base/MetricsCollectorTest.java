@@ -0,0 +1,107 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *   * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.apache.axis2.transport.base;
+
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+
+import javax.xml.namespace.QName;
+
+import junit.framework.TestCase;
+
+import org.apache.axis2.context.MessageContext;
+import org.apache.axis2.description.AxisOperation;
+import org.apache.axis2.description.AxisService;
+import org.apache.axis2.description.InOutAxisOperation;
+
+public class MetricsCollectorTest extends TestCase {
+
+    private static final int THREADS = 32;
+    private static final int ITERATIONS = 100000;
+
+    public void testLevelNone() {
+        MetricsCollector metrics = new MetricsCollector();
+        metrics.setLevel(MetricsCollector.LEVEL_NONE);
+        metrics.incrementMessagesReceived();
+        metrics.notifyReceivedMessageSize(100);
+        metrics.reportResponseCode(200);
+        assertFalse(metrics.isTimingEnabled());
+        assertEquals(0, metrics.getMessagesReceived());
+        assertEquals(0, metrics.getMaxSizeReceived());
+        assertTrue(metrics.getResponseCodeTable().isEmpty());
+    }
+
+    public void testOperationStatistics() throws Exception {
+        AxisService service = new AxisService("TestService");
+        AxisOperation operation = new InOutAxisOperation(new QName("echo"));
+        service.addOperation(operation);
+        MessageContext mc = new MessageContext();
+        mc.setAxisOperation(operation);
+
+        MetricsCollector metrics = new MetricsCollector();
+        metrics.notifyProcessingTime(mc, 2000000);
+        metrics.incrementFaultsReceiving(500, mc);
+        Map<String, Long> statistics = metrics.getOperationStatistics().get("TestService/echo");
+        assertEquals(Long.valueOf(1), statistics.get("count"));
+        assertEquals(Long.valueOf(2000), statistics.get("max"));
+        assertEquals(Long.valueOf(1), statistics.get("faults"));
+        assertEquals(1, metrics.getFaultsReceiving());
+    }
+
+    /**
+     * Updates the collector from many threads at once; none of the updates may be lost.
+     */
+    public void testContention() throws Exception {
+        final MetricsCollector metrics = new MetricsCollector();
+        final CountDownLatch start = new CountDownLatch(1);
+        Thread[] threads = new Thread[THREADS];
+        for (int i = 0; i < THREADS; i++) {
+            final int size = i + 1;
+            threads[i] = new Thread() {
+                public void run() {
+                    try {
+                        start.await();
+                    } catch (InterruptedException ex) {
+                        return;
+                    }
+                    for (int j = 0; j < ITERATIONS; j++) {
+                        metrics.incrementMessagesReceived();
+                        metrics.incrementBytesReceived(size);
+                        metrics.notifyReceivedMessageSize(size);
+                        metrics.reportResponseCode(200);
+                    }
+                }
+            };
+            threads[i].start();
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        long messages = (long) THREADS * ITERATIONS;
+        assertEquals(messages, metrics.getMessagesReceived());
+        assertEquals((long) THREADS * (THREADS + 1) / 2 * ITERATIONS, metrics.getBytesReceived());
+        assertEquals(1, metrics.getMinSizeReceived());
+        assertEquals(THREADS, metrics.getMaxSizeReceived());
+        assertEquals(messages, metrics.getReceivedSizeHistogram().getCount());
+        assertEquals(Long.valueOf(messages), metrics.getResponseCodeTable().get(200));
+    }
+}
@@ -31,6 +31,7 @@ import org.apache.axis2.description.TransportOutDescription;
 import org.apache.axis2.handlers.AbstractHandler;
 import org.apache.axis2.kernel.http.HTTPConstants;
 import org.apache.axis2.kernel.MessageFormatter;
+import org.apache.axis2.kernel.NonBlockingTransportSender;
 import org.apache.axis2.kernel.OutTransportInfo;
 import org.apache.axis2.kernel.TransportUtils;
 import org.apache.axis2.transport.http.server.AxisHttpResponse;
@@ -51,7 +52,7 @@ import java.util.Map;
 import java.util.zip.GZIPOutputStream;
 
 /**
- * Base class for Apache HttpClient (3.1 or 4.x) based transport senders.
+ * Base class for Apache HttpClient (4.x or 5.x) based transport senders.
  */
 public abstract class AbstractHTTPTransportSender extends AbstractHandler implements HTTPTransportSender {
     /**
@@ -142,6 +143,10 @@ public abstract class AbstractHTTPTransportSender extends AbstractHandler implem
 
     public InvocationResponse invoke(MessageContext msgContext)
             throws AxisFault {
+        // Only set by the client if this is a NonBlockingTransportSender
+        NonBlockingTransportSender.ResponseListener listener =
+                (NonBlockingTransportSender.ResponseListener)msgContext.getProperty(
+                        NonBlockingTransportSender.RESPONSE_LISTENER);
         try {
             OMOutputFormat format = new OMOutputFormat();
             // if (!msgContext.isDoingMTOM())
@@ -211,7 +216,9 @@ public abstract class AbstractHTTPTransportSender extends AbstractHandler implem
 
             if (epr != null) {
                 if (!epr.hasNoneAddress()) {
-                    writeMessageWithCommons(msgContext, epr, format);
+                    writeMessageWithCommons(msgContext, epr, format, listener);
+                    // The sender notifies the listener
+                    listener = null;
                 }else{
                 	if(msgContext.isFault()){
                 		if(log.isDebugEnabled()){
@@ -235,6 +242,10 @@ public abstract class AbstractHTTPTransportSender extends AbstractHandler implem
             log.debug(e);
             throw AxisFault.makeFault(e);
         }
+        if (listener != null) {
+            // Nothing was sent, so there is nothing to wait for
+            listener.responseReceived(msgContext);
+        }
         return InvocationResponse.CONTINUE;
     }
 
@@ -351,7 +362,8 @@ public abstract class AbstractHTTPTransportSender extends AbstractHandler implem
     }
 
     private void writeMessageWithCommons(MessageContext messageContext,
-                                         EndpointReference toEPR, OMOutputFormat format)
+                                         EndpointReference toEPR, OMOutputFormat format,
+                                         NonBlockingTransportSender.ResponseListener listener)
             throws AxisFault {
         try {
             URL url = new URL(toEPR.getAddress());
@@ -383,7 +395,12 @@ public abstract class AbstractHTTPTransportSender extends AbstractHandler implem
             sender.setHttpVersion(httpVersion);
             sender.setFormat(format);
 
-            sender.send(messageContext, url, findSOAPAction(messageContext));
+            if (listener == null) {
+                sender.send(messageContext, url, findSOAPAction(messageContext));
+            } else {
+                sender.sendNonBlocking(messageContext, url, findSOAPAction(messageContext),
+                        listener);
+            }
         } catch (MalformedURLException e) {
             log.debug(e);
             throw AxisFault.makeFault(e);
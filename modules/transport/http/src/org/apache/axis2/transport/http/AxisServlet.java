@@ -43,6 +43,7 @@ import org.apache.axis2.engine.AxisConfiguration;
 import org.apache.axis2.engine.AxisEngine;
 import org.apache.axis2.engine.Handler.InvocationResponse;
 import org.apache.axis2.engine.ListenerManager;
+import org.apache.axis2.engine.PhaseMetrics;
 
 import org.apache.axis2.kernel.http.HTTPConstants;
 import org.apache.axis2.kernel.RequestResponseTransport;
@@ -108,6 +109,7 @@ public class AxisServlet extends HttpServlet {
     protected boolean enableJSONOnly = false;
     private static final String LIST_SERVICES_SUFFIX = "/services/listServices";
     private static final String LIST_FAULTY_SERVICES_SUFFIX = "/services/ListFaultyServices";
+    private static final String PHASE_METRICS_SUFFIX = "/services/phaseMetrics";
     private boolean closeReader = true;
 
     private static final int BUFFER_SIZE = 1024 * 8;
@@ -279,7 +281,8 @@ public class AxisServlet extends HttpServlet {
         // There can be three different request coming to this.
         // 1. wsdl, wsdl2 and xsd requests
         // 2. list services requests
-        // 3. REST requests.
+        // 3. phase metrics requests
+        // 4. REST requests.
         if ((query != null) && new QueryStringParser(query).search(metadataQueryParamNames)) {
             // handling meta data exchange stuff
             agent.processListService(request, response);
@@ -294,6 +297,9 @@ public class AxisServlet extends HttpServlet {
             } catch (Exception e) {
                 throw new ServletException(e);
             }
+        } else if (requestURI.endsWith(PHASE_METRICS_SUFFIX)
+                && configContext.getPhaseMetrics() != null) {
+            writePhaseMetrics(configContext.getPhaseMetrics(), response);
         } else if (!disableREST) {
             new RestRequestProcessor(Constants.Configuration.HTTP_METHOD_GET, request, response)
                     .processURLRequest();
@@ -302,6 +308,27 @@ public class AxisServlet extends HttpServlet {
         }
     }
 
+    /**
+     * Write the phase and handler timings as plain text, one line per service, operation, phase
+     * and handler. Times are in microseconds.
+     */
+    private void writePhaseMetrics(PhaseMetrics metrics, HttpServletResponse response)
+            throws IOException {
+        response.setContentType("text/plain; charset=UTF-8");
+        PrintWriter writer = response.getWriter();
+        for (Map.Entry<String, Map<String, Long>> entry : metrics.getStatistics().entrySet()) {
+            writer.print(entry.getKey());
+            for (Map.Entry<String, Long> value : entry.getValue().entrySet()) {
+                writer.print(' ');
+                writer.print(value.getKey());
+                writer.print('=');
+                writer.print(value.getValue());
+            }
+            writer.println();
+        }
+        writer.flush();
+    }
+
     /**
      * Implementation of DELETE interface
      *
@@ -585,8 +612,9 @@ public class AxisServlet extends HttpServlet {
         // TODO - This action need be changed according to current HTTPClient.
         String clientVersion = getHTTPClientVersion();
         if (clientVersion != null
-                && HTTPTransportConstants.HTTP_CLIENT_4_X_VERSION.equals(clientVersion)) {
-            // TODO - Handle for HTTPClient 4
+                && (HTTPTransportConstants.HTTP_CLIENT_4_X_VERSION.equals(clientVersion)
+                        || HTTPTransportConstants.HTTP_CLIENT_5_X_VERSION.equals(clientVersion))) {
+            // TODO - Handle for HTTPClient 4; the HTTPClient 5 sender closes its client in stop()
         } else {
             try {
                 Class.forName("org.apache.commons.httpclient.MultiThreadedHttpConnectionManager").getMethod("shutdownAll").invoke(null);
@@ -34,6 +34,7 @@ import org.apache.axis2.description.TransportOutDescription;
 import org.apache.axis2.i18n.Messages;
 import org.apache.axis2.kernel.http.HTTPConstants;
 import org.apache.axis2.kernel.MessageFormatter;
+import org.apache.axis2.kernel.NonBlockingTransportSender;
 import org.apache.axis2.util.MessageProcessorSelector;
 import org.apache.axis2.util.Utils;
 import org.apache.axis2.wsdl.WSDLConstants;
@@ -109,7 +110,63 @@ public abstract class HTTPSender {
     
     public void send(MessageContext msgContext, URL url, String soapActionString)
             throws IOException {
+        Request request = prepareRequest(msgContext, url, soapActionString);
+        try {
+            request.execute();
+            processResponse(msgContext, request);
+        } catch (IOException e) {
+            log.info("Unable to send to url[" + url + "]", e);
+            throw AxisFault.makeFault(e);
+        }
+    }
 
+    /**
+     * Send the request without blocking the calling thread. This is only supported if
+     * {@link #createRequest(MessageContext, String, URL, AxisRequestEntity)} returns a
+     * {@link NonBlockingRequest}. Once the response has been received, it is processed in the
+     * same way as in {@link #send(MessageContext, URL, String)} and the listener is notified.
+     *
+     * @param msgContext
+     *            The MessageContext of the request message
+     * @param url
+     *            The target URL
+     * @param soapActionString
+     *            The SOAP action
+     * @param listener
+     *            The listener to notify when the response has been processed or the request
+     *            failed
+     * @throws IOException
+     *            Thrown if the request could not be started; in that case the listener is not
+     *            notified
+     */
+    public void sendNonBlocking(final MessageContext msgContext, final URL url,
+            String soapActionString, final NonBlockingTransportSender.ResponseListener listener)
+            throws IOException {
+        final Request request = prepareRequest(msgContext, url, soapActionString);
+        if (!(request instanceof NonBlockingRequest)) {
+            throw new AxisFault(getClass().getName() + " doesn't support non-blocking requests");
+        }
+        ((NonBlockingRequest)request).execute(new NonBlockingRequest.Callback() {
+            public void completed() {
+                try {
+                    processResponse(msgContext, request);
+                } catch (IOException e) {
+                    log.info("Unable to send to url[" + url + "]", e);
+                    listener.failed(AxisFault.makeFault(e));
+                    return;
+                }
+                listener.responseReceived(msgContext);
+            }
+
+            public void failed(Exception ex) {
+                log.info("Unable to send to url[" + url + "]", ex);
+                listener.failed(AxisFault.makeFault(ex));
+            }
+        });
+    }
+
+    private Request prepareRequest(MessageContext msgContext, URL url, String soapActionString)
+            throws IOException {
         // execute the HtttpMethodBase - a connection manager can be given for
         // handle multiple
 
@@ -189,83 +246,83 @@ public abstract class HTTPSender {
         }
 
         setTimeouts(msgContext, request);
+        return request;
+    }
 
+    /**
+     * Process the response to a request that has been executed.
+     */
+    private void processResponse(MessageContext msgContext, Request request) throws IOException {
+        boolean cleanup = true;
         try {
-            request.execute();
-            boolean cleanup = true;
-            try {
-                int statusCode = request.getStatusCode();
-                log.trace("Handling response - " + statusCode);
-                boolean processResponse;
-                boolean fault;
-                if (statusCode == HttpStatus.SC_ACCEPTED) {
-                    processResponse = false;
-                    fault = false;
-                } else if (statusCode >= 200 && statusCode < 300) {
-                    processResponse = true;
-                    fault = false;
-                } else if (statusCode == HttpStatus.SC_INTERNAL_SERVER_ERROR
-                           || statusCode == HttpStatus.SC_BAD_REQUEST || statusCode == HttpStatus.SC_NOT_FOUND) {
-                    processResponse = true;
-                    fault = true;
-                } else {
-                    throw new AxisFault(Messages.getMessage("transportError", String.valueOf(statusCode),
-                                                            request.getStatusText()));
-                }
-                obtainHTTPHeaderInformation(request, msgContext);
-                if (processResponse) {
-                    OperationContext opContext = msgContext.getOperationContext();
-                    MessageContext inMessageContext = opContext == null ? null
-                            : opContext.getMessageContext(WSDLConstants.MESSAGE_LABEL_IN_VALUE);
-                    if (opContext != null) {
-                        InputStream in = request.getResponseContent();
-                        if (in != null) {
-                            String contentEncoding = request.getResponseHeader(HTTPConstants.HEADER_CONTENT_ENCODING);
-                            if (contentEncoding != null) {
-                                if (contentEncoding.equalsIgnoreCase(HTTPConstants.COMPRESSION_GZIP)) {
-                                    in = new GZIPInputStream(in);
-                                    // If the content-encoding is identity we can basically ignore
-                                    // it.
-                                } else if (!"identity".equalsIgnoreCase(contentEncoding)) {
-                                    throw new AxisFault("HTTP :" + "unsupported content-encoding of '"
-                                                        + contentEncoding + "' found");
-                                }
-                            }
-                            opContext.setProperty(MessageContext.TRANSPORT_IN, in);
-                            // This implements the behavior of the HTTPClient 3.x based transport in
-                            // Axis2 1.7: if AUTO_RELEASE_CONNECTION is enabled, we set the input stream
-                            // in the message context, but we nevertheless release the connection.
-                            // It is unclear in which situation this would actually be the right thing
-                            // to do.
-                            if (msgContext.isPropertyTrue(HTTPConstants.AUTO_RELEASE_CONNECTION)) {
-                                log.debug("AUTO_RELEASE_CONNECTION enabled; are you sure that you really want that?");
-                            } else {
-                                cleanup = false;
+            int statusCode = request.getStatusCode();
+            log.trace("Handling response - " + statusCode);
+            boolean processResponse;
+            boolean fault;
+            if (statusCode == HttpStatus.SC_ACCEPTED) {
+                processResponse = false;
+                fault = false;
+            } else if (statusCode >= 200 && statusCode < 300) {
+                processResponse = true;
+                fault = false;
+            } else if (statusCode == HttpStatus.SC_INTERNAL_SERVER_ERROR
+                       || statusCode == HttpStatus.SC_BAD_REQUEST || statusCode == HttpStatus.SC_NOT_FOUND) {
+                processResponse = true;
+                fault = true;
+            } else {
+                throw new AxisFault(Messages.getMessage("transportError", String.valueOf(statusCode),
+                                                        request.getStatusText()));
+            }
+            obtainHTTPHeaderInformation(request, msgContext);
+            if (processResponse) {
+                OperationContext opContext = msgContext.getOperationContext();
+                MessageContext inMessageContext = opContext == null ? null
+                        : opContext.getMessageContext(WSDLConstants.MESSAGE_LABEL_IN_VALUE);
+                if (opContext != null) {
+                    InputStream in = request.getResponseContent();
+                    if (in != null) {
+                        String contentEncoding = request.getResponseHeader(HTTPConstants.HEADER_CONTENT_ENCODING);
+                        if (contentEncoding != null) {
+                            if (contentEncoding.equalsIgnoreCase(HTTPConstants.COMPRESSION_GZIP)) {
+                                in = new GZIPInputStream(in);
+                                // If the content-encoding is identity we can basically ignore
+                                // it.
+                            } else if (!"identity".equalsIgnoreCase(contentEncoding)) {
+                                throw new AxisFault("HTTP :" + "unsupported content-encoding of '"
+                                                    + contentEncoding + "' found");
                             }
                         }
-                    }
-                    if (fault) {
-                        if (inMessageContext != null) {
-                            inMessageContext.setProcessingFault(true);
-                        }
-                        if (Utils.isClientThreadNonBlockingPropertySet(msgContext)) {
-                            throw new AxisFault(Messages.
-                                    getMessage("transportError",
-                                               String.valueOf(statusCode),
-                                               request.getStatusText()));
+                        opContext.setProperty(MessageContext.TRANSPORT_IN, in);
+                        // This implements the behavior of the HTTPClient 3.x based transport in
+                        // Axis2 1.7: if AUTO_RELEASE_CONNECTION is enabled, we set the input stream
+                        // in the message context, but we nevertheless release the connection.
+                        // It is unclear in which situation this would actually be the right thing
+                        // to do.
+                        if (msgContext.isPropertyTrue(HTTPConstants.AUTO_RELEASE_CONNECTION)) {
+                            log.debug("AUTO_RELEASE_CONNECTION enabled; are you sure that you really want that?");
+                        } else {
+                            cleanup = false;
                         }
                     }
                 }
-            } finally {
-                if (cleanup) {
-                    request.releaseConnection();
+                if (fault) {
+                    if (inMessageContext != null) {
+                        inMessageContext.setProcessingFault(true);
+                    }
+                    if (Utils.isClientThreadNonBlockingPropertySet(msgContext)) {
+                        throw new AxisFault(Messages.
+                                getMessage("transportError",
+                                           String.valueOf(statusCode),
+                                           request.getStatusText()));
+                    }
                 }
             }
-        } catch (IOException e) {
-            log.info("Unable to send to url[" + url + "]", e);
-            throw AxisFault.makeFault(e);
+        } finally {
+            if (cleanup) {
+                request.releaseConnection();
+            }
         }
-    }   
+    }
 
     private void addCustomHeaders(MessageContext msgContext, Request request) {
     
@@ -0,0 +1,51 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.axis2.transport.http;
+
+/**
+ * {@link Request} that can also be executed without blocking the calling thread.
+ */
+public interface NonBlockingRequest extends Request {
+    /**
+     * Receives the outcome of {@link NonBlockingRequest#execute(Callback)}.
+     */
+    interface Callback {
+        /**
+         * Called when the response has been received. The response must be available through
+         * the methods of the {@link Request} interface without blocking.
+         */
+        void completed();
+
+        /**
+         * Called if the request failed.
+         *
+         * @param ex the cause of the failure
+         */
+        void failed(Exception ex);
+    }
+
+    /**
+     * Start the execution of the request. The callback will be notified exactly once, typically
+     * on a thread of the HTTP client.
+     *
+     * @param callback the callback to notify when the response has been received
+     */
+    void execute(Callback callback);
+}
@@ -22,6 +22,8 @@ package org.apache.axis2.transport.http.impl.httpclient4;
 import org.apache.axis2.AxisFault;
 import org.apache.axis2.context.ConfigurationContext;
 import org.apache.axis2.context.MessageContext;
+import org.apache.axis2.description.Parameter;
+import org.apache.axis2.description.TransportOutDescription;
 import org.apache.axis2.kernel.http.HTTPConstants;
 import org.apache.axis2.transport.http.AxisRequestEntity;
 import org.apache.axis2.transport.http.HTTPSender;
@@ -104,8 +106,12 @@ public class HTTPSenderImpl extends HTTPSender {
                                 .build();
 
                         connManager = new PoolingHttpClientConnectionManager(socketFactoryRegistry);
-                        ((PoolingHttpClientConnectionManager)connManager).setMaxTotal(200);
-                        ((PoolingHttpClientConnectionManager)connManager).setDefaultMaxPerRoute(200);
+                        ((PoolingHttpClientConnectionManager)connManager).setMaxTotal(
+                                getIntParameter(msgContext, HTTPConstants.MAX_TOTAL_CONNECTIONS,
+                                        HTTPConstants.DEFAULT_MAX_TOTAL_CONNECTIONS));
+                        ((PoolingHttpClientConnectionManager)connManager).setDefaultMaxPerRoute(
+                                getIntParameter(msgContext, HTTPConstants.MAX_CONNECTIONS_PER_HOST,
+                                        HTTPConstants.DEFAULT_MAX_CONNECTIONS_PER_HOST));
                         configContext.setProperty(
                                 HTTPConstants.MULTITHREAD_HTTP_CONNECTION_MANAGER, connManager);
                     }
@@ -122,4 +128,21 @@ public class HTTPSenderImpl extends HTTPSender {
         }
     }
 
+    /**
+     * Get an integer parameter of the transport sender that handles the given message, e.g.
+     * <code>&lt;parameter name="MAX_TOTAL_CONNECTIONS"&gt;500&lt;/parameter&gt;</code>.
+     */
+    private static int getIntParameter(MessageContext msgContext, String name, int defaultValue) {
+        TransportOutDescription transportOut = msgContext.getTransportOut();
+        Parameter parameter = transportOut == null ? null : transportOut.getParameter(name);
+        if (parameter != null && parameter.getValue() != null) {
+            try {
+                return Integer.parseInt(parameter.getValue().toString().trim());
+            } catch (NumberFormatException ex) {
+                log.error("Invalid value for parameter " + name + ": " + parameter.getValue()
+                        + "; using default value " + defaultValue);
+            }
+        }
+        return defaultValue;
+    }
 }
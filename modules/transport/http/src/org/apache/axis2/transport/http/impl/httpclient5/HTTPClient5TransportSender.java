@@ -0,0 +1,208 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.axis2.transport.http.impl.httpclient5;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import javax.net.ssl.SSLContext;
+
+import org.apache.axis2.AxisFault;
+import org.apache.axis2.context.ConfigurationContext;
+import org.apache.axis2.context.MessageContext;
+import org.apache.axis2.context.OperationContext;
+import org.apache.axis2.description.Parameter;
+import org.apache.axis2.description.TransportOutDescription;
+import org.apache.axis2.kernel.NonBlockingTransportSender;
+import org.apache.axis2.kernel.http.HTTPConstants;
+import org.apache.axis2.transport.http.AbstractHTTPTransportSender;
+import org.apache.axis2.transport.http.HTTPSender;
+import org.apache.axis2.transport.http.HTTPTransportConstants;
+import org.apache.axis2.util.JavaUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.client5.http.impl.async.HttpAsyncClients;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManagerBuilder;
+import org.apache.hc.client5.http.ssl.ClientTlsStrategyBuilder;
+import org.apache.hc.core5.http.nio.ssl.TlsStrategy;
+import org.apache.hc.core5.io.CloseMode;
+import org.apache.hc.core5.reactor.IOReactorConfig;
+import org.apache.hc.core5.ssl.SSLContexts;
+import org.apache.hc.core5.util.Timeout;
+
+/**
+ * Transport sender based on the asynchronous client of HC HttpClient 5.X. Non-blocking
+ * invocations of out-in operations don't occupy a thread while they wait for the response: the
+ * request is sent from a small number of I/O threads and the response is processed and the
+ * {@link org.apache.axis2.client.async.AxisCallback} notified on the I/O thread that received
+ * it (see {@link NonBlockingTransportSender}). Callbacks should therefore not block. Blocking
+ * invocations work as with the other senders.
+ * <p>
+ * The sender supports the following parameters in addition to those of
+ * {@link AbstractHTTPTransportSender}:
+ * <dl>
+ * <dt>{@link HTTPConstants#MAX_TOTAL_CONNECTIONS}, {@link HTTPConstants#MAX_CONNECTIONS_PER_HOST}</dt>
+ * <dd>The size of the connection pool used for HTTP/1.1.</dd>
+ * <dt>{@link HTTPConstants#HTTP2}</dt>
+ * <dd>If <code>true</code>, HTTP/2 is used for all requests, and concurrent requests to the same
+ * host are multiplexed over a single connection.</dd>
+ * <dt>{@link HTTPConstants#IO_THREAD_COUNT}</dt>
+ * <dd>The number of I/O threads; defaults to the number of processors.</dd>
+ * </dl>
+ * Connections are shared by all requests, so the connect timeout is the one set by the
+ * {@link HTTPConstants#CONNECTION_TIMEOUT} parameter of the sender and can't be changed per
+ * message. The {@link HTTPConstants#SO_TIMEOUT} message context property is still honored as
+ * the response timeout.
+ * <p>
+ * Proxies are configured using the standard <code>http.proxyHost</code> etc. system properties;
+ * the <code>Proxy</code> parameter of the HttpClient 4 sender is not supported. NTLM
+ * authentication, which HttpClient 5 deprecates, is not supported either.
+ */
+public class HTTPClient5TransportSender extends AbstractHTTPTransportSender
+        implements NonBlockingTransportSender {
+
+    private static final Log log = LogFactory.getLog(HTTPClient5TransportSender.class);
+
+    private TransportOutDescription transportOut;
+    private boolean http2;
+    private CloseableHttpAsyncClient httpClient;
+
+    @Override
+    public void init(ConfigurationContext confContext, TransportOutDescription transportOut)
+            throws AxisFault {
+        super.init(confContext, transportOut);
+        this.transportOut = transportOut;
+        Parameter http2Param = transportOut.getParameter(HTTPConstants.HTTP2);
+        http2 = http2Param != null && JavaUtils.isTrueExplicitly(http2Param.getValue());
+    }
+
+    boolean isHttp2() {
+        return http2;
+    }
+
+    /**
+     * Get the client, creating it on first use. The client is created lazily so that an
+     * {@link SSLContext} set as a property of the configuration context after the transport
+     * has been initialized is taken into account.
+     */
+    synchronized CloseableHttpAsyncClient getHttpClient(MessageContext msgContext) {
+        if (httpClient == null) {
+            ConfigurationContext configContext = msgContext.getConfigurationContext();
+            SSLContext sslContext = (SSLContext)configContext.getProperty(SSLContext.class.getName());
+            if (sslContext == null) {
+                sslContext = SSLContexts.createDefault();
+            }
+            TlsStrategy tlsStrategy = ClientTlsStrategyBuilder.create()
+                    .setSslContext(sslContext)
+                    .build();
+            IOReactorConfig ioReactorConfig = IOReactorConfig.custom()
+                    .setIoThreadCount(getIntParameter(HTTPConstants.IO_THREAD_COUNT,
+                            Runtime.getRuntime().availableProcessors()))
+                    .build();
+            ConnectionConfig connectionConfig = ConnectionConfig.custom()
+                    .setConnectTimeout(Timeout.ofMilliseconds(getIntParameter(
+                            HTTPConstants.CONNECTION_TIMEOUT,
+                            HTTPConstants.DEFAULT_CONNECTION_TIMEOUT)))
+                    .build();
+            if (http2) {
+                log.trace("Creating HTTP/2 client");
+                httpClient = HttpAsyncClients.customHttp2()
+                        .setTlsStrategy(tlsStrategy)
+                        .setDefaultConnectionConfig(connectionConfig)
+                        .setIOReactorConfig(ioReactorConfig)
+                        .useSystemProperties()
+                        .build();
+            } else {
+                log.trace("Creating HTTP/1.1 client");
+                httpClient = HttpAsyncClients.custom()
+                        .setConnectionManager(PoolingAsyncClientConnectionManagerBuilder.create()
+                                .setTlsStrategy(tlsStrategy)
+                                .setDefaultConnectionConfig(connectionConfig)
+                                .setMaxConnTotal(getIntParameter(
+                                        HTTPConstants.MAX_TOTAL_CONNECTIONS,
+                                        HTTPConstants.DEFAULT_MAX_TOTAL_CONNECTIONS))
+                                .setMaxConnPerRoute(getIntParameter(
+                                        HTTPConstants.MAX_CONNECTIONS_PER_HOST,
+                                        HTTPConstants.DEFAULT_MAX_CONNECTIONS_PER_HOST))
+                                .build())
+                        .setIOReactorConfig(ioReactorConfig)
+                        .useSystemProperties()
+                        .build();
+            }
+            httpClient.start();
+        }
+        return httpClient;
+    }
+
+    private int getIntParameter(String name, int defaultValue) {
+        Parameter parameter = transportOut == null ? null : transportOut.getParameter(name);
+        if (parameter != null && parameter.getValue() != null) {
+            try {
+                return Integer.parseInt(parameter.getValue().toString().trim());
+            } catch (NumberFormatException ex) {
+                log.error("Invalid value for parameter " + name + ": " + parameter.getValue()
+                        + "; using default value " + defaultValue);
+            }
+        }
+        return defaultValue;
+    }
+
+    public boolean isNonBlocking(MessageContext msgContext) {
+        return true;
+    }
+
+    @Override
+    public void cleanup(MessageContext msgContext) throws AxisFault {
+        OperationContext opContext = msgContext.getOperationContext();
+        if (opContext != null) {
+            InputStream in = (InputStream)opContext.getProperty(MessageContext.TRANSPORT_IN);
+            if (in != null) {
+                try {
+                    in.close();
+                } catch (IOException ex) {
+                    // Ignore
+                }
+            }
+        }
+
+        // guard against multiple calls
+        msgContext.removeProperty(HTTPConstants.HTTP_METHOD);
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (httpClient != null) {
+            httpClient.close(CloseMode.GRACEFUL);
+            httpClient = null;
+        }
+    }
+
+    public void setHTTPClientVersion(ConfigurationContext configurationContext) {
+        configurationContext.setProperty(HTTPTransportConstants.HTTP_CLIENT_VERSION,
+                                         HTTPTransportConstants.HTTP_CLIENT_5_X_VERSION);
+    }
+
+    @Override
+    protected HTTPSender createHTTPSender() {
+        return new HTTPSenderImpl(this);
+    }
+}
@@ -0,0 +1,319 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.axis2.transport.http.impl.httpclient5;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+import org.apache.axiom.mime.Header;
+import org.apache.axis2.AxisFault;
+import org.apache.axis2.context.MessageContext;
+import org.apache.axis2.kernel.http.HTTPConstants;
+import org.apache.axis2.transport.http.AxisRequestEntity;
+import org.apache.axis2.transport.http.HTTPAuthenticator;
+import org.apache.axis2.transport.http.NonBlockingRequest;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.hc.client5.http.async.methods.SimpleHttpRequest;
+import org.apache.hc.client5.http.async.methods.SimpleHttpResponse;
+import org.apache.hc.client5.http.async.methods.SimpleRequestProducer;
+import org.apache.hc.client5.http.async.methods.SimpleResponseConsumer;
+import org.apache.hc.client5.http.auth.AuthScope;
+import org.apache.hc.client5.http.auth.Credentials;
+import org.apache.hc.client5.http.auth.UsernamePasswordCredentials;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.client5.http.impl.auth.BasicCredentialsProvider;
+import org.apache.hc.client5.http.protocol.HttpClientContext;
+import org.apache.hc.core5.concurrent.FutureCallback;
+import org.apache.hc.core5.http.HeaderElement;
+import org.apache.hc.core5.http.HttpVersion;
+import org.apache.hc.core5.http.message.BasicHeaderValueParser;
+import org.apache.hc.core5.http.message.ParserCursor;
+import org.apache.hc.core5.util.Timeout;
+
+/**
+ * {@link NonBlockingRequest} executed by the asynchronous HttpClient 5 client. The request
+ * content is serialized into memory before the request is started and the response is read
+ * completely into memory before the request is reported as completed, so that neither the
+ * message formatter nor the processing of the response ever block an I/O thread.
+ */
+final class RequestImpl implements NonBlockingRequest {
+    private static final String[] COOKIE_HEADER_NAMES = { HTTPConstants.HEADER_SET_COOKIE, HTTPConstants.HEADER_SET_COOKIE2 };
+
+    private static final Log log = LogFactory.getLog(RequestImpl.class);
+
+    private final CloseableHttpAsyncClient httpClient;
+    private final boolean http2;
+    private final MessageContext msgContext;
+    private final SimpleHttpRequest request;
+    private final AxisRequestEntity requestEntity;
+    private final RequestConfig.Builder requestConfig = RequestConfig.custom();
+    private final HttpClientContext clientContext = HttpClientContext.create();
+    private volatile SimpleHttpResponse response;
+
+    RequestImpl(CloseableHttpAsyncClient httpClient, boolean http2, MessageContext msgContext,
+            String methodName, URL url, AxisRequestEntity requestEntity) throws AxisFault {
+        this.httpClient = httpClient;
+        this.http2 = http2;
+        this.msgContext = msgContext;
+        this.requestEntity = requestEntity;
+        try {
+            request = new SimpleHttpRequest(methodName, url.toURI());
+        } catch (URISyntaxException ex) {
+            throw AxisFault.makeFault(ex);
+        }
+    }
+
+    @Override
+    public void enableHTTP10() {
+        // HTTP/1.0 can't be used over an HTTP/2 connection
+        if (!http2) {
+            request.setVersion(HttpVersion.HTTP_1_0);
+        }
+    }
+
+    @Override
+    public void setHeader(String name, String value) {
+        request.setHeader(name, value);
+    }
+
+    @Override
+    public void addHeader(String name, String value) {
+        request.addHeader(name, value);
+    }
+
+    private static Header[] convertHeaders(org.apache.hc.core5.http.Header[] headers) {
+        Header[] result = new Header[headers.length];
+        for (int i=0; i<headers.length; i++) {
+            result[i] = new Header(headers[i].getName(), headers[i].getValue());
+        }
+        return result;
+    }
+
+    @Override
+    public Header[] getRequestHeaders() {
+        return convertHeaders(request.getHeaders());
+    }
+
+    @Override
+    public void setConnectionTimeout(int timeout) {
+        // The connect timeout is part of the ConnectionConfig of the client (see
+        // HTTPClient5TransportSender) because connections are shared by all requests
+    }
+
+    @Override
+    public void setSocketTimeout(int timeout) {
+        requestConfig.setResponseTimeout(Timeout.ofMilliseconds(timeout));
+    }
+
+    @Override
+    public int getStatusCode() {
+        return response.getCode();
+    }
+
+    @Override
+    public String getStatusText() {
+        return response.getReasonPhrase();
+    }
+
+    @Override
+    public String getResponseHeader(String name) {
+        org.apache.hc.core5.http.Header header = response.getFirstHeader(name);
+        return header == null ? null : header.getValue();
+    }
+
+    @Override
+    public Header[] getResponseHeaders() {
+        return convertHeaders(response.getHeaders());
+    }
+
+    @Override
+    public Map<String,String> getCookies() {
+        Map<String,String> cookies = null;
+        for (String name : COOKIE_HEADER_NAMES) {
+            for (org.apache.hc.core5.http.Header header : response.getHeaders(name)) {
+                String value = header.getValue();
+                if (value == null) {
+                    continue;
+                }
+                for (HeaderElement element : BasicHeaderValueParser.INSTANCE.parseElements(
+                        value, new ParserCursor(0, value.length()))) {
+                    if (cookies == null) {
+                        cookies = new HashMap<String,String>();
+                    }
+                    cookies.put(element.getName(), element.getValue());
+                }
+            }
+        }
+        return cookies;
+    }
+
+    @Override
+    public InputStream getResponseContent() throws IOException {
+        byte[] content = response.getBodyBytes();
+        return content == null ? null : new ByteArrayInputStream(content);
+    }
+
+    /**
+     * Complete the request before it is executed. This is always done on the calling thread.
+     */
+    private void prepare() throws IOException {
+        if (requestEntity != null) {
+            ByteArrayOutputStream content = new ByteArrayOutputStream();
+            requestEntity.writeRequest(content);
+            // The content type is sent in the Content-Type header set by HTTPSender
+            request.setBody(content.toByteArray(), null);
+        }
+
+        // add compression headers if needed
+        if (msgContext.isPropertyTrue(HTTPConstants.MC_ACCEPT_GZIP)) {
+            request.addHeader(HTTPConstants.HEADER_ACCEPT_ENCODING,
+                             HTTPConstants.COMPRESSION_GZIP);
+        }
+
+        String cookiePolicy = (String) msgContext.getProperty(HTTPConstants.COOKIE_POLICY);
+        if (cookiePolicy != null) {
+            requestConfig.setCookieSpec(cookiePolicy);
+        }
+
+        request.setConfig(requestConfig.build());
+        // The content length is determined by the client (see AXIS2-6051)
+        request.removeHeaders("Content-Length");
+        if (log.isDebugEnabled()) {
+            for (org.apache.hc.core5.http.Header header : request.getHeaders()) {
+                log.debug("sending HTTP request header: " + header);
+            }
+        }
+    }
+
+    private Future<SimpleHttpResponse> start(FutureCallback<SimpleHttpResponse> callback) {
+        return httpClient.execute(SimpleRequestProducer.create(request),
+                SimpleResponseConsumer.create(), clientContext, callback);
+    }
+
+    @Override
+    public void execute() throws IOException {
+        prepare();
+        Future<SimpleHttpResponse> future = start(null);
+        try {
+            response = future.get();
+        } catch (InterruptedException ex) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for the response");
+        } catch (ExecutionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException)cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    @Override
+    public void execute(final Callback callback) {
+        try {
+            prepare();
+        } catch (IOException ex) {
+            callback.failed(ex);
+            return;
+        }
+        start(new FutureCallback<SimpleHttpResponse>() {
+            @Override
+            public void completed(SimpleHttpResponse result) {
+                response = result;
+                callback.completed();
+            }
+
+            @Override
+            public void failed(Exception ex) {
+                callback.failed(ex);
+            }
+
+            @Override
+            public void cancelled() {
+                callback.failed(new InterruptedIOException("Request cancelled"));
+            }
+        });
+    }
+
+    @Override
+    public void releaseConnection() {
+        // The connection was released as soon as the response had been read into memory
+        log.trace("Cleaning response : " + response);
+    }
+
+    /*
+     * This will handle server Authentication, It could be either Digest or Basic
+     * Authentication. Apart from that user can change the priory or add a custom
+     * authentication scheme. NTLM is deprecated in HttpClient 5 and not supported.
+     */
+    @Override
+    public void enableAuthentication(HTTPAuthenticator authenticator) {
+        requestConfig.setAuthenticationEnabled(true);
+
+        String username = authenticator.getUsername();
+        char[] password = authenticator.getPassword() == null ? new char[0]
+                : authenticator.getPassword().toCharArray();
+        String host = authenticator.getHost();
+        String domain = authenticator.getDomain();
+
+        int port = authenticator.getPort();
+        String realm = authenticator.getRealm();
+
+        if (domain != null) {
+            log.warn("NTLM authentication is not supported by the HttpClient 5 transport"
+                    + " sender; ignoring domain " + domain);
+        }
+        /* Credentials for Digest and Basic Authentication */
+        Credentials creds = new UsernamePasswordCredentials(username, password);
+        // A null host matches any host
+        AuthScope authScope = new AuthScope(null, host, port, realm, null);
+
+        BasicCredentialsProvider credsProvider = new BasicCredentialsProvider();
+        credsProvider.setCredentials(authScope, creds);
+        clientContext.setCredentialsProvider(credsProvider);
+
+        /* Customizing the priority Order */
+        List schemes = authenticator.getAuthSchemes();
+        if (schemes != null && schemes.size() > 0) {
+            List<String> authPrefs = new ArrayList<String>(3);
+            for (int i = 0; i < schemes.size(); i++) {
+                Object pref = authenticator.getAuthPolicyPref(String.valueOf(schemes.get(i)));
+                if (pref != null) {
+                    authPrefs.add(pref.toString());
+                }
+            }
+            requestConfig.setTargetPreferredAuthSchemes(authPrefs);
+        }
+    }
+}
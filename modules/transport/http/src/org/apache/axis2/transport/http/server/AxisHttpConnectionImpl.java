@@ -30,6 +30,7 @@ import org.apache.http.HttpRequest;
 import org.apache.http.HttpResponse;
 import org.apache.http.HttpVersion;
 import org.apache.http.ProtocolVersion;
+import org.apache.http.config.MessageConstraints;
 import org.apache.http.entity.ContentLengthStrategy;
 import org.apache.http.impl.DefaultHttpRequestFactory;
 import org.apache.http.impl.entity.StrictContentLengthStrategy;
@@ -38,11 +39,14 @@ import org.apache.http.impl.io.ChunkedOutputStream;
 import org.apache.http.impl.io.ContentLengthInputStream;
 import org.apache.http.impl.io.ContentLengthOutputStream;
 import org.apache.http.impl.io.HttpRequestParser;
+import org.apache.http.impl.io.HttpTransportMetricsImpl;
 import org.apache.http.impl.io.HttpResponseWriter;
 import org.apache.http.impl.io.IdentityInputStream;
 import org.apache.http.impl.io.IdentityOutputStream;
+import org.apache.http.impl.io.SessionInputBufferImpl;
 import org.apache.http.impl.io.SocketInputBuffer;
 import org.apache.http.impl.io.SocketOutputBuffer;
+import org.apache.http.io.BufferInfo;
 import org.apache.http.io.HttpMessageParser;
 import org.apache.http.io.HttpMessageWriter;
 import org.apache.http.io.SessionInputBuffer;
@@ -74,6 +78,20 @@ public class AxisHttpConnectionImpl implements AxisHttpConnection {
     
     public AxisHttpConnectionImpl(final Socket socket, final HttpParams params) 
             throws IOException {
+        this(socket, null, params);
+    }
+
+    /**
+     * Create a connection that reads requests from the given stream instead of the input stream
+     * of the socket.
+     * 
+     * @param socket the socket
+     * @param instream the stream to read requests from, or <code>null</code> to read directly
+     *                 from the socket
+     * @param params the HTTP parameters
+     */
+    AxisHttpConnectionImpl(final Socket socket, final InputStream instream,
+            final HttpParams params) throws IOException {
         super();
         if (socket == null) {
             throw new IllegalArgumentException("Socket may not be null"); 
@@ -92,7 +110,21 @@ public class AxisHttpConnectionImpl implements AxisHttpConnection {
         int buffersize = HttpConnectionParams.getSocketBufferSize(params);
         this.socket = socket;
         this.outbuffer = new SocketOutputBuffer(socket, buffersize, params); 
-        this.inbuffer = new SocketInputBuffer(socket, buffersize, params); 
+        if (instream == null) {
+            this.inbuffer = new SocketInputBuffer(socket, buffersize, params); 
+        } else {
+            SessionInputBufferImpl buffer = new SessionInputBufferImpl(
+                    new HttpTransportMetricsImpl(), buffersize, buffersize,
+                    MessageConstraints.custom()
+                            .setMaxLineLength(params.getIntParameter(
+                                    HttpConnectionParams.MAX_LINE_LENGTH, -1))
+                            .setMaxHeaderCount(params.getIntParameter(
+                                    HttpConnectionParams.MAX_HEADER_COUNT, -1))
+                            .build(),
+                    null);
+            buffer.bind(instream);
+            this.inbuffer = buffer;
+        }
         this.contentLenStrategy = new StrictContentLengthStrategy();
         this.requestParser = new HttpRequestParser(
                 this.inbuffer, null, new DefaultHttpRequestFactory(), params);
@@ -126,6 +158,18 @@ public class AxisHttpConnectionImpl implements AxisHttpConnection {
         }
     }
 
+    /**
+     * Check whether data has already been read from the socket into the input buffer, but not
+     * yet been consumed (e.g. a pipelined request).
+     */
+    boolean hasBufferedInput() {
+        return ((BufferInfo) this.inbuffer).length() > 0;
+    }
+
+    Socket getSocket() {
+        return this.socket;
+    }
+
     public void shutdown() throws IOException {
         Socket tmpsocket = this.socket;
         if (tmpsocket != null) {
@@ -26,6 +26,10 @@ import org.apache.axis2.description.Parameter;
 import org.apache.axis2.description.TransportInDescription;
 import org.apache.axis2.engine.ListenerManager;
 import org.apache.axis2.transport.http.HTTPWorkerFactory;
+import org.apache.axis2.util.JavaUtils;
+import org.apache.axis2.util.threadpool.VirtualThreads;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
 import org.apache.http.ConnectionReuseStrategy;
 import org.apache.http.HttpResponseFactory;
 import org.apache.http.impl.DefaultConnectionReuseStrategy;
@@ -54,6 +58,8 @@ import java.util.concurrent.TimeUnit;
  */
 public class HttpFactory {
 
+    private static final Log log = LogFactory.getLog(HttpFactory.class);
+
     /**
      * Name of axis2.xml port parameter for SimpleHTTPServer configuration
      */
@@ -100,6 +106,11 @@ public class HttpFactory {
      */
     public static final String PARAMETER_THREAD_KEEP_ALIVE_TIME_UNIT = "threadKeepAliveTimeUnit";
 
+    /**
+     * Name of axis2.xml nioListener parameter for SimpleHTTPServer configuration
+     */
+    public static final String PARAMETER_NIO_LISTENER = "nioListener";
+
     private ConfigurationContext configurationContext;
     private TransportInDescription httpConfiguration;
     private int port;
@@ -111,6 +122,8 @@ public class HttpFactory {
     private int requestMaxThreadPoolSize;
     private long threadKeepAliveTime;
     private TimeUnit threadKeepAliveTimeUnit;
+    private boolean useVirtualThreads;
+    private boolean nioListener;
 
     private WorkerFactory requestWorkerFactory = null;
 
@@ -130,6 +143,17 @@ public class HttpFactory {
         threadKeepAliveTime = getLongParam(PARAMETER_THREAD_KEEP_ALIVE_TIME, 180L);
         threadKeepAliveTimeUnit =
                 getTimeUnitParam(PARAMETER_THREAD_KEEP_ALIVE_TIME_UNIT, TimeUnit.SECONDS);
+        nioListener = getBooleanParam(PARAMETER_NIO_LISTENER, false);
+        Parameter globalUseVirtualThreads = configurationContext.getAxisConfiguration()
+                .getParameter(Constants.Configuration.USE_VIRTUAL_THREADS);
+        useVirtualThreads = getBooleanParam(Constants.Configuration.USE_VIRTUAL_THREADS,
+                globalUseVirtualThreads != null
+                        && JavaUtils.isTrueExplicitly(globalUseVirtualThreads.getValue()));
+        if (useVirtualThreads && !VirtualThreads.isSupported()) {
+            log.warn(Constants.Configuration.USE_VIRTUAL_THREADS + " is set, but virtual threads "
+                    + "are not supported by this Java version; using the default request executor");
+            useVirtualThreads = false;
+        }
     }
 
     /**
@@ -236,6 +260,13 @@ public class HttpFactory {
             int port,
             final HttpConnectionManager manager, 
             final HttpParams params) throws IOException {
+        if (nioListener) {
+            return new NIOConnectionListener(
+                    port,
+                    manager,
+                    new DefaultConnectionListenerFailureHandler(),
+                    params);
+        }
         return new DefaultConnectionListener(
                 port, 
                 manager, 
@@ -272,6 +303,9 @@ public class HttpFactory {
      * Create the executor use the manage request processing threads
      */
     public ExecutorService newRequestExecutor(int port) {
+        if (useVirtualThreads) {
+            return VirtualThreads.newExecutor("HttpConnection-" + port + "-");
+        }
         return new ThreadPoolExecutor(requestCoreThreadPoolSize, requestMaxThreadPoolSize,
                                       threadKeepAliveTime, threadKeepAliveTimeUnit,
                                       newRequestBlockingQueue(),
@@ -481,4 +515,21 @@ public class HttpFactory {
         this.threadKeepAliveTimeUnit = threadKeepAliveTimeUnit;
     }
 
+    /**
+     * Getter for nioListener
+     *
+     * @return true if idle connections are kept in a selector instead of occupying a request
+     *         thread each (default false)
+     */
+    public boolean isNioListener() {
+        return nioListener;
+    }
+
+    /**
+     * Setter for nioListener
+     */
+    public void setNioListener(boolean nioListener) {
+        this.nioListener = nioListener;
+    }
+
 }
@@ -77,9 +77,17 @@ public class HttpServiceProcessor implements IOProcessor {
     public void run() {
         LOG.debug("New connection thread");
         HttpContext context = new BasicHttpContext(null);
+        boolean parked = false;
         try {
             while (! Thread.interrupted() && ! isDestroyed() && this.conn.isOpen()) {
                 this.httpservice.handleRequest(this.conn, context);
+                if (this.conn instanceof NIOHttpConnection
+                        && ((NIOHttpConnection) this.conn).park()) {
+                    // The connection is idle and is now watched by the NIOConnectionListener;
+                    // release the thread instead of blocking until the next request arrives
+                    parked = true;
+                    break;
+                }
             }
         } catch (ConnectionClosedException ex) {
             LOG.debug("Client closed connection");
@@ -96,7 +104,12 @@ public class HttpServiceProcessor implements IOProcessor {
                 LOG.warn("HTTP protocol error: " + ex.getMessage());
             }
         } finally {
-            destroy();
+            if (parked) {
+                // Don't close the connection; it is no longer owned by this processor
+                this.terminated.set(true);
+            } else {
+                destroy();
+            }
             if (this.callback == null) {
                 throw new NullPointerException("The callback object can't be null");
             }
@@ -0,0 +1,399 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.axis2.transport.http.server;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.http.HttpStatus;
+import org.apache.http.HttpVersion;
+import org.apache.http.impl.DefaultHttpResponseFactory;
+import org.apache.http.params.HttpConnectionParams;
+import org.apache.http.params.HttpParams;
+import org.apache.http.protocol.BasicHttpContext;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Connection listener that keeps idle keep-alive connections in a {@link Selector} instead of
+ * blocking a worker thread on each of them. A connection is handed over to the
+ * {@link HttpConnectionManager} only once the head of a request has been received (or the head
+ * doesn't fit into the socket buffer), and it is handed back to the listener by
+ * {@link HttpServiceProcessor} as soon as the response has been sent and no further input is
+ * pending. The number of worker threads therefore only limits the number of requests processed
+ * concurrently, not the number of open connections.
+ * <p>
+ * A connection that stays idle (or doesn't send a complete request head) for longer than the
+ * socket timeout is closed.
+ */
+public class NIOConnectionListener implements ConnectionListener {
+
+    private static final Log LOG = LogFactory.getLog(NIOConnectionListener.class);
+
+    /** Interval in milliseconds at which idle connections are checked for timeouts. */
+    private static final long IDLE_CHECK_INTERVAL = 1000;
+
+    private volatile boolean destroyed = false;
+
+    private final int port;
+    private final HttpConnectionManager connmanager;
+    private final ConnectionListenerFailureHandler failureHandler;
+    private final HttpParams params;
+    private final int idleTimeout;
+
+    /** Connections handed back by worker threads, to be registered with the selector. */
+    private final Queue<NIOHttpConnection> parkedConnections =
+            new ConcurrentLinkedQueue<NIOHttpConnection>();
+
+    /** Connections with a complete request head; only accessed by the listener thread. */
+    private final List<NIOHttpConnection> readyConnections = new ArrayList<NIOHttpConnection>();
+
+    private volatile Selector selector = null;
+    private ServerSocketChannel serverChannel = null;
+    private long lastIdleCheck;
+
+    public NIOConnectionListener(
+            int port,
+            final HttpConnectionManager connmanager,
+            final ConnectionListenerFailureHandler failureHandler,
+            final HttpParams params) throws IOException {
+        super();
+        if (connmanager == null) {
+            throw new IllegalArgumentException("Connection manager may not be null");
+        }
+        if (failureHandler == null) {
+            throw new IllegalArgumentException("Failure handler may not be null");
+        }
+        if (params == null) {
+            throw new IllegalArgumentException("HTTP parameters may not be null");
+        }
+        this.port = port;
+        this.connmanager = connmanager;
+        this.failureHandler = failureHandler;
+        this.params = params;
+        this.idleTimeout = HttpConnectionParams.getSoTimeout(params);
+    }
+
+    public void run() {
+        try {
+            while (!Thread.interrupted() && !this.destroyed) {
+                try {
+                    if (this.selector == null) {
+                        open();
+                    }
+                    this.selector.select(IDLE_CHECK_INTERVAL);
+                    registerParkedConnections();
+                    processSelectedKeys();
+                    dispatchReadyConnections();
+                    closeIdleConnections();
+                } catch (ClosedSelectorException ex) {
+                    break;
+                } catch (Throwable ex) {
+                    if (Thread.interrupted() || this.destroyed) {
+                        break;
+                    }
+                    if (!failureHandler.failed(this, ex)) {
+                        break;
+                    }
+                    try {
+                        close();
+                    } catch (IOException ignore) {
+                    }
+                }
+            }
+        } finally {
+            destroy();
+            try {
+                close();
+            } catch (IOException ex) {
+                if (LOG.isWarnEnabled()) {
+                    LOG.warn("I/O error closing listener", ex);
+                }
+            }
+            synchronized (this) {
+                notifyAll();
+            }
+        }
+    }
+
+    private synchronized void open() throws IOException {
+        if (LOG.isInfoEnabled()) {
+            LOG.info("Listening on port " + port + " (NIO)");
+        }
+        Selector selector = Selector.open();
+        ServerSocketChannel serverChannel = ServerSocketChannel.open();
+        try {
+            serverChannel.socket().setReuseAddress(true);
+            serverChannel.socket().bind(new InetSocketAddress(port));
+            serverChannel.configureBlocking(false);
+            serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+        } catch (IOException ex) {
+            serverChannel.close();
+            selector.close();
+            throw ex;
+        }
+        this.serverChannel = serverChannel;
+        this.selector = selector;
+        this.lastIdleCheck = System.currentTimeMillis();
+        notifyAll();
+    }
+
+    private void registerParkedConnections() {
+        NIOHttpConnection conn;
+        while ((conn = this.parkedConnections.poll()) != null) {
+            register(conn);
+        }
+    }
+
+    private void register(NIOHttpConnection conn) {
+        conn.setIdleSince(System.currentTimeMillis());
+        try {
+            conn.getChannel().register(this.selector, SelectionKey.OP_READ, conn);
+        } catch (IOException ex) {
+            LOG.debug("Unable to register HTTP connection", ex);
+            closeQuietly(conn);
+        }
+    }
+
+    private void processSelectedKeys() {
+        for (Iterator<SelectionKey> it = this.selector.selectedKeys().iterator(); it.hasNext(); ) {
+            SelectionKey key = it.next();
+            it.remove();
+            if (!key.isValid()) {
+                continue;
+            }
+            if (key.isAcceptable()) {
+                accept();
+            } else if (key.isReadable()) {
+                read(key, (NIOHttpConnection) key.attachment());
+            }
+        }
+    }
+
+    private void accept() {
+        while (true) {
+            SocketChannel channel;
+            try {
+                channel = this.serverChannel.accept();
+            } catch (IOException ex) {
+                LOG.warn("Unable to accept HTTP connection", ex);
+                return;
+            }
+            if (channel == null) {
+                return;
+            }
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("Incoming HTTP connection from " +
+                        channel.socket().getRemoteSocketAddress());
+            }
+            NIOHttpConnection conn;
+            try {
+                channel.configureBlocking(false);
+                conn = new NIOHttpConnection(channel, this, this.params);
+            } catch (IOException ex) {
+                LOG.debug("Unable to set up HTTP connection", ex);
+                try {
+                    channel.close();
+                } catch (IOException ignore) {
+                }
+                continue;
+            }
+            register(conn);
+        }
+    }
+
+    private void read(SelectionKey key, NIOHttpConnection conn) {
+        try {
+            if (conn.readAvailable() < 0) {
+                LOG.debug("Client closed connection");
+                key.cancel();
+                closeQuietly(conn);
+            } else if (conn.isRequestHeadComplete() || conn.isBufferFull()) {
+                key.cancel();
+                this.readyConnections.add(conn);
+            }
+        } catch (IOException ex) {
+            LOG.debug(ex.getMessage());
+            key.cancel();
+            closeQuietly(conn);
+        }
+    }
+
+    private void dispatchReadyConnections() throws IOException {
+        if (this.readyConnections.isEmpty()) {
+            return;
+        }
+        // The channels are only deregistered from the selector (which is required before they
+        // can be switched back to blocking mode) during the next selection operation
+        this.selector.selectNow();
+        for (NIOHttpConnection conn : this.readyConnections) {
+            try {
+                conn.getChannel().configureBlocking(true);
+            } catch (IOException ex) {
+                LOG.debug("Unable to switch HTTP connection to blocking mode", ex);
+                closeQuietly(conn);
+                continue;
+            }
+            conn.prepareDispatch();
+            try {
+                this.connmanager.process(conn);
+            } catch (RejectedExecutionException e) {
+                try {
+                    conn.sendResponse(new DefaultHttpResponseFactory().newHttpResponse(
+                            HttpVersion.HTTP_1_0, HttpStatus.SC_SERVICE_UNAVAILABLE,
+                            new BasicHttpContext(null)));
+                } catch (Exception ex) {
+                    LOG.debug("Unable to send response", ex);
+                }
+                closeQuietly(conn);
+            }
+        }
+        this.readyConnections.clear();
+    }
+
+    private void closeIdleConnections() {
+        if (this.idleTimeout <= 0) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        if (now - this.lastIdleCheck < IDLE_CHECK_INTERVAL) {
+            return;
+        }
+        this.lastIdleCheck = now;
+        for (SelectionKey key : this.selector.keys()) {
+            Object attachment = key.attachment();
+            if (attachment instanceof NIOHttpConnection) {
+                NIOHttpConnection conn = (NIOHttpConnection) attachment;
+                if (now - conn.getIdleSince() > this.idleTimeout) {
+                    if (LOG.isDebugEnabled()) {
+                        LOG.debug("Closing idle HTTP connection " + conn);
+                    }
+                    key.cancel();
+                    closeQuietly(conn);
+                }
+            }
+        }
+    }
+
+    /**
+     * Hand an idle connection back to the listener. Called by the worker thread that has
+     * processed the last request on the connection.
+     * 
+     * @param conn the connection, with no pending input
+     * @return <code>true</code> if the connection will be watched by the listener, or
+     *         <code>false</code> if the listener has been destroyed
+     */
+    boolean park(final NIOHttpConnection conn) {
+        if (this.destroyed) {
+            return false;
+        }
+        try {
+            conn.getChannel().configureBlocking(false);
+        } catch (IOException ex) {
+            LOG.debug("Unable to switch HTTP connection to non blocking mode", ex);
+            return false;
+        }
+        this.parkedConnections.add(conn);
+        if (this.destroyed && this.parkedConnections.remove(conn)) {
+            return false;
+        }
+        Selector selector = this.selector;
+        if (selector != null) {
+            selector.wakeup();
+        }
+        return true;
+    }
+
+    private static void closeQuietly(final NIOHttpConnection conn) {
+        try {
+            conn.shutdown();
+        } catch (IOException ex) {
+            LOG.debug("I/O error closing HTTP connection", ex);
+        }
+    }
+
+    public synchronized void awaitSocketOpen() throws InterruptedException {
+        while (serverChannel == null && !destroyed) {
+            wait();
+        }
+    }
+
+    public synchronized int getPort() {
+        return serverChannel.socket().getLocalPort();
+    }
+
+    /**
+     * Close the server socket and all idle connections. Should only be called by the thread
+     * running the listener, or when the listener is not running.
+     */
+    public synchronized void close() throws IOException {
+        Selector selector = this.selector;
+        if (selector != null) {
+            for (SelectionKey key : selector.keys()) {
+                Object attachment = key.attachment();
+                if (attachment instanceof NIOHttpConnection) {
+                    closeQuietly((NIOHttpConnection) attachment);
+                }
+            }
+            selector.close();
+            this.selector = null;
+        }
+        NIOHttpConnection conn;
+        while ((conn = this.parkedConnections.poll()) != null) {
+            closeQuietly(conn);
+        }
+        for (NIOHttpConnection readyConn : this.readyConnections) {
+            closeQuietly(readyConn);
+        }
+        this.readyConnections.clear();
+        if (this.serverChannel != null) {
+            this.serverChannel.close();
+            this.serverChannel = null;
+        }
+    }
+
+    /**
+     * Stop the listener. The server socket and the idle connections are closed by the listener
+     * thread.
+     */
+    public void destroy() {
+        this.destroyed = true;
+        Selector selector = this.selector;
+        if (selector != null) {
+            selector.wakeup();
+        }
+    }
+
+    public boolean isDestroyed() {
+        return this.destroyed;
+    }
+
+}
@@ -0,0 +1,194 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.axis2.transport.http.server;
+
+import org.apache.http.params.HttpConnectionParams;
+import org.apache.http.params.HttpParams;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.Socket;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+
+/**
+ * Connection accepted by a {@link NIOConnectionListener}. While the connection is idle, its
+ * channel is in non blocking mode and the listener reads the head of the next request into a
+ * buffer. Once the head is complete, the channel is switched back to blocking mode and the
+ * connection is processed by a worker thread, which reads the buffered bytes before reading
+ * from the socket.
+ */
+class NIOHttpConnection extends AxisHttpConnectionImpl {
+
+    private static final byte CR = 13;
+    private static final byte LF = 10;
+
+    private final SocketChannel channel;
+    private final NIOConnectionListener listener;
+    private final PrefetchInputStream instream;
+
+    /**
+     * The number of bytes in the buffer that have already been searched for the end of the
+     * request head.
+     */
+    private int scanned;
+
+    private long idleSince;
+
+    NIOHttpConnection(final SocketChannel channel, final NIOConnectionListener listener,
+            final HttpParams params) throws IOException {
+        this(channel, listener, new PrefetchInputStream(channel.socket(),
+                HttpConnectionParams.getSocketBufferSize(params)), params);
+    }
+
+    private NIOHttpConnection(final SocketChannel channel, final NIOConnectionListener listener,
+            final PrefetchInputStream instream, final HttpParams params) throws IOException {
+        super(channel.socket(), instream, params);
+        this.channel = channel;
+        this.listener = listener;
+        this.instream = instream;
+    }
+
+    SocketChannel getChannel() {
+        return this.channel;
+    }
+
+    long getIdleSince() {
+        return this.idleSince;
+    }
+
+    void setIdleSince(long idleSince) {
+        this.idleSince = idleSince;
+    }
+
+    /**
+     * Read the data that is available on the (non blocking) channel into the buffer. Must only
+     * be called by the listener while the connection is idle.
+     * 
+     * @return the number of bytes read, or -1 if the client has closed the connection
+     */
+    int readAvailable() throws IOException {
+        return this.channel.read(this.instream.buffer);
+    }
+
+    /**
+     * Check whether the buffer contains the complete head (request line and headers) of a
+     * request, i.e. whether it contains an empty line. As in the HttpCore parser, lines may be
+     * terminated by LF alone instead of CRLF.
+     */
+    boolean isRequestHeadComplete() {
+        ByteBuffer buffer = this.instream.buffer;
+        byte[] data = buffer.array();
+        int end = buffer.position();
+        for (int i = Math.max(this.scanned - 2, 0); i + 1 < end; i++) {
+            if (data[i] == LF) {
+                if (data[i + 1] == LF || (data[i + 1] == CR && i + 2 < end && data[i + 2] == LF)) {
+                    return true;
+                }
+            }
+        }
+        this.scanned = end;
+        return false;
+    }
+
+    /**
+     * Check whether the buffer is full. In that case the request head is too large to be
+     * buffered, and the remaining part is read by the worker thread.
+     */
+    boolean isBufferFull() {
+        return !this.instream.buffer.hasRemaining();
+    }
+
+    /**
+     * Prepare the buffered bytes to be consumed by the worker thread.
+     */
+    void prepareDispatch() {
+        // Call flip() through Buffer, so that the code also runs on Java 8, where
+        // ByteBuffer doesn't override it
+        ((Buffer)this.instream.buffer).flip();
+        this.scanned = 0;
+    }
+
+    /**
+     * Hand the connection back to the listener if there is no pending input, so that it no
+     * longer occupies a worker thread while waiting for the next request.
+     * 
+     * @return <code>true</code> if the connection has been handed back to the listener, or
+     *         <code>false</code> if the caller should continue to process requests on it
+     */
+    boolean park() {
+        if (!isOpen() || hasBufferedInput() || this.instream.buffer.hasRemaining()) {
+            return false;
+        }
+        ((Buffer)this.instream.buffer).clear();
+        return this.listener.park(this);
+    }
+
+    /**
+     * Input stream that returns the bytes read by the listener before reading from the socket.
+     */
+    private static class PrefetchInputStream extends InputStream {
+
+        private final Socket socket;
+        private final ByteBuffer buffer;
+        private InputStream socketStream;
+
+        PrefetchInputStream(final Socket socket, int buffersize) {
+            this.socket = socket;
+            this.buffer = ByteBuffer.allocate(buffersize);
+        }
+
+        private InputStream getSocketStream() throws IOException {
+            if (this.socketStream == null) {
+                this.socketStream = this.socket.getInputStream();
+            }
+            return this.socketStream;
+        }
+
+        public int read() throws IOException {
+            if (this.buffer.hasRemaining()) {
+                return this.buffer.get() & 0xFF;
+            }
+            return getSocketStream().read();
+        }
+
+        public int read(byte[] b, int off, int len) throws IOException {
+            int remaining = this.buffer.remaining();
+            if (remaining > 0) {
+                int count = Math.min(remaining, len);
+                this.buffer.get(b, off, count);
+                return count;
+            }
+            return getSocketStream().read(b, off, len);
+        }
+
+        public int available() throws IOException {
+            int remaining = this.buffer.remaining();
+            return remaining > 0 ? remaining : getSocketStream().available();
+        }
+
+        public void close() throws IOException {
+            this.socket.close();
+        }
+
+    }
+
+}
@@ -0,0 +1,263 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.axis2.transport.http;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import javax.xml.namespace.QName;
+
+import junit.framework.TestCase;
+
+import org.apache.axiom.om.OMAbstractFactory;
+import org.apache.axiom.om.OMElement;
+import org.apache.axiom.om.OMFactory;
+import org.apache.axis2.Constants;
+import org.apache.axis2.addressing.EndpointReference;
+import org.apache.axis2.client.Options;
+import org.apache.axis2.client.ServiceClient;
+import org.apache.axis2.client.async.AxisCallback;
+import org.apache.axis2.context.ConfigurationContext;
+import org.apache.axis2.context.ConfigurationContextFactory;
+import org.apache.axis2.context.MessageContext;
+import org.apache.axis2.description.Parameter;
+import org.apache.axis2.description.TransportOutDescription;
+import org.apache.axis2.kernel.http.HTTPConstants;
+import org.apache.axis2.transport.http.impl.httpclient5.HTTPClient5TransportSender;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.EntityDetails;
+import org.apache.hc.core5.http.HttpException;
+import org.apache.hc.core5.http.HttpRequest;
+import org.apache.hc.core5.http.HttpStatus;
+import org.apache.hc.core5.http.HttpVersion;
+import org.apache.hc.core5.http.Message;
+import org.apache.hc.core5.http.ProtocolVersion;
+import org.apache.hc.core5.http.URIScheme;
+import org.apache.hc.core5.http.impl.bootstrap.HttpAsyncServer;
+import org.apache.hc.core5.http.nio.AsyncRequestConsumer;
+import org.apache.hc.core5.http.nio.AsyncServerRequestHandler;
+import org.apache.hc.core5.http.nio.entity.StringAsyncEntityConsumer;
+import org.apache.hc.core5.http.nio.support.AsyncResponseBuilder;
+import org.apache.hc.core5.http.nio.support.BasicRequestConsumer;
+import org.apache.hc.core5.http.protocol.HttpContext;
+import org.apache.hc.core5.http.protocol.HttpCoreContext;
+import org.apache.hc.core5.http2.HttpVersionPolicy;
+import org.apache.hc.core5.http2.impl.nio.bootstrap.H2ServerBootstrap;
+import org.apache.hc.core5.io.CloseMode;
+import org.apache.hc.core5.reactor.ListenerEndpoint;
+
+/**
+ * Tests non-blocking invocations over {@link HTTPClient5TransportSender} against an embedded
+ * server that speaks either HTTP/1.1 or HTTP/2 and echoes the request envelope.
+ */
+public class HTTPClient5NonBlockingTest extends TestCase {
+    private static final int REQUESTS = 100;
+    private static final int IO_THREADS = 2;
+
+    private HttpAsyncServer server;
+    private int port;
+    private final Set<String> connections = Collections.synchronizedSet(new HashSet<String>());
+    private final Set<ProtocolVersion> protocols =
+            Collections.synchronizedSet(new HashSet<ProtocolVersion>());
+    private ConfigurationContext configContext;
+    private HTTPClient5TransportSender sender;
+
+    /**
+     * Start the server. A plain text server can't negotiate the protocol version with a client
+     * that uses HTTP/2 with prior knowledge, so the version must be forced.
+     */
+    private void startServer(boolean http2) throws Exception {
+        server = H2ServerBootstrap.bootstrap()
+                .setVersionPolicy(http2 ? HttpVersionPolicy.FORCE_HTTP_2
+                        : HttpVersionPolicy.FORCE_HTTP_1)
+                .register("*", new AsyncServerRequestHandler<Message<HttpRequest,String>>() {
+                    public AsyncRequestConsumer<Message<HttpRequest,String>> prepare(
+                            HttpRequest request, EntityDetails entityDetails,
+                            HttpContext context) {
+                        return new BasicRequestConsumer<String>(
+                                entityDetails == null ? null : new StringAsyncEntityConsumer());
+                    }
+
+                    public void handle(Message<HttpRequest,String> message,
+                            ResponseTrigger responseTrigger, HttpContext context)
+                            throws HttpException, IOException {
+                        HttpCoreContext coreContext = HttpCoreContext.adapt(context);
+                        connections.add(String.valueOf(
+                                coreContext.getEndpointDetails().getRemoteAddress()));
+                        protocols.add(coreContext.getProtocolVersion());
+                        responseTrigger.submitResponse(
+                                AsyncResponseBuilder.create(HttpStatus.SC_OK)
+                                        .setEntity(message.getBody(), ContentType.TEXT_XML)
+                                        .build(),
+                                context);
+                    }
+                })
+                .create();
+        server.start();
+        ListenerEndpoint endpoint =
+                server.listen(new InetSocketAddress("localhost", 0), URIScheme.HTTP).get();
+        port = ((InetSocketAddress)endpoint.getAddress()).getPort();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        if (sender != null) {
+            sender.stop();
+        }
+        if (configContext != null) {
+            configContext.terminate();
+        }
+        if (server != null) {
+            server.close(CloseMode.GRACEFUL);
+        }
+    }
+
+    private ServiceClient createServiceClient(boolean http2, int port) throws Exception {
+        configContext = ConfigurationContextFactory.createEmptyConfigurationContext();
+        TransportOutDescription transportOut =
+                new TransportOutDescription(Constants.TRANSPORT_HTTP);
+        transportOut.addParameter(new Parameter(HTTPConstants.HTTP2, String.valueOf(http2)));
+        transportOut.addParameter(new Parameter(HTTPConstants.IO_THREAD_COUNT,
+                String.valueOf(IO_THREADS)));
+        transportOut.addParameter(new Parameter(HTTPConstants.MAX_CONNECTIONS_PER_HOST, "4"));
+        sender = new HTTPClient5TransportSender();
+        sender.init(configContext, transportOut);
+        transportOut.setSender(sender);
+        configContext.getAxisConfiguration().addTransportOut(transportOut);
+
+        ServiceClient serviceClient = new ServiceClient(configContext, null);
+        serviceClient.setConcurrent(true);
+        Options options = new Options();
+        options.setTo(new EndpointReference("http://localhost:" + port
+                + "/axis2/services/EchoService"));
+        options.setAction("urn:echo");
+        serviceClient.setOptions(options);
+        return serviceClient;
+    }
+
+    private static OMElement createPayload(int i) {
+        OMFactory factory = OMAbstractFactory.getOMFactory();
+        OMElement payload = factory.createOMElement(new QName("urn:test", "echo"));
+        payload.setText(String.valueOf(i));
+        return payload;
+    }
+
+    private static class Callback implements AxisCallback {
+        private final CountDownLatch latch;
+        private final List<String> results;
+        private final List<Exception> errors;
+        private final Set<String> threads;
+
+        Callback(CountDownLatch latch, List<String> results, List<Exception> errors,
+                Set<String> threads) {
+            this.latch = latch;
+            this.results = results;
+            this.errors = errors;
+            this.threads = threads;
+        }
+
+        public void onMessage(MessageContext msgContext) {
+            results.add(msgContext.getEnvelope().getBody().getFirstElement().getText());
+        }
+
+        public void onFault(MessageContext msgContext) {
+            errors.add(new Exception("Unexpected fault"));
+        }
+
+        public void onError(Exception e) {
+            errors.add(e);
+        }
+
+        public void onComplete() {
+            threads.add(Thread.currentThread().getName());
+            latch.countDown();
+        }
+    }
+
+    private void sendNonBlocking(ServiceClient serviceClient, int count, List<String> results,
+            List<Exception> errors, Set<String> threads) throws Exception {
+        CountDownLatch latch = new CountDownLatch(count);
+        for (int i = 0; i < count; i++) {
+            serviceClient.sendReceiveNonBlocking(createPayload(i),
+                    new Callback(latch, results, errors, threads));
+        }
+        assertTrue(latch.await(30, TimeUnit.SECONDS));
+    }
+
+    private void testNonBlocking(boolean http2) throws Exception {
+        startServer(http2);
+        ServiceClient serviceClient = createServiceClient(http2, port);
+        List<String> results = new CopyOnWriteArrayList<String>();
+        List<Exception> errors = new CopyOnWriteArrayList<Exception>();
+        Set<String> threads = Collections.synchronizedSet(new HashSet<String>());
+        sendNonBlocking(serviceClient, REQUESTS, results, errors, threads);
+        assertEquals(Collections.emptyList(), errors);
+        assertEquals(REQUESTS, results.size());
+        Set<String> expected = new HashSet<String>();
+        for (int i = 0; i < REQUESTS; i++) {
+            expected.add(String.valueOf(i));
+        }
+        assertEquals(expected, new HashSet<String>(results));
+        // The callbacks are notified by the I/O threads of the client
+        assertTrue(threads.size() <= IO_THREADS);
+    }
+
+    public void testNonBlockingHTTP11() throws Exception {
+        testNonBlocking(false);
+        assertEquals(Collections.singleton(HttpVersion.HTTP_1_1), protocols);
+        assertTrue(connections.size() <= 4);
+    }
+
+    public void testNonBlockingHTTP2() throws Exception {
+        testNonBlocking(true);
+        assertEquals(Collections.singleton(HttpVersion.HTTP_2), protocols);
+        // All requests are multiplexed over a single connection
+        assertEquals(1, connections.size());
+    }
+
+    public void testBlockingHTTP2() throws Exception {
+        startServer(true);
+        ServiceClient serviceClient = createServiceClient(true, port);
+        OMElement result = serviceClient.sendReceive(createPayload(42));
+        assertEquals("42", result.getText());
+        assertEquals(Collections.singleton(HttpVersion.HTTP_2), protocols);
+    }
+
+    public void testConnectionRefused() throws Exception {
+        ServerSocket serverSocket = new ServerSocket(0);
+        int unusedPort = serverSocket.getLocalPort();
+        serverSocket.close();
+        ServiceClient serviceClient = createServiceClient(false, unusedPort);
+        List<String> results = new CopyOnWriteArrayList<String>();
+        List<Exception> errors = new CopyOnWriteArrayList<Exception>();
+        Set<String> threads = Collections.synchronizedSet(new HashSet<String>());
+        sendNonBlocking(serviceClient, 1, results, errors, threads);
+        assertEquals(0, results.size());
+        assertEquals(1, errors.size());
+    }
+}
@@ -0,0 +1,44 @@
+/*
+* Licensed to the Apache Software Foundation (ASF) under one
+* or more contributor license agreements. See the NOTICE file
+* distributed with this work for additional information
+* regarding copyright ownership. The ASF licenses this file
+* to you under the Apache License, Version 2.0 (the
+* "License"); you may not use this file except in compliance
+* with the License. You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing,
+* software distributed under the License is distributed on an
+* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+* KIND, either express or implied. See the License for the
+* specific language governing permissions and limitations
+* under the License.
+*/
+
+package org.apache.axis2.transport.http;
+
+import org.apache.axis2.transport.http.impl.httpclient5.HTTPClient5TransportSender;
+import org.apache.axis2.transport.http.impl.httpclient5.HTTPSenderImpl;
+
+public class HTTPClient5SenderTest extends HTTPSenderTest {
+    private HTTPClient5TransportSender transportSender;
+
+    @Override
+    protected void tearDown() throws Exception {
+        if (transportSender != null) {
+            transportSender.stop();
+            transportSender = null;
+        }
+        super.tearDown();
+    }
+
+    @Override
+    protected HTTPSender getHTTPSender() {
+        if (transportSender == null) {
+            transportSender = new HTTPClient5TransportSender();
+        }
+        return new HTTPSenderImpl(transportSender);
+    }
+}
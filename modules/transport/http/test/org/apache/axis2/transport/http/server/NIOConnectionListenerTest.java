@@ -0,0 +1,175 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.axis2.transport.http.server;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import org.apache.axis2.Constants;
+import org.apache.axis2.context.ConfigurationContext;
+import org.apache.axis2.context.MessageContext;
+import org.apache.axis2.description.Parameter;
+import org.apache.axis2.description.TransportInDescription;
+import org.apache.axis2.engine.AxisConfiguration;
+import org.apache.axis2.transport.http.SimpleHTTPServer;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpStatus;
+import org.apache.http.impl.DefaultBHttpClientConnection;
+import org.apache.http.message.BasicHttpRequest;
+import org.apache.http.util.EntityUtils;
+
+/**
+ * Tests for {@link NIOConnectionListener}: a server with a handful of request threads must be
+ * able to serve many more keep-alive connections that are idle most of the time. By default
+ * {@link #testManyIdleConnections()} uses a modest number of connections; to run it as a load
+ * test with thousands of connections, set the <code>NIOConnectionListenerTest.connections</code>
+ * system property (e.g. <code>-DNIOConnectionListenerTest.connections=2000</code>).
+ */
+public class NIOConnectionListenerTest extends TestCase {
+    private static final int THREADS = 4;
+    private static final int CONNECTIONS =
+            Integer.getInteger("NIOConnectionListenerTest.connections", 100);
+
+    private SimpleHttpServer server;
+    private final List<DefaultBHttpClientConnection> connections =
+            new ArrayList<DefaultBHttpClientConnection>();
+
+    protected void setUp() throws Exception {
+        AxisConfiguration axisConfiguration = new AxisConfiguration();
+        TransportInDescription transportIn = new TransportInDescription(Constants.TRANSPORT_HTTP);
+        transportIn.addParameter(new Parameter(HttpFactory.PARAMETER_NIO_LISTENER, "true"));
+        transportIn.addParameter(new Parameter(
+                HttpFactory.PARAMETER_REQUEST_CORE_THREAD_POOL_SIZE, String.valueOf(THREADS)));
+        transportIn.addParameter(new Parameter(
+                HttpFactory.PARAMETER_REQUEST_MAX_THREAD_POOL_SIZE, String.valueOf(THREADS)));
+        transportIn.setReceiver(new SimpleHTTPServer());
+        axisConfiguration.addTransportIn(transportIn);
+        ConfigurationContext configurationContext = new ConfigurationContext(axisConfiguration);
+        WorkerFactory workerFactory = new WorkerFactory() {
+            public Worker newWorker() {
+                return new Worker() {
+                    public void service(AxisHttpRequest request, AxisHttpResponse response,
+                            MessageContext msgContext) throws IOException {
+                        response.setStatus(HttpStatus.SC_OK);
+                        response.setContentType("text/plain");
+                        response.getOutputStream().write(
+                                request.getRequestURI().getBytes("US-ASCII"));
+                    }
+                };
+            }
+        };
+        server = new SimpleHttpServer(new HttpFactory(configurationContext, 0, workerFactory), 0);
+        server.init();
+        server.start();
+    }
+
+    protected void tearDown() throws Exception {
+        for (DefaultBHttpClientConnection connection : connections) {
+            connection.close();
+        }
+        connections.clear();
+        server.destroy();
+    }
+
+    private DefaultBHttpClientConnection connect() throws IOException {
+        Socket socket = new Socket(InetAddress.getLoopbackAddress(), server.getPort());
+        socket.setSoTimeout(10000);
+        DefaultBHttpClientConnection connection = new DefaultBHttpClientConnection(8192);
+        connection.bind(socket);
+        connections.add(connection);
+        return connection;
+    }
+
+    private static String get(DefaultBHttpClientConnection connection, String uri)
+            throws Exception {
+        BasicHttpRequest request = new BasicHttpRequest("GET", uri);
+        request.addHeader("Host", "localhost");
+        connection.sendRequestHeader(request);
+        connection.flush();
+        return readResponse(connection);
+    }
+
+    private static String readResponse(DefaultBHttpClientConnection connection)
+            throws Exception {
+        HttpResponse response = connection.receiveResponseHeader();
+        assertEquals(HttpStatus.SC_OK, response.getStatusLine().getStatusCode());
+        connection.receiveResponseEntity(response);
+        return EntityUtils.toString(response.getEntity());
+    }
+
+    public void testManyIdleConnections() throws Exception {
+        for (int i = 0; i < CONNECTIONS; i++) {
+            assertEquals("/" + i, get(connect(), "/" + i));
+        }
+        // All connections are now idle; reuse some of them in a different order
+        for (int i = CONNECTIONS - 1; i >= 0; i -= 7) {
+            assertEquals("/again/" + i, get(connections.get(i), "/again/" + i));
+        }
+        assertEquals("/new", get(connect(), "/new"));
+    }
+
+    public void testFragmentedRequestHead() throws Exception {
+        DefaultBHttpClientConnection idle = connect();
+        assertEquals("/idle", get(idle, "/idle"));
+        Socket socket = new Socket(InetAddress.getLoopbackAddress(), server.getPort());
+        try {
+            socket.setSoTimeout(10000);
+            OutputStream out = socket.getOutputStream();
+            out.write("GET /fragmented HTTP/1.1\r\nHo".getBytes("US-ASCII"));
+            out.flush();
+            Thread.sleep(200);
+            out.write("st: localhost\r\n\r\n".getBytes("US-ASCII"));
+            out.flush();
+            DefaultBHttpClientConnection connection = new DefaultBHttpClientConnection(8192);
+            connection.bind(socket);
+            assertEquals("/fragmented", readResponse(connection));
+        } finally {
+            socket.close();
+        }
+        assertEquals("/idle", get(idle, "/idle"));
+    }
+
+    private String sendRawRequestHead(String head) throws Exception {
+        Socket socket = new Socket(InetAddress.getLoopbackAddress(), server.getPort());
+        try {
+            socket.setSoTimeout(10000);
+            OutputStream out = socket.getOutputStream();
+            out.write(head.getBytes("US-ASCII"));
+            out.flush();
+            DefaultBHttpClientConnection connection = new DefaultBHttpClientConnection(8192);
+            connection.bind(socket);
+            return readResponse(connection);
+        } finally {
+            socket.close();
+        }
+    }
+
+    public void testBareLFRequestHead() throws Exception {
+        assertEquals("/lf", sendRawRequestHead("GET /lf HTTP/1.1\nHost: localhost\n\n"));
+        assertEquals("/mixed",
+                sendRawRequestHead("GET /mixed HTTP/1.1\r\nHost: localhost\n\r\n"));
+    }
+}
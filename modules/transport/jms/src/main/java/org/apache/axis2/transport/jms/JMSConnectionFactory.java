@@ -64,6 +64,8 @@ public class JMSConnectionFactory {
     private Destination sharedDestination = null;
     /** The shared JMS connection for this JMS connection factory */
     private int cacheLevel = JMSConstants.CACHE_CONNECTION;
+    /** The pool of Sessions and MessageProducers, if producer pooling is enabled */
+    private JMSProducerPool producerPool = null;
 
     /**
      * Digest a JMS CF definition from an axis2.xml 'Parameter' and construct
@@ -86,6 +88,7 @@ public class JMSConnectionFactory {
         }
 
         digestCacheLevel();
+        digestProducerPoolSize();
         try {
             context = new InitialContext(parameters);
             conFactory = JMSUtils.lookup(context, ConnectionFactory.class,
@@ -129,10 +132,32 @@ public class JMSConnectionFactory {
         }
     }
     
+    /**
+     * Create the producer pool if a pool size is specified
+     */
+    private void digestProducerPoolSize() {
+        String val = parameters.get(JMSConstants.PARAM_PRODUCER_POOL_SIZE);
+        if (val != null) {
+            int poolSize;
+            try {
+                poolSize = Integer.parseInt(val.trim());
+            } catch (NumberFormatException e) {
+                throw new AxisJMSException("Invalid producer pool size : " + val +
+                    " for JMS CF : " + name, e);
+            }
+            if (poolSize > 0) {
+                producerPool = new JMSProducerPool(poolSize);
+            }
+        }
+    }
+
     /**
      * Close all connections, sessions etc.. and stop this connection factory
      */
     public synchronized void stop() {
+        if (producerPool != null) {
+            producerPool.close();
+        }
         if (sharedConnection != null) {
             try {
             	sharedConnection.close();
@@ -378,11 +403,58 @@ public class JMSConnectionFactory {
         }
     }
 
+    /**
+     * Is producer pooling enabled for this JMS CF?
+     * @return true, if messages should be sent using {@link #borrowProducer(String, Destination)}
+     */
+    public boolean isProducerPoolEnabled() {
+        return producerPool != null;
+    }
+
+    /**
+     * Get a Session and MessageProducer for the exclusive use of the caller from the producer
+     * pool, creating them over the shared Connection if there is no idle one
+     * @param destinationName the name used to look up the destination
+     * @param destination the Destination to bind the MessageProducer to
+     * @return a pooled producer, to be returned with {@link #returnProducer}
+     */
+    JMSProducerPool.PooledProducer borrowProducer(String destinationName, Destination destination) {
+        JMSProducerPool.PooledProducer pooledProducer = producerPool.borrow(destinationName);
+        if (pooledProducer == null) {
+            Session session = createSession(getSharedConnection());
+            MessageProducer producer = createProducer(session, destination);
+            try {
+                pooledProducer = new JMSProducerPool.PooledProducer(
+                    destinationName, session, producer);
+            } catch (JMSException e) {
+                handleException("Error reading JMS producer settings from JMS CF : " + name, e);
+            }
+            if (log.isDebugEnabled()) {
+                log.debug("Created pooled JMS MessageProducer for : " + destinationName +
+                    " from JMS CF : " + name);
+            }
+        }
+        return pooledProducer;
+    }
+
+    /**
+     * Return a pooled producer obtained from {@link #borrowProducer(String, Destination)}
+     * @param pooledProducer the pooled producer
+     * @param reusable false if the Session may be unusable, e.g. because sending failed
+     */
+    void returnProducer(JMSProducerPool.PooledProducer pooledProducer, boolean reusable) {
+        if (reusable) {
+            producerPool.release(pooledProducer);
+        } else {
+            producerPool.invalidate(pooledProducer);
+        }
+    }
+
     /**
      * Get a new Connection or shared Connection from this JMS CF
      * @return new or shared Connection from this JMS CF
      */
-    private synchronized Connection getSharedConnection() {
+    synchronized Connection getSharedConnection() {
         if  (sharedConnection == null) {
             sharedConnection = createConnection();
             if (log.isDebugEnabled()) {
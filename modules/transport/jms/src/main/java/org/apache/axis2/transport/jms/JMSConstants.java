@@ -148,6 +148,14 @@ public class JMSConstants {
      * {@link CACHE_CONSUMER}, or {@link CACHE_AUTO} - to let the transport decide
      */
     public static final String PARAM_CACHE_LEVEL = "transport.jms.CacheLevel";
+    /**
+     * The maximum number of idle Sessions and MessageProducers a JMS connection factory used for
+     * sending keeps per destination. If set to a positive value, each message is sent with a
+     * Session and MessageProducer used exclusively by the sending thread and returned to the pool
+     * afterwards, over the shared Connection of the connection factory. This replaces the shared
+     * or new Session and MessageProducer implied by the cache level.
+     */
+    public static final String PARAM_PRODUCER_POOL_SIZE = "transport.jms.ProducerPoolSize";
     /** Should a pub-sub connection receive messages published by itself? */
     public static final String PARAM_PUBSUB_NO_LOCAL = "transport.jms.PubSubNoLocal";
     /**
@@ -206,6 +214,13 @@ public class JMSConstants {
      * The message type indicating a TextMessage. See {@link JMS_MESSAGE_TYPE}
      */
     public static final String JMS_TEXT_MESSAGE = "JMS_TEXT_MESSAGE";
+    /**
+     * A MessageContext property or client Option indicating that the SOAP envelope may be
+     * consumed while it is written to the JMS message, instead of being built in memory. This
+     * avoids holding the whole incoming payload in memory when forwarding large messages, but the
+     * envelope can no longer be accessed after the message has been sent.
+     */
+    public static final String JMS_CONSUME_ENVELOPE = "JMS_CONSUME_ENVELOPE";
     /**
      * A MessageContext property or client Option indicating the time to wait for a response JMS message
      */
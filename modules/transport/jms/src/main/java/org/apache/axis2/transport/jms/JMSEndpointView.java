@@ -0,0 +1,81 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *   * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.axis2.transport.jms;
+
+import org.apache.axis2.transport.base.TransportListenerEndpointView;
+
+/**
+ * MBean exposing the consumer count and throughput of a service listening on JMS. All values
+ * are 0 if the service has no active {@link ServiceTaskManager}, e.g. while it is being
+ * redeployed.
+ */
+public class JMSEndpointView extends TransportListenerEndpointView implements JMSEndpointViewMBean {
+    private final JMSListener listener;
+    private final String serviceName;
+
+    public JMSEndpointView(JMSListener listener, String serviceName) {
+        super(listener, serviceName);
+        this.listener = listener;
+        this.serviceName = serviceName;
+    }
+
+    private ServiceTaskManager getServiceTaskManager() {
+        for (JMSEndpoint endpoint : listener.getEndpoints()) {
+            if (serviceName.equals(endpoint.getServiceName())) {
+                return endpoint.getServiceTaskManager();
+            }
+        }
+        return null;
+    }
+
+    public int getConcurrentConsumers() {
+        ServiceTaskManager stm = getServiceTaskManager();
+        return stm == null ? 0 : stm.getConcurrentConsumers();
+    }
+
+    public int getMaxConcurrentConsumers() {
+        ServiceTaskManager stm = getServiceTaskManager();
+        return stm == null ? 0 : stm.getMaxConcurrentConsumers();
+    }
+
+    public int getActiveTaskCount() {
+        ServiceTaskManager stm = getServiceTaskManager();
+        return stm == null ? 0 : stm.getActiveTaskCount();
+    }
+
+    public int getConsumerCount() {
+        ServiceTaskManager stm = getServiceTaskManager();
+        return stm == null ? 0 : stm.getConsumerCount();
+    }
+
+    public int getWaitingTaskCount() {
+        ServiceTaskManager stm = getServiceTaskManager();
+        return stm == null ? 0 : stm.getWaitingTaskCount();
+    }
+
+    public long getMessagesReceived() {
+        ServiceTaskManager stm = getServiceTaskManager();
+        return stm == null ? 0 : stm.getMessagesReceived();
+    }
+
+    public double getAverageProcessingTime() {
+        ServiceTaskManager stm = getServiceTaskManager();
+        return stm == null ? 0 : stm.getAverageProcessingTime();
+    }
+}
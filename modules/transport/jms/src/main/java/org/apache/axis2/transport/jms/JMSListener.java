@@ -22,6 +22,7 @@ import org.apache.axis2.description.Parameter;
 import org.apache.axis2.transport.base.AbstractTransportListenerEx;
 import org.apache.axis2.transport.base.BaseConstants;
 import org.apache.axis2.transport.base.ManagementSupport;
+import org.apache.axis2.transport.base.TransportListenerEndpointView;
 import org.apache.axis2.transport.base.event.TransportErrorListener;
 import org.apache.axis2.transport.base.event.TransportErrorSource;
 import org.apache.axis2.transport.base.event.TransportErrorSourceSupport;
@@ -64,6 +65,11 @@ public class JMSListener extends AbstractTransportListenerEx<JMSEndpoint> implem
         return new JMSEndpoint(this, workerPool);
     }
 
+    @Override
+    protected TransportListenerEndpointView createEndpointView(String serviceName) {
+        return new JMSEndpointView(this, serviceName);
+    }
+
     /**
      * Listen for JMS messages on behalf of the given service
      *
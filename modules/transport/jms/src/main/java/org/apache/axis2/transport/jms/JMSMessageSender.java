@@ -50,6 +50,12 @@ public class JMSMessageSender {
     private boolean jmsSpec11 = true;
     /** Are we sending to a Queue ? */
     private Boolean isQueue = null;
+    /** The JMS CF the session and producer were borrowed from, if producer pooling is used */
+    private JMSConnectionFactory jmsConnectionFactory = null;
+    /** The pooled session and producer, if producer pooling is used */
+    private JMSProducerPool.PooledProducer pooledProducer = null;
+    /** Set if the last send failed, in which case the pooled session is not reused */
+    private boolean sendFailed = false;
 
     /**
      * This is a low-end method to support the one-time sends using JMS 1.0.2b
@@ -83,6 +89,24 @@ public class JMSMessageSender {
 
         this.cacheLevel  = jmsConnectionFactory.getCacheLevel();
         this.jmsSpec11   = jmsConnectionFactory.isJmsSpec11();
+
+        if (jmsConnectionFactory.isProducerPoolEnabled()) {
+            String destinationName = jmsConnectionFactory.getSharedDestination() == null ?
+                JMSUtils.getDestination(targetAddress) :
+                jmsConnectionFactory.getParameters().get(JMSConstants.PARAM_DESTINATION);
+            this.destination =
+                jmsConnectionFactory.getSharedDestination() == null ?
+                    jmsConnectionFactory.getDestination(destinationName,
+                            JMSConstants.DESTINATION_TYPE_GENERIC) :
+                    jmsConnectionFactory.getSharedDestination();
+            this.jmsConnectionFactory = jmsConnectionFactory;
+            this.connection     = jmsConnectionFactory.getSharedConnection();
+            this.pooledProducer = jmsConnectionFactory.borrowProducer(destinationName, destination);
+            this.session        = pooledProducer.getSession();
+            this.producer       = pooledProducer.getProducer();
+            return;
+        }
+
         this.connection  = jmsConnectionFactory.getConnection();
         this.session     = jmsConnectionFactory.getSession(connection);
         this.destination =
@@ -172,6 +196,8 @@ public class JMSMessageSender {
 
         } finally {
 
+            sendFailed = !sendingSuccessful;
+
             if (jtaCommit != null) {
 
                 UserTransaction ut = (UserTransaction) msgCtx.getProperty(BaseConstants.USER_TRANSACTION);
@@ -222,9 +248,20 @@ public class JMSMessageSender {
     }
 
     /**
-     * Close non-shared producer, session and connection if any
+     * Close non-shared producer, session and connection if any, or return the pooled producer
+     * and session to the pool
      */
     public void close() {
+        if (pooledProducer != null) {
+            jmsConnectionFactory.returnProducer(pooledProducer, !sendFailed);
+            pooledProducer = null;
+            producer = null;
+            session = null;
+            // the connection is shared
+            connection = null;
+            return;
+        }
+
         if (producer != null && cacheLevel < JMSConstants.CACHE_PRODUCER) {
             try {
                 producer.close();
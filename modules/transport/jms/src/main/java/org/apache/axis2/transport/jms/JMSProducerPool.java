@@ -0,0 +1,185 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.axis2.transport.jms;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import javax.jms.JMSException;
+import javax.jms.MessageProducer;
+import javax.jms.Session;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.Map;
+
+/**
+ * Pool of JMS Sessions and MessageProducers used to send messages, keyed by destination name.
+ * Each pooled producer has its own Session, so that a sender has exclusive use of it between
+ * {@link #borrow(String)} and {@link #release(PooledProducer)}, while the Connection they were
+ * created from is shared. At most <code>maxIdle</code> producers are kept per destination;
+ * additional producers are closed when they are released.
+ */
+class JMSProducerPool {
+
+    private static final Log log = LogFactory.getLog(JMSProducerPool.class);
+
+    /**
+     * A Session and a MessageProducer created from it, together with the producer settings
+     * to restore when the producer is returned to the pool
+     */
+    static class PooledProducer {
+        private final String destinationName;
+        private final Session session;
+        private final MessageProducer producer;
+        private final int deliveryMode;
+        private final int priority;
+        private final long timeToLive;
+
+        PooledProducer(String destinationName, Session session, MessageProducer producer)
+                throws JMSException {
+            this.destinationName = destinationName;
+            this.session = session;
+            this.producer = producer;
+            deliveryMode = producer.getDeliveryMode();
+            priority = producer.getPriority();
+            timeToLive = producer.getTimeToLive();
+        }
+
+        String getDestinationName() {
+            return destinationName;
+        }
+
+        Session getSession() {
+            return session;
+        }
+
+        MessageProducer getProducer() {
+            return producer;
+        }
+
+        /**
+         * Undo the changes that a sender may have made to the producer settings
+         */
+        void reset() throws JMSException {
+            producer.setDeliveryMode(deliveryMode);
+            producer.setPriority(priority);
+            producer.setTimeToLive(timeToLive);
+        }
+
+        void close() {
+            try {
+                producer.close();
+            } catch (JMSException e) {
+                log.warn("Error closing pooled JMS MessageProducer for : " + destinationName, e);
+            }
+            try {
+                session.close();
+            } catch (JMSException e) {
+                log.warn("Error closing pooled JMS Session for : " + destinationName, e);
+            }
+        }
+    }
+
+    /** The maximum number of idle producers kept per destination */
+    private final int maxIdle;
+    /** The idle producers, by destination name */
+    private final Map<String, LinkedList<PooledProducer>> idleProducers =
+            new HashMap<String, LinkedList<PooledProducer>>();
+    /** Set once the pool has been closed */
+    private boolean closed;
+
+    JMSProducerPool(int maxIdle) {
+        this.maxIdle = maxIdle;
+    }
+
+    /**
+     * Take an idle producer for the given destination out of the pool
+     * @param destinationName the name of the destination
+     * @return an idle producer, or null if there is none and the caller needs to create one
+     */
+    synchronized PooledProducer borrow(String destinationName) {
+        LinkedList<PooledProducer> idle = idleProducers.get(destinationName);
+        return idle == null ? null : idle.pollFirst();
+    }
+
+    /**
+     * Return a producer to the pool after a successful send. The producer is closed instead
+     * if its settings cannot be reset, the pool is full or the pool has been closed.
+     * @param pooledProducer the producer taken from the pool or created by the caller
+     */
+    void release(PooledProducer pooledProducer) {
+        try {
+            pooledProducer.reset();
+        } catch (JMSException e) {
+            log.warn("Error resetting pooled JMS MessageProducer for : " +
+                pooledProducer.getDestinationName() + "; discarding it", e);
+            pooledProducer.close();
+            return;
+        }
+        synchronized (this) {
+            if (!closed) {
+                LinkedList<PooledProducer> idle =
+                        idleProducers.get(pooledProducer.getDestinationName());
+                if (idle == null) {
+                    idle = new LinkedList<PooledProducer>();
+                    idleProducers.put(pooledProducer.getDestinationName(), idle);
+                }
+                if (idle.size() < maxIdle) {
+                    idle.addFirst(pooledProducer);
+                    return;
+                }
+            }
+        }
+        pooledProducer.close();
+    }
+
+    /**
+     * Close a producer that may no longer be usable (e.g. after a failed send) instead of
+     * returning it to the pool
+     * @param pooledProducer the producer taken from the pool or created by the caller
+     */
+    void invalidate(PooledProducer pooledProducer) {
+        pooledProducer.close();
+    }
+
+    /**
+     * Close all idle producers. Producers released after this are closed immediately.
+     */
+    void close() {
+        LinkedList<PooledProducer> toClose = new LinkedList<PooledProducer>();
+        synchronized (this) {
+            closed = true;
+            for (LinkedList<PooledProducer> idle : idleProducers.values()) {
+                toClose.addAll(idle);
+            }
+            idleProducers.clear();
+        }
+        for (PooledProducer pooledProducer : toClose) {
+            pooledProducer.close();
+        }
+    }
+
+    /**
+     * @return the number of idle producers for the given destination
+     */
+    synchronized int getIdleCount(String destinationName) {
+        LinkedList<PooledProducer> idle = idleProducers.get(destinationName);
+        return idle == null ? 0 : idle.size();
+    }
+}
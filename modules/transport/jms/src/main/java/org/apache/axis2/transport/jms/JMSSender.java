@@ -34,6 +34,7 @@ import org.apache.axis2.transport.jms.iowrappers.BytesMessageOutputStream;
 import org.apache.commons.io.output.WriterOutputStream;
 
 import javax.jms.*;
+import java.io.BufferedOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.io.StringWriter;
@@ -360,7 +361,9 @@ public class JMSSender extends AbstractTransportSender implements ManagementSupp
             if (useBytesMessage) {
                 BytesMessage bytesMsg = session.createBytesMessage();
                 sw = null;
-                out = new BytesMessageOutputStream(bytesMsg);
+                // buffer the small writes done by the formatter (e.g. MIME headers), since
+                // each write to the message may be expensive depending on the provider
+                out = new BufferedOutputStream(new BytesMessageOutputStream(bytesMsg));
                 message = bytesMsg;
             } else {
                 sw = new StringWriter();
@@ -373,7 +376,8 @@ public class JMSSender extends AbstractTransportSender implements ManagementSupp
             }
             
             try {
-                messageFormatter.writeTo(msgContext, format, out, true);
+                messageFormatter.writeTo(msgContext, format, out,
+                        !msgContext.isPropertyTrue(JMSConstants.JMS_CONSUME_ENVELOPE));
                 out.close();
             } catch (IOException e) {
                 handleException("IO Error while creating BytesMessage", e);
@@ -35,6 +35,7 @@ import javax.transaction.SystemException;
 import javax.transaction.Status;
 import java.util.*;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Each service will have one ServiceTaskManager instance that will create, manage and also destroy
@@ -138,6 +139,12 @@ public class ServiceTaskManager {
     private volatile int activeTaskCount = 0;
     /** The number of existing JMS message consumers. */
     private final AtomicInteger consumerCount = new AtomicInteger();
+    /** The number of tasks currently waiting for a message, i.e. the spare consumer capacity */
+    private final AtomicInteger waitingTaskCount = new AtomicInteger();
+    /** The number of messages received */
+    private final AtomicLong messagesReceived = new AtomicLong();
+    /** The total time spent processing received messages, in nanoseconds */
+    private final AtomicLong totalProcessingTime = new AtomicLong();
     /** The shared thread pool from the Listener */
     private WorkerPool workerPool = null;
 
@@ -284,28 +291,44 @@ public class ServiceTaskManager {
     }
 
     /**
-     * Start a new MessageListenerTask if we are still active, the threshold is not reached, and w
-     * e do not have any idle tasks - i.e. scale up listening
+     * Start a new MessageListenerTask if we are still active, the threshold is not reached, and
+     * no task is waiting for the next message - i.e. scale up listening
+     * <p>
+     * The threshold is checked and the new task registered atomically, so that tasks calling
+     * this method concurrently never exceed MaxConcurrentConsumers. The waiting task count on
+     * the other hand is only a hint: a task that has just finished processing a message is not
+     * counted until it calls receive again, so an unneeded task may occasionally be started. Such
+     * a task is stopped again once it reaches the idle task execution limit.
      */
     private void scheduleNewTaskIfAppropriate() {
-        if (serviceTaskManagerState == STATE_STARTED &&
-            pollingTasks.size() < getMaxConcurrentConsumers() && getIdleTaskCount() == 0) {
-            workerPool.execute(new MessageListenerTask());
+        MessageListenerTask task = null;
+        synchronized(pollingTasks) {
+            if (serviceTaskManagerState == STATE_STARTED &&
+                pollingTasks.size() < getMaxConcurrentConsumers() && waitingTaskCount.get() == 0) {
+                task = new MessageListenerTask();
+            }
+        }
+        if (task != null) {
+            workerPool.execute(task);
         }
     }
 
     /**
-     * Get the number of MessageListenerTasks that are currently idle
-     * @return idle task count
+     * Decide whether a task that reached the idle execution limit should stop - i.e. scale down
+     * listening. This is the case if there are more tasks than the configured number of
+     * concurrent consumers. The task is removed from the polling tasks at the same time, so that
+     * tasks that become idle simultaneously don't all stop.
+     * @param task the idle task
+     * @return true if the task should stop
      */
-    private int getIdleTaskCount() {
-        int count = 0;
-        for (MessageListenerTask lstTask : pollingTasks) {
-            if (lstTask.isTaskIdle()) {
-                count++;
+    private boolean releaseIdleTask(MessageListenerTask task) {
+        synchronized(pollingTasks) {
+            if (pollingTasks.size() > getConcurrentConsumers()) {
+                pollingTasks.remove(task);
+                return true;
             }
+            return false;
         }
-        return count;
     }
 
     /**
@@ -337,6 +360,10 @@ public class ServiceTaskManager {
         private volatile int workerState = STATE_STOPPED;
         /** The number of idle (i.e. without fetching a message) polls for this task */
         private int idleExecutionCount = 0;
+        /** The time spent waiting for the last message received, in nanoseconds */
+        private long lastWaitTime = 0;
+        /** The time spent processing the last message received, in nanoseconds */
+        private long lastProcessingTime = 0;
         /** Is this task idle right now? */
         private volatile boolean idle = false;
         /** Is this task connected to the JMS provider successfully? */
@@ -386,6 +413,7 @@ public class ServiceTaskManager {
             workerState = STATE_STARTED;
             activeTaskCount++;
             int messageCount = 0;
+            boolean released = false;
 
             if (log.isDebugEnabled()) {
                 log.debug("New poll task starting : thread id = " + Thread.currentThread().getId());
@@ -393,8 +421,7 @@ public class ServiceTaskManager {
 
             try {
                 while (isActive() &&
-                    (getMaxMessagesPerTask() < 0 || messageCount < getMaxMessagesPerTask()) &&
-                    (getConcurrentConsumers() == 1 || idleExecutionCount < getIdleTaskExecutionLimit())) {
+                    (getMaxMessagesPerTask() < 0 || messageCount < getMaxMessagesPerTask())) {
 
                     UserTransaction ut = null;
                     try {
@@ -431,13 +458,34 @@ public class ServiceTaskManager {
                         idle = false;
                         idleExecutionCount = 0;
                         messageCount++;
-                        // I will be busy now while processing this message, so start another if needed
-                        scheduleNewTaskIfAppropriate();
-                        handleMessage(message, ut);
+                        messagesReceived.incrementAndGet();
+                        // I will be busy now while processing this message. If I spent less time
+                        // waiting for it than processing the previous one, the consumers can't
+                        // keep up, so start another if no other task is waiting for messages.
+                        // There is no previous processing time for the first message of a task,
+                        // so a task never scales up on its first message; a backlog is detected
+                        // on the second one.
+                        if (lastWaitTime < lastProcessingTime) {
+                            scheduleNewTaskIfAppropriate();
+                        }
+                        long start = System.nanoTime();
+                        try {
+                            handleMessage(message, ut);
+                        } finally {
+                            lastProcessingTime = System.nanoTime() - start;
+                            totalProcessingTime.addAndGet(lastProcessingTime);
+                        }
 
                     } else {
                         idle = true;
                         idleExecutionCount++;
+                        if (idleExecutionCount >= getIdleTaskExecutionLimit()) {
+                            if (releaseIdleTask(this)) {
+                                released = true;
+                                break;
+                            }
+                            idleExecutionCount = 0;
+                        }
                     }
                 }
 
@@ -469,8 +517,8 @@ public class ServiceTaskManager {
                 }
 
                 // if this is a JMS onException, ServiceTaskManager#onException will schedule
-                // a new polling task
-                if (!isOnExceptionError) {
+                // a new polling task. If I was idle, I am not needed.
+                if (!isOnExceptionError && !released) {
                     // My time is up, so if I am going away, create another
                     scheduleNewTaskIfAppropriate();
                 }
@@ -501,6 +549,8 @@ public class ServiceTaskManager {
                     + (getReceiveTimeout() < 0 ? "unlimited" : (getReceiveTimeout() + "ms")));
             }
 
+            long start = System.nanoTime();
+            waitingTaskCount.incrementAndGet();
             try {
                 if (getReceiveTimeout() < 0) {
                     return consumer.receive();
@@ -511,6 +561,9 @@ public class ServiceTaskManager {
                 // probably the consumer (shared) was closed.. which is still ok.. as we didn't read
             } catch (JMSException e) {
                 logError("Error receiving message for service : " + serviceName, e);
+            } finally {
+                waitingTaskCount.decrementAndGet();
+                lastWaitTime = System.nanoTime() - start;
             }
             return null;
         }
@@ -1243,6 +1296,35 @@ public class ServiceTaskManager {
     public int getConsumerCount() {
         return consumerCount.get();
     }
+
+    /**
+     * Get the number of polling tasks that are currently waiting for a message.
+     *
+     * @return the number of waiting tasks
+     */
+    public int getWaitingTaskCount() {
+        return waitingTaskCount.get();
+    }
+
+    /**
+     * Get the number of messages received by the polling tasks.
+     *
+     * @return the number of messages received
+     */
+    public long getMessagesReceived() {
+        return messagesReceived.get();
+    }
+
+    /**
+     * Get the average time taken to process a received message, including the commit or
+     * acknowledgement.
+     *
+     * @return the average processing time in milliseconds, or 0 if no message has been received
+     */
+    public double getAverageProcessingTime() {
+        long count = messagesReceived.get();
+        return count == 0 ? 0 : totalProcessingTime.get() / 1000000.0 / count;
+    }
     
     public void setServiceTaskManagerState(int serviceTaskManagerState) {
         this.serviceTaskManagerState = serviceTaskManagerState;
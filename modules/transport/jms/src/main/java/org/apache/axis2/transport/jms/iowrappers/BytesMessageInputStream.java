@@ -29,7 +29,15 @@ import javax.jms.MessageEOFException;
  * {@link BytesMessage} at the same time.
  */
 public class BytesMessageInputStream extends InputStream {
+    private static final int BUFFER_SIZE = 4096;
+
     private final BytesMessage message;
+    /**
+     * Buffer used for reads into a non zero offset, since {@link BytesMessage} only supports
+     * reading into the beginning of an array. It is reused to avoid allocating an array for each
+     * read. Such reads return at most {@link #BUFFER_SIZE} bytes.
+     */
+    private byte[] buffer;
 
     public BytesMessageInputStream(BytesMessage message) {
         this.message = message;
@@ -48,28 +56,32 @@ public class BytesMessageInputStream extends InputStream {
 
     @Override
     public int read(byte[] b, int off, int len) throws JMSExceptionWrapper {
-        if (off == 0) {
-            try {
+        if (off < 0 || len < 0 || len > b.length - off) {
+            throw new IndexOutOfBoundsException();
+        }
+        if (len == 0) {
+            return 0;
+        }
+        try {
+            if (off == 0) {
                 return message.readBytes(b, len);
-            } catch (JMSException ex) {
-                throw new JMSExceptionWrapper(ex);
-            }
-        } else {
-            byte[] b2 = new byte[len];
-            int c = read(b2);
-            if (c > 0) {
-                System.arraycopy(b2, 0, b, off, c); 
+            } else {
+                if (buffer == null) {
+                    buffer = new byte[BUFFER_SIZE];
+                }
+                int c = message.readBytes(buffer, Math.min(len, BUFFER_SIZE));
+                if (c > 0) {
+                    System.arraycopy(buffer, 0, b, off, c);
+                }
+                return c;
             }
-            return c;
+        } catch (JMSException ex) {
+            throw new JMSExceptionWrapper(ex);
         }
     }
 
     @Override
     public int read(byte[] b) throws JMSExceptionWrapper {
-        try {
-            return message.readBytes(b);
-        } catch (JMSException ex) {
-            throw new JMSExceptionWrapper(ex);
-        }
+        return read(b, 0, b.length);
     }
 }
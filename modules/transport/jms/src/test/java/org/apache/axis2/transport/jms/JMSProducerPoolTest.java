@@ -0,0 +1,110 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.axis2.transport.jms;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import javax.jms.DeliveryMode;
+import javax.jms.JMSException;
+import javax.jms.MessageProducer;
+import javax.jms.Session;
+
+import org.apache.axis2.transport.jms.JMSProducerPool.PooledProducer;
+import org.junit.Test;
+
+public class JMSProducerPoolTest {
+    private static PooledProducer createPooledProducer(String destinationName) throws Exception {
+        MessageProducer producer = mock(MessageProducer.class);
+        when(producer.getDeliveryMode()).thenReturn(DeliveryMode.NON_PERSISTENT);
+        when(producer.getPriority()).thenReturn(4);
+        when(producer.getTimeToLive()).thenReturn(0L);
+        return new PooledProducer(destinationName, mock(Session.class), producer);
+    }
+
+    @Test
+    public void testReuse() throws Exception {
+        JMSProducerPool pool = new JMSProducerPool(2);
+        assertThat(pool.borrow("queue")).isNull();
+        PooledProducer pooledProducer = createPooledProducer("queue");
+        pooledProducer.getProducer().setPriority(9);
+        pool.release(pooledProducer);
+        // The settings changed by the sender are restored
+        verify(pooledProducer.getProducer()).setPriority(4);
+        verify(pooledProducer.getProducer()).setDeliveryMode(DeliveryMode.NON_PERSISTENT);
+        assertThat(pool.getIdleCount("queue")).isEqualTo(1);
+        assertThat(pool.borrow("other")).isNull();
+        assertThat(pool.borrow("queue")).isSameAs(pooledProducer);
+        assertThat(pool.borrow("queue")).isNull();
+        verify(pooledProducer.getSession(), never()).close();
+    }
+
+    @Test
+    public void testMaxIdle() throws Exception {
+        JMSProducerPool pool = new JMSProducerPool(2);
+        PooledProducer[] pooledProducers = new PooledProducer[3];
+        for (int i = 0; i < pooledProducers.length; i++) {
+            pooledProducers[i] = createPooledProducer("queue");
+        }
+        for (PooledProducer pooledProducer : pooledProducers) {
+            pool.release(pooledProducer);
+        }
+        assertThat(pool.getIdleCount("queue")).isEqualTo(2);
+        verify(pooledProducers[0].getSession(), never()).close();
+        verify(pooledProducers[1].getSession(), never()).close();
+        verify(pooledProducers[2].getProducer()).close();
+        verify(pooledProducers[2].getSession()).close();
+    }
+
+    @Test
+    public void testInvalidate() throws Exception {
+        JMSProducerPool pool = new JMSProducerPool(2);
+        PooledProducer pooledProducer = createPooledProducer("queue");
+        pool.invalidate(pooledProducer);
+        verify(pooledProducer.getSession()).close();
+        assertThat(pool.getIdleCount("queue")).isEqualTo(0);
+    }
+
+    @Test
+    public void testResetFailure() throws Exception {
+        JMSProducerPool pool = new JMSProducerPool(2);
+        PooledProducer pooledProducer = createPooledProducer("queue");
+        doThrow(new JMSException("closed")).when(pooledProducer.getProducer()).setPriority(4);
+        pool.release(pooledProducer);
+        verify(pooledProducer.getSession()).close();
+        assertThat(pool.getIdleCount("queue")).isEqualTo(0);
+    }
+
+    @Test
+    public void testClose() throws Exception {
+        JMSProducerPool pool = new JMSProducerPool(2);
+        PooledProducer idle = createPooledProducer("queue");
+        PooledProducer inUse = createPooledProducer("queue");
+        pool.release(idle);
+        pool.close();
+        verify(idle.getSession()).close();
+        pool.release(inUse);
+        verify(inUse.getSession()).close();
+        assertThat(pool.borrow("queue")).isNull();
+    }
+}
@@ -0,0 +1,239 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.axis2.transport.jms;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.jms.Connection;
+import javax.jms.Message;
+import javax.jms.MessageProducer;
+import javax.jms.Queue;
+import javax.jms.Session;
+import javax.naming.Context;
+
+import org.apache.activemq.ActiveMQConnectionFactory;
+import org.apache.axis2.transport.base.threads.WorkerPool;
+import org.apache.axis2.transport.testkit.tests.TestResourceSet;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+/**
+ * Tests the scaling of the polling tasks of {@link ServiceTaskManager} against an embedded
+ * ActiveMQ broker.
+ */
+public class ServiceTaskManagerTest {
+    private static final String CONNECTION_FACTORY = "ConnectionFactory";
+    private static final String QUEUE = "ServiceTaskManagerTestQueue";
+    private static final int CONCURRENT_CONSUMERS = 1;
+    private static final int MAX_CONCURRENT_CONSUMERS = 4;
+    private static final int RECEIVE_TIMEOUT = 100;
+
+    private TestResourceSet resources;
+    private ActiveMQTestEnvironment env;
+    private Context context;
+    private ExecutorService executor;
+    private ServiceTaskManager stm;
+
+    private final AtomicInteger processing = new AtomicInteger();
+    private final AtomicInteger maxProcessing = new AtomicInteger();
+    private volatile long processingTime;
+    private volatile CountDownLatch processed;
+
+    @Before
+    public void setUp() throws Exception {
+        env = new ActiveMQTestEnvironment();
+        resources = new TestResourceSet();
+        resources.addResources(env, JNDIEnvironment.INSTANCE);
+        resources.resolve();
+        resources.setUp();
+        // Without prefetching, a message is only dispatched to a consumer that calls receive, so
+        // that a backlog can be shared by several consumers
+        ((ActiveMQConnectionFactory)env.getConnectionFactory()).getPrefetchPolicy()
+                .setQueuePrefetch(0);
+        context = JNDIEnvironment.INSTANCE.getContext();
+        context.rebind(CONNECTION_FACTORY, env.getConnectionFactory());
+        context.rebind(QUEUE, env.createQueue(QUEUE));
+
+        executor = Executors.newCachedThreadPool();
+        WorkerPool workerPool = new WorkerPool() {
+            public void execute(Runnable task) {
+                executor.execute(task);
+            }
+
+            public int getActiveCount() {
+                return 0;
+            }
+
+            public int getQueueSize() {
+                return 0;
+            }
+
+            public void shutdown(int timeout) throws InterruptedException {
+                executor.shutdown();
+                executor.awaitTermination(timeout, TimeUnit.MILLISECONDS);
+            }
+        };
+
+        JMSMessageReceiver receiver = mock(JMSMessageReceiver.class);
+        // The UserTransaction is null since the tasks don't use JTA
+        when(receiver.onMessage(any(Message.class), any())).thenAnswer(
+                new Answer<Boolean>() {
+                    public Boolean answer(InvocationOnMock invocation) throws Throwable {
+                        int current = processing.incrementAndGet();
+                        int max;
+                        while ((max = maxProcessing.get()) < current
+                                && !maxProcessing.compareAndSet(max, current)) {
+                            // retry
+                        }
+                        try {
+                            Thread.sleep(processingTime);
+                        } finally {
+                            processing.decrementAndGet();
+                            processed.countDown();
+                        }
+                        return true;
+                    }
+                });
+
+        stm = new ServiceTaskManager();
+        stm.setServiceName("ServiceTaskManagerTest");
+        stm.setConnFactoryJNDIName(CONNECTION_FACTORY);
+        stm.setDestinationJNDIName(QUEUE);
+        stm.setDestinationType(JMSConstants.QUEUE);
+        stm.setConcurrentConsumers(CONCURRENT_CONSUMERS);
+        stm.setMaxConcurrentConsumers(MAX_CONCURRENT_CONSUMERS);
+        stm.setIdleTaskExecutionLimit(2);
+        stm.setReceiveTimeout(RECEIVE_TIMEOUT);
+        stm.setJmsMessageReceiver(receiver);
+        stm.setWorkerPool(workerPool);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        stm.stop();
+        executor.shutdownNow();
+        context.unbind(CONNECTION_FACTORY);
+        context.unbind(QUEUE);
+        resources.tearDown();
+    }
+
+    private void send(int count) throws Exception {
+        Connection connection = env.getConnectionFactory().createConnection();
+        try {
+            Session session = connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+            Queue queue = env.createQueue(QUEUE);
+            MessageProducer producer = session.createProducer(queue);
+            for (int i = 0; i < count; i++) {
+                producer.send(session.createTextMessage(String.valueOf(i)));
+            }
+        } finally {
+            connection.close();
+        }
+    }
+
+    private int getPollingTaskCount() {
+        synchronized (stm.getPollingTasks()) {
+            return stm.getPollingTasks().size();
+        }
+    }
+
+    private void awaitPollingTaskCount(int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10000;
+        while (getPollingTaskCount() != count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(getPollingTaskCount()).isEqualTo(count);
+    }
+
+    @Test
+    public void testScaleUpUnderBacklogAndDownWhenIdle() throws Exception {
+        int messages = 40;
+        processingTime = 50;
+        processed = new CountDownLatch(messages);
+        send(messages);
+        stm.start();
+        assertThat(processed.await(30, TimeUnit.SECONDS)).isTrue();
+
+        // The backlog was processed by more than one, but never by more than the maximum
+        // number of consumers
+        assertThat(maxProcessing.get()).isGreaterThan(CONCURRENT_CONSUMERS)
+                .isLessThanOrEqualTo(MAX_CONCURRENT_CONSUMERS);
+
+        // Once idle, the additional tasks stop, but not the configured concurrent consumers
+        awaitPollingTaskCount(CONCURRENT_CONSUMERS);
+        Thread.sleep(RECEIVE_TIMEOUT * 10);
+        assertThat(getPollingTaskCount()).isEqualTo(CONCURRENT_CONSUMERS);
+        assertThat(stm.getConsumerCount()).isEqualTo(CONCURRENT_CONSUMERS);
+
+        JMSEndpoint endpoint = mock(JMSEndpoint.class);
+        when(endpoint.getServiceName()).thenReturn("ServiceTaskManagerTest");
+        when(endpoint.getServiceTaskManager()).thenReturn(stm);
+        JMSListener listener = mock(JMSListener.class);
+        when(listener.getEndpoints()).thenReturn(Collections.singletonList(endpoint));
+        JMSEndpointView view = new JMSEndpointView(listener, "ServiceTaskManagerTest");
+        assertThat(view.getConcurrentConsumers()).isEqualTo(CONCURRENT_CONSUMERS);
+        assertThat(view.getMaxConcurrentConsumers()).isEqualTo(MAX_CONCURRENT_CONSUMERS);
+        assertThat(view.getConsumerCount()).isEqualTo(CONCURRENT_CONSUMERS);
+        assertThat(view.getWaitingTaskCount()).isBetween(0, CONCURRENT_CONSUMERS);
+        assertThat(view.getMessagesReceived()).isEqualTo(messages);
+        assertThat(view.getAverageProcessingTime()).isGreaterThanOrEqualTo(processingTime);
+
+        JMSEndpointView otherView = new JMSEndpointView(listener, "OtherService");
+        assertThat(otherView.getConsumerCount()).isEqualTo(0);
+        assertThat(otherView.getMessagesReceived()).isEqualTo(0);
+    }
+
+    /**
+     * A task compares the time it waited for a message with the time it took to process the
+     * previous one. For the first message of a task there is no previous message, so receiving
+     * it never starts another task, however long it takes to process.
+     */
+    @Test
+    public void testNoScaleUpOnFirstMessage() throws Exception {
+        processingTime = RECEIVE_TIMEOUT * 5;
+        processed = new CountDownLatch(1);
+        stm.start();
+        awaitPollingTaskCount(CONCURRENT_CONSUMERS);
+        send(1);
+        long deadline = System.currentTimeMillis() + 10000;
+        while (processing.get() == 0 && processed.getCount() > 0
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(processing.get()).isEqualTo(1);
+        assertThat(getPollingTaskCount()).isEqualTo(CONCURRENT_CONSUMERS);
+        assertThat(processed.await(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(getPollingTaskCount()).isEqualTo(CONCURRENT_CONSUMERS);
+        assertThat(stm.getMessagesReceived()).isEqualTo(1);
+    }
+}
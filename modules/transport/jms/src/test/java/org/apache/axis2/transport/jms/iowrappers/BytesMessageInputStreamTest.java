@@ -0,0 +1,74 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.axis2.transport.jms.iowrappers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+
+import javax.jms.BytesMessage;
+
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+public class BytesMessageInputStreamTest {
+    private static BytesMessage createMessage(byte[] content) throws Exception {
+        final ByteArrayInputStream in = new ByteArrayInputStream(content);
+        BytesMessage message = mock(BytesMessage.class);
+        when(message.readBytes(any(byte[].class), anyInt())).thenAnswer(new Answer<Integer>() {
+            public Integer answer(InvocationOnMock invocation) throws Throwable {
+                byte[] b = invocation.getArgument(0);
+                int len = invocation.getArgument(1);
+                return in.read(b, 0, len);
+            }
+        });
+        return message;
+    }
+
+    @Test
+    public void testReadWithOffset() throws Exception {
+        byte[] content = new byte[10000];
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte)i;
+        }
+        BytesMessageInputStream in = new BytesMessageInputStream(createMessage(content));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] b = new byte[9000];
+        int c;
+        while ((c = in.read(b, 7, b.length - 7)) != -1) {
+            // Reads into a non zero offset are limited by the internal buffer
+            assertThat(c).isLessThanOrEqualTo(4096);
+            out.write(b, 7, c);
+        }
+        assertThat(out.toByteArray()).isEqualTo(content);
+    }
+
+    @Test
+    public void testReadZeroLength() throws Exception {
+        BytesMessageInputStream in = new BytesMessageInputStream(createMessage(new byte[0]));
+        assertThat(in.read(new byte[10], 5, 0)).isEqualTo(0);
+        assertThat(in.read(new byte[10])).isEqualTo(-1);
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.axis2.transport.tcp;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.util.Deque;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pool of idle client connections used by {@link TCPTransportSender} for framed endpoints (see
+ * {@link TCPConstants#URL_PARAM_FRAMED}). A connection is only returned to the pool once the
+ * exchange it was used for is complete, so a pooled connection is never shared by two requests.
+ * Only connections used for request/reply exchanges are pooled; connections used to send one way
+ * messages are closed because the server may still send a (fault) frame on them.
+ */
+class TCPConnectionPool {
+
+    private static final Log log = LogFactory.getLog(TCPConnectionPool.class);
+
+    private static class HostPool {
+        final Deque<Socket> idle = new ConcurrentLinkedDeque<Socket>();
+        final AtomicInteger size = new AtomicInteger();
+    }
+
+    private final int maxIdlePerHost;
+    private final ConcurrentMap<String, HostPool> pools = new ConcurrentHashMap<String, HostPool>();
+
+    TCPConnectionPool(int maxIdlePerHost) {
+        this.maxIdlePerHost = maxIdlePerHost;
+    }
+
+    /**
+     * Get an idle connection to the given host.
+     *
+     * @param hostKey the host and port of the target endpoint
+     * @return an idle connection, or <code>null</code> if none is available
+     */
+    Socket getConnection(String hostKey) {
+        HostPool pool = pools.get(hostKey);
+        if (pool == null) {
+            return null;
+        }
+        Socket socket;
+        while ((socket = pool.idle.pollFirst()) != null) {
+            pool.size.decrementAndGet();
+            if (isReusable(socket)) {
+                return socket;
+            }
+            close(socket);
+        }
+        return null;
+    }
+
+    /**
+     * Return a connection to the pool. The connection is closed if the pool for the host is full.
+     *
+     * @param hostKey the host and port of the target endpoint
+     * @param socket the connection
+     */
+    void release(String hostKey, Socket socket) {
+        HostPool pool = pools.get(hostKey);
+        if (pool == null) {
+            HostPool newPool = new HostPool();
+            pool = pools.putIfAbsent(hostKey, newPool);
+            if (pool == null) {
+                pool = newPool;
+            }
+        }
+        if (pool.size.incrementAndGet() <= maxIdlePerHost) {
+            pool.idle.offerFirst(socket);
+        } else {
+            pool.size.decrementAndGet();
+            close(socket);
+        }
+    }
+
+    /**
+     * Close all idle connections.
+     */
+    void shutdown() {
+        for (HostPool pool : pools.values()) {
+            Socket socket;
+            while ((socket = pool.idle.pollFirst()) != null) {
+                pool.size.decrementAndGet();
+                close(socket);
+            }
+        }
+    }
+
+    /**
+     * Check whether a pooled connection can be reused. A connection that has been closed locally,
+     * that has unread data or that has been closed by the server (typically because it has been
+     * idle for too long) is not reusable. The server may still close the connection after the
+     * check.
+     */
+    private static boolean isReusable(Socket socket) {
+        if (socket.isClosed() || socket.isInputShutdown() || socket.isOutputShutdown()) {
+            return false;
+        }
+        try {
+            InputStream in = socket.getInputStream();
+            if (in.available() != 0) {
+                return false;
+            }
+            // Detect the end of stream sent by the server when it closed the connection; a
+            // connection that is still open has nothing to read and the read times out
+            int soTimeout = socket.getSoTimeout();
+            socket.setSoTimeout(1);
+            try {
+                in.read();
+                return false;
+            } catch (SocketTimeoutException e) {
+                return true;
+            } finally {
+                socket.setSoTimeout(soTimeout);
+            }
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static void close(Socket socket) {
+        try {
+            socket.close();
+        } catch (IOException e) {
+            log.debug("Error while closing a pooled TCP socket", e);
+        }
+    }
+}
@@ -25,9 +25,25 @@ public class TCPConstants {
     public static final String PARAM_HOST = "transport.tcp.hostname";
     public static final String PARAM_BACKLOG = "transport.tcp.backlog";
     public static final String PARAM_CONTENT_TYPE = "transport.tcp.contentType";
+    public static final String PARAM_NIO = "transport.tcp.nio";
+    public static final String PARAM_IO_THREADS = "transport.tcp.ioThreads";
+    public static final String PARAM_MAX_MESSAGE_SIZE = "transport.tcp.maxMessageSize";
+    public static final String PARAM_IDLE_TIMEOUT = "transport.tcp.idleTimeout";
+    public static final String PARAM_MAX_IDLE_CONNECTIONS = "transport.tcp.maxIdleConnectionsPerHost";
 
     public static final int TCP_DEFAULT_BACKLOG = 50;
     public static final String TCP_DEFAULT_CONTENT_TYPE = "text/xml";
+    public static final int TCP_DEFAULT_IO_THREADS = 2;
+    public static final int TCP_DEFAULT_MAX_MESSAGE_SIZE = 16 * 1024 * 1024;
+    public static final int TCP_DEFAULT_IDLE_TIMEOUT = 60000;
+    public static final int TCP_DEFAULT_MAX_IDLE_CONNECTIONS = 10;
+
+    /**
+     * Name of the URL query parameter that indicates that messages are exchanged as length
+     * prefixed frames over a persistent connection. Endpoints in NIO mode add this parameter to
+     * their EPRs.
+     */
+    public static final String URL_PARAM_FRAMED = "framed";
 
     public static final String TCP_OUTPUT_SOCKET = "transport.tcp.outputSocket";
 }
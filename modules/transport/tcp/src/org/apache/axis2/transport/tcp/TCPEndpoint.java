@@ -36,6 +36,10 @@ public class TCPEndpoint extends ProtocolEndpoint {
     private int port = -1;
     private int backlog = TCPConstants.TCP_DEFAULT_BACKLOG;
     private String contentType;
+    private boolean nio;
+    private int ioThreads = TCPConstants.TCP_DEFAULT_IO_THREADS;
+    private int maxMessageSize = TCPConstants.TCP_DEFAULT_MAX_MESSAGE_SIZE;
+    private int idleTimeout = TCPConstants.TCP_DEFAULT_IDLE_TIMEOUT;
 
     public TCPEndpoint() {
 
@@ -63,6 +67,34 @@ public class TCPEndpoint extends ProtocolEndpoint {
         return contentType;
     }
 
+    /**
+     * Check whether this endpoint uses the selector based server. In that mode, messages are
+     * exchanged as length prefixed frames and connections are kept open between messages.
+     *
+     * @return <code>true</code> if the endpoint uses the selector based server
+     */
+    public boolean isNio() {
+        return nio;
+    }
+
+    public int getIoThreads() {
+        return ioThreads;
+    }
+
+    public int getMaxMessageSize() {
+        return maxMessageSize;
+    }
+
+    /**
+     * Get the time after which the selector based server closes a connection on which no data
+     * has been exchanged and no request is being processed.
+     *
+     * @return the idle timeout in milliseconds, or 0 if idle connections are never closed
+     */
+    public int getIdleTimeout() {
+        return idleTimeout;
+    }
+
     public boolean loadConfiguration(ParameterInclude params) throws AxisFault {
         port = ParamUtils.getOptionalParamInt(params, TCPConstants.PARAM_PORT, -1);
         if (port == -1) {
@@ -77,6 +109,13 @@ public class TCPEndpoint extends ProtocolEndpoint {
         host = ParamUtils.getOptionalParam(params, TCPConstants.PARAM_HOST);
         backlog = ParamUtils.getOptionalParamInt(params, TCPConstants.PARAM_BACKLOG,
                 TCPConstants.TCP_DEFAULT_BACKLOG);
+        nio = ParamUtils.getOptionalParamBoolean(params, TCPConstants.PARAM_NIO, false);
+        ioThreads = ParamUtils.getOptionalParamInt(params, TCPConstants.PARAM_IO_THREADS,
+                TCPConstants.TCP_DEFAULT_IO_THREADS);
+        maxMessageSize = ParamUtils.getOptionalParamInt(params, TCPConstants.PARAM_MAX_MESSAGE_SIZE,
+                TCPConstants.TCP_DEFAULT_MAX_MESSAGE_SIZE);
+        idleTimeout = ParamUtils.getOptionalParamInt(params, TCPConstants.PARAM_IDLE_TIMEOUT,
+                TCPConstants.TCP_DEFAULT_IDLE_TIMEOUT);
         return true;
     }
 
@@ -97,8 +136,15 @@ public class TCPEndpoint extends ProtocolEndpoint {
                 (context.endsWith("/") ? "" : "/") +
                 (getService() == null ? service.getName() : getServiceName());
 
+        String query = "";
         if (!contentType.equals(TCPConstants.TCP_DEFAULT_CONTENT_TYPE)) {
-            url += "?contentType=" + contentType;
+            query += "&contentType=" + contentType;
+        }
+        if (nio) {
+            query += "&" + TCPConstants.URL_PARAM_FRAMED + "=true";
+        }
+        if (query.length() > 0) {
+            url += "?" + query.substring(1);
         }
 
         return new EndpointReference[] { new EndpointReference(url) };
@@ -0,0 +1,212 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.axis2.transport.tcp;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A connection accepted by a {@link TCPNIOServer}. Messages are exchanged as frames consisting of
+ * a 4 byte big endian length followed by the message bytes. Reading and writing is done by the
+ * I/O thread owning the connection; {@link #sendFrame(byte[])} may be called from any thread.
+ */
+public class TCPNIOConnection {
+
+    private final SocketChannel channel;
+    private final TCPNIOReactor reactor;
+    private final int maxMessageSize;
+    private final ByteBuffer header = ByteBuffer.allocate(4);
+    private final Queue<ByteBuffer> writeQueue = new ConcurrentLinkedQueue<ByteBuffer>();
+    /**
+     * The number of received messages that are still being processed by worker threads; at most
+     * one, because reading is suspended while a message is being processed
+     */
+    private final AtomicInteger activeRequests = new AtomicInteger();
+    private volatile long lastActivity = System.currentTimeMillis();
+    private ByteBuffer payload;
+    private SelectionKey key;
+
+    TCPNIOConnection(SocketChannel channel, TCPNIOReactor reactor, int maxMessageSize) {
+        this.channel = channel;
+        this.reactor = reactor;
+        this.maxMessageSize = maxMessageSize;
+    }
+
+    void setKey(SelectionKey key) {
+        this.key = key;
+    }
+
+    SocketChannel getChannel() {
+        return channel;
+    }
+
+    /**
+     * Read from the channel until a complete frame is available or no more data can be read
+     * without blocking. Must only be called by the I/O thread.
+     *
+     * @return the message contained in the frame, or <code>null</code> if the frame is not
+     *         complete yet
+     * @throws EOFException if the peer closed the connection
+     * @throws IOException if an I/O error occurs or the frame is too large
+     */
+    byte[] readFrame() throws IOException {
+        if (payload == null) {
+            int c = channel.read(header);
+            if (c == -1) {
+                throw new EOFException();
+            }
+            if (c > 0) {
+                lastActivity = System.currentTimeMillis();
+            }
+            if (header.hasRemaining()) {
+                return null;
+            }
+            // The Buffer casts keep the calls within the Java 8 API (see sendFrame)
+            ((Buffer)header).flip();
+            int length = header.getInt();
+            ((Buffer)header).clear();
+            if (length < 0 || length > maxMessageSize) {
+                throw new IOException("Invalid message length " + length + " (maximum is "
+                        + maxMessageSize + ")");
+            }
+            payload = ByteBuffer.allocate(length);
+        }
+        if (payload.hasRemaining()) {
+            int c = channel.read(payload);
+            if (c == -1) {
+                throw new EOFException("Connection closed in the middle of a message");
+            }
+            if (c > 0) {
+                lastActivity = System.currentTimeMillis();
+            }
+        }
+        if (payload.hasRemaining()) {
+            return null;
+        }
+        byte[] message = payload.array();
+        payload = null;
+        return message;
+    }
+
+    /**
+     * Queue a message to be sent as a frame on this connection. This method may be called from
+     * any thread; the data is written by the I/O thread.
+     *
+     * @param message the message
+     */
+    public void sendFrame(byte[] message) {
+        ByteBuffer buffer = ByteBuffer.allocate(4 + message.length);
+        buffer.putInt(message.length);
+        buffer.put(message);
+        // Call flip() through Buffer, so that the code also runs on Java 8, where
+        // ByteBuffer doesn't override it
+        ((Buffer)buffer).flip();
+        writeQueue.add(buffer);
+        reactor.execute(new Runnable() {
+            public void run() {
+                if (key.isValid()) {
+                    key.interestOps(key.interestOps() | SelectionKey.OP_WRITE);
+                }
+            }
+        });
+    }
+
+    /**
+     * Write as much of the queued data as possible without blocking. Must only be called by the
+     * I/O thread.
+     *
+     * @return <code>true</code> if all queued data has been written
+     * @throws IOException if an I/O error occurs
+     */
+    boolean flush() throws IOException {
+        ByteBuffer buffer;
+        while ((buffer = writeQueue.peek()) != null) {
+            if (channel.write(buffer) > 0) {
+                lastActivity = System.currentTimeMillis();
+            }
+            if (buffer.hasRemaining()) {
+                return false;
+            }
+            writeQueue.remove();
+        }
+        return true;
+    }
+
+    /**
+     * Record that a message received on this connection has been handed over to a worker thread.
+     * Reading from the connection is suspended until the processing of the message is complete,
+     * so that the responses to messages pipelined on the connection are sent in the order of the
+     * requests. Must only be called by the I/O thread.
+     */
+    void requestStarted() {
+        activeRequests.incrementAndGet();
+        key.interestOps(key.interestOps() & ~SelectionKey.OP_READ);
+    }
+
+    /**
+     * Record that the processing of a message received on this connection is complete, i.e. that
+     * its response, if any, has been queued, and resume reading. May be called from any thread.
+     */
+    void requestCompleted() {
+        lastActivity = System.currentTimeMillis();
+        activeRequests.decrementAndGet();
+        reactor.execute(new Runnable() {
+            public void run() {
+                if (key.isValid()) {
+                    key.interestOps(key.interestOps() | SelectionKey.OP_READ);
+                }
+            }
+        });
+    }
+
+    /**
+     * Check whether the connection has been idle for the given time, i.e. whether no data has
+     * been exchanged and no request has been processed during that time. Must only be called by
+     * the I/O thread.
+     *
+     * @param now the current time in milliseconds
+     * @param idleTimeout the idle timeout in milliseconds
+     * @return <code>true</code> if the connection should be closed
+     */
+    boolean isIdle(long now, long idleTimeout) {
+        return activeRequests.get() == 0 && writeQueue.isEmpty()
+                && now - lastActivity >= idleTimeout;
+    }
+
+    /**
+     * Close the connection. Must only be called by the I/O thread.
+     */
+    void close() {
+        if (key != null) {
+            key.cancel();
+        }
+        try {
+            channel.close();
+        } catch (IOException ignored) {
+        }
+    }
+}
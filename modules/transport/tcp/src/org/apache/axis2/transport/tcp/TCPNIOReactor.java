@@ -0,0 +1,191 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.axis2.transport.tcp;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * I/O thread of a {@link TCPNIOServer}. Each reactor owns a {@link Selector} and multiplexes a
+ * set of connections. Operations on the selector requested by other threads are queued and
+ * executed by the thread running {@link #run()}. If an idle timeout is configured, the reactor
+ * periodically closes connections that have been idle for longer than that timeout.
+ */
+class TCPNIOReactor implements Runnable {
+
+    private static final Log log = LogFactory.getLog(TCPNIOReactor.class);
+
+    private final TCPNIOServer server;
+    private final int maxMessageSize;
+    private final long idleTimeout;
+    private final Selector selector;
+    private final Queue<Runnable> pendingOperations = new ConcurrentLinkedQueue<Runnable>();
+    private volatile boolean running = true;
+
+    TCPNIOReactor(TCPNIOServer server, int maxMessageSize, long idleTimeout) throws IOException {
+        this.server = server;
+        this.maxMessageSize = maxMessageSize;
+        this.idleTimeout = idleTimeout;
+        selector = Selector.open();
+    }
+
+    /**
+     * Execute the given operation in the I/O thread.
+     *
+     * @param operation the operation
+     */
+    void execute(Runnable operation) {
+        pendingOperations.add(operation);
+        selector.wakeup();
+    }
+
+    void registerAcceptor(final ServerSocketChannel serverChannel) {
+        execute(new Runnable() {
+            public void run() {
+                try {
+                    serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+                } catch (IOException e) {
+                    log.error("Unable to register the TCP server socket", e);
+                }
+            }
+        });
+    }
+
+    void register(final SocketChannel channel) {
+        execute(new Runnable() {
+            public void run() {
+                TCPNIOConnection connection = new TCPNIOConnection(channel,
+                        TCPNIOReactor.this, maxMessageSize);
+                try {
+                    channel.configureBlocking(false);
+                    connection.setKey(channel.register(selector, SelectionKey.OP_READ, connection));
+                } catch (IOException e) {
+                    log.error("Unable to register TCP connection", e);
+                    connection.close();
+                }
+            }
+        });
+    }
+
+    void stop() {
+        running = false;
+        selector.wakeup();
+    }
+
+    public void run() {
+        // Connections are closed at most one check interval after their idle timeout has expired
+        long idleCheckInterval = Math.min(idleTimeout, 1000);
+        long nextIdleCheck = System.currentTimeMillis() + idleCheckInterval;
+        try {
+            while (running) {
+                selector.select(idleTimeout > 0 ? idleCheckInterval : 0);
+                Runnable operation;
+                while ((operation = pendingOperations.poll()) != null) {
+                    operation.run();
+                }
+                for (Iterator<SelectionKey> it = selector.selectedKeys().iterator(); it.hasNext(); ) {
+                    SelectionKey key = it.next();
+                    it.remove();
+                    if (!key.isValid()) {
+                        continue;
+                    }
+                    if (key.isAcceptable()) {
+                        server.accept();
+                    } else {
+                        process(key, (TCPNIOConnection)key.attachment());
+                    }
+                }
+                if (idleTimeout > 0) {
+                    long now = System.currentTimeMillis();
+                    if (now >= nextIdleCheck) {
+                        closeIdleConnections(now);
+                        nextIdleCheck = now + idleCheckInterval;
+                    }
+                }
+            }
+        } catch (IOException e) {
+            log.error("Exception in select; TCP I/O thread will be shut down", e);
+        } catch (ClosedSelectorException ignored) {
+        } finally {
+            for (SelectionKey key : selector.keys()) {
+                Object attachment = key.attachment();
+                if (attachment instanceof TCPNIOConnection) {
+                    ((TCPNIOConnection)attachment).close();
+                }
+            }
+            try {
+                selector.close();
+            } catch (IOException e) {
+                log.error("Error while closing selector", e);
+            }
+        }
+    }
+
+    private void closeIdleConnections(long now) {
+        for (SelectionKey key : selector.keys()) {
+            Object attachment = key.attachment();
+            if (attachment instanceof TCPNIOConnection) {
+                TCPNIOConnection connection = (TCPNIOConnection)attachment;
+                if (connection.isIdle(now, idleTimeout)) {
+                    if (log.isDebugEnabled()) {
+                        log.debug("Closing idle TCP connection from "
+                                + connection.getChannel().socket().getRemoteSocketAddress());
+                    }
+                    connection.close();
+                }
+            }
+        }
+    }
+
+    private void process(SelectionKey key, TCPNIOConnection connection) {
+        try {
+            if (key.isReadable()) {
+                // Only one message per connection is processed at a time; reading resumes once
+                // it has been processed (see TCPNIOConnection#requestStarted())
+                byte[] message = connection.readFrame();
+                if (message != null) {
+                    server.messageReceived(connection, message);
+                }
+            }
+            if (key.isValid() && key.isWritable() && connection.flush()) {
+                key.interestOps(key.interestOps() & ~SelectionKey.OP_WRITE);
+            }
+        } catch (EOFException e) {
+            if (log.isDebugEnabled()) {
+                log.debug("TCP connection closed by peer", e);
+            }
+            connection.close();
+        } catch (IOException e) {
+            log.error("Error on TCP connection; closing it", e);
+            connection.close();
+        }
+    }
+}
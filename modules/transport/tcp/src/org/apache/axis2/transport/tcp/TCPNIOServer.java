@@ -0,0 +1,111 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.axis2.transport.tcp;
+
+import org.apache.axis2.transport.base.threads.WorkerPool;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+
+/**
+ * Selector based alternative to {@link TCPServer}. Instead of dedicating a worker thread to each
+ * connection, connections are multiplexed on a small number of I/O threads. Messages are read as
+ * length prefixed frames and a task is dispatched to the {@link WorkerPool} only once a complete
+ * message is available. The messages received on a connection are processed one at a time, so
+ * that responses are sent in the order of the requests. Connections stay open after a response
+ * has been sent, so that clients can reuse them, until they have been idle for longer than
+ * {@link TCPEndpoint#getIdleTimeout()}.
+ */
+public class TCPNIOServer {
+
+    private static final Log log = LogFactory.getLog(TCPNIOServer.class);
+
+    private TCPEndpoint endpoint;
+    private WorkerPool workerPool;
+    private ServerSocketChannel serverChannel;
+    private TCPNIOReactor[] reactors;
+    private int nextReactor;
+
+    public TCPNIOServer(TCPEndpoint endpoint, WorkerPool workerPool) {
+        this.endpoint = endpoint;
+        this.workerPool = workerPool;
+    }
+
+    public void startServer() throws IOException {
+        serverChannel = ServerSocketChannel.open();
+        InetSocketAddress address;
+        if (endpoint.getHost() != null) {
+            address = new InetSocketAddress(endpoint.getHost(), endpoint.getPort());
+        } else {
+            address = new InetSocketAddress(endpoint.getPort());
+        }
+        serverChannel.socket().bind(address, endpoint.getBacklog());
+        serverChannel.configureBlocking(false);
+
+        reactors = new TCPNIOReactor[Math.max(1, endpoint.getIoThreads())];
+        for (int i = 0; i < reactors.length; i++) {
+            reactors[i] = new TCPNIOReactor(this, endpoint.getMaxMessageSize(),
+                    endpoint.getIdleTimeout());
+            new Thread(reactors[i], "tcp-io-" + endpoint.getPort() + "-" + i).start();
+        }
+        reactors[0].registerAcceptor(serverChannel);
+        log.info("TCP NIO server started on port : " + endpoint.getPort() + " with "
+                + reactors.length + " I/O thread(s)");
+    }
+
+    public void stopServer() throws IOException {
+        for (TCPNIOReactor reactor : reactors) {
+            reactor.stop();
+        }
+        serverChannel.close();
+        log.info("TCP NIO server stopped on port : " + endpoint.getPort());
+    }
+
+    /**
+     * Accept pending connections and distribute them over the I/O threads. Called by the I/O
+     * thread that owns the server channel.
+     */
+    void accept() {
+        try {
+            SocketChannel channel;
+            while ((channel = serverChannel.accept()) != null) {
+                reactors[nextReactor].register(channel);
+                nextReactor = (nextReactor + 1) % reactors.length;
+            }
+        } catch (IOException e) {
+            log.error("Error while accepting TCP connection", e);
+        }
+    }
+
+    /**
+     * Dispatch a complete message to a worker thread. Called by the I/O threads.
+     *
+     * @param connection the connection the message was received on
+     * @param message the message
+     */
+    void messageReceived(TCPNIOConnection connection, byte[] message) {
+        connection.requestStarted();
+        workerPool.execute(new TCPNIOWorker(endpoint, connection, message));
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.axis2.transport.tcp;
+
+import org.apache.axiom.soap.SOAPEnvelope;
+import org.apache.axis2.Constants;
+import org.apache.axis2.context.MessageContext;
+import org.apache.axis2.engine.AxisEngine;
+import org.apache.axis2.kernel.TransportUtils;
+import org.apache.axis2.util.MessageContextBuilder;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.io.ByteArrayInputStream;
+
+/**
+ * Processes a complete message received by a {@link TCPNIOServer}. The response (if any) is sent
+ * back as a frame on the same connection by {@link TCPTransportSender}.
+ */
+public class TCPNIOWorker implements Runnable {
+
+    private static final Log log = LogFactory.getLog(TCPNIOWorker.class);
+
+    private TCPEndpoint endpoint;
+    private TCPNIOConnection connection;
+    private byte[] message;
+
+    public TCPNIOWorker(TCPEndpoint endpoint, TCPNIOConnection connection, byte[] message) {
+        this.endpoint = endpoint;
+        this.connection = connection;
+        this.message = message;
+    }
+
+    public void run() {
+
+        MessageContext msgContext = null;
+
+        try {
+            msgContext = endpoint.createMessageContext();
+            msgContext.setIncomingTransportName(Constants.TRANSPORT_TCP);
+
+            TCPOutTransportInfo outInfo = new TCPOutTransportInfo();
+            outInfo.setConnection(connection);
+            outInfo.setContentType(endpoint.getContentType());
+            msgContext.setProperty(Constants.OUT_TRANSPORT_INFO, outInfo);
+
+            SOAPEnvelope envelope = TransportUtils.createSOAPMessage(msgContext,
+                    new ByteArrayInputStream(message), endpoint.getContentType());
+            msgContext.setEnvelope(envelope);
+
+            AxisEngine.receive(msgContext);
+
+        } catch (Exception e) {
+            log.error("Error while processing TCP request through the Axis2 engine", e);
+            try {
+                if (msgContext != null) {
+                    MessageContext faultContext =
+                            MessageContextBuilder.createFaultMessageContext(msgContext, e);
+                    AxisEngine.sendFault(faultContext);
+                }
+            } catch (Exception ex) {
+                log.error("Error while sending the fault response", ex);
+            }
+        } finally {
+            connection.requestCompleted();
+        }
+    }
+}
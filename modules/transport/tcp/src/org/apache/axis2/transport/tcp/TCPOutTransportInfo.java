@@ -28,6 +28,7 @@ public class TCPOutTransportInfo implements OutTransportInfo {
 
     private Socket socket;
     private String contentType;
+    private TCPNIOConnection connection;
 
     public Socket getSocket() {
         return socket;
@@ -44,4 +45,19 @@ public class TCPOutTransportInfo implements OutTransportInfo {
     public String getContentType() {
         return contentType;
     }
+
+    /**
+     * Get the connection the request was received on if the endpoint is in NIO mode. In that case
+     * the response must be sent as a frame on that connection and {@link #getSocket()} returns
+     * <code>null</code>.
+     *
+     * @return the connection, or <code>null</code> if the endpoint uses blocking sockets
+     */
+    public TCPNIOConnection getConnection() {
+        return connection;
+    }
+
+    public void setConnection(TCPNIOConnection connection) {
+        this.connection = connection;
+    }
 }
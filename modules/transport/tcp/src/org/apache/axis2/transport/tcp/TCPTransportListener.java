@@ -29,6 +29,8 @@ import java.util.concurrent.ConcurrentHashMap;
 public class TCPTransportListener extends AbstractTransportListenerEx<TCPEndpoint> {
 
     private Map<TCPEndpoint, TCPServer> serverTable = new ConcurrentHashMap<TCPEndpoint, TCPServer>();
+    private Map<TCPEndpoint, TCPNIOServer> nioServerTable =
+            new ConcurrentHashMap<TCPEndpoint, TCPNIOServer>();
 
     protected void doInit() throws AxisFault {
 
@@ -40,9 +42,15 @@ public class TCPTransportListener extends AbstractTransportListenerEx<TCPEndpoin
 
     protected void startEndpoint(TCPEndpoint endpoint) throws AxisFault {
         try {
-            TCPServer server = new TCPServer(endpoint, workerPool);
-            server.startServer();
-            serverTable.put(endpoint, server);
+            if (endpoint.isNio()) {
+                TCPNIOServer server = new TCPNIOServer(endpoint, workerPool);
+                server.startServer();
+                nioServerTable.put(endpoint, server);
+            } else {
+                TCPServer server = new TCPServer(endpoint, workerPool);
+                server.startServer();
+                serverTable.put(endpoint, server);
+            }
         } catch (IOException e) {
             handleException("Error while starting the TCP endpoint", e);
         }
@@ -54,10 +62,15 @@ public class TCPTransportListener extends AbstractTransportListenerEx<TCPEndpoin
             if (server != null) {
                 server.stopServer();
             }
+            TCPNIOServer nioServer = nioServerTable.get(endpoint);
+            if (nioServer != null) {
+                nioServer.stopServer();
+            }
         } catch (IOException e) {
             log.error("Error while stopping the TCP endpoint", e);
         } finally {
             serverTable.remove(endpoint);
+            nioServerTable.remove(endpoint);
         }
     }
 }
@@ -23,21 +23,30 @@ package org.apache.axis2.transport.tcp;
 import org.apache.axis2.AxisFault;
 import org.apache.axis2.description.OutInAxisOperation;
 import org.apache.axis2.engine.AxisEngine;
+import org.apache.axis2.context.ConfigurationContext;
 import org.apache.axis2.context.MessageContext;
+import org.apache.axis2.description.TransportOutDescription;
 import org.apache.axis2.kernel.OutTransportInfo;
 import org.apache.axis2.kernel.TransportUtils;
 import org.apache.axis2.kernel.MessageFormatter;
 import org.apache.axis2.transport.base.AbstractTransportSender;
 import org.apache.axis2.transport.base.BaseUtils;
+import org.apache.axis2.transport.base.ParamUtils;
 import org.apache.axiom.soap.SOAPEnvelope;
 import org.apache.axiom.om.OMOutputFormat;
 import org.apache.axis2.util.MessageProcessorSelector;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.InetSocketAddress;
 import java.net.Socket;
 import java.net.SocketAddress;
+import java.net.SocketTimeoutException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.Map;
@@ -45,6 +54,25 @@ import java.util.HashMap;
 
 public class TCPTransportSender extends AbstractTransportSender {
 
+    private TCPConnectionPool connectionPool;
+
+    @Override
+    public void init(ConfigurationContext cfgCtx, TransportOutDescription transportOut)
+            throws AxisFault {
+        super.init(cfgCtx, transportOut);
+        connectionPool = new TCPConnectionPool(ParamUtils.getOptionalParamInt(transportOut,
+                TCPConstants.PARAM_MAX_IDLE_CONNECTIONS,
+                TCPConstants.TCP_DEFAULT_MAX_IDLE_CONNECTIONS));
+    }
+
+    @Override
+    public void stop() {
+        if (connectionPool != null) {
+            connectionPool.shutdown();
+        }
+        super.stop();
+    }
+
     public void sendMessage(MessageContext msgContext, String targetEPR,
                             OutTransportInfo outTransportInfo) throws AxisFault {
 
@@ -54,13 +82,17 @@ public class TCPTransportSender extends AbstractTransportSender {
             if (params.containsKey("timeout")) {
                 timeout = Integer.parseInt(params.get("timeout"));
             }
-            Socket socket = openTCPConnection(targetEPR, timeout);
-            msgContext.setProperty(TCPConstants.TCP_OUTPUT_SOCKET, socket);
-
             String contentType = params.get("contentType");
             if (contentType == null) {
                 contentType = TCPConstants.TCP_DEFAULT_CONTENT_TYPE;
             }
+            if (Boolean.parseBoolean(params.get(TCPConstants.URL_PARAM_FRAMED))) {
+                sendFramed(msgContext, targetEPR, timeout, contentType);
+                return;
+            }
+
+            Socket socket = openTCPConnection(targetEPR, timeout);
+            msgContext.setProperty(TCPConstants.TCP_OUTPUT_SOCKET, socket);
 
             try {
                 writeOut(msgContext, socket, contentType);
@@ -73,6 +105,15 @@ public class TCPTransportSender extends AbstractTransportSender {
 
         } else if (outTransportInfo != null && (outTransportInfo instanceof TCPOutTransportInfo)) {
             TCPOutTransportInfo outInfo = (TCPOutTransportInfo) outTransportInfo;
+            if (outInfo.getConnection() != null) {
+                try {
+                    outInfo.getConnection().sendFrame(
+                            formatMessage(msgContext, outInfo.getContentType()));
+                } catch (IOException e) {
+                    handleException("Error while sending a TCP response", e);
+                }
+                return;
+            }
             try {
                 writeOut(msgContext, outInfo.getSocket(), outInfo.getContentType());
             } catch (IOException e) {
@@ -93,6 +134,92 @@ public class TCPTransportSender extends AbstractTransportSender {
         out.flush();
     }
 
+    /**
+     * Send a message as a length prefixed frame over a pooled connection and, if a reply is
+     * expected, read the reply frame from the same connection. A connection is only returned to
+     * the pool after a complete request/reply exchange: after a one way message the server may
+     * still send a fault frame, which the next user of the connection would otherwise read as
+     * its reply.
+     */
+    private void sendFramed(MessageContext msgContext, String targetEPR, int timeout,
+                            String contentType) throws AxisFault {
+        byte[] message = null;
+        try {
+            message = formatMessage(msgContext, contentType);
+        } catch (IOException e) {
+            handleException("Error while serializing a TCP request", e);
+        }
+        boolean replyExpected = !msgContext.getOptions().isUseSeparateListener()
+                && !msgContext.isServerSide() && expectsReply(msgContext);
+        String hostKey = getHostKey(targetEPR);
+        Socket socket = connectionPool.getConnection(hostKey);
+        if (socket != null) {
+            try {
+                writeFrame(socket, timeout, message);
+            } catch (IOException e) {
+                // The server may have closed the idle connection after it was taken from the
+                // pool. The request has not been written, so it is safe to send it again on a
+                // new connection. Once it has been written, the server may have processed it and
+                // any later failure is reported instead.
+                if (log.isDebugEnabled()) {
+                    log.debug("Pooled TCP connection to " + hostKey + " failed; retrying", e);
+                }
+                closeConnection(socket);
+                socket = null;
+            }
+        }
+        if (socket == null) {
+            socket = openTCPConnection(targetEPR, timeout);
+            try {
+                writeFrame(socket, timeout, message);
+            } catch (IOException e) {
+                closeConnection(socket);
+                handleException("Error while sending a TCP request", e);
+            }
+        }
+        if (!replyExpected) {
+            closeConnection(socket);
+            return;
+        }
+        byte[] reply = null;
+        try {
+            reply = readFrame(socket);
+        } catch (SocketTimeoutException e) {
+            closeConnection(socket);
+            handleException("Timeout while waiting for a TCP response", e);
+        } catch (IOException e) {
+            closeConnection(socket);
+            handleException("Error while reading a TCP response", e);
+        }
+        connectionPool.release(hostKey, socket);
+        processReply(msgContext, new ByteArrayInputStream(reply), contentType);
+    }
+
+    private static void writeFrame(Socket socket, int timeout, byte[] message)
+            throws IOException {
+        socket.setSoTimeout(timeout != -1 ? timeout : 0);
+        DataOutputStream out = new DataOutputStream(socket.getOutputStream());
+        out.writeInt(message.length);
+        out.write(message);
+        out.flush();
+    }
+
+    private static byte[] readFrame(Socket socket) throws IOException {
+        DataInputStream in = new DataInputStream(socket.getInputStream());
+        byte[] reply = new byte[in.readInt()];
+        in.readFully(reply);
+        return reply;
+    }
+
+    private byte[] formatMessage(MessageContext msgContext, String contentType) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        MessageFormatter messageFormatter = MessageProcessorSelector.getMessageFormatter(msgContext);
+        OMOutputFormat format = BaseUtils.getOMOutputFormat(msgContext);
+        format.setContentType(contentType);
+        messageFormatter.writeTo(msgContext, format, out, false);
+        return out.toByteArray();
+    }
+
     @Override
     public void cleanup(MessageContext msgContext) throws AxisFault {
         Object socketObj = msgContext.getProperty(TCPConstants.TCP_OUTPUT_SOCKET);
@@ -101,18 +228,31 @@ public class TCPTransportSender extends AbstractTransportSender {
         }
     }
 
+    private boolean expectsReply(MessageContext msgContext) {
+        return msgContext.getAxisOperation() instanceof OutInAxisOperation ||
+                msgContext.getProperty(org.apache.axis2.Constants.PIGGYBACK_MESSAGE) != null;
+    }
+
     private void waitForReply(MessageContext msgContext, Socket socket,
                               String contentType) throws AxisFault {
 
-        if (!(msgContext.getAxisOperation() instanceof OutInAxisOperation) &&
-                msgContext.getProperty(org.apache.axis2.Constants.PIGGYBACK_MESSAGE) == null) {
+        if (!expectsReply(msgContext)) {
             return;
         }
 
+        try {
+            processReply(msgContext, socket.getInputStream(), contentType);
+        } catch (IOException e) {
+            handleException("Error while processing response", e);
+        }
+    }
+
+    private void processReply(MessageContext msgContext, InputStream in,
+                              String contentType) throws AxisFault {
         try {
             MessageContext responseMsgCtx = createResponseMessageContext(msgContext);
             SOAPEnvelope envelope = TransportUtils.createSOAPMessage(msgContext,
-                        socket.getInputStream(), contentType);
+                        in, contentType);
             responseMsgCtx.setEnvelope(envelope);
             AxisEngine.receive(responseMsgCtx);
         } catch (Exception e) {
@@ -139,6 +279,16 @@ public class TCPTransportSender extends AbstractTransportSender {
         return null;
     }
 
+    private String getHostKey(String url) throws AxisFault {
+        try {
+            URI tcpUrl = new URI(url);
+            return tcpUrl.getHost() + ":" + tcpUrl.getPort();
+        } catch (URISyntaxException e) {
+            handleException("Malformed tcp url", e);
+        }
+        return null;
+    }
+
     private Socket openTCPConnection(String url, int timeout) throws AxisFault {
         try {
             URI tcpUrl = new URI(url);
@@ -0,0 +1,109 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.axis2.transport.tcp;
+
+import junit.framework.TestCase;
+
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+
+public class TCPConnectionPoolTest extends TestCase {
+
+    public void testReuseConnection() throws Exception {
+        ServerSocket serverSocket = new ServerSocket(0);
+        try {
+            TCPConnectionPool pool = new TCPConnectionPool(1);
+            String hostKey = "127.0.0.1:" + serverSocket.getLocalPort();
+            assertNull(pool.getConnection(hostKey));
+
+            Socket socket = new Socket();
+            socket.connect(new InetSocketAddress("127.0.0.1", serverSocket.getLocalPort()));
+            Socket peer = serverSocket.accept();
+            pool.release(hostKey, socket);
+            assertSame(socket, pool.getConnection(hostKey));
+            assertNull(pool.getConnection(hostKey));
+
+            // A connection with unread data must not be reused
+            pool.release(hostKey, socket);
+            peer.getOutputStream().write(1);
+            peer.getOutputStream().flush();
+            Thread.sleep(100);
+            assertNull(pool.getConnection(hostKey));
+            assertTrue(socket.isClosed());
+            peer.close();
+        } finally {
+            serverSocket.close();
+        }
+    }
+
+    public void testConnectionClosedByPeer() throws Exception {
+        ServerSocket serverSocket = new ServerSocket(0);
+        try {
+            TCPConnectionPool pool = new TCPConnectionPool(1);
+            String hostKey = "127.0.0.1:" + serverSocket.getLocalPort();
+            Socket socket = new Socket("127.0.0.1", serverSocket.getLocalPort());
+            Socket peer = serverSocket.accept();
+            socket.setSoTimeout(5000);
+            pool.release(hostKey, socket);
+            peer.close();
+            Thread.sleep(100);
+            assertNull(pool.getConnection(hostKey));
+            assertTrue(socket.isClosed());
+        } finally {
+            serverSocket.close();
+        }
+    }
+
+    public void testSoTimeoutRestored() throws Exception {
+        ServerSocket serverSocket = new ServerSocket(0);
+        try {
+            TCPConnectionPool pool = new TCPConnectionPool(1);
+            String hostKey = "127.0.0.1:" + serverSocket.getLocalPort();
+            Socket socket = new Socket("127.0.0.1", serverSocket.getLocalPort());
+            Socket peer = serverSocket.accept();
+            socket.setSoTimeout(5000);
+            pool.release(hostKey, socket);
+            assertSame(socket, pool.getConnection(hostKey));
+            assertEquals(5000, socket.getSoTimeout());
+            socket.close();
+            peer.close();
+        } finally {
+            serverSocket.close();
+        }
+    }
+
+    public void testMaxIdleConnections() throws Exception {
+        ServerSocket serverSocket = new ServerSocket(0);
+        try {
+            TCPConnectionPool pool = new TCPConnectionPool(1);
+            String hostKey = "127.0.0.1:" + serverSocket.getLocalPort();
+            Socket socket1 = new Socket("127.0.0.1", serverSocket.getLocalPort());
+            Socket socket2 = new Socket("127.0.0.1", serverSocket.getLocalPort());
+            pool.release(hostKey, socket1);
+            pool.release(hostKey, socket2);
+            assertTrue(socket2.isClosed());
+            pool.shutdown();
+            assertTrue(socket1.isClosed());
+        } finally {
+            serverSocket.close();
+        }
+    }
+}
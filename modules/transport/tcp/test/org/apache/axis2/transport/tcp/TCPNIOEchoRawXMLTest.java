@@ -0,0 +1,221 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.axis2.transport.tcp;
+
+import junit.framework.TestCase;
+import org.apache.axiom.om.OMAbstractFactory;
+import org.apache.axiom.om.OMElement;
+import org.apache.axiom.om.OMFactory;
+import org.apache.axiom.om.OMNamespace;
+import org.apache.axis2.AxisFault;
+import org.apache.axis2.Constants;
+import org.apache.axis2.addressing.EndpointReference;
+import org.apache.axis2.client.Options;
+import org.apache.axis2.client.ServiceClient;
+import org.apache.axis2.context.ConfigurationContext;
+import org.apache.axis2.context.MessageContext;
+import org.apache.axis2.description.AxisService;
+import org.apache.axis2.description.Parameter;
+import org.apache.axis2.engine.MessageReceiver;
+import org.apache.axis2.util.Utils;
+
+import javax.xml.namespace.QName;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.net.Socket;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tests the selector based server ({@link TCPNIOServer}) and the framed mode of
+ * {@link TCPTransportSender}.
+ */
+public class TCPNIOEchoRawXMLTest extends TestCase {
+    private static final int ECHO_PORT = 5557;
+    private static final int ONE_WAY_PORT = 5558;
+    private static final int IDLE_TIMEOUT = 500;
+
+    private static final String REQUEST =
+            "<soapenv:Envelope xmlns:soapenv='http://schemas.xmlsoap.org/soap/envelope/'>"
+            + "<soapenv:Body><my:echoOMElement xmlns:my='http://localhost/my'>"
+            + "<my:myValue>Isaac Asimov, The Foundation Trilogy</my:myValue>"
+            + "</my:echoOMElement></soapenv:Body></soapenv:Envelope>";
+
+    private EndpointReference targetEPR =
+            new EndpointReference("tcp://127.0.0.1:" + ECHO_PORT
+                    + "/axis2/services/EchoXMLService/echoOMElement?framed=true");
+    private EndpointReference oneWayEPR =
+            new EndpointReference("tcp://127.0.0.1:" + ONE_WAY_PORT
+                    + "/axis2/services/OneWayService/ping?framed=true");
+    private QName serviceName = new QName("EchoXMLService");
+    private QName oneWayServiceName = new QName("OneWayService");
+    private QName operationName = new QName("echoOMElement");
+
+    private AxisService clientService;
+    private ConfigurationContext configContext;
+    private CountDownLatch oneWayLatch;
+
+    private static void addNIOParameters(AxisService service, int port) throws AxisFault {
+        service.addParameter(new Parameter(TCPConstants.PARAM_PORT, String.valueOf(port)));
+        service.addParameter(new Parameter(TCPConstants.PARAM_NIO, "true"));
+        service.addParameter(new Parameter(TCPConstants.PARAM_IDLE_TIMEOUT,
+                String.valueOf(IDLE_TIMEOUT)));
+    }
+
+    protected void setUp() throws Exception {
+        UtilsTCPServer.start();
+
+        AxisService service = Utils.createSimpleService(serviceName, Echo.class.getName(),
+                operationName);
+        addNIOParameters(service, ECHO_PORT);
+        UtilsTCPServer.deployService(service);
+
+        oneWayLatch = new CountDownLatch(2);
+        AxisService oneWayService = Utils.createSimpleInOnlyService(oneWayServiceName,
+                new MessageReceiver() {
+                    public void receive(MessageContext messageCtx) throws AxisFault {
+                        oneWayLatch.countDown();
+                    }
+                }, new QName("ping"));
+        addNIOParameters(oneWayService, ONE_WAY_PORT);
+        UtilsTCPServer.deployService(oneWayService);
+
+        clientService = Utils.createSimpleServiceforClient(serviceName, Echo.class.getName(),
+                operationName);
+        configContext = UtilsTCPServer.createClientConfigurationContext();
+    }
+
+    protected void tearDown() throws Exception {
+        UtilsTCPServer.unDeployService(serviceName);
+        UtilsTCPServer.unDeployService(oneWayServiceName);
+        UtilsTCPServer.stop();
+        configContext.terminate();
+    }
+
+    private OMElement createPayload(String name) {
+        OMFactory fac = OMAbstractFactory.getOMFactory();
+        OMNamespace omNs = fac.createOMNamespace("http://localhost/my", "my");
+        OMElement method = fac.createOMElement(name, omNs);
+        OMElement value = fac.createOMElement("myValue", omNs);
+        value.setText("Isaac Asimov, The Foundation Trilogy");
+        method.addChild(value);
+        return method;
+    }
+
+    private OMElement echo(ServiceClient sender) throws Exception {
+        OMElement result = sender.sendReceive(operationName, createPayload("echoOMElement"));
+        assertEquals("echoOMElementResponse", result.getLocalName());
+        sender.cleanupTransport();
+        return result;
+    }
+
+    public void testEchoXMLSync() throws Exception {
+        Options options = new Options();
+        options.setTo(targetEPR);
+        options.setTransportInProtocol(Constants.TRANSPORT_TCP);
+        options.setAction(Constants.AXIS2_NAMESPACE_URI + "/" + operationName.getLocalPart());
+
+        ServiceClient sender = new ServiceClient(configContext, clientService);
+        sender.setOptions(options);
+        // The second request is sent over the pooled connection
+        echo(sender);
+        echo(sender);
+        // The server closes the pooled connection once it has been idle for too long; the
+        // sender must then fall back to a new connection
+        Thread.sleep(IDLE_TIMEOUT * 3);
+        echo(sender);
+        sender.cleanup();
+    }
+
+    public void testInOnly() throws Exception {
+        Options options = new Options();
+        options.setTo(oneWayEPR);
+        options.setAction(Constants.AXIS2_NAMESPACE_URI + "/ping");
+
+        ServiceClient sender = new ServiceClient(configContext, null);
+        sender.setOptions(options);
+        sender.fireAndForget(createPayload("ping"));
+        sender.fireAndForget(createPayload("ping"));
+        assertTrue(oneWayLatch.await(10, TimeUnit.SECONDS));
+        sender.cleanup();
+    }
+
+    /**
+     * Requests pipelined on one connection must be answered in order, since the frames have no
+     * correlation ID.
+     */
+    public void testPipelinedRequests() throws Exception {
+        Socket socket = new Socket("127.0.0.1", ECHO_PORT);
+        try {
+            socket.setSoTimeout(10000);
+            DataOutputStream out = new DataOutputStream(socket.getOutputStream());
+            DataInputStream in = new DataInputStream(socket.getInputStream());
+            int count = 10;
+            for (int i = 0; i < count; i++) {
+                byte[] request = REQUEST.replace("Isaac Asimov", "request-" + i).getBytes("UTF-8");
+                out.writeInt(request.length);
+                out.write(request);
+            }
+            out.flush();
+            for (int i = 0; i < count; i++) {
+                byte[] response = new byte[in.readInt()];
+                in.readFully(response);
+                assertTrue(new String(response, "UTF-8").contains("request-" + i + ","));
+            }
+        } finally {
+            socket.close();
+        }
+    }
+
+    public void testFraming() throws Exception {
+        Socket socket = new Socket("127.0.0.1", ECHO_PORT);
+        try {
+            socket.setSoTimeout(10000);
+            DataOutputStream out = new DataOutputStream(socket.getOutputStream());
+            DataInputStream in = new DataInputStream(socket.getInputStream());
+            byte[] request = REQUEST.getBytes("UTF-8");
+            // Two requests on the same connection; the first one is split to check that partial
+            // frames are reassembled
+            out.writeShort(0);
+            out.flush();
+            Thread.sleep(100);
+            out.writeShort(request.length);
+            out.write(request, 0, 10);
+            out.flush();
+            Thread.sleep(100);
+            out.write(request, 10, request.length - 10);
+            out.flush();
+            for (int i = 0; i < 2; i++) {
+                byte[] response = new byte[in.readInt()];
+                in.readFully(response);
+                assertTrue(new String(response, "UTF-8").contains("echoOMElementResponse"));
+                if (i == 0) {
+                    out.writeInt(request.length);
+                    out.write(request);
+                    out.flush();
+                }
+            }
+            // The connection is closed by the server once the idle timeout expires
+            assertEquals(-1, in.read());
+        } finally {
+            socket.close();
+        }
+    }
+}